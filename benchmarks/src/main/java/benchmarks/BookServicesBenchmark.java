@@ -0,0 +1,83 @@
+package benchmarks;
+
+import factory.ConnectionFactory;
+import factory.ServicesFactory;
+import models.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import services.BookServices;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the queries of {@link BookServices} against the {@link EmbeddedDatabase}, including
+ * the hydration of the books with their authors, publishers and genres. The reference caches
+ * are warm after the first iteration, as they are in the application.
+ *
+ * @author Lucas da Paz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class BookServicesBenchmark {
+	/**
+	 * Number of books of the catalog; override with {@code -p books=<sizes>}.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int books;
+
+	private ConnectionFactory connectionFactory;
+	private BookServices bookServices;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		connectionFactory = EmbeddedDatabase.open(books);
+		bookServices = new ServicesFactory(connectionFactory).createBookServices();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		connectionFactory.close();
+	}
+
+	@Benchmark
+	public Set<Book> getAll() {
+		return bookServices.getAll();
+	}
+
+	@Benchmark
+	public Book getById() {
+		return bookServices.getById(1 + ThreadLocalRandom.current().nextInt(books));
+	}
+
+	@Benchmark
+	public Set<Book> filterByTitle() {
+		return bookServices.filterByTitle("silêncio");
+	}
+
+	@Benchmark
+	public Set<Book> filterByAuthor() {
+		return bookServices.filterByAuthor("Natália");
+	}
+
+	@Benchmark
+	public Set<Book> filterByIsbn() {
+		return bookServices.filterByIsbn("97800000");
+	}
+}
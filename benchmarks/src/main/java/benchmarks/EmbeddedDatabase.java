@@ -0,0 +1,104 @@
+package benchmarks;
+
+import benchmarks.generator.CatalogGenerator;
+import benchmarks.generator.CatalogSink;
+import benchmarks.generator.JdbcCatalogSink;
+import exceptions.DataAccessException;
+import factory.ConnectionFactory;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * <p>Embedded H2 database, in MySQL mode, holding a synthetic catalog of a given size, so the
+ * benchmarks run the queries of the services without an external MySQL server; its schema is
+ * created by the {@link services.dialect.H2Dialect dialect} of the factory.</p>
+ * <p>Each catalog size is kept in its own database file, under the directory in the
+ * {@value #DIRECTORY_PROPERTY} system property or {@value #DEFAULT_DIRECTORY}; a catalog is
+ * generated by the {@link CatalogGenerator}, with its default seed, only if its file does not
+ * hold the expected number of books yet, so the large ones are generated once and reused by
+ * the following runs.</p>
+ *
+ * @author Lucas da Paz
+ */
+public final class EmbeddedDatabase {
+	/**
+	 * Name of the system property that may point to the directory of the database files.
+	 */
+	public static final String DIRECTORY_PROPERTY = "benchmarks.databaseDirectory";
+	/**
+	 * Directory of the database files, unless another one is set in {@value #DIRECTORY_PROPERTY}.
+	 */
+	public static final String DEFAULT_DIRECTORY = "target/benchmark-db";
+
+	private EmbeddedDatabase() {
+	}
+
+	/**
+	 * Opens the database of the catalog with the number of books passed as an argument,
+	 * creating and seeding it if needed.
+	 *
+	 * @param books The number of books of the catalog.
+	 * @return A factory that lends connections to the database; must be closed after use.
+	 */
+	public static ConnectionFactory open(int books) {
+		return open("catalog", books);
+	}
+
+	/**
+	 * Opens a database of its own for a catalog with the number of books passed as an argument,
+	 * creating and seeding it if needed; meant for runs that write to the catalog, which is
+	 * generated again once its number of books changes.
+	 *
+	 * @param name  The prefix of the database file.
+	 * @param books The number of books of the catalog.
+	 * @return A factory that lends connections to the database; must be closed after use.
+	 */
+	public static ConnectionFactory open(String name, int books) {
+		Path file = Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY), "%s-%d".formatted(name, books));
+
+		Properties properties = new Properties();
+		properties.setProperty("db.url", "jdbc:h2:file:%s".formatted(file.toAbsolutePath()));
+		properties.setProperty("db.username", "sa");
+		properties.setProperty("db.password", "");
+		ConnectionFactory connectionFactory = new ConnectionFactory(properties);
+
+		try (Connection connection = connectionFactory.getConnection(); Statement statement = connection.createStatement()) {
+			if (countBooks(statement) == books) return connectionFactory;
+
+			System.err.printf("Gerando catálogo com %d livros em %s%n", books, file);
+			truncate(statement);
+		} catch (SQLException e) {
+			connectionFactory.close();
+			throw new DataAccessException(e);
+		}
+
+		try (CatalogSink sink = new JdbcCatalogSink(connectionFactory)) {
+			new CatalogGenerator(books, CatalogGenerator.DEFAULT_SEED).generate(sink);
+		} catch (RuntimeException e) {
+			connectionFactory.close();
+			throw e;
+		}
+
+		return connectionFactory;
+	}
+
+	private static void truncate(Statement statement) throws SQLException {
+		statement.execute("SET REFERENTIAL_INTEGRITY FALSE;");
+		for (String table : new String[]{"book_genre", "book", "author", "publisher", "genre", "change_log"}) {
+			statement.execute("TRUNCATE TABLE `%s` RESTART IDENTITY;".formatted(table));
+		}
+		statement.execute("SET REFERENTIAL_INTEGRITY TRUE;");
+	}
+
+	private static int countBooks(Statement statement) throws SQLException {
+		try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM `book`;")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
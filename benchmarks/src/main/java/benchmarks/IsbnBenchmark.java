@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Isbn;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation and conversion methods of {@link Isbn}, with valid and invalid input.
+ *
+ * @author Lucas da Paz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsbnBenchmark {
+	// not constants, so the JIT cannot fold the calls
+	public String isbn10 = "8571647143";
+	public String invalidIsbn10 = "8571647144";
+	public String isbn13 = "9788571647145";
+	public String invalidIsbn13 = "9788571647146";
+
+	@Benchmark
+	public boolean isValidIsbn10() {
+		return Isbn.isValidIsbn10(isbn10);
+	}
+
+	@Benchmark
+	public boolean isValidIsbn10Invalid() {
+		return Isbn.isValidIsbn10(invalidIsbn10);
+	}
+
+	@Benchmark
+	public boolean isValidIsbn13() {
+		return Isbn.isValidIsbn13(isbn13);
+	}
+
+	@Benchmark
+	public boolean isValidIsbn13Invalid() {
+		return Isbn.isValidIsbn13(invalidIsbn13);
+	}
+
+	@Benchmark
+	public String convertToIsbn13() {
+		return Isbn.convertToIsbn13(isbn10);
+	}
+}
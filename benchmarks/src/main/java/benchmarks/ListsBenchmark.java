@@ -0,0 +1,64 @@
+package benchmarks;
+
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Publisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Lists;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Lists#toSortedList}, run by the list views on every refresh, with sets of
+ * books of different sizes.
+ *
+ * @author Lucas da Paz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListsBenchmark {
+	/**
+	 * Number of books in the set; override with {@code -p size=<sizes>}.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	private Set<Book> books;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(size);
+		Author author = new Author(1, "Natália Rocha", "Brasileira", size);
+		Publisher publisher = new Publisher(1, "Editora Costa 1", size);
+		books = new HashSet<>(size * 2);
+
+		for (int id = 1; id <= size; id++) {
+			String title = "Livro %08d".formatted(random.nextInt(Integer.MAX_VALUE));
+			books.add(new Book(id, title, "9788571647145", 320, false, Format.PAPERBACK, author, publisher, 59.9f));
+		}
+	}
+
+	@Benchmark
+	public List<Book> toSortedList() {
+		return Lists.toSortedList(books);
+	}
+}
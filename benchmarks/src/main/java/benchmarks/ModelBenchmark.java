@@ -0,0 +1,83 @@
+package benchmarks;
+
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Publisher;
+import models.dto.BookDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the model code run for every book the views handle: {@link Book#hashCode()} and
+ * {@link Book#equals}, used by the sets returned by the services, and the validation of
+ * {@link BookDto}, run by every create and update.
+ *
+ * @author Lucas da Paz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+	private Author author;
+	private Publisher publisher;
+	private Book book;
+	private Book sameBook;
+	private Book otherBook;
+
+	@Setup
+	public void setUp() {
+		author = new Author(1, "Natália Rocha", "Brasileira", 2);
+		publisher = new Publisher(1, "Editora Costa 1", 2);
+		book = newBook(1, "Sombra do rio");
+		sameBook = newBook(1, "Sombra do rio");
+		otherBook = newBook(2, "Sombra do rio");
+	}
+
+	@Benchmark
+	public int bookHashCode() {
+		return book.hashCode();
+	}
+
+	@Benchmark
+	public boolean bookEquals() {
+		return book.equals(sameBook);
+	}
+
+	@Benchmark
+	public boolean bookNotEquals() {
+		return book.equals(otherBook);
+	}
+
+	@Benchmark
+	public BookDto bookDtoFromIsbn10() {
+		return new BookDto("Sombra do rio", "8571647143", null, 320, false, Format.PAPERBACK, author, publisher,
+			LocalDate.of(2024, 10, 14), 59.9f
+		);
+	}
+
+	@Benchmark
+	public BookDto bookDtoFromIsbn13() {
+		return new BookDto("Sombra do rio", null, "9788571647145", 320, false, Format.PAPERBACK, author, publisher,
+			LocalDate.of(2024, 10, 14), 59.9f
+		);
+	}
+
+	private Book newBook(int id, String title) {
+		return new Book(id, title, "9788571647145", 320, false, Format.PAPERBACK, author, publisher, 59.9f);
+	}
+}
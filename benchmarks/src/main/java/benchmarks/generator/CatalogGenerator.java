@@ -0,0 +1,294 @@
+package benchmarks.generator;
+
+import factory.ConnectionFactory;
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Genre;
+import models.Publisher;
+import utils.Isbn;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * <p>Generates synthetic catalogs of any size with realistic distributions:</p>
+ * <ul>
+ *   <li>author and publisher popularity follow {@link ZipfDistribution Zipf distributions},
+ *   so a few authors have hundreds of books and most have one or two;</li>
+ *   <li>every book has one to three distinct genres, as required by
+ *   {@link controller.BookController#create}, the most common genres being drawn more often;</li>
+ *   <li>every book has a valid and unique ISBN-13 and, most of them, the ISBN-10 it was
+ *   converted from by {@link Isbn#convertToIsbn13};</li>
+ *   <li>every {@link Format} is used, paperbacks and ebooks more than the others.</li>
+ * </ul>
+ * <p>Rows are produced one at a time and sent to a {@link CatalogSink}, so catalogs of millions
+ * of books are generated in constant memory, apart from the authors, publishers and genres.
+ * The catalog depends only on the sizes and the seed: the same arguments always generate
+ * the same rows.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class CatalogGenerator {
+	/**
+	 * Seed used unless another one is chosen.
+	 */
+	public static final long DEFAULT_SEED = 20241014L;
+
+	private static final String[] GENRES = {
+		"Ficção", "Romance", "Clássicos", "Não-ficção", "História", "Biografia", "Mistério", "Thriller", "Fantasia",
+		"Ficção científica", "Terror", "Poesia", "Contos", "Crônicas", "Teatro", "Humor", "Aventura", "Noir",
+		"Jornalismo", "Filosofia", "Psicologia", "Ciência", "Política", "Economia", "Arte", "Música", "Viagem",
+		"Culinária", "Infantil", "Juvenil", "Quadrinhos", "Religião", "Autoajuda", "Ensaios", "Literatura brasileira",
+		"Literatura portuguesa", "Literatura latino-americana", "Literatura russa", "Western", "Ficção policial"
+	};
+	private static final String[] FIRST_NAMES = {
+		"Ana", "Bruno", "Carla", "Daniel", "Elisa", "Fábio", "Gabriela", "Henrique", "Isabel", "João", "Lúcia",
+		"Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Tiago", "Vera", "William", "Clarice", "Jorge",
+		"Cecília", "Graciliano", "Rachel", "Érico", "Lygia", "Machado", "Hilda", "Rubem", "Adélia", "Raduan"
+	};
+	private static final String[] LAST_NAMES = {
+		"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira", "Costa", "Almeida", "Ferreira", "Rodrigues",
+		"Gomes", "Martins", "Araújo", "Barbosa", "Ribeiro", "Carvalho", "Rocha", "Moreira", "Nunes", "Mendes",
+		"Amado", "Queiroz", "Veríssimo", "Telles", "Fonseca", "Nassar", "Prado", "Meireles", "Bandeira", "Andrade"
+	};
+	private static final String[] NATIONALITIES = {
+		"Brasileiro", "Brasileiro", "Brasileiro", "Português", "Argentino", "Norte-americano", "Britânico",
+		"Francês", "Russo", "Uruguaio", "Chileno", "Colombiano", "Israelense", "Japonês", "Italiano", "Alemão"
+	};
+	private static final String[] PUBLISHER_NAMES = {
+		"Companhia", "Record", "Rocco", "Intrínseca", "Sextante", "Aleph", "Todavia", "Autêntica", "Globo",
+		"Objetiva", "Zahar", "Darkside", "Nova Fronteira", "Martin Claret", "Penguin", "L&PM", "Alfaguara", "Moderna"
+	};
+	private static final String[] NOUNS = {
+		"mar", "sol", "noite", "cidade", "tempo", "memória", "caminho", "silêncio", "casa", "rio", "sombra", "vento",
+		"jardim", "viagem", "segredo", "ilha", "fogo", "estrada", "espelho", "deserto", "sertão", "labirinto",
+		"relógio", "herança", "tempestade", "fronteira", "biblioteca", "promessa", "naufrágio", "ausência"
+	};
+	private static final String[] ADJECTIVES = {
+		"perdido", "branco", "último", "antigo", "secreto", "invisível", "distante", "eterno", "quieto", "partido",
+		"esquecido", "proibido", "profundo", "vermelho", "breve", "estrangeiro", "imóvel", "selvagem"
+	};
+	private static final Format[] FORMATS = Format.values();
+	private static final int[] FORMAT_WEIGHTS = {15, 45, 35, 5};
+	private static final LocalDate FIRST_PURCHASE = LocalDate.of(2000, 1, 1);
+	private static final int PURCHASE_DAYS = 9_000;
+	private static final long ISBN_BODIES = 1_000_000_000L;
+	private static final long ISBN_MULTIPLIER = 7_919L;
+
+	private final int books;
+	private final int authors;
+	private final int publishers;
+	private final long seed;
+
+	/**
+	 * Constructs an instance of {@link CatalogGenerator} with one author for every 10 books
+	 * and one publisher for every 100 books.
+	 *
+	 * @param books The number of books.
+	 * @param seed  The seed of the random choices.
+	 */
+	public CatalogGenerator(int books, long seed) {
+		this(books, Math.max(10, books / 10), Math.max(5, books / 100), seed);
+	}
+
+	/**
+	 * Constructs an instance of {@link CatalogGenerator}.
+	 *
+	 * @param books      The number of books.
+	 * @param authors    The number of authors.
+	 * @param publishers The number of publishers.
+	 * @param seed       The seed of the random choices.
+	 */
+	public CatalogGenerator(int books, int authors, int publishers, long seed) {
+		if (books < 0 || authors <= 0 || publishers <= 0 || books >= ISBN_BODIES) {
+			throw new IllegalArgumentException("Tamanho de catálogo inválido: %d livros, %d autores, %d editoras"
+				.formatted(books, authors, publishers));
+		}
+
+		this.books = books;
+		this.authors = authors;
+		this.publishers = publishers;
+		this.seed = seed;
+	}
+
+	/**
+	 * Generates the catalog and sends every row to the sink passed as an argument, calling
+	 * {@link CatalogSink#finish()} at the end; the sink is not closed.
+	 *
+	 * @param sink The destination of the rows.
+	 */
+	public void generate(CatalogSink sink) {
+		SplittableRandom random = new SplittableRandom(seed);
+
+		Author[] authorById = new Author[authors + 1];
+		for (int id = 1; id <= authors; id++) {
+			authorById[id] = new Author(id, "%s %s".formatted(pick(FIRST_NAMES, random), pick(LAST_NAMES, random)),
+				pick(NATIONALITIES, random), 0
+			);
+			sink.author(authorById[id]);
+		}
+
+		Publisher[] publisherById = new Publisher[publishers + 1];
+		for (int id = 1; id <= publishers; id++) {
+			String name = id <= PUBLISHER_NAMES.length ? PUBLISHER_NAMES[id - 1] : "%s %s".formatted(
+				pick(PUBLISHER_NAMES, random), pick(LAST_NAMES, random));
+			publisherById[id] = new Publisher(id, name, 0);
+			sink.publisher(publisherById[id]);
+		}
+
+		Genre[] genreById = new Genre[GENRES.length + 1];
+		for (int id = 1; id <= GENRES.length; id++) {
+			genreById[id] = new Genre(id, GENRES[id - 1], 0);
+			sink.genre(genreById[id]);
+		}
+
+		ZipfDistribution authorPopularity = new ZipfDistribution(authors, 1.0, random);
+		ZipfDistribution publisherPopularity = new ZipfDistribution(publishers, 0.8, random);
+		ZipfDistribution genrePopularity = new ZipfDistribution(GENRES.length, 0.8, random);
+
+		for (int id = 1; id <= books; id++) {
+			Book book = newBook(id, random, authorById[authorPopularity.sample(random)],
+				publisherById[publisherPopularity.sample(random)]);
+
+			int genres = random.nextInt(100) < 50 ? 1 : random.nextInt(100) < 70 ? 2 : 3;
+			while (book.getGenres().size() < genres) book.addGenre(genreById[genrePopularity.sample(random)]);
+
+			sink.book(book);
+		}
+
+		sink.finish();
+	}
+
+	private Book newBook(int id, SplittableRandom random, Author author, Publisher publisher) {
+		String isbn10 = isbn10(id);
+		Format format = pickFormat(random);
+		// log-normal, with a median of about 280 pages
+		int pages = (int) Math.min(2_000, Math.max(24, Math.exp(5.6 + 0.5 * gaussian(random))));
+		float price = format == Format.EBOOK && random.nextInt(10) == 0 ? 0 : (500 + random.nextInt(25_000)) / 100f;
+
+		Book book = new Book(id, title(id, random), Isbn.convertToIsbn13(isbn10), pages, random.nextInt(100) < 40,
+			format, author, publisher, price
+		);
+
+		if (random.nextInt(10) < 7) book.setIsbn10(isbn10);
+		if (random.nextInt(10) < 9) book.setPurchaseDate(FIRST_PURCHASE.plusDays(random.nextInt(PURCHASE_DAYS)));
+		if (random.nextInt(10) == 0) {
+			book.setReview("Uma leitura sobre %s e %s, %s do começo ao fim.".formatted(
+				pick(NOUNS, random), pick(NOUNS, random), pick(ADJECTIVES, random)));
+		}
+
+		return book;
+	}
+
+	/**
+	 * @return The value of the format in the {@code ENUM} column of the {@code book} table.
+	 */
+	static String label(Format format) {
+		return capitalize(format.name().toLowerCase());
+	}
+
+	private static String title(int id, SplittableRandom random) {
+		String noun = pick(NOUNS, random);
+		String title = switch (random.nextInt(4)) {
+			case 0 -> "Memórias de %s".formatted(noun);
+			case 1 -> "%s de %s".formatted(capitalize(noun), pick(NOUNS, random));
+			case 2 -> "%s e %s".formatted(capitalize(noun), pick(NOUNS, random));
+			default -> capitalize(noun);
+		};
+
+		// titles repeat in large catalogs, as they do in real ones; the series number keeps some apart
+		return random.nextInt(20) == 0 ? "%s #%d".formatted(title, 1 + id % 7) : title;
+	}
+
+	/**
+	 * @return A valid ISBN-10, unique for each ID: its first nine digits are the ID multiplied
+	 * by a number coprime to 10<sup>9</sup>, which maps distinct IDs to distinct digits.
+	 */
+	private static String isbn10(int id) {
+		String digits = "%09d".formatted(id * ISBN_MULTIPLIER % ISBN_BODIES);
+		int sum = 0;
+
+		for (int i = 0; i < 9; i++) sum += (digits.charAt(i) - '0') * (10 - i);
+
+		int check = (11 - sum % 11) % 11;
+		return digits + (check == 10 ? "X" : String.valueOf(check));
+	}
+
+	private static Format pickFormat(SplittableRandom random) {
+		int value = random.nextInt(100);
+
+		for (int i = 0; i < FORMATS.length; i++) {
+			value -= FORMAT_WEIGHTS[i];
+			if (value < 0) return FORMATS[i];
+		}
+
+		return FORMATS[FORMATS.length - 1];
+	}
+
+	private static double gaussian(SplittableRandom random) {
+		// Box-Muller
+		return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+	}
+
+	private static String pick(String[] values, SplittableRandom random) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String capitalize(String word) {
+		return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+	}
+
+	/**
+	 * Generates a catalog into the application database, configured as described in
+	 * {@link ConnectionFactory}, or into a dump file.
+	 * <pre>
+	 * CatalogGenerator --books 100000 [--seed 42] [--authors 10000] [--publishers 1000] [--dump catalog.sql.gz]
+	 * </pre>
+	 */
+	public static void main(String... args) {
+		int books = -1, authors = -1, publishers = -1;
+		long seed = DEFAULT_SEED;
+		Path dump = null;
+
+		for (int i = 0; i < args.length; i++) {
+			String value = i + 1 < args.length ? args[i + 1] : null;
+
+			switch (args[i]) {
+				case "--books" -> books = Integer.parseInt(value);
+				case "--authors" -> authors = Integer.parseInt(value);
+				case "--publishers" -> publishers = Integer.parseInt(value);
+				case "--seed" -> seed = Long.parseLong(value);
+				case "--dump" -> dump = Path.of(value);
+				default -> throw new IllegalArgumentException("Argumento desconhecido: %s".formatted(args[i]));
+			}
+			i++;
+		}
+
+		if (books < 0) throw new IllegalArgumentException("Informe o número de livros com --books");
+
+		CatalogGenerator generator = new CatalogGenerator(books,
+			authors > 0 ? authors : Math.max(10, books / 10),
+			publishers > 0 ? publishers : Math.max(5, books / 100),
+			seed
+		);
+		long start = System.nanoTime();
+
+		if (dump != null) {
+			try (CatalogSink sink = new SqlDumpCatalogSink(dump)) {
+				generator.generate(sink);
+			}
+		} else {
+			ConnectionFactory connectionFactory = ConnectionFactory.getDefault();
+
+			try (CatalogSink sink = new JdbcCatalogSink(connectionFactory)) {
+				generator.generate(sink);
+			} finally {
+				connectionFactory.close();
+			}
+		}
+
+		System.out.printf("%d livros gerados em %d s%n", books, (System.nanoTime() - start) / 1_000_000_000L);
+	}
+}
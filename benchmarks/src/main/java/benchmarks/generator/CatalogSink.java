@@ -0,0 +1,38 @@
+package benchmarks.generator;
+
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+
+/**
+ * Destination of the rows produced by the {@link CatalogGenerator}. Rows are sent in an order
+ * that satisfies the foreign keys: every author, publisher and genre before the books, and
+ * every book, with its genres, once.
+ *
+ * @author Lucas da Paz
+ */
+public interface CatalogSink extends AutoCloseable {
+	void author(Author author);
+
+	void publisher(Publisher publisher);
+
+	void genre(Genre genre);
+
+	/**
+	 * @param book The book, whose {@link Book#getGenres() genres} must be linked to it.
+	 */
+	void book(Book book);
+
+	/**
+	 * Writes the rows still buffered; called once, after the last row.
+	 */
+	void finish();
+
+	/**
+	 * Releases the resources of the sink, discarding the rows not yet written if
+	 * {@link #finish()} was not called.
+	 */
+	@Override
+	void close();
+}
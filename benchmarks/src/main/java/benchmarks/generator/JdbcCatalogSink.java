@@ -0,0 +1,232 @@
+package benchmarks.generator;
+
+import exceptions.DataAccessException;
+import factory.ConnectionFactory;
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+/**
+ * <p>Inserts the generated rows into a database with batched statements, committing every
+ * {@link #BATCH_SIZE} rows; works with MySQL and with the embedded H2 database of the
+ * benchmarks. Rows keep the IDs they were generated with, so the tables must be empty.</p>
+ * <p>The {@code books_owned} counters are computed once, at the end; the triggers of both databases
+ * keep them as well, and computing them again is harmless.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class JdbcCatalogSink implements CatalogSink {
+	/**
+	 * Maximum number of rows sent in a single batch and committed in a single transaction.
+	 */
+	public static final int BATCH_SIZE = 1_000;
+
+	private static final String[] TABLES = {"author", "publisher", "genre", "book"};
+	private static final String[] COUNT_STATEMENTS = {
+		"""
+		UPDATE `author` a
+		SET `books_owned` = (SELECT COUNT(*) FROM `book` b WHERE b.`author_id` = a.`id`);
+		""",
+		"""
+		UPDATE `publisher` p
+		SET `books_owned` = (SELECT COUNT(*) FROM `book` b WHERE b.`publisher_id` = p.`id`);
+		""",
+		"""
+		UPDATE `genre` g
+		SET `books_owned` = (SELECT COUNT(*) FROM `book_genre` bg WHERE bg.`genre_id` = g.`id`);
+		"""
+	};
+
+	private final Connection connection;
+	private final PreparedStatement authorPs;
+	private final PreparedStatement publisherPs;
+	private final PreparedStatement genrePs;
+	private final PreparedStatement bookPs;
+	private final PreparedStatement bookGenrePs;
+	private final int[] lastIds = new int[TABLES.length];
+	private int pending;
+	private boolean finished;
+
+	/**
+	 * Borrows a connection, held until the sink is closed.
+	 *
+	 * @param connectionFactory The factory that lends the connection.
+	 * @throws IllegalStateException If any of the tables already has rows.
+	 * @throws DataAccessException   If a database access error occurs.
+	 */
+	public JdbcCatalogSink(ConnectionFactory connectionFactory) {
+		try {
+			connection = connectionFactory.getConnection("CatalogGenerator");
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+
+		try {
+			requireEmpty();
+			connection.setAutoCommit(false);
+
+			authorPs = connection.prepareStatement("INSERT INTO `author` (`id`, `name`, `nationality`) VALUES (?, ?, ?);");
+			publisherPs = connection.prepareStatement("INSERT INTO `publisher` (`id`, `name`) VALUES (?, ?);");
+			genrePs = connection.prepareStatement("INSERT INTO `genre` (`id`, `name`) VALUES (?, ?);");
+			bookPs = connection.prepareStatement("""
+					INSERT INTO `book`
+						(`id`, `title`, `isbn_10`, `isbn_13`, `pages`, `read`, `format`, `author_id`, `publisher_id`,
+						`purchase_date`, `price`, `review`)
+					VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
+				""");
+			bookGenrePs = connection.prepareStatement("INSERT INTO `book_genre` (`book_id`, `genre_id`) VALUES (?, ?);");
+		} catch (SQLException e) {
+			close();
+			throw new DataAccessException(e);
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void author(Author author) {
+		try {
+			authorPs.setInt(1, author.getId());
+			authorPs.setString(2, author.getName());
+			authorPs.setString(3, author.getNationality());
+			add(authorPs, 0, author.getId());
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	@Override
+	public void publisher(Publisher publisher) {
+		try {
+			publisherPs.setInt(1, publisher.getId());
+			publisherPs.setString(2, publisher.getName());
+			add(publisherPs, 1, publisher.getId());
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	@Override
+	public void genre(Genre genre) {
+		try {
+			genrePs.setInt(1, genre.getId());
+			genrePs.setString(2, genre.getName());
+			add(genrePs, 2, genre.getId());
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	@Override
+	public void book(Book book) {
+		try {
+			bookPs.setInt(1, book.getId());
+			bookPs.setString(2, book.getTitle());
+			bookPs.setString(3, book.getIsbn10());
+			bookPs.setString(4, book.getIsbn13());
+			bookPs.setInt(5, book.getPages());
+			bookPs.setBoolean(6, book.isRead());
+			bookPs.setString(7, CatalogGenerator.label(book.getFormat()));
+			bookPs.setInt(8, book.getAuthor().getId());
+			bookPs.setInt(9, book.getPublisher().getId());
+			if (book.getPurchaseDate() != null) bookPs.setDate(10, Date.valueOf(book.getPurchaseDate()));
+			else bookPs.setNull(10, Types.DATE);
+			bookPs.setFloat(11, book.getPrice());
+			bookPs.setString(12, book.getReview());
+
+			for (Genre genre : book.getGenres()) {
+				bookGenrePs.setInt(1, book.getId());
+				bookGenrePs.setInt(2, genre.getId());
+				bookGenrePs.addBatch();
+			}
+
+			add(bookPs, 3, book.getId());
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	@Override
+	public void finish() {
+		try {
+			flush();
+
+			try (Statement statement = connection.createStatement()) {
+				for (String sql : COUNT_STATEMENTS) statement.executeUpdate(sql);
+
+				// MySQL moves AUTO_INCREMENT past explicit IDs by itself, H2 does not
+				if (connection.getMetaData().getDatabaseProductName().equals("H2")) {
+					for (int i = 0; i < TABLES.length; i++) {
+						statement.execute("ALTER TABLE `%s` ALTER COLUMN `id` RESTART WITH %d;".formatted(TABLES[i], lastIds[i] + 1));
+					}
+				}
+			}
+
+			connection.commit();
+			finished = true;
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (!finished) connection.rollback();
+			connection.setAutoCommit(true);
+		} catch (SQLException e) {
+			System.err.println(e);
+		} finally {
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				System.err.println(e);
+			}
+		}
+	}
+
+	private void add(PreparedStatement ps, int table, int id) throws SQLException {
+		ps.addBatch();
+		lastIds[table] = Math.max(lastIds[table], id);
+
+		if (++pending >= BATCH_SIZE) flush();
+	}
+
+	/**
+	 * Sends the pending rows in the order required by the foreign keys and commits them.
+	 */
+	private void flush() throws SQLException {
+		authorPs.executeBatch();
+		publisherPs.executeBatch();
+		genrePs.executeBatch();
+		bookPs.executeBatch();
+		bookGenrePs.executeBatch();
+		connection.commit();
+		pending = 0;
+	}
+
+	private void requireEmpty() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			for (String table : TABLES) {
+				try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM `%s`;".formatted(table))) {
+					rs.next();
+
+					if (rs.getInt(1) > 0) {
+						throw new IllegalStateException(
+							"A tabela `%s` já possui registros; o catálogo só pode ser gerado em um banco vazio".formatted(table));
+					}
+				}
+			}
+		}
+	}
+}
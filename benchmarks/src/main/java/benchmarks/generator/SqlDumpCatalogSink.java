@@ -0,0 +1,200 @@
+package benchmarks.generator;
+
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>Writes the generated rows to a MySQL dump, in the format of the ones in {@code db-backup},
+ * with multi-row {@code INSERT} statements of up to {@link #ROWS_PER_STATEMENT} rows; the file
+ * is compressed with gzip if its name ends in {@code .gz}.</p>
+ * <p>The dump is meant to be loaded into an empty database created by {@code src/db/db.sql},
+ * e.g. {@code mysql book_management < catalog.sql}; the triggers of the schema compute the
+ * {@code books_owned} counters as the books are inserted.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class SqlDumpCatalogSink implements CatalogSink {
+	/**
+	 * Maximum number of rows of a single {@code INSERT} statement.
+	 */
+	public static final int ROWS_PER_STATEMENT = 1_000;
+
+	private final Writer writer;
+	private final Statement authors = new Statement("INSERT INTO `author` (`id`, `name`, `nationality`) VALUES ");
+	private final Statement publishers = new Statement("INSERT INTO `publisher` (`id`, `name`) VALUES ");
+	private final Statement genres = new Statement("INSERT INTO `genre` (`id`, `name`) VALUES ");
+	private final Statement books = new Statement("""
+		INSERT INTO `book` (`id`, `title`, `isbn_10`, `isbn_13`, `pages`, `read`, `format`, `author_id`, \
+		`publisher_id`, `purchase_date`, `price`, `review`) VALUES\s""");
+	private final Statement bookGenres = new Statement("INSERT INTO `book_genre` (`book_id`, `genre_id`) VALUES ");
+
+	/**
+	 * @param file The dump file; replaced if it exists.
+	 * @throws UncheckedIOException If the file cannot be created.
+	 */
+	public SqlDumpCatalogSink(Path file) {
+		try {
+			OutputStream out = Files.newOutputStream(file);
+			if (file.getFileName().toString().endsWith(".gz")) out = new GZIPOutputStream(out, 1 << 16);
+
+			writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+			writer.write("""
+				-- Synthetic catalog generated by benchmarks.generator.CatalogGenerator
+				USE `book_management`;
+
+				SET NAMES utf8mb4;
+				SET FOREIGN_KEY_CHECKS = 0;
+				SET UNIQUE_CHECKS = 0;
+				SET AUTOCOMMIT = 0;
+
+				""");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void author(Author author) {
+		authors.add("(%d,%s,%s)".formatted(author.getId(), quote(author.getName()), quote(author.getNationality())));
+	}
+
+	@Override
+	public void publisher(Publisher publisher) {
+		publishers.add("(%d,%s)".formatted(publisher.getId(), quote(publisher.getName())));
+	}
+
+	@Override
+	public void genre(Genre genre) {
+		genres.add("(%d,%s)".formatted(genre.getId(), quote(genre.getName())));
+	}
+
+	@Override
+	public void book(Book book) {
+		// references are complete once the first book arrives
+		authors.write();
+		publishers.write();
+		genres.write();
+
+		for (Genre genre : book.getGenres()) bookGenres.buffer("(%d,%d)".formatted(book.getId(), genre.getId()));
+
+		// the root locale keeps the decimal point of the price regardless of the default locale
+		books.add(String.format(Locale.ROOT, "(%d,%s,%s,%s,%d,%d,%s,%d,%d,%s,%.2f,%s)",
+			book.getId(), quote(book.getTitle()), quote(book.getIsbn10()), quote(book.getIsbn13()), book.getPages(),
+			book.isRead() ? 1 : 0, quote(CatalogGenerator.label(book.getFormat())), book.getAuthor().getId(),
+			book.getPublisher().getId(), book.getPurchaseDate() == null ? "NULL" : quote(book.getPurchaseDate().toString()),
+			book.getPrice(), quote(book.getReview())
+		));
+	}
+
+	@Override
+	public void finish() {
+		authors.write();
+		publishers.write();
+		genres.write();
+		books.write();
+
+		try {
+			writer.write("""
+				COMMIT;
+				SET UNIQUE_CHECKS = 1;
+				SET FOREIGN_KEY_CHECKS = 1;
+				""");
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return The value as a MySQL string literal, or {@code NULL}.
+	 */
+	private static String quote(String value) {
+		if (value == null) return "NULL";
+
+		StringBuilder quoted = new StringBuilder(value.length() + 2).append('\'');
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			switch (c) {
+				case '\'' -> quoted.append("\\'");
+				case '\\' -> quoted.append("\\\\");
+				case '\n' -> quoted.append("\\n");
+				case '\r' -> quoted.append("\\r");
+				case '\0' -> quoted.append("\\0");
+				case '\u001A' -> quoted.append("\\Z");
+				default -> quoted.append(c);
+			}
+		}
+
+		return quoted.append('\'').toString();
+	}
+
+	/**
+	 * A multi-row {@code INSERT} statement being built.
+	 */
+	private class Statement {
+		private final String prefix;
+		private final StringBuilder rows = new StringBuilder();
+		private int count;
+
+		private Statement(String prefix) {
+			this.prefix = prefix;
+		}
+
+		/**
+		 * Adds a row, writing the statement once it is full; the links of the books are
+		 * written right after the books, which they reference.
+		 */
+		private void add(String row) {
+			buffer(row);
+			if (count >= ROWS_PER_STATEMENT) write();
+		}
+
+		private void buffer(String row) {
+			if (count++ > 0) rows.append(',');
+			rows.append(row);
+		}
+
+		private void write() {
+			if (count == 0) return;
+
+			try {
+				writer.write(prefix);
+				writer.append(rows).write(";\n");
+				rows.setLength(0);
+				count = 0;
+
+				if (this == books) {
+					bookGenres.write();
+					writer.write("COMMIT;\n");
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package benchmarks.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * <p>Samples the IDs {@code 1..n} following a Zipf distribution: the item of rank {@code k} is
+ * drawn with probability proportional to {@code 1 / k^exponent}, so a few items are drawn
+ * most of the time and most items are drawn rarely, as the authors of a real catalog.</p>
+ * <p>Ranks are assigned to IDs in a random order, so the popular items are spread over the
+ * whole range of IDs instead of being the first ones.</p>
+ *
+ * @author Lucas da Paz
+ */
+class ZipfDistribution {
+	private final double[] cumulative;
+	private final int[] idByRank;
+
+	/**
+	 * @param n        The number of items.
+	 * @param exponent The skew of the distribution; 0 draws every item with the same probability.
+	 * @param random   The source of the random order of the ranks.
+	 */
+	ZipfDistribution(int n, double exponent, SplittableRandom random) {
+		if (n <= 0) throw new IllegalArgumentException("A distribuição deve ter ao menos um item: %d".formatted(n));
+
+		cumulative = new double[n];
+		double sum = 0;
+
+		for (int rank = 1; rank <= n; rank++) {
+			sum += 1 / Math.pow(rank, exponent);
+			cumulative[rank - 1] = sum;
+		}
+
+		for (int i = 0; i < n; i++) cumulative[i] /= sum;
+
+		idByRank = new int[n];
+		for (int i = 0; i < n; i++) idByRank[i] = i + 1;
+
+		// Fisher-Yates
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int id = idByRank[i];
+			idByRank[i] = idByRank[j];
+			idByRank[j] = id;
+		}
+	}
+
+	/**
+	 * @param random The source of randomness.
+	 * @return An ID between 1 and {@code n}.
+	 */
+	int sample(SplittableRandom random) {
+		int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+		if (rank < 0) rank = -rank - 1;
+
+		return idByRank[Math.min(rank, idByRank.length - 1)];
+	}
+}
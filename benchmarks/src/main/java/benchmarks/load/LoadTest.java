@@ -0,0 +1,221 @@
+package benchmarks.load;
+
+import benchmarks.EmbeddedDatabase;
+import factory.ConnectionFactory;
+import factory.ControllerFactory;
+import factory.PoolStats;
+import factory.QueryMetrics;
+import factory.QueryStats;
+import factory.ServicesFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Simulates concurrent users of the application running a mix of {@link Operation}s through
+ * the controllers, against the {@link EmbeddedDatabase} or the MySQL database configured in
+ * {@code database.properties}, and reports the throughput, the error rate and the latency
+ * percentiles of each operation.</p>
+ * <p>Operations arrive at a fixed rate, regardless of how fast the previous ones finished, and
+ * are run by a pool with one thread per user; the latency of an operation is measured from the
+ * moment it was meant to start, so the time it waited for a free user counts against it instead
+ * of being silently dropped when the application falls behind.</p>
+ * <p>Usage: {@code java -cp benchmarks.jar benchmarks.load.LoadTest [--users N] [--rate R]
+ * [--duration S] [--warmup S] [--books N] [--mysql]}.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class LoadTest {
+	private final int users;
+	private final double rate;
+	private final Duration warmup;
+	private final Duration duration;
+	private final Workload workload;
+	private final Operation[] mix;
+	private final int[] cumulativeWeights;
+	private final QueryMetrics results = new QueryMetrics();
+	private final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+
+	/**
+	 * @param users           Number of simultaneous users.
+	 * @param rate            Operations started per second.
+	 * @param warmup          Time run before the measurement, whose results are discarded.
+	 * @param duration        Time measured.
+	 * @param workload        The workload run by the users.
+	 * @param fullTextSupport Whether the database supports the ranked full-text filters.
+	 */
+	LoadTest(int users, double rate, Duration warmup, Duration duration, Workload workload,
+							boolean fullTextSupport) {
+		if (users <= 0 || rate <= 0) throw new IllegalArgumentException("Usuários e taxa devem ser positivos");
+
+		this.users = users;
+		this.rate = rate;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.workload = workload;
+
+		List<Operation> operations = new ArrayList<>();
+		for (Operation operation : Operation.values()) {
+			if (!fullTextSupport && (operation == Operation.FILTER_TEXT || operation == Operation.FILTER_TEXT_BOOLEAN)) continue;
+			operations.add(operation);
+		}
+
+		this.mix = operations.toArray(new Operation[0]);
+		this.cumulativeWeights = new int[mix.length];
+
+		int total = 0;
+		for (int i = 0; i < mix.length; i++) cumulativeWeights[i] = total += mix[i].getWeight();
+	}
+
+	/**
+	 * Runs the warmup and the measurement, then waits for the operations still queued.
+	 *
+	 * @return The results of the measured operations, named after them.
+	 */
+	QueryMetrics run() throws InterruptedException {
+		AtomicInteger threads = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(users, users, 0, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "load-user-%d".formatted(threads.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.prestartAllCoreThreads();
+
+		long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+		long start = System.nanoTime();
+		long measureStart = start + warmup.toNanos();
+		long end = measureStart + duration.toNanos();
+
+		for (long intended = start; intended < end; intended += interval) {
+			long delay;
+			while ((delay = intended - System.nanoTime()) > 0) LockSupport.parkNanos(delay);
+
+			Operation operation = next();
+			long scheduled = intended;
+			boolean measured = intended >= measureStart;
+
+			executor.execute(() -> execute(operation, scheduled, measured));
+		}
+
+		executor.shutdown();
+		if (!executor.awaitTermination(Math.max(60, duration.toSeconds()), TimeUnit.SECONDS)) {
+			System.err.println("Operações ainda pendentes ao fim do teste foram descartadas");
+			executor.shutdownNow();
+		}
+
+		workload.flush();
+		return results;
+	}
+
+	/**
+	 * @return The first error message of each operation that failed.
+	 */
+	Map<Operation, String> getFirstErrors() {
+		Map<Operation, String> errors = new EnumMap<>(Operation.class);
+		errors.putAll(firstErrors);
+		return errors;
+	}
+
+	private void execute(Operation operation, long intended, boolean measured) {
+		long started = System.nanoTime();
+		boolean failed = false;
+
+		try {
+			workload.run(operation);
+		} catch (RuntimeException e) {
+			failed = true;
+			firstErrors.putIfAbsent(operation, String.valueOf(e));
+		}
+
+		if (measured) results.record(operation.name(), started - intended, System.nanoTime() - intended, 0, failed);
+	}
+
+	private Operation next() {
+		int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) return mix[i];
+		}
+
+		return mix[mix.length - 1];
+	}
+
+	public static void main(String... args) throws InterruptedException {
+		int users = 16, books = 100_000;
+		double rate = 50;
+		Duration duration = Duration.ofSeconds(60), warmup = Duration.ofSeconds(10);
+		boolean mysql = false;
+
+		for (int i = 0; i < args.length; i++) {
+			String value = i + 1 < args.length ? args[i + 1] : null;
+
+			switch (args[i]) {
+				case "--users" -> users = Integer.parseInt(value);
+				case "--rate" -> rate = Double.parseDouble(value);
+				case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+				case "--warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+				case "--books" -> books = Integer.parseInt(value);
+				case "--mysql" -> {
+					mysql = true;
+					continue;
+				}
+				default -> throw new IllegalArgumentException("Argumento desconhecido: %s".formatted(args[i]));
+			}
+			i++;
+		}
+
+		// writes change the catalog, so the embedded database is not the one of the JMH benchmarks
+		ConnectionFactory connectionFactory = mysql ? ConnectionFactory.getDefault() : EmbeddedDatabase.open("load", books);
+
+		try {
+			LoadTest test = new LoadTest(users, rate, warmup, duration,
+				new Workload(new ControllerFactory(new ServicesFactory(connectionFactory))), mysql
+			);
+
+			System.out.printf("%d usuários, %.1f operações/s, %ds de aquecimento e %ds de medição%n",
+				users, rate, warmup.toSeconds(), duration.toSeconds());
+
+			report(test.run().getStats(), duration, test.getFirstErrors());
+			report(connectionFactory.getPoolStats(), connectionFactory.getQueryMetrics().getStats());
+		} finally {
+			connectionFactory.close();
+		}
+	}
+
+	private static void report(List<QueryStats> stats, Duration duration, Map<Operation, String> firstErrors) {
+		System.out.printf("%n%-20s %10s %10s %8s %7s %9s %9s %9s %9s %10s%n", "Operação", "Execuções", "Por seg.",
+			"Erros", "Erros %", "p50 ms", "p95 ms", "p99 ms", "Máx. ms", "Fila ms");
+
+		for (QueryStats s : stats) {
+			System.out.printf("%-20s %10d %10.1f %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %10.2f%n", s.query(), s.executions(),
+				s.executions() / (double) duration.toSeconds(), s.errors(), 100.0 * s.errors() / s.executions(),
+				s.p50Millis(), s.p95Millis(), s.p99Millis(), s.maxMillis(), s.averageWaitMillis());
+		}
+
+		firstErrors.forEach((operation, message) -> System.out.printf("Primeiro erro de %s: %s%n", operation, message));
+	}
+
+	private static void report(PoolStats pool, List<QueryStats> queries) {
+		System.out.printf("%nPool: %d conexões, %d ativas, %d aguardando; espera média de %.2f ms e máxima de %.2f ms%n",
+			pool.total(), pool.active(), pool.waiting(), pool.averageBorrowMillis(), pool.maxBorrowMillis());
+
+		System.out.printf("%n%-45s %10s %12s %12s%n", "Consultas com maior espera", "Execuções", "Espera ms", "Média ms");
+		queries.stream()
+			.sorted(Comparator.comparingDouble(QueryStats::averageWaitMillis).reversed())
+			.limit(10)
+			.forEach(s -> System.out.printf("%-45s %10d %12.2f %12.2f%n", s.query(), s.executions(),
+				s.averageWaitMillis(), s.averageMillis()));
+	}
+}
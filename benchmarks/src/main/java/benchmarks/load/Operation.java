@@ -0,0 +1,60 @@
+package benchmarks.load;
+
+import models.filters.BookFilter;
+
+/**
+ * The {@link controller.BookController} operations run by the {@link LoadTest}, with their
+ * share of a typical session: mostly browsing and searching, a few writes.
+ *
+ * @author Lucas da Paz
+ */
+enum Operation {
+	/**
+	 * Opens the book list: counts the books and loads the first page, as {@code BookList}.
+	 */
+	LIST(20, null),
+	FILTER_TITLE(10, BookFilter.TITLE),
+	FILTER_AUTHOR(8, BookFilter.AUTHOR),
+	FILTER_ISBN(4, BookFilter.ISBN),
+	FILTER_TEXT(4, BookFilter.TEXT),
+	FILTER_TEXT_BOOLEAN(2, BookFilter.TEXT_BOOLEAN),
+	/**
+	 * Opens the details of a book.
+	 */
+	DETAILS(25, null),
+	/**
+	 * Opens a book, toggles its read status and flushes the write queue, so the operation
+	 * includes the database write instead of only queueing it.
+	 */
+	TOGGLE_READ(12, null),
+	/**
+	 * Creates a book with one to three genres.
+	 */
+	CREATE(5, null),
+	/**
+	 * Opens a book and saves it with a new price and a new set of genres.
+	 */
+	UPDATE(10, null);
+
+	private final int weight;
+	private final BookFilter filter;
+
+	Operation(int weight, BookFilter filter) {
+		this.weight = weight;
+		this.filter = filter;
+	}
+
+	/**
+	 * @return The relative frequency of the operation in the default mix.
+	 */
+	int getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return The filter searched by the operation, or {@code null} if it is not a search.
+	 */
+	BookFilter getFilter() {
+		return filter;
+	}
+}
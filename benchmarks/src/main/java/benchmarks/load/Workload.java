@@ -0,0 +1,137 @@
+package benchmarks.load;
+
+import controller.BookController;
+import factory.ControllerFactory;
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Genre;
+import models.Publisher;
+import models.dto.BookDto;
+import models.filters.BookSort;
+import utils.Isbn;
+import views.tables.BookTableModel;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs each {@link Operation} through a {@link BookController} with random but plausible
+ * arguments: existing books, authors, publishers and genres, and search inputs that match
+ * part of the catalog.
+ *
+ * @author Lucas da Paz
+ */
+class Workload {
+	private static final String[] TITLE_INPUTS = {"mar", "sol", "silêncio", "Memórias", "cidade", "sertão", "ilha"};
+	private static final String[] AUTHOR_INPUTS = {"Silva", "Rocha", "Natália", "Amado", "Clarice", "Queiroz"};
+	private static final String[] ISBN_INPUTS = {"978000", "97801", "978-0-00", "9780123"};
+	private static final String[] TEXT_INPUTS = {"mar", "silêncio", "memória", "fronteira"};
+	private static final String[] BOOLEAN_INPUTS = {"+mar -sol", "memória*", "\"do começo ao fim\""};
+
+	private final BookController bookController;
+	private final Author[] authors;
+	private final Publisher[] publishers;
+	private final Genre[] genres;
+	private final int maxBookId;
+
+	/**
+	 * Reads the authors, publishers, genres and the number of books the operations pick from.
+	 *
+	 * @param controllerFactory The factory of the controllers under test.
+	 */
+	Workload(ControllerFactory controllerFactory) {
+		this.bookController = controllerFactory.getBookController();
+		this.authors = controllerFactory.getAuthorController().getAll().toArray(new Author[0]);
+		this.publishers = controllerFactory.getPublisherController().getAll().toArray(new Publisher[0]);
+		this.genres = controllerFactory.getGenreController().getAll().toArray(new Genre[0]);
+		this.maxBookId = bookController.count();
+
+		if (authors.length == 0 || publishers.length == 0 || genres.length == 0 || maxBookId == 0) {
+			throw new IllegalStateException("O banco deve possuir livros, autores, editoras e gêneros");
+		}
+	}
+
+	/**
+	 * Runs the operation passed as an argument.
+	 *
+	 * @param operation The operation.
+	 * @throws RuntimeException Any exception thrown by the controller.
+	 */
+	void run(Operation operation) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		switch (operation) {
+			case LIST -> {
+				bookController.count();
+				bookController.getPage(BookSort.TITLE, true, null, BookTableModel.PAGE_SIZE);
+			}
+			case FILTER_TITLE -> bookController.filter(pick(TITLE_INPUTS, random), operation.getFilter());
+			case FILTER_AUTHOR -> bookController.filter(pick(AUTHOR_INPUTS, random), operation.getFilter());
+			case FILTER_ISBN -> bookController.filter(pick(ISBN_INPUTS, random), operation.getFilter());
+			case FILTER_TEXT -> bookController.filter(pick(TEXT_INPUTS, random), operation.getFilter());
+			case FILTER_TEXT_BOOLEAN -> bookController.filter(pick(BOOLEAN_INPUTS, random), operation.getFilter());
+			case DETAILS -> bookController.getById(randomBookId(random));
+			case TOGGLE_READ -> {
+				bookController.updateReadStatus(bookController.getById(randomBookId(random)));
+				// queueing alone never touches the database; the write is what is measured
+				bookController.flushPendingWrites();
+			}
+			case CREATE -> bookController.create(newBook(random), randomGenres(random));
+			case UPDATE -> {
+				Book book = bookController.getById(randomBookId(random));
+				BookDto data = new BookDto(book.getTitle(), book.getIsbn10(), book.getIsbn13(), book.getPages(),
+					book.isRead(), book.getFormat(), book.getAuthor(), book.getPublisher(), book.getPurchaseDate(),
+					(500 + random.nextInt(25_000)) / 100f
+				);
+				bookController.update(book.getId(), data, randomGenres(random));
+			}
+		}
+	}
+
+	/**
+	 * Persists the read status changes still queued, e.g. by a toggle whose flush failed.
+	 */
+	void flush() {
+		bookController.flushPendingWrites();
+	}
+
+	private BookDto newBook(ThreadLocalRandom random) {
+		String isbn10 = isbn10(random.nextInt(1_000_000_000));
+
+		return new BookDto("Carga %s".formatted(pick(TITLE_INPUTS, random)), isbn10, Isbn.convertToIsbn13(isbn10),
+			50 + random.nextInt(800), false, Format.values()[random.nextInt(Format.values().length)],
+			authors[random.nextInt(authors.length)], publishers[random.nextInt(publishers.length)],
+			LocalDate.now(), (500 + random.nextInt(25_000)) / 100f
+		);
+	}
+
+	private Set<Genre> randomGenres(ThreadLocalRandom random) {
+		Set<Genre> chosen = new HashSet<>();
+		int count = 1 + random.nextInt(3);
+
+		while (chosen.size() < Math.min(count, genres.length)) chosen.add(genres[random.nextInt(genres.length)]);
+
+		return chosen;
+	}
+
+	private int randomBookId(ThreadLocalRandom random) {
+		return 1 + random.nextInt(maxBookId);
+	}
+
+	private static String isbn10(int number) {
+		String digits = "%09d".formatted(number);
+		int sum = 0;
+
+		for (int i = 0; i < 9; i++) sum += (digits.charAt(i) - '0') * (10 - i);
+
+		int check = (11 - sum % 11) % 11;
+		return digits + (check == 10 ? "X" : String.valueOf(check));
+	}
+
+	private static String pick(String[] values, ThreadLocalRandom random) {
+		return values[random.nextInt(values.length)];
+	}
+}
@@ -0,0 +1,134 @@
+package benchmarks.ui;
+
+import exceptions.NotFoundException;
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+import models.filters.BookFilter;
+import models.filters.BookSort;
+import services.BookSearchIndex;
+import services.BookServices;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read-only {@link BookServices} answered from an {@link InMemoryCatalog}, so the frames can be
+ * measured without the cost of a database. Pages are served from lists sorted once per order,
+ * in the order of the page query; the write methods are not supported.
+ *
+ * @author Lucas da Paz
+ */
+class InMemoryBookServices extends BookServices {
+	private final InMemoryCatalog catalog;
+	private final Map<String, List<Book>> sorted = new ConcurrentHashMap<>();
+
+	InMemoryBookServices(InMemoryCatalog catalog) {
+		super(null, null, null, null);
+		this.catalog = catalog;
+	}
+
+	@Override
+	public Set<Book> filterByTitle(String title) {
+		return filter(title, BookFilter.TITLE);
+	}
+
+	@Override
+	public Set<Book> filterByAuthor(String authorName) {
+		return filter(authorName, BookFilter.AUTHOR);
+	}
+
+	@Override
+	public Set<Book> filterByIsbn(String isbn) {
+		return filter(isbn, BookFilter.ISBN);
+	}
+
+	@Override
+	public List<Book> searchFullText(String query, boolean booleanMode) {
+		return List.of();
+	}
+
+	@Override
+	public Set<Book> getByAuthor(Author author) {
+		return catalog.getBooksByAuthor(author.getId());
+	}
+
+	@Override
+	public Set<Book> getByPublisher(Publisher publisher) {
+		return catalog.getBooksByPublisher(publisher.getId());
+	}
+
+	@Override
+	public Set<Book> getByGenre(Genre genre) {
+		return catalog.getBooksByGenre(genre.getId());
+	}
+
+	@Override
+	public List<Book> getPage(BookSort sort, boolean ascending, Book after, int limit) {
+		List<Book> books = sorted.computeIfAbsent(sort + ":" + ascending, key -> {
+			List<Book> list = new ArrayList<>(catalog.getBooks());
+			list.sort(comparator(sort, ascending));
+			return List.copyOf(list);
+		});
+
+		int start = 0;
+		if (after != null) {
+			int index = Collections.binarySearch(books, after, comparator(sort, ascending));
+			start = index >= 0 ? index + 1 : -index - 1;
+		}
+
+		return List.copyOf(books.subList(Math.min(start, books.size()), Math.min(start + limit, books.size())));
+	}
+
+	@Override
+	public int count() {
+		return catalog.getBooks().size();
+	}
+
+	@Override
+	public Book getById(int id) {
+		Book book = catalog.getBook(id);
+		if (book == null) throw new NotFoundException("Nenhum livro encontrado para o id: %d".formatted(id));
+
+		return book;
+	}
+
+	@Override
+	public Set<Book> getByIds(Collection<Integer> ids) {
+		return ids.stream().map(catalog::getBook).filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	@Override
+	public Set<Book> getAll() {
+		return new LinkedHashSet<>(catalog.getBooks());
+	}
+
+	@Override
+	public Stream<Book> streamAll() {
+		return catalog.getBooks().stream();
+	}
+
+	private Set<Book> filter(String input, BookFilter filter) {
+		return catalog.getBooks().stream()
+			.filter(book -> BookSearchIndex.matches(book, input, filter))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * @return The order of the page query of {@link BookServices#getPage}; ties are broken by ID.
+	 */
+	private static Comparator<Book> comparator(BookSort sort, boolean ascending) {
+		return ascending ? sort.comparator() : sort.comparator().reversed();
+	}
+}
@@ -0,0 +1,139 @@
+package benchmarks.ui;
+
+import benchmarks.generator.CatalogGenerator;
+import benchmarks.generator.CatalogSink;
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a catalog produced by the {@link CatalogGenerator} in memory, indexed by ID and by the
+ * author, publisher and genres of the books, for the {@link InMemoryServicesFactory}.
+ *
+ * @author Lucas da Paz
+ */
+class InMemoryCatalog implements CatalogSink {
+	private final Map<Integer, Author> authors = new HashMap<>();
+	private final Map<Integer, Publisher> publishers = new HashMap<>();
+	private final Map<Integer, Genre> genres = new HashMap<>();
+	private final List<Book> books = new ArrayList<>();
+	private final Map<Integer, Set<Book>> booksByAuthor = new HashMap<>();
+	private final Map<Integer, Set<Book>> booksByPublisher = new HashMap<>();
+	private final Map<Integer, Set<Book>> booksByGenre = new HashMap<>();
+
+	/**
+	 * Generates a catalog with the default seed of the {@link CatalogGenerator}.
+	 *
+	 * @param books The number of books of the catalog.
+	 * @return The catalog.
+	 */
+	static InMemoryCatalog generate(int books) {
+		InMemoryCatalog catalog = new InMemoryCatalog();
+		new CatalogGenerator(books, CatalogGenerator.DEFAULT_SEED).generate(catalog);
+		return catalog;
+	}
+
+	@Override
+	public void author(Author author) {
+		authors.put(author.getId(), author);
+	}
+
+	@Override
+	public void publisher(Publisher publisher) {
+		publishers.put(publisher.getId(), publisher);
+	}
+
+	@Override
+	public void genre(Genre genre) {
+		genres.put(genre.getId(), genre);
+	}
+
+	@Override
+	public void book(Book book) {
+		books.add(book);
+		booksByAuthor.computeIfAbsent(book.getAuthor().getId(), id -> new LinkedHashSet<>()).add(book);
+		booksByPublisher.computeIfAbsent(book.getPublisher().getId(), id -> new LinkedHashSet<>()).add(book);
+		for (Genre genre : book.getGenres()) booksByGenre.computeIfAbsent(genre.getId(), id -> new LinkedHashSet<>()).add(book);
+	}
+
+	@Override
+	public void finish() {
+		// books arrive in ID order, starting at 1, so the list is also indexed by ID
+	}
+
+	@Override
+	public void close() {
+	}
+
+	Map<Integer, Author> getAuthors() {
+		return Collections.unmodifiableMap(authors);
+	}
+
+	Map<Integer, Publisher> getPublishers() {
+		return Collections.unmodifiableMap(publishers);
+	}
+
+	Map<Integer, Genre> getGenres() {
+		return Collections.unmodifiableMap(genres);
+	}
+
+	List<Book> getBooks() {
+		return Collections.unmodifiableList(books);
+	}
+
+	/**
+	 * @return The book with the ID passed as an argument, or {@code null} if there is none.
+	 */
+	Book getBook(int id) {
+		return id >= 1 && id <= books.size() ? books.get(id - 1) : null;
+	}
+
+	Set<Book> getBooksByAuthor(int id) {
+		return booksOf(booksByAuthor, id);
+	}
+
+	Set<Book> getBooksByPublisher(int id) {
+		return booksOf(booksByPublisher, id);
+	}
+
+	Set<Book> getBooksByGenre(int id) {
+		return booksOf(booksByGenre, id);
+	}
+
+	/**
+	 * @return The author with the most books; the details of the most popular references show
+	 * the largest tables.
+	 */
+	Author getTopAuthor() {
+		return authors.get(topKey(booksByAuthor));
+	}
+
+	Publisher getTopPublisher() {
+		return publishers.get(topKey(booksByPublisher));
+	}
+
+	Genre getTopGenre() {
+		return genres.get(topKey(booksByGenre));
+	}
+
+	private static Set<Book> booksOf(Map<Integer, Set<Book>> index, int id) {
+		return Collections.unmodifiableSet(index.getOrDefault(id, Set.of()));
+	}
+
+	private static int topKey(Map<Integer, Set<Book>> index) {
+		return index.entrySet().stream()
+			.max(Map.Entry.comparingByValue(Comparator.comparingInt(Set::size)))
+			.map(Map.Entry::getKey)
+			.orElseThrow();
+	}
+}
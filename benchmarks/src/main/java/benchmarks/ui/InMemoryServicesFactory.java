@@ -0,0 +1,131 @@
+package benchmarks.ui;
+
+import exceptions.NotFoundException;
+import factory.ServicesFactory;
+import models.Author;
+import models.Genre;
+import models.Publisher;
+import services.AuthorServices;
+import services.BookServices;
+import services.ChangeLog;
+import services.ChangeLogPoller;
+import services.GenreServices;
+import services.PublisherServices;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * <p>{@link ServicesFactory} whose services read an {@link InMemoryCatalog} instead of the
+ * database. The controllers have no interfaces, so the fakes sit one layer below them: the
+ * frames still use the real controllers, search index, event bus and asynchronous executor of
+ * a {@link factory.ControllerFactory}, and only the queries are answered from memory.</p>
+ * <p>Only the reads used by the lists and details are supported, and nothing is ever written.</p>
+ *
+ * @author Lucas da Paz
+ */
+class InMemoryServicesFactory extends ServicesFactory {
+	private static final int CONCURRENCY = 4;
+
+	private final InMemoryCatalog catalog;
+	private final BookServices bookServices;
+
+	InMemoryServicesFactory(InMemoryCatalog catalog) {
+		super(null);
+		this.catalog = catalog;
+		this.bookServices = new InMemoryBookServices(catalog);
+	}
+
+	@Override
+	public BookServices createBookServices() {
+		// shared, so the pages sorted by one controller are reused by the others
+		return bookServices;
+	}
+
+	@Override
+	public AuthorServices createAuthorServices() {
+		return new AuthorServices(null, null) {
+			@Override
+			public Author getById(int id) {
+				Author author = catalog.getAuthors().get(id);
+				if (author == null) throw new NotFoundException("Nenhum autor encontrado para o id: %d".formatted(id));
+
+				return author;
+			}
+
+			@Override
+			public Set<Author> getAll() {
+				return new HashSet<>(catalog.getAuthors().values());
+			}
+
+			@Override
+			public Stream<Author> streamAll() {
+				return catalog.getAuthors().values().stream();
+			}
+		};
+	}
+
+	@Override
+	public PublisherServices createPublisherServices() {
+		return new PublisherServices(null, null) {
+			@Override
+			public Publisher getById(int id) {
+				Publisher publisher = catalog.getPublishers().get(id);
+				if (publisher == null) throw new NotFoundException("Nenhuma editora encontrada para o id: %d".formatted(id));
+
+				return publisher;
+			}
+
+			@Override
+			public Set<Publisher> getAll() {
+				return new HashSet<>(catalog.getPublishers().values());
+			}
+
+			@Override
+			public Stream<Publisher> streamAll() {
+				return catalog.getPublishers().values().stream();
+			}
+		};
+	}
+
+	@Override
+	public GenreServices createGenreServices() {
+		return new GenreServices(null, null) {
+			@Override
+			public Genre getById(int id) {
+				Genre genre = catalog.getGenres().get(id);
+				if (genre == null) throw new NotFoundException("Nenhum gênero encontrado para o id: %d".formatted(id));
+
+				return genre;
+			}
+
+			@Override
+			public Set<Genre> getAll() {
+				return new HashSet<>(catalog.getGenres().values());
+			}
+
+			@Override
+			public Stream<Genre> streamAll() {
+				return catalog.getGenres().values().stream();
+			}
+		};
+	}
+
+	@Override
+	public ChangeLogPoller createChangeLogPoller(Consumer<List<ChangeLog.Entry>> listener) {
+		// nothing is written, so there is no change log to start from
+		return new ChangeLogPoller(null, listener) {
+			@Override
+			public synchronized void startFromLastEntry() {
+			}
+		};
+	}
+
+	@Override
+	public int getMaximumPoolSize() {
+		return CONCURRENCY;
+	}
+}
@@ -0,0 +1,289 @@
+package benchmarks.ui;
+
+import events.DomainEvent;
+import factory.ControllerFactory;
+import views.details.AuthorDetails;
+import views.details.GenreDetails;
+import views.details.PublisherDetails;
+import views.lists.BookList;
+
+import javax.swing.JButton;
+import javax.swing.JInternalFrame;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Cursor;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * <p>Measures how long the book list and the details of authors, publishers and genres take to
+ * show their books, with the controllers reading an {@link InMemoryCatalog} so that only the work
+ * of the frames is measured: the table model, the sorting, the renderers and the painting.</p>
+ * <p>For each catalog size and screen it reports the time to first paint, from the construction
+ * of the frame until it has loaded its books and painted them once, and the latency and the
+ * memory allocated by a full refresh, from the event that reloads the frame until it is painted
+ * again. The book list is measured both listing every book, page by page, and showing a search
+ * that matches most of the catalog, which is refreshed by alternating two searches.</p>
+ * <p>The frames are painted into an image, so the benchmark runs in headless mode, which is
+ * enabled when there is no display, as well as under Xvfb or on a desktop. Usage:
+ * {@code java -cp benchmarks.jar benchmarks.ui.RenderingBenchmark [--books 1000,10000,100000,500000]
+ * [--iterations N] [--warmup N]}.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class RenderingBenchmark {
+	private static final int WIDTH = 1000;
+	private static final int HEIGHT = 700;
+	private static final int REFRESHES = 5;
+	private static final long LOAD_TIMEOUT = TimeUnit.SECONDS.toNanos(60);
+
+	private final ControllerFactory controllerFactory;
+	private final InMemoryCatalog catalog;
+	private final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+	private final com.sun.management.ThreadMXBean threads =
+		(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	RenderingBenchmark(InMemoryCatalog catalog) {
+		this.catalog = catalog;
+		this.controllerFactory = new ControllerFactory(new InMemoryServicesFactory(catalog));
+	}
+
+	/**
+	 * The frames measured, how they are opened and how they are made to reload their books.
+	 */
+	private enum Screen {
+		BOOK_LIST("Lista de livros", (factory, catalog) -> new BookList(factory)),
+		BOOK_SEARCH("Pesquisa de livros", (factory, catalog) -> search(new BookList(factory), "a")) {
+			@Override
+			void refresh(JInternalFrame frame, ControllerFactory factory, InMemoryCatalog catalog, int iteration) {
+				// neither input contains the other, so the results are searched again and diffed
+				search(frame, iteration % 2 == 0 ? "o" : "a");
+			}
+		},
+		AUTHOR_DETAILS("Detalhes do autor", (factory, catalog) -> new AuthorDetails(factory, catalog.getTopAuthor())),
+		PUBLISHER_DETAILS("Detalhes da editora", (factory, catalog) -> new PublisherDetails(factory, catalog.getTopPublisher())),
+		GENRE_DETAILS("Detalhes do gênero", (factory, catalog) -> new GenreDetails(factory, catalog.getTopGenre()));
+
+		private final String name;
+		private final BiFunction<ControllerFactory, InMemoryCatalog, JInternalFrame> open;
+
+		Screen(String name, BiFunction<ControllerFactory, InMemoryCatalog, JInternalFrame> open) {
+			this.name = name;
+			this.open = open;
+		}
+
+		/**
+		 * Starts reloading the frame; called in the Event Dispatch Thread. Every screen reloads
+		 * its books when the top author is updated.
+		 */
+		void refresh(JInternalFrame frame, ControllerFactory factory, InMemoryCatalog catalog, int iteration) {
+			factory.getEventBus().publish(new DomainEvent.AuthorUpdated(catalog.getTopAuthor()));
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * Opens the screen, measures its first paint and its refreshes, and closes it.
+	 *
+	 * @param screen     The screen.
+	 * @param warmup     Number of times the screen is opened and refreshed before the measurement.
+	 * @param iterations Number of times the screen is opened; each time it is refreshed
+	 *                   {@value #REFRESHES} times.
+	 * @return The samples of the measured iterations.
+	 */
+	private Result measure(Screen screen, int warmup, int iterations) throws InterruptedException {
+		Result result = new Result(iterations);
+
+		for (int i = -warmup; i < iterations; i++) {
+			AtomicReference<JInternalFrame> opened = new AtomicReference<>();
+			long start = System.nanoTime();
+
+			onEdt(() -> {
+				JInternalFrame frame = screen.open.apply(controllerFactory, catalog);
+				frame.setSize(WIDTH, HEIGHT);
+				opened.set(frame);
+			});
+			JInternalFrame frame = opened.get();
+			awaitPaint(frame);
+			long firstPaint = System.nanoTime() - start;
+
+			for (int j = 0; j < REFRESHES; j++) {
+				int iteration = j;
+				long allocated = allocatedBytes();
+				start = System.nanoTime();
+
+				onEdt(() -> screen.refresh(frame, controllerFactory, catalog, iteration));
+				awaitPaint(frame);
+
+				if (i >= 0) result.refresh(i * REFRESHES + j, System.nanoTime() - start, allocatedBytes() - allocated);
+			}
+
+			if (i >= 0) result.firstPaint(i, firstPaint, rowCount(frame));
+			onEdt(frame::dispose);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Waits for the frame to load its books, then lays it out and paints it.
+	 */
+	private void awaitPaint(JInternalFrame frame) throws InterruptedException {
+		long deadline = System.nanoTime() + LOAD_TIMEOUT;
+		boolean[] loading = {true};
+
+		// the loader shows the wait cursor from the start of a load until its results are shown
+		while (true) {
+			onEdt(() -> loading[0] = frame.getCursor().getType() == Cursor.WAIT_CURSOR);
+			if (!loading[0]) break;
+			if (System.nanoTime() > deadline) throw new IllegalStateException("Tempo esgotado ao carregar %s".formatted(frame.getTitle()));
+
+			LockSupport.parkNanos(20_000);
+		}
+
+		onEdt(() -> {
+			layOut(frame);
+			Graphics2D graphics = image.createGraphics();
+			try {
+				frame.paint(graphics);
+			} finally {
+				graphics.dispose();
+			}
+		});
+	}
+
+	/**
+	 * Lays out the component and its descendants; frames that are not shown have no peer, so
+	 * {@link Container#validate()} does nothing.
+	 */
+	private static void layOut(Component component) {
+		if (!(component instanceof Container container)) return;
+
+		container.doLayout();
+		for (Component child : container.getComponents()) layOut(child);
+	}
+
+	private static JInternalFrame search(JInternalFrame frame, String input) {
+		find(frame, JTextField.class, "Pesquisa").setText(input);
+		find(frame, JButton.class, "Botão pesquisar").doClick(0);
+		return frame;
+	}
+
+	private static int rowCount(JInternalFrame frame) throws InterruptedException {
+		int[] rows = new int[1];
+		onEdt(() -> rows[0] = find(frame, JTable.class, "Lista de livros").getRowCount());
+		return rows[0];
+	}
+
+	private static <T extends Component> T find(Container root, Class<T> type, String name) {
+		for (Component child : root.getComponents()) {
+			if (type.isInstance(child) && name.equals(child.getName())) return type.cast(child);
+			if (child instanceof Container container) {
+				T found = find(container, type, name);
+				if (found != null) return found;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return The bytes allocated so far by all live threads, including the Event Dispatch
+	 * Thread and the threads that load the data.
+	 */
+	private long allocatedBytes() {
+		return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(b -> b > 0).sum();
+	}
+
+	private static void onEdt(Runnable task) throws InterruptedException {
+		try {
+			SwingUtilities.invokeAndWait(task);
+		} catch (InvocationTargetException e) {
+			throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Samples of a screen, in nanoseconds and bytes.
+	 */
+	private static class Result {
+		private final long[] firstPaints;
+		private final long[] refreshes;
+		private final long[] allocations;
+		private int rows;
+
+		private Result(int iterations) {
+			firstPaints = new long[iterations];
+			refreshes = new long[iterations * REFRESHES];
+			allocations = new long[iterations * REFRESHES];
+		}
+
+		private void firstPaint(int i, long nanos, int rows) {
+			firstPaints[i] = nanos;
+			this.rows = rows;
+		}
+
+		private void refresh(int i, long nanos, long bytes) {
+			refreshes[i] = nanos;
+			allocations[i] = bytes;
+		}
+
+		private static double percentileMillis(long[] samples, double percentile) {
+			long[] sorted = samples.clone();
+			Arrays.sort(sorted);
+			return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+		}
+	}
+
+	public static void main(String... args) throws InterruptedException {
+		int[] sizes = {1_000, 10_000, 100_000, 500_000};
+		int iterations = 10, warmup = 3;
+
+		for (int i = 0; i < args.length; i++) {
+			String value = i + 1 < args.length ? args[i + 1] : null;
+
+			switch (args[i]) {
+				case "--books" -> sizes = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+				case "--iterations" -> iterations = Integer.parseInt(value);
+				case "--warmup" -> warmup = Integer.parseInt(value);
+				default -> throw new IllegalArgumentException("Argumento desconhecido: %s".formatted(args[i]));
+			}
+			i++;
+		}
+
+		if (System.getenv("DISPLAY") == null) System.setProperty("java.awt.headless", "true");
+
+		System.out.printf("%-22s %9s %8s %12s %12s %12s %12s %14s%n", "Tela", "Livros", "Linhas", "1ª pint. p50",
+			"1ª pint. p95", "Atualiz. p50", "Atualiz. p95", "KB/atualiz.");
+
+		for (int books : sizes) {
+			RenderingBenchmark benchmark = new RenderingBenchmark(InMemoryCatalog.generate(books));
+
+			for (Screen screen : Screen.values()) {
+				Result result = benchmark.measure(screen, warmup, iterations);
+
+				System.out.printf("%-22s %9d %8d %12.2f %12.2f %12.2f %12.2f %14.1f%n", screen, books, result.rows,
+					Result.percentileMillis(result.firstPaints, 0.5), Result.percentileMillis(result.firstPaints, 0.95),
+					Result.percentileMillis(result.refreshes, 0.5), Result.percentileMillis(result.refreshes, 0.95),
+					Arrays.stream(result.allocations).average().orElse(0) / 1024);
+			}
+		}
+
+		// the Event Dispatch Thread and the executors of the controllers keep running
+		System.exit(0);
+	}
+}
@@ -4,18 +4,22 @@ USE `book_management`;
 
 CREATE TABLE `publisher` (
 	`id` INT PRIMARY KEY AUTO_INCREMENT,
-	`name` VARCHAR(50) NOT NULL
+	`name` VARCHAR(50) NOT NULL,
+	`books_owned` INT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE `genre` (
 	`id` INT PRIMARY KEY AUTO_INCREMENT,
-	`name` VARCHAR(50) NOT NULL
+	`name` VARCHAR(50) NOT NULL,
+	`books_owned` INT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE `author` (
 	`id` INT PRIMARY KEY AUTO_INCREMENT,
 	`name` VARCHAR(50) NOT NULL,
-	`nationality` VARCHAR(50) NOT NULL
+	`nationality` VARCHAR(50) NOT NULL,
+	`books_owned` INT NOT NULL DEFAULT 0,
+	FULLTEXT INDEX `ft_author_name` (`name`)
 );
 
 CREATE TABLE `book` (
@@ -31,6 +35,13 @@ CREATE TABLE `book` (
 	`purchase_date` DATE,
 	`price` FLOAT(5, 2) NOT NULL,
 	`review` TEXT,
+	FULLTEXT INDEX `ft_book_title_review` (`title`, `review`),
+	INDEX `idx_book_title` (`title`, `id`),
+	INDEX `idx_book_pages` (`pages`, `id`),
+	INDEX `idx_book_read` (`read`, `id`),
+	INDEX `idx_book_format` ((`format` + 0), `id`),
+	INDEX `idx_book_author` (`author_id`, `id`),
+	INDEX `idx_book_publisher` (`publisher_id`, `id`),
 	CONSTRAINT fk_author_code FOREIGN KEY (author_id)
 		REFERENCES author (id),
 	CONSTRAINT fk_publisher_code FOREIGN KEY (publisher_id)
@@ -47,6 +58,16 @@ CREATE TABLE `book_genre` (
 		REFERENCES genre (id)
 );
 
+CREATE TABLE `change_log` (
+	`seq` BIGINT PRIMARY KEY AUTO_INCREMENT,
+	`entity` ENUM ('author', 'publisher', 'genre', 'book') NOT NULL,
+	`entity_id` INT NOT NULL,
+	`op` ENUM ('insert', 'update', 'delete') NOT NULL,
+	`origin` CHAR(36) NOT NULL,
+	`changed_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	INDEX `idx_change_log_changed_at` (`changed_at`)
+);
+
 -- Create functions:
 DELIMITER $$
 
@@ -106,3 +127,75 @@ BEGIN
 END $$
 
 DELIMITER ;
+
+-- Create triggers that maintain the `books_owned` counters:
+DELIMITER $$
+
+CREATE TRIGGER book_after_insert
+	AFTER INSERT
+	ON `book`
+	FOR EACH ROW
+BEGIN
+	UPDATE `author` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`author_id`;
+	UPDATE `publisher` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`publisher_id`;
+END $$
+
+CREATE TRIGGER book_after_update
+	AFTER UPDATE
+	ON `book`
+	FOR EACH ROW
+BEGIN
+	IF new.`author_id` <> old.`author_id` THEN
+		UPDATE `author` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`author_id`;
+		UPDATE `author` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`author_id`;
+	END IF;
+
+	IF new.`publisher_id` <> old.`publisher_id` THEN
+		UPDATE `publisher` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`publisher_id`;
+		UPDATE `publisher` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`publisher_id`;
+	END IF;
+END $$
+
+-- rows removed by ON DELETE CASCADE do not fire the `book_genre` triggers,
+-- so the genre counters are decremented before the book is deleted
+CREATE TRIGGER book_before_delete
+	BEFORE DELETE
+	ON `book`
+	FOR EACH ROW
+BEGIN
+	UPDATE `author` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`author_id`;
+	UPDATE `publisher` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`publisher_id`;
+	UPDATE `genre` g
+		INNER JOIN `book_genre` bg ON g.`id` = bg.`genre_id`
+	SET g.`books_owned` = g.`books_owned` - 1
+	WHERE bg.`book_id` = old.`id`;
+END $$
+
+CREATE TRIGGER book_genre_after_insert
+	AFTER INSERT
+	ON `book_genre`
+	FOR EACH ROW
+BEGIN
+	UPDATE `genre` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`genre_id`;
+END $$
+
+CREATE TRIGGER book_genre_after_update
+	AFTER UPDATE
+	ON `book_genre`
+	FOR EACH ROW
+BEGIN
+	IF new.`genre_id` <> old.`genre_id` THEN
+		UPDATE `genre` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`genre_id`;
+		UPDATE `genre` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`genre_id`;
+	END IF;
+END $$
+
+CREATE TRIGGER book_genre_after_delete
+	AFTER DELETE
+	ON `book_genre`
+	FOR EACH ROW
+BEGIN
+	UPDATE `genre` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`genre_id`;
+END $$
+
+DELIMITER ;
@@ -0,0 +1,98 @@
+-- Adds the `books_owned` counters to authors, publishers and genres, replacing the
+-- countbooksbyauthor, countbooksbypublisher and countbooksbygenre functions on reads.
+-- The counters are maintained by triggers; drift is repaired by services.CounterReconciler.
+USE `book_management`;
+
+ALTER TABLE `author`
+	ADD COLUMN `books_owned` INT NOT NULL DEFAULT 0;
+
+ALTER TABLE `publisher`
+	ADD COLUMN `books_owned` INT NOT NULL DEFAULT 0;
+
+ALTER TABLE `genre`
+	ADD COLUMN `books_owned` INT NOT NULL DEFAULT 0;
+
+-- Create triggers that maintain the counters:
+DELIMITER $$
+
+CREATE TRIGGER book_after_insert
+	AFTER INSERT
+	ON `book`
+	FOR EACH ROW
+BEGIN
+	UPDATE `author` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`author_id`;
+	UPDATE `publisher` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`publisher_id`;
+END $$
+
+CREATE TRIGGER book_after_update
+	AFTER UPDATE
+	ON `book`
+	FOR EACH ROW
+BEGIN
+	IF new.`author_id` <> old.`author_id` THEN
+		UPDATE `author` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`author_id`;
+		UPDATE `author` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`author_id`;
+	END IF;
+
+	IF new.`publisher_id` <> old.`publisher_id` THEN
+		UPDATE `publisher` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`publisher_id`;
+		UPDATE `publisher` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`publisher_id`;
+	END IF;
+END $$
+
+-- rows removed by ON DELETE CASCADE do not fire the `book_genre` triggers,
+-- so the genre counters are decremented before the book is deleted
+CREATE TRIGGER book_before_delete
+	BEFORE DELETE
+	ON `book`
+	FOR EACH ROW
+BEGIN
+	UPDATE `author` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`author_id`;
+	UPDATE `publisher` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`publisher_id`;
+	UPDATE `genre` g
+		INNER JOIN `book_genre` bg ON g.`id` = bg.`genre_id`
+	SET g.`books_owned` = g.`books_owned` - 1
+	WHERE bg.`book_id` = old.`id`;
+END $$
+
+CREATE TRIGGER book_genre_after_insert
+	AFTER INSERT
+	ON `book_genre`
+	FOR EACH ROW
+BEGIN
+	UPDATE `genre` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`genre_id`;
+END $$
+
+CREATE TRIGGER book_genre_after_update
+	AFTER UPDATE
+	ON `book_genre`
+	FOR EACH ROW
+BEGIN
+	IF new.`genre_id` <> old.`genre_id` THEN
+		UPDATE `genre` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`genre_id`;
+		UPDATE `genre` SET `books_owned` = `books_owned` + 1 WHERE `id` = new.`genre_id`;
+	END IF;
+END $$
+
+CREATE TRIGGER book_genre_after_delete
+	AFTER DELETE
+	ON `book_genre`
+	FOR EACH ROW
+BEGIN
+	UPDATE `genre` SET `books_owned` = `books_owned` - 1 WHERE `id` = old.`genre_id`;
+END $$
+
+DELIMITER ;
+
+-- Initialize the counters:
+UPDATE `author` a
+	LEFT JOIN (SELECT `author_id`, COUNT(*) AS `total` FROM `book` GROUP BY `author_id`) c ON a.`id` = c.`author_id`
+SET a.`books_owned` = COALESCE(c.`total`, 0);
+
+UPDATE `publisher` p
+	LEFT JOIN (SELECT `publisher_id`, COUNT(*) AS `total` FROM `book` GROUP BY `publisher_id`) c ON p.`id` = c.`publisher_id`
+SET p.`books_owned` = COALESCE(c.`total`, 0);
+
+UPDATE `genre` g
+	LEFT JOIN (SELECT `genre_id`, COUNT(*) AS `total` FROM `book_genre` GROUP BY `genre_id`) c ON g.`id` = c.`genre_id`
+SET g.`books_owned` = COALESCE(c.`total`, 0);
@@ -0,0 +1,9 @@
+-- Adds the FULLTEXT indexes used by the full-text book search
+-- (BookServices.searchFullText), ranked by relevance.
+USE `book_management`;
+
+ALTER TABLE `book`
+	ADD FULLTEXT INDEX `ft_book_title_review` (`title`, `review`);
+
+ALTER TABLE `author`
+	ADD FULLTEXT INDEX `ft_author_name` (`name`);
@@ -0,0 +1,13 @@
+-- Adds the log to which the services append every write (services.ChangeLog), polled by
+-- each client to notice the writes made by the others (services.ChangeLogPoller).
+USE `book_management`;
+
+CREATE TABLE `change_log` (
+	`seq` BIGINT PRIMARY KEY AUTO_INCREMENT,
+	`entity` ENUM ('author', 'publisher', 'genre', 'book') NOT NULL,
+	`entity_id` INT NOT NULL,
+	`op` ENUM ('insert', 'update', 'delete') NOT NULL,
+	`origin` CHAR(36) NOT NULL,
+	`changed_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	INDEX `idx_change_log_changed_at` (`changed_at`)
+);
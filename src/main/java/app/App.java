@@ -1,7 +1,11 @@
 package app;
 
+import factory.ConnectionFactory;
+import services.CounterReconciler;
 import views.MainMenu;
 
+import java.time.Duration;
+
 /**
  * Application class, responsible for running the system.
  * Calls on the {@link MainMenu} class.
@@ -25,6 +29,10 @@ public class App {
     UI may only happen in the event dispatching thread.
      */
 
+		Runtime.getRuntime().addShutdownHook(new Thread(ConnectionFactory.getDefault()::close));
+		ConnectionFactory.getDefault().startMetricsExport();
+		new CounterReconciler(ConnectionFactory.getDefault()).start(Duration.ofHours(1));
+
 		new MainMenu().setVisible(true);
 	}
 }
@@ -0,0 +1,93 @@
+package controller;
+
+import models.Author;
+import models.dto.AuthorDto;
+import models.dto.ImportResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * <p>Asynchronous variant of {@link AuthorController}: each method makes the same call in the background,
+ * through an {@link AsyncExecutor}, and returns its result as a {@link CompletableFuture}, so
+ * that independent calls can run at once and be waited on together.</p>
+ * <p>Futures complete with the same exceptions the {@code AuthorController} methods throw, or with a
+ * {@link java.util.concurrent.TimeoutException} if the call exceeds the timeout of the executor.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class AsyncAuthorController {
+	private final AuthorController controller;
+	private final AsyncExecutor executor;
+
+	/**
+	 * Constructs an instance of {@link AsyncAuthorController}.
+	 *
+	 * @param controller The controller whose methods are called.
+	 * @param executor   The executor that runs the calls.
+	 */
+	public AsyncAuthorController(AuthorController controller, AsyncExecutor executor) {
+		this.controller = controller;
+		this.executor = executor;
+	}
+
+	/**
+	 * @param timeout The timeout of the calls; {@code null} to wait as long as needed.
+	 * @return A controller that makes the same calls with a different timeout.
+	 */
+	public AsyncAuthorController withTimeout(Duration timeout) {
+		return new AsyncAuthorController(controller, executor.withTimeout(timeout));
+	}
+
+	/**
+	 * @return The blocking controller, for the calls that need no database access.
+	 */
+	public AuthorController blocking() {
+		return controller;
+	}
+
+	/**
+	 * @see AuthorController#getById(int)
+	 */
+	public CompletableFuture<Author> getById(int id) {
+		return executor.supply(() -> controller.getById(id));
+	}
+
+	/**
+	 * @see AuthorController#getAll()
+	 */
+	public CompletableFuture<Set<Author>> getAll() {
+		return executor.supply(controller::getAll);
+	}
+
+	/**
+	 * @see AuthorController#create(AuthorDto)
+	 */
+	public CompletableFuture<Author> create(AuthorDto authorData) {
+		return executor.supply(() -> controller.create(authorData));
+	}
+
+	/**
+	 * @see AuthorController#createAll(List)
+	 */
+	public CompletableFuture<ImportResult<Author>> createAll(List<Supplier<AuthorDto>> rows) {
+		return executor.supply(() -> controller.createAll(rows));
+	}
+
+	/**
+	 * @see AuthorController#update(int, AuthorDto)
+	 */
+	public CompletableFuture<Author> update(int id, AuthorDto authorData) {
+		return executor.supply(() -> controller.update(id, authorData));
+	}
+
+	/**
+	 * @see AuthorController#delete(int)
+	 */
+	public CompletableFuture<Void> delete(int id) {
+		return executor.run(() -> controller.delete(id));
+	}
+}
@@ -0,0 +1,179 @@
+package controller;
+
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+import models.dto.BookDto;
+import models.dto.BookImport;
+import models.dto.ImportResult;
+import models.filters.BookFilter;
+import models.filters.BookSort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Asynchronous variant of {@link BookController}: each method makes the same call in the background,
+ * through an {@link AsyncExecutor}, and returns its result as a {@link CompletableFuture}, so
+ * that independent calls can run at once and be waited on together.</p>
+ * <p>Futures complete with the same exceptions the {@code BookController} methods throw, or with a
+ * {@link java.util.concurrent.TimeoutException} if the call exceeds the timeout of the executor.</p>
+ * <p>{@link BookController#streamAll() streamAll} and {@link BookController#publishAll() publishAll} have no
+ * asynchronous variant, since they hold a connection while the books are consumed; neither have
+ * the methods that search in memory, such as
+ * {@link BookController#narrow narrow}, which are called through {@link #blocking()}.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class AsyncBookController {
+	private final BookController controller;
+	private final AsyncExecutor executor;
+
+	/**
+	 * Constructs an instance of {@link AsyncBookController}.
+	 *
+	 * @param controller The controller whose methods are called.
+	 * @param executor   The executor that runs the calls.
+	 */
+	public AsyncBookController(BookController controller, AsyncExecutor executor) {
+		this.controller = controller;
+		this.executor = executor;
+	}
+
+	/**
+	 * @param timeout The timeout of the calls; {@code null} to wait as long as needed.
+	 * @return A controller that makes the same calls with a different timeout.
+	 */
+	public AsyncBookController withTimeout(Duration timeout) {
+		return new AsyncBookController(controller, executor.withTimeout(timeout));
+	}
+
+	/**
+	 * @return The blocking controller, for the calls that need no database access.
+	 */
+	public BookController blocking() {
+		return controller;
+	}
+
+	/**
+	 * @see BookController#getById(int)
+	 */
+	public CompletableFuture<Book> getById(int id) {
+		return executor.supply(() -> controller.getById(id));
+	}
+
+	/**
+	 * @see BookController#getByAuthor(Author)
+	 */
+	public CompletableFuture<Set<Book>> getByAuthor(Author author) {
+		return executor.supply(() -> controller.getByAuthor(author));
+	}
+
+	/**
+	 * @see BookController#getByPublisher(Publisher)
+	 */
+	public CompletableFuture<Set<Book>> getByPublisher(Publisher publisher) {
+		return executor.supply(() -> controller.getByPublisher(publisher));
+	}
+
+	/**
+	 * @see BookController#getByGenre(Genre)
+	 */
+	public CompletableFuture<Set<Book>> getByGenre(Genre genre) {
+		return executor.supply(() -> controller.getByGenre(genre));
+	}
+
+	/**
+	 * @see BookController#getAll()
+	 */
+	public CompletableFuture<Set<Book>> getAll() {
+		return executor.supply(controller::getAll);
+	}
+
+	/**
+	 * @see BookController#getPage(BookSort, boolean, Book, int)
+	 */
+	public CompletableFuture<List<Book>> getPage(BookSort sort, boolean ascending, Book after, int limit) {
+		return executor.supply(() -> controller.getPage(sort, ascending, after, limit));
+	}
+
+	/**
+	 * @see BookController#getPage(BookSort, boolean, Book, int, boolean)
+	 */
+	public CompletableFuture<List<Book>> getPage(BookSort sort, boolean ascending, Book after, int limit, boolean inMemory) {
+		return executor.supply(() -> controller.getPage(sort, ascending, after, limit, inMemory));
+	}
+
+	/**
+	 * @see BookController#count()
+	 */
+	public CompletableFuture<Integer> count() {
+		return executor.supply(controller::count);
+	}
+
+	/**
+	 * @see BookController#filter(String, BookFilter)
+	 */
+	public CompletableFuture<Set<Book>> filter(String input, BookFilter filter) {
+		return executor.supply(() -> controller.filter(input, filter));
+	}
+
+	/**
+	 * @see BookController#create(BookDto, Set)
+	 */
+	public CompletableFuture<Book> create(BookDto bookData, Set<Genre> genres) {
+		return executor.supply(() -> controller.create(bookData, genres));
+	}
+
+	/**
+	 * @see BookController#createAll(List)
+	 */
+	public CompletableFuture<ImportResult<Book>> createAll(List<BookImport> rows) {
+		return executor.supply(() -> controller.createAll(rows));
+	}
+
+	/**
+	 * @see BookController#update(int, BookDto, Set)
+	 */
+	public CompletableFuture<Book> update(int id, BookDto bookData, Set<Genre> newGenres) {
+		return executor.supply(() -> controller.update(id, bookData, newGenres));
+	}
+
+	/**
+	 * @see BookController#updateReadStatus(Book)
+	 */
+	public CompletableFuture<Void> updateReadStatus(Book b) {
+		return executor.run(() -> controller.updateReadStatus(b));
+	}
+
+	/**
+	 * @see BookController#updateReview(Book, String)
+	 */
+	public CompletableFuture<Void> updateReview(Book b, String review) {
+		return executor.run(() -> controller.updateReview(b, review));
+	}
+
+	/**
+	 * @see BookController#updatePrice(Book, float)
+	 */
+	public CompletableFuture<Void> updatePrice(Book b, float price) {
+		return executor.run(() -> controller.updatePrice(b, price));
+	}
+
+	/**
+	 * @see BookController#flushPendingWrites()
+	 */
+	public CompletableFuture<Void> flushPendingWrites() {
+		return executor.run(controller::flushPendingWrites);
+	}
+
+	/**
+	 * @see BookController#delete(int)
+	 */
+	public CompletableFuture<Void> delete(int id) {
+		return executor.run(() -> controller.delete(id));
+	}
+}
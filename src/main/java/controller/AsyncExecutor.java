@@ -0,0 +1,125 @@
+package controller;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>Runs the calls of the asynchronous controllers in the background, returning their results
+ * as {@link CompletableFuture futures}.</p>
+ * <p>At most as many calls run at once as there are connections in the pool, so that the calls
+ * never queue inside the pool itself, where they would hold a thread while waiting; the other
+ * calls wait for a free thread in the order they were made.</p>
+ * <p>Futures complete with the exceptions thrown by the controllers, such as
+ * {@link exceptions.NotFoundException} or {@link exceptions.DataAccessException}, wrapped in
+ * a {@link java.util.concurrent.CompletionException} when observed through {@code join} or a
+ * dependent stage. A call that does not complete within the timeout completes its future with
+ * a {@link java.util.concurrent.TimeoutException} and is interrupted; so is a call whose future
+ * is cancelled.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class AsyncExecutor implements AutoCloseable {
+	/**
+	 * The timeout of the calls, unless another one is chosen with {@link #withTimeout}.
+	 */
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+	private final ExecutorService executor;
+	private final Duration timeout;
+
+	/**
+	 * Constructs an instance of {@link AsyncExecutor} with the {@link #DEFAULT_TIMEOUT}.
+	 *
+	 * @param concurrency The maximum number of calls running at once; usually the
+	 *                    maximum size of the connection pool.
+	 */
+	public AsyncExecutor(int concurrency) {
+		this(newExecutor(concurrency), DEFAULT_TIMEOUT);
+	}
+
+	private AsyncExecutor(ExecutorService executor, Duration timeout) {
+		this.executor = executor;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @param timeout The timeout of the calls; {@code null} to wait as long as needed.
+	 * @return An executor that shares the threads of this one, with a different timeout.
+	 */
+	public AsyncExecutor withTimeout(Duration timeout) {
+		return new AsyncExecutor(executor, timeout);
+	}
+
+	/**
+	 * @return The timeout of the calls, or {@code null} if there is none.
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Runs the call passed as an argument in the background.
+	 *
+	 * @param call The call to run.
+	 * @param <R>  Type of the result of the call.
+	 * @return A future completed with the result of the call, or with the exception it threw.
+	 */
+	public <R> CompletableFuture<R> supply(Supplier<R> call) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		Future<?> running = executor.submit(() -> {
+			try {
+				result.complete(call.get());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+
+		result.whenComplete((value, e) -> {
+			if (e != null) running.cancel(true);
+		});
+
+		return timeout == null ? result : result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Runs the call passed as an argument in the background.
+	 *
+	 * @param call The call to run.
+	 * @return A future completed when the call returns, or with the exception it threw.
+	 */
+	public CompletableFuture<Void> run(Runnable call) {
+		return supply(() -> {
+			call.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Stops accepting calls and interrupts the running ones; shared by every executor
+	 * created with {@link #withTimeout}.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private static ExecutorService newExecutor(int concurrency) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "controller-async-%d".formatted(count.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+}
@@ -0,0 +1,91 @@
+package controller;
+
+import models.Genre;
+import models.dto.ImportResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Asynchronous variant of {@link GenreController}: each method makes the same call in the background,
+ * through an {@link AsyncExecutor}, and returns its result as a {@link CompletableFuture}, so
+ * that independent calls can run at once and be waited on together.</p>
+ * <p>Futures complete with the same exceptions the {@code GenreController} methods throw, or with a
+ * {@link java.util.concurrent.TimeoutException} if the call exceeds the timeout of the executor.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class AsyncGenreController {
+	private final GenreController controller;
+	private final AsyncExecutor executor;
+
+	/**
+	 * Constructs an instance of {@link AsyncGenreController}.
+	 *
+	 * @param controller The controller whose methods are called.
+	 * @param executor   The executor that runs the calls.
+	 */
+	public AsyncGenreController(GenreController controller, AsyncExecutor executor) {
+		this.controller = controller;
+		this.executor = executor;
+	}
+
+	/**
+	 * @param timeout The timeout of the calls; {@code null} to wait as long as needed.
+	 * @return A controller that makes the same calls with a different timeout.
+	 */
+	public AsyncGenreController withTimeout(Duration timeout) {
+		return new AsyncGenreController(controller, executor.withTimeout(timeout));
+	}
+
+	/**
+	 * @return The blocking controller, for the calls that need no database access.
+	 */
+	public GenreController blocking() {
+		return controller;
+	}
+
+	/**
+	 * @see GenreController#getById(int)
+	 */
+	public CompletableFuture<Genre> getById(int id) {
+		return executor.supply(() -> controller.getById(id));
+	}
+
+	/**
+	 * @see GenreController#getAll()
+	 */
+	public CompletableFuture<Set<Genre>> getAll() {
+		return executor.supply(controller::getAll);
+	}
+
+	/**
+	 * @see GenreController#create(String)
+	 */
+	public CompletableFuture<Genre> create(String name) {
+		return executor.supply(() -> controller.create(name));
+	}
+
+	/**
+	 * @see GenreController#createAll(List)
+	 */
+	public CompletableFuture<ImportResult<Genre>> createAll(List<String> names) {
+		return executor.supply(() -> controller.createAll(names));
+	}
+
+	/**
+	 * @see GenreController#update(int, String)
+	 */
+	public CompletableFuture<Genre> update(int id, String newName) {
+		return executor.supply(() -> controller.update(id, newName));
+	}
+
+	/**
+	 * @see GenreController#delete(int)
+	 */
+	public CompletableFuture<Void> delete(int id) {
+		return executor.run(() -> controller.delete(id));
+	}
+}
@@ -0,0 +1,91 @@
+package controller;
+
+import models.Publisher;
+import models.dto.ImportResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Asynchronous variant of {@link PublisherController}: each method makes the same call in the background,
+ * through an {@link AsyncExecutor}, and returns its result as a {@link CompletableFuture}, so
+ * that independent calls can run at once and be waited on together.</p>
+ * <p>Futures complete with the same exceptions the {@code PublisherController} methods throw, or with a
+ * {@link java.util.concurrent.TimeoutException} if the call exceeds the timeout of the executor.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class AsyncPublisherController {
+	private final PublisherController controller;
+	private final AsyncExecutor executor;
+
+	/**
+	 * Constructs an instance of {@link AsyncPublisherController}.
+	 *
+	 * @param controller The controller whose methods are called.
+	 * @param executor   The executor that runs the calls.
+	 */
+	public AsyncPublisherController(PublisherController controller, AsyncExecutor executor) {
+		this.controller = controller;
+		this.executor = executor;
+	}
+
+	/**
+	 * @param timeout The timeout of the calls; {@code null} to wait as long as needed.
+	 * @return A controller that makes the same calls with a different timeout.
+	 */
+	public AsyncPublisherController withTimeout(Duration timeout) {
+		return new AsyncPublisherController(controller, executor.withTimeout(timeout));
+	}
+
+	/**
+	 * @return The blocking controller, for the calls that need no database access.
+	 */
+	public PublisherController blocking() {
+		return controller;
+	}
+
+	/**
+	 * @see PublisherController#getById(int)
+	 */
+	public CompletableFuture<Publisher> getById(int id) {
+		return executor.supply(() -> controller.getById(id));
+	}
+
+	/**
+	 * @see PublisherController#getAll()
+	 */
+	public CompletableFuture<Set<Publisher>> getAll() {
+		return executor.supply(controller::getAll);
+	}
+
+	/**
+	 * @see PublisherController#create(String)
+	 */
+	public CompletableFuture<Publisher> create(String name) {
+		return executor.supply(() -> controller.create(name));
+	}
+
+	/**
+	 * @see PublisherController#createAll(List)
+	 */
+	public CompletableFuture<ImportResult<Publisher>> createAll(List<String> names) {
+		return executor.supply(() -> controller.createAll(names));
+	}
+
+	/**
+	 * @see PublisherController#update(int, String)
+	 */
+	public CompletableFuture<Publisher> update(int id, String newName) {
+		return executor.supply(() -> controller.update(id, newName));
+	}
+
+	/**
+	 * @see PublisherController#delete(int)
+	 */
+	public CompletableFuture<Void> delete(int id) {
+		return executor.run(() -> controller.delete(id));
+	}
+}
@@ -1,10 +1,18 @@
 package controller;
 
+import events.DomainEvent;
+import events.EventBus;
+import exceptions.ValidationException;
 import models.Author;
 import models.dto.AuthorDto;
+import models.dto.ImportResult;
+import services.BookSearchIndex;
 import services.AuthorServices;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Controller class for manipulating {@link Author} objects.
@@ -13,14 +21,21 @@ import java.util.Set;
  */
 public class AuthorController {
 	private final AuthorServices authorServices;
+	private final BookSearchIndex searchIndex;
+	private final EventBus eventBus;
 
 	/**
 	 * Constructs an instance of {@link AuthorController}
 	 *
-	 * @param services An instance of {@link AuthorServices}.
+	 * @param services    An instance of {@link AuthorServices}.
+	 * @param searchIndex The book search index, rebuilt when a author is updated
+	 *                    since the indexed books reference it.
+	 * @param eventBus    The bus the changes are published to.
 	 */
-	public AuthorController(AuthorServices services) {
+	public AuthorController(AuthorServices services, BookSearchIndex searchIndex, EventBus eventBus) {
 		this.authorServices = services;
+		this.searchIndex = searchIndex;
+		this.eventBus = eventBus;
 	}
 
 	/**
@@ -51,7 +66,36 @@ public class AuthorController {
 	 * @return The created instance of the object, with the generated keys.
 	 */
 	public Author create(AuthorDto authorData) {
-		return authorServices.create(new Author(-1, authorData));
+		Author created = authorServices.create(new Author(-1, authorData));
+		eventBus.publish(new DomainEvent.AuthorCreated(created));
+		return created;
+	}
+
+	/**
+	 * Creates new instances of {@link Author} for each row passed as an argument and
+	 * persists them in the database using batched inserts. Rows whose {@link AuthorDto}
+	 * is not valid are reported as failures, while the valid ones are still imported.
+	 *
+	 * @param rows Supply the data of each author; each {@code AuthorDto} is only
+	 *             instantiated during the import.
+	 * @return The created authors, with the generated keys, and the rejected rows.
+	 */
+	public ImportResult<Author> createAll(List<Supplier<AuthorDto>> rows) {
+		List<Author> authors = new ArrayList<>(rows.size());
+		List<ImportResult.Failure> failures = new ArrayList<>();
+
+		for (int i = 0; i < rows.size(); i++) {
+			try {
+				authors.add(new Author(-1, rows.get(i).get()));
+			} catch (ValidationException e) {
+				failures.add(new ImportResult.Failure(i, e.getMessage()));
+			}
+		}
+
+		List<Author> created = authorServices.createAll(authors);
+		if (!created.isEmpty()) eventBus.publish(new DomainEvent.AuthorsImported(created));
+
+		return new ImportResult<>(created, failures);
 	}
 
 	/**
@@ -63,7 +107,10 @@ public class AuthorController {
 	 * @return The updated author instance.
 	 */
 	public Author update(int id, AuthorDto authorData) {
-		return authorServices.update(new Author(id, authorData));
+		Author updated = authorServices.update(new Author(id, authorData));
+		searchIndex.rebuildAsync();
+		eventBus.publish(new DomainEvent.AuthorUpdated(updated));
+		return updated;
 	}
 
 	/**
@@ -73,5 +120,6 @@ public class AuthorController {
 	 */
 	public void delete(int id) {
 		authorServices.delete(id);
+		eventBus.publish(new DomainEvent.AuthorDeleted(id));
 	}
 }
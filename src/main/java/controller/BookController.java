@@ -1,15 +1,29 @@
 package controller;
 
+import events.DomainEvent;
+import events.EventBus;
 import exceptions.ValidationException;
 import models.Author;
 import models.Book;
 import models.Genre;
 import models.Publisher;
 import models.dto.BookDto;
+import models.dto.BookImport;
+import models.dto.BookPatch;
+import models.dto.ImportResult;
 import models.filters.BookFilter;
+import models.filters.BookSort;
+import services.BookSearchIndex;
 import services.BookServices;
+import utils.Texts;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * Controller class for manipulating {@link Book} objects.
@@ -18,14 +32,25 @@ import java.util.Set;
  */
 public class BookController {
 	private final BookServices bookServices;
+	private final BookSearchIndex searchIndex;
+	private final EventBus eventBus;
+	private final BookWriteQueue writeQueue;
 
 	/**
 	 * Constructs an instance of {@link BookController}
 	 *
-	 * @param services An instance of {@link BookServices}.
+	 * @param services    An instance of {@link BookServices}.
+	 * @param searchIndex The search index shared by all book controllers; kept up to date
+	 *                    by the write methods of this controller.
+	 * @param eventBus    The bus the changes are published to.
+	 * @param writeQueue  The write-behind queue of the small changes, shared by all book controllers.
 	 */
-	public BookController(BookServices services) {
+	public BookController(BookServices services, BookSearchIndex searchIndex, EventBus eventBus,
+												BookWriteQueue writeQueue) {
 		this.bookServices = services;
+		this.searchIndex = searchIndex;
+		this.eventBus = eventBus;
+		this.writeQueue = writeQueue;
 	}
 
 	/**
@@ -84,23 +109,163 @@ public class BookController {
 		return bookServices.getAll();
 	}
 
+	/**
+	 * Streams all instances of {@link Book} found in the database, ordered by ID, without
+	 * loading them all into memory; meant for exports and statistics over the whole catalog.
+	 * The stream holds a database connection and must be closed, preferably with a
+	 * try-with-resources block.
+	 *
+	 * @return A {@link Stream} of all books.
+	 */
+	public Stream<Book> streamAll() {
+		return bookServices.streamAll();
+	}
+
+	/**
+	 * Publishes all instances of {@link Book} found in the database, ordered by ID; the
+	 * subscriber requests the books as it can process them, so the catalog is never loaded
+	 * into memory at once. Cancelling the subscription releases its database connection.
+	 *
+	 * @return A {@link Flow.Publisher} of all books.
+	 */
+	public Flow.Publisher<Book> publishAll() {
+		return bookServices.publishAll();
+	}
+
+	/**
+	 * Searches for a page of instances of {@link Book}, ordered by the attribute
+	 * passed as an argument; see {@link BookServices#getPage}. Pages are answered by the
+	 * {@link BookSearchIndex} once it holds the books, and by the database until then; the
+	 * pages that follow must come from the same source, see
+	 * {@link #getPage(BookSort, boolean, Book, int, boolean)}.
+	 *
+	 * @param sort      The attribute to order by.
+	 * @param ascending {@code true} to order in ascending order, {@code false} for descending.
+	 * @param after     The last book of the previous page, or {@code null} for the first page.
+	 * @param limit     The maximum number of books in the page.
+	 * @return A {@link List} with the books of the page, in order.
+	 */
+	public List<Book> getPage(BookSort sort, boolean ascending, Book after, int limit) {
+		return getPage(sort, ascending, after, limit, isPagedInMemory());
+	}
+
+	/**
+	 * Searches for a page of instances of {@link Book} from the source passed as an argument.
+	 * The database and the memory may order some texts differently, so a book of a page from
+	 * one source may sit elsewhere in the other, and the pages after it would skip or repeat
+	 * books: the pages of a scroll must all come from the source of its first page.
+	 *
+	 * @param sort      The attribute to order by.
+	 * @param ascending {@code true} to order in ascending order, {@code false} for descending.
+	 * @param after     The last book of the previous page, or {@code null} for the first page.
+	 * @param limit     The maximum number of books in the page.
+	 * @param inMemory  {@code true} to answer from the {@link BookSearchIndex}, which must be
+	 *                  {@link #isPagedInMemory() loaded}; {@code false} to query the database.
+	 * @return A {@link List} with the books of the page, in order.
+	 */
+	public List<Book> getPage(BookSort sort, boolean ascending, Book after, int limit, boolean inMemory) {
+		if (inMemory) return searchIndex.page(sort, ascending, after, limit);
+
+		return bookServices.getPage(sort, ascending, after, limit);
+	}
+
+	/**
+	 * @return {@code true} if the pages are answered by the {@link BookSearchIndex}, which holds
+	 * the books from the moment it is first loaded.
+	 */
+	public boolean isPagedInMemory() {
+		return searchIndex.isLoaded();
+	}
+
+	/**
+	 * @return The number of instances of {@link Book} found in the database; counted by the
+	 * {@link BookSearchIndex} once it holds the books.
+	 */
+	public int count() {
+		return searchIndex.isLoaded() ? searchIndex.count() : bookServices.count();
+	}
+
 	/**
 	 * Selects the appropriate method based on a {@link BookFilter} constant
 	 * and searches for all instances of {@link Book} whose corresponding
-	 * attribute matches the input string passed as an argument.
+	 * attribute matches the input string passed as an argument. Searches are
+	 * answered by the {@link BookSearchIndex} once it is built, and by the
+	 * database until then; {@link BookFilter#isRanked() ranked} filters always
+	 * use the database full-text search.
 	 *
 	 * @param input  The input string used to filter.
 	 * @param filter Enum constant used to select the appropriate filter method.
-	 * @return A {@link Set} that contains all instances of book that matched the filter.
+	 * @return A {@link Set} that contains all instances of book that matched the filter;
+	 * for ranked filters, iterates from the most to the least relevant book.
 	 */
 	public Set<Book> filter(String input, BookFilter filter) {
+		String value = searchValue(input, filter);
+
+		if (searchIndex.supports(filter)) return searchIndex.search(value, filter);
+
 		return switch (filter) {
-			case TITLE -> bookServices.filterByTitle(input);
-			case AUTHOR -> bookServices.filterByAuthor(input);
-			case ISBN -> bookServices.filterByIsbn(input.replaceAll("-", ""));
+			case TITLE -> bookServices.filterByTitle(value);
+			case AUTHOR -> bookServices.filterByAuthor(value);
+			case ISBN -> bookServices.filterByIsbn(value);
+			case TEXT -> new LinkedHashSet<>(bookServices.searchFullText(value, false));
+			case TEXT_BOOLEAN -> new LinkedHashSet<>(bookServices.searchFullText(value, true));
 		};
 	}
 
+	/**
+	 * Checks whether the results of a previous search can be narrowed in memory by
+	 * {@link #narrow} instead of searching again: this is the case when the filter is not
+	 * {@link BookFilter#isRanked() ranked} and the input contains the previous input, as
+	 * every book that matches the input also matched the previous one.
+	 *
+	 * @param previousInput The input of the previous search, with the same filter.
+	 * @param input         The new input.
+	 * @param filter        The filter of both searches.
+	 * @return {@code true} if the previous results can be narrowed.
+	 */
+	public boolean canNarrow(String previousInput, String input, BookFilter filter) {
+		if (filter.isRanked() || previousInput == null || previousInput.isEmpty()) return false;
+
+		return Texts.containsIgnoringAccents(searchValue(input, filter), searchValue(previousInput, filter));
+	}
+
+	/**
+	 * Narrows the results of a previous search to the books that match the new input,
+	 * without querying the database; see {@link #canNarrow}.
+	 *
+	 * @param previousResults The results of the previous search.
+	 * @param input           The new input.
+	 * @param filter          The filter of both searches; must not be ranked.
+	 * @return A {@link Set} with the books of the previous results that match the input.
+	 */
+	public Set<Book> narrow(Set<Book> previousResults, String input, BookFilter filter) {
+		Set<Book> narrowed = new HashSet<>();
+
+		for (Book book : previousResults) if (matches(book, input, filter)) narrowed.add(book);
+
+		return narrowed;
+	}
+
+	/**
+	 * Checks whether a book is found by a search, without querying the database; used to
+	 * keep search results up to date as books are created and changed.
+	 *
+	 * @param book   The book to check.
+	 * @param input  The input of the search.
+	 * @param filter The filter of the search; must not be ranked.
+	 * @return {@code true} if {@link #filter} would return the book.
+	 */
+	public boolean matches(Book book, String input, BookFilter filter) {
+		return BookSearchIndex.matches(book, searchValue(input, filter), filter);
+	}
+
+	/**
+	 * @return The input as searched by the filter; dashes are ignored in ISBNs.
+	 */
+	private static String searchValue(String input, BookFilter filter) {
+		return filter == BookFilter.ISBN ? input.replaceAll("-", "") : input;
+	}
+
 	/**
 	 * Creates a new instance of {@link Book} and persists it
 	 * in the database. Links it to each instance of {@link Genre}
@@ -111,11 +276,42 @@ public class BookController {
 	 * @return The created instance of the object, with the generated keys.
 	 */
 	public Book create(BookDto bookData, Set<Genre> genres) {
-		if (genres.isEmpty() || genres.size() > 3) {
-			throw new ValidationException("Um livro deve possuir entre 1 e 3 categorias!");
+		validateGenres(genres);
+
+		Book created = bookServices.create(new Book(-1, bookData, genres));
+		searchIndex.put(created);
+		eventBus.publish(new DomainEvent.BookCreated(created));
+		return created;
+	}
+
+	/**
+	 * Creates new instances of {@link Book} for each row passed as an argument and
+	 * persists them in the database using batched inserts. Each row is validated on its
+	 * own: rows whose {@link BookDto} or set of {@link Genre genres} is not valid are
+	 * reported as failures, while the valid ones are still imported.
+	 *
+	 * @param rows The books to create, with the genres to link each of them to.
+	 * @return The created books, with the generated keys, and the rejected rows.
+	 */
+	public ImportResult<Book> createAll(List<BookImport> rows) {
+		List<Book> books = new ArrayList<>(rows.size());
+		List<ImportResult.Failure> failures = new ArrayList<>();
+
+		for (int i = 0; i < rows.size(); i++) {
+			try {
+				BookImport row = rows.get(i);
+				validateGenres(row.genres());
+				books.add(new Book(-1, row.data().get(), row.genres()));
+			} catch (ValidationException | IllegalArgumentException e) {
+				failures.add(new ImportResult.Failure(i, e.getMessage()));
+			}
 		}
 
-		return bookServices.create(new Book(-1, bookData, genres));
+		List<Book> created = bookServices.createAll(books);
+		created.forEach(searchIndex::put);
+		if (!created.isEmpty()) eventBus.publish(new DomainEvent.BooksImported(created));
+
+		return new ImportResult<>(created, failures);
 	}
 
 	/**
@@ -134,18 +330,73 @@ public class BookController {
 	 * @return The updated book instance.
 	 */
 	public Book update(int id, BookDto bookData, Set<Genre> newGenres) {
-		return bookServices.update(new Book(id, bookData, newGenres));
+		// the queued changes must not overwrite the ones made here
+		writeQueue.flush();
+
+		Book updated = bookServices.update(new Book(id, bookData, newGenres));
+		searchIndex.put(updated);
+		eventBus.publish(new DomainEvent.BookUpdated(updated));
+		return updated;
 	}
 
 	/**
 	 * Changes the read status of the {@link Book} passed as an argument by calling its
-	 * {@link Book#toggleRead toggleRead} method. Persists the new status in the database.
+	 * {@link Book#toggleRead toggleRead} method. The new status is shown right away and
+	 * persisted in the background by the {@link BookWriteQueue}; toggling the same book
+	 * again before that only changes what is persisted.
 	 *
 	 * @param b The book being updated.
 	 */
 	public void updateReadStatus(Book b) {
+		BookPatch previous = BookPatch.of(b);
 		b.toggleRead();
-		bookServices.updateReadStatus(b);
+		writeQueue.enqueue(b, previous);
+		searchIndex.put(b);
+		eventBus.publish(new DomainEvent.BookReadStatusChanged(b));
+	}
+
+	/**
+	 * Changes the review of the {@link Book} passed as an argument. The new review is shown
+	 * right away and persisted in the background by the {@link BookWriteQueue}.
+	 *
+	 * @param b      The book being updated.
+	 * @param review The new review; blank reviews are removed.
+	 */
+	public void updateReview(Book b, String review) {
+		BookPatch previous = BookPatch.of(b);
+		b.setReview(review == null || review.isBlank() ? null : review.trim());
+		writeQueue.enqueue(b, previous);
+		searchIndex.put(b);
+		eventBus.publish(new DomainEvent.BookUpdated(b));
+	}
+
+	/**
+	 * Changes the price of the {@link Book} passed as an argument. The new price is shown
+	 * right away and persisted in the background by the {@link BookWriteQueue}.
+	 *
+	 * @param b     The book being updated.
+	 * @param price The new price; cannot be less than 0.
+	 * @throws ValidationException If the price is less than 0.
+	 */
+	public void updatePrice(Book b, float price) {
+		if (price < 0) throw new ValidationException("O preço não pode ser menor que 0!");
+
+		BookPatch previous = BookPatch.of(b);
+		b.setPrice(price);
+		writeQueue.enqueue(b, previous);
+		searchIndex.put(b);
+		eventBus.publish(new DomainEvent.BookUpdated(b));
+	}
+
+	/**
+	 * Persists the changes of read status, review and price that are still queued,
+	 * waiting for them to be written.
+	 *
+	 * @throws exceptions.DataAccessException If the changes could not be persisted; the
+	 *                                        changed books are restored.
+	 */
+	public void flushPendingWrites() {
+		writeQueue.flush();
 	}
 
 	/**
@@ -154,6 +405,21 @@ public class BookController {
 	 * @param id The ID of the book to be deleted.
 	 */
 	public void delete(int id) {
+		writeQueue.discard(id);
 		bookServices.delete(id);
+		searchIndex.remove(id);
+		eventBus.publish(new DomainEvent.BookDeleted(id));
+	}
+
+	/**
+	 * Checks that a book is linked to at least 1 and at most 3 genres.
+	 *
+	 * @param genres The genres to link the book to.
+	 * @throws ValidationException If the number of genres is out of bounds.
+	 */
+	private static void validateGenres(Set<Genre> genres) {
+		if (genres == null || genres.isEmpty() || genres.size() > 3) {
+			throw new ValidationException("Um livro deve possuir entre 1 e 3 categorias!");
+		}
 	}
 }
@@ -0,0 +1,240 @@
+package controller;
+
+import events.DomainEvent;
+import events.EventBus;
+import models.Book;
+import models.dto.BookPatch;
+import services.BookServices;
+
+import javax.swing.SwingUtilities;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Write-behind queue of the small changes to {@link Book books}: read status, review and
+ * price. The changes are applied to the books in memory right away, and only persisted some time
+ * later, so that clicking through the interface never waits for the database.</p>
+ * <p>Changes are queued per book: each book keeps the values it had in the database and the ones
+ * it should have, so repeated changes coalesce into a single write, and changes that are undone
+ * before being written are not written at all. Only the attributes that differ from the database
+ * are written, so a read toggle never overwrites a review or price changed by another client.
+ * Queued changes are flushed together, in a single transaction, after the flush interval, or
+ * earlier when {@link #flush} is called.</p>
+ * <p>If a flush fails, the attributes that still hold the values that could not be written are
+ * restored to the values in the database, in the Event Dispatch Thread, where the books are changed;
+ * attributes changed again in the meantime keep their newer values, and the changes queued for them
+ * are rebased on the values in the database. Both the restored books and the failure are published
+ * to the {@link EventBus}.</p>
+ * <p>This class is thread safe; flushes run one at a time, in the order they were requested.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class BookWriteQueue implements AutoCloseable {
+	private static final Logger LOGGER = Logger.getLogger(BookWriteQueue.class.getName());
+
+	/**
+	 * How long changes wait before being flushed, unless another interval is chosen.
+	 */
+	public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(500);
+
+	private final BookServices bookServices;
+	private final EventBus eventBus;
+	private final Duration flushInterval;
+	private final Map<Integer, Pending> pending = new LinkedHashMap<>();
+	private final Object flushLock = new Object();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "book-write-queue");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private ScheduledFuture<?> scheduledFlush;
+
+	/**
+	 * Constructs an instance of {@link BookWriteQueue}.
+	 *
+	 * @param bookServices  The services that persist the changes.
+	 * @param eventBus      The bus failures are published to.
+	 * @param flushInterval How long changes wait before being flushed.
+	 */
+	public BookWriteQueue(BookServices bookServices, EventBus eventBus, Duration flushInterval) {
+		this.bookServices = bookServices;
+		this.eventBus = eventBus;
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Queues the current read status, review and price of the book passed as an argument,
+	 * already changed in memory, to be persisted.
+	 *
+	 * @param book     The changed book.
+	 * @param previous The values of the book before the change, as returned by {@link BookPatch#of}.
+	 */
+	public synchronized void enqueue(Book book, BookPatch previous) {
+		Pending queued = pending.get(book.getId());
+		BookPatch persisted = queued == null ? previous : queued.persisted();
+		BookPatch current = BookPatch.of(book);
+
+		if (current.changesFrom(persisted).isEmpty()) {
+			pending.remove(book.getId());
+			return;
+		}
+
+		pending.put(book.getId(), new Pending(book, persisted, current));
+
+		if (scheduledFlush == null) {
+			scheduledFlush = scheduler.schedule(this::flushQuietly, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Discards the changes queued for a book, e.g. because it was deleted.
+	 *
+	 * @param id The ID of the book.
+	 */
+	public synchronized void discard(int id) {
+		pending.remove(id);
+	}
+
+	/**
+	 * @return The number of books with changes not yet flushed.
+	 */
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Persists the queued changes in the calling thread, waiting for the flushes already running.
+	 *
+	 * @throws exceptions.DataAccessException If the changes could not be persisted; the books
+	 *                                        are restored as described in {@link BookWriteQueue}.
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			List<Pending> writes;
+
+			synchronized (this) {
+				writes = new ArrayList<>(pending.values());
+				pending.clear();
+
+				if (scheduledFlush != null) {
+					scheduledFlush.cancel(false);
+					scheduledFlush = null;
+				}
+			}
+
+			if (writes.isEmpty()) return;
+
+			try {
+				bookServices.patchAll(writes.stream().map(Pending::changes).toList());
+			} catch (RuntimeException e) {
+				restore(writes, e);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Persists the queued changes in the background.
+	 */
+	public void flushAsync() {
+		scheduler.execute(this::flushQuietly);
+	}
+
+	/**
+	 * Flushes the queued changes and stops the background flushes.
+	 */
+	@Override
+	public void close() {
+		try {
+			flush();
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			// already published as BookWritesFailed, which is shown to the user
+			LOGGER.log(Level.FINE, "Falha ao salvar as alterações dos livros", e);
+		}
+	}
+
+	private void restore(List<Pending> writes, RuntimeException error) {
+		Runnable rollback = () -> {
+			List<Book> restored = new ArrayList<>(writes.size());
+
+			synchronized (this) {
+				for (Pending write : writes) {
+					rollBack(write);
+					restored.add(write.book());
+				}
+			}
+
+			restored.forEach(book -> eventBus.publish(new DomainEvent.BookUpdated(book)));
+			eventBus.publish(new DomainEvent.BookWritesFailed(List.copyOf(restored), error));
+		};
+
+		if (SwingUtilities.isEventDispatchThread()) rollback.run();
+		else SwingUtilities.invokeLater(rollback);
+	}
+
+	/**
+	 * Restores the attributes of the book of a failed write that still hold the values that could
+	 * not be written, and rebases the change queued for the book since the flush, if any, on the
+	 * values in the database.
+	 *
+	 * @param write The failed write.
+	 */
+	private void rollBack(Pending write) {
+		Book book = write.book();
+		Set<BookPatch.Field> failed = write.changes().fields();
+
+		Set<BookPatch.Field> unchanged = EnumSet.noneOf(BookPatch.Field.class);
+		unchanged.addAll(failed);
+		unchanged.removeAll(BookPatch.of(book).changesFrom(write.current()).fields());
+		write.persisted().only(unchanged).applyTo(book);
+
+		Pending queued = pending.get(book.getId());
+		if (queued == null) return;
+
+		// the queued change was made on the values that could not be written
+		Set<BookPatch.Field> assumed = EnumSet.noneOf(BookPatch.Field.class);
+		assumed.addAll(failed);
+		assumed.removeAll(queued.persisted().changesFrom(write.current()).fields());
+
+		BookPatch persisted = queued.persisted().with(write.persisted().only(assumed));
+		BookPatch current = BookPatch.of(book);
+
+		if (current.changesFrom(persisted).isEmpty()) pending.remove(book.getId());
+		else pending.put(book.getId(), new Pending(book, persisted, current));
+	}
+
+	/**
+	 * The changes queued for a book.
+	 *
+	 * @param book      The changed book.
+	 * @param persisted The values in the database.
+	 * @param current   The values to persist.
+	 */
+	private record Pending(Book book, BookPatch persisted, BookPatch current) {
+		/**
+		 * @return The attributes to write, i.e. the ones whose values differ from the database.
+		 */
+		BookPatch changes() {
+			return current.changesFrom(persisted);
+		}
+	}
+}
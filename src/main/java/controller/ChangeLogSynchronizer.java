@@ -0,0 +1,175 @@
+package controller;
+
+import events.DomainEvent;
+import events.EventBus;
+import exceptions.NotFoundException;
+import factory.ServicesFactory;
+import models.Book;
+import services.BookSearchIndex;
+import services.BookServices;
+import services.ChangeLog.Entity;
+import services.ChangeLog.Entry;
+import services.ChangeLog.Operation;
+import services.ChangeLogPoller;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * <p>Applies the writes made by other clients, as read by the {@link ChangeLogPoller}, to this
+ * client: discards the stale entries of the shared caches, updates the {@link BookSearchIndex}
+ * and publishes to the {@link EventBus} the same {@link DomainEvent events} the controllers
+ * publish for local writes, so open views update only the changed rows.</p>
+ * <p>Entries of the same row are coalesced and only the changed rows are read again, books in
+ * a single query. A row that no longer exists is published as deleted.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class ChangeLogSynchronizer {
+	private final ServicesFactory servicesFactory;
+	private final BookServices bookServices;
+	private final BookSearchIndex searchIndex;
+	private final EventBus eventBus;
+
+	/**
+	 * Constructs an instance of {@link ChangeLogSynchronizer}.
+	 *
+	 * @param servicesFactory The factory whose caches are kept up to date.
+	 * @param searchIndex     The book search index shared by the controllers.
+	 * @param eventBus        The bus the changes are published to.
+	 */
+	public ChangeLogSynchronizer(ServicesFactory servicesFactory, BookSearchIndex searchIndex, EventBus eventBus) {
+		this.servicesFactory = servicesFactory;
+		this.bookServices = servicesFactory.createBookServices();
+		this.searchIndex = searchIndex;
+		this.eventBus = eventBus;
+	}
+
+	/**
+	 * Applies the entries passed as an argument; references are applied before books, so the
+	 * books read again already reference their updated authors, publishers and genres.
+	 *
+	 * @param entries The entries written by other clients, in order.
+	 */
+	public void apply(List<Entry> entries) {
+		Map<Entity, Map<Integer, Operation>> changes = new EnumMap<>(Entity.class);
+
+		for (Entry entry : entries) {
+			servicesFactory.invalidateCaches(entry);
+			changes.computeIfAbsent(entry.entity(), e -> new LinkedHashMap<>())
+				.merge(entry.id(), entry.operation(), ChangeLogSynchronizer::coalesce);
+		}
+
+		boolean referencesChanged = false;
+
+		if (changes.containsKey(Entity.AUTHOR)) {
+			referencesChanged |= applyReferences(
+				changes.get(Entity.AUTHOR), servicesFactory.createAuthorServices()::getById,
+				DomainEvent.AuthorCreated::new, DomainEvent.AuthorsImported::new,
+				DomainEvent.AuthorUpdated::new, DomainEvent.AuthorDeleted::new
+			);
+		}
+
+		if (changes.containsKey(Entity.PUBLISHER)) {
+			referencesChanged |= applyReferences(
+				changes.get(Entity.PUBLISHER), servicesFactory.createPublisherServices()::getById,
+				DomainEvent.PublisherCreated::new, DomainEvent.PublishersImported::new,
+				DomainEvent.PublisherUpdated::new, DomainEvent.PublisherDeleted::new
+			);
+		}
+
+		if (changes.containsKey(Entity.GENRE)) {
+			referencesChanged |= applyReferences(
+				changes.get(Entity.GENRE), servicesFactory.createGenreServices()::getById,
+				DomainEvent.GenreCreated::new, DomainEvent.GenresImported::new,
+				DomainEvent.GenreUpdated::new, DomainEvent.GenreDeleted::new
+			);
+		}
+
+		if (referencesChanged) searchIndex.rebuildAsync();
+		if (changes.containsKey(Entity.BOOK)) applyBooks(changes.get(Entity.BOOK));
+	}
+
+	/**
+	 * Publishes the changes of one type of reference.
+	 *
+	 * @return {@code true} if a reference was updated or deleted, which makes the indexed
+	 * books that reference it stale.
+	 */
+	private <T> boolean applyReferences(Map<Integer, Operation> changes, IntFunction<T> reader,
+										Function<T, DomainEvent> created, Function<List<T>, DomainEvent> imported,
+										Function<T, DomainEvent> updated, IntFunction<DomainEvent> deleted) {
+		List<T> inserted = new ArrayList<>();
+		boolean stale = false;
+
+		for (Map.Entry<Integer, Operation> change : changes.entrySet()) {
+			int id = change.getKey();
+			T reference = change.getValue() == Operation.DELETE ? null : read(reader, id);
+
+			if (reference == null) {
+				eventBus.publish(deleted.apply(id));
+				stale = true;
+			} else if (change.getValue() == Operation.INSERT) {
+				inserted.add(reference);
+			} else {
+				eventBus.publish(updated.apply(reference));
+				stale = true;
+			}
+		}
+
+		if (inserted.size() == 1) eventBus.publish(created.apply(inserted.get(0)));
+		else if (!inserted.isEmpty()) eventBus.publish(imported.apply(List.copyOf(inserted)));
+
+		return stale;
+	}
+
+	private void applyBooks(Map<Integer, Operation> changes) {
+		List<Integer> ids = changes.entrySet().stream()
+			.filter(change -> change.getValue() != Operation.DELETE)
+			.map(Map.Entry::getKey)
+			.toList();
+		Map<Integer, Book> books = new LinkedHashMap<>();
+		bookServices.getByIds(ids).forEach(book -> books.put(book.getId(), book));
+
+		List<Book> inserted = new ArrayList<>();
+
+		for (Map.Entry<Integer, Operation> change : changes.entrySet()) {
+			int id = change.getKey();
+			Book book = books.get(id);
+
+			if (book == null) {
+				searchIndex.remove(id);
+				eventBus.publish(new DomainEvent.BookDeleted(id));
+				continue;
+			}
+
+			searchIndex.put(book);
+
+			if (change.getValue() == Operation.INSERT) inserted.add(book);
+			else eventBus.publish(new DomainEvent.BookUpdated(book));
+		}
+
+		if (inserted.size() == 1) eventBus.publish(new DomainEvent.BookCreated(inserted.get(0)));
+		else if (!inserted.isEmpty()) eventBus.publish(new DomainEvent.BooksImported(List.copyOf(inserted)));
+	}
+
+	private static <T> T read(IntFunction<T> reader, int id) {
+		try {
+			return reader.apply(id);
+		} catch (NotFoundException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * A row inserted and then updated is still new to this client.
+	 */
+	private static Operation coalesce(Operation earlier, Operation later) {
+		return earlier == Operation.INSERT && later == Operation.UPDATE ? Operation.INSERT : later;
+	}
+}
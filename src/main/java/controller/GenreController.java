@@ -1,9 +1,15 @@
 package controller;
 
+import events.DomainEvent;
+import events.EventBus;
 import exceptions.ValidationException;
 import models.Genre;
+import models.dto.ImportResult;
+import services.BookSearchIndex;
 import services.GenreServices;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static utils.Validator.isValidString;
@@ -15,14 +21,21 @@ import static utils.Validator.isValidString;
  */
 public class GenreController {
 	private final GenreServices genreServices;
+	private final BookSearchIndex searchIndex;
+	private final EventBus eventBus;
 
 	/**
-	 * Constructs an instance of {@link AuthorController}
+	 * Constructs an instance of {@link GenreController}
 	 *
-	 * @param services An instance of {@link GenreServices}.
+	 * @param services    An instance of {@link GenreServices}.
+	 * @param searchIndex The book search index, rebuilt when a genre is updated
+	 *                    since the indexed books reference it.
+	 * @param eventBus    The bus the changes are published to.
 	 */
-	public GenreController(GenreServices services) {
+	public GenreController(GenreServices services, BookSearchIndex searchIndex, EventBus eventBus) {
 		this.genreServices = services;
+		this.searchIndex = searchIndex;
+		this.eventBus = eventBus;
 	}
 
 	/**
@@ -59,7 +72,38 @@ public class GenreController {
 			throw new ValidationException("O nome da categoria deve ser preenchido corretamente!");
 		}
 
-		return genreServices.create(new Genre(-1, name));
+		Genre created = genreServices.create(new Genre(-1, name));
+		eventBus.publish(new DomainEvent.GenreCreated(created));
+		return created;
+	}
+
+	/**
+	 * Creates new instances of {@link Genre} for each name passed as an argument and
+	 * persists them in the database using batched inserts. Names that are not valid
+	 * strings are reported as failures, while the valid ones are still imported.
+	 *
+	 * @param names The names of the genres to be created.
+	 * @return The created genres, with the generated keys, and the rejected rows.
+	 */
+	public ImportResult<Genre> createAll(List<String> names) {
+		List<Genre> genres = new ArrayList<>(names.size());
+		List<ImportResult.Failure> failures = new ArrayList<>();
+
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+
+			if (!isValidString(name)) {
+				failures.add(new ImportResult.Failure(i, "O nome da categoria deve ser preenchido corretamente!"));
+				continue;
+			}
+
+			genres.add(new Genre(-1, name));
+		}
+
+		List<Genre> created = genreServices.createAll(genres);
+		if (!created.isEmpty()) eventBus.publish(new DomainEvent.GenresImported(created));
+
+		return new ImportResult<>(created, failures);
 	}
 
 	/**
@@ -77,7 +121,10 @@ public class GenreController {
 			throw new ValidationException("O nome da categoria deve ser preenchido corretamente!");
 		}
 
-		return genreServices.update(new Genre(id, newName));
+		Genre updated = genreServices.update(new Genre(id, newName));
+		searchIndex.rebuildAsync();
+		eventBus.publish(new DomainEvent.GenreUpdated(updated));
+		return updated;
 	}
 
 	/**
@@ -87,5 +134,6 @@ public class GenreController {
 	 */
 	public void delete(int id) {
 		genreServices.delete(id);
+		eventBus.publish(new DomainEvent.GenreDeleted(id));
 	}
 }
@@ -1,9 +1,15 @@
 package controller;
 
+import events.DomainEvent;
+import events.EventBus;
 import exceptions.ValidationException;
 import models.Publisher;
+import models.dto.ImportResult;
+import services.BookSearchIndex;
 import services.PublisherServices;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static utils.Validator.isValidString;
@@ -15,14 +21,21 @@ import static utils.Validator.isValidString;
  */
 public class PublisherController {
 	private final PublisherServices publisherServices;
+	private final BookSearchIndex searchIndex;
+	private final EventBus eventBus;
 
 	/**
 	 * Constructs an instance of {@link PublisherController}
 	 *
-	 * @param services An instance of {@link PublisherServices}.
+	 * @param services    An instance of {@link PublisherServices}.
+	 * @param searchIndex The book search index, rebuilt when a publisher is updated
+	 *                    since the indexed books reference it.
+	 * @param eventBus    The bus the changes are published to.
 	 */
-	public PublisherController(PublisherServices services) {
+	public PublisherController(PublisherServices services, BookSearchIndex searchIndex, EventBus eventBus) {
 		this.publisherServices = services;
+		this.searchIndex = searchIndex;
+		this.eventBus = eventBus;
 	}
 
 	/**
@@ -57,7 +70,38 @@ public class PublisherController {
 	public Publisher create(String name) {
 		if (!isValidString(name)) throw new ValidationException("O nome da editora deve ser preenchido corretamente!");
 
-		return publisherServices.create(new Publisher(-1, name));
+		Publisher created = publisherServices.create(new Publisher(-1, name));
+		eventBus.publish(new DomainEvent.PublisherCreated(created));
+		return created;
+	}
+
+	/**
+	 * Creates new instances of {@link Publisher} for each name passed as an argument and
+	 * persists them in the database using batched inserts. Names that are not valid
+	 * strings are reported as failures, while the valid ones are still imported.
+	 *
+	 * @param names The names of the publishers to be created.
+	 * @return The created publishers, with the generated keys, and the rejected rows.
+	 */
+	public ImportResult<Publisher> createAll(List<String> names) {
+		List<Publisher> publishers = new ArrayList<>(names.size());
+		List<ImportResult.Failure> failures = new ArrayList<>();
+
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+
+			if (!isValidString(name)) {
+				failures.add(new ImportResult.Failure(i, "O nome da editora deve ser preenchido corretamente!"));
+				continue;
+			}
+
+			publishers.add(new Publisher(-1, name));
+		}
+
+		List<Publisher> created = publisherServices.createAll(publishers);
+		if (!created.isEmpty()) eventBus.publish(new DomainEvent.PublishersImported(created));
+
+		return new ImportResult<>(created, failures);
 	}
 
 	/**
@@ -73,7 +117,10 @@ public class PublisherController {
 	public Publisher update(int id, String newName) {
 		if (!isValidString(newName)) throw new ValidationException("O nome da editora deve ser preenchido corretamente!");
 
-		return publisherServices.update(new Publisher(id, newName));
+		Publisher updated = publisherServices.update(new Publisher(id, newName));
+		searchIndex.rebuildAsync();
+		eventBus.publish(new DomainEvent.PublisherUpdated(updated));
+		return updated;
 	}
 
 	/**
@@ -83,5 +130,6 @@ public class PublisherController {
 	 */
 	public void delete(int id) {
 		publisherServices.delete(id);
+		eventBus.publish(new DomainEvent.PublisherDeleted(id));
 	}
 }
@@ -0,0 +1,136 @@
+package events;
+
+import models.Author;
+import models.Book;
+import models.Genre;
+import models.Publisher;
+
+import java.util.List;
+
+/**
+ * <p>Change to the data, published to the {@link EventBus} by the controllers after every write
+ * is persisted, so that open views can update only what changed instead of reading everything
+ * again.</p>
+ * <p>Events carry the written objects as they were saved. Writes that change the number of
+ * books of an author, publisher or genre are only published as book events.</p>
+ *
+ * @author Lucas da Paz
+ */
+public sealed interface DomainEvent {
+	/**
+	 * A book was created and linked to its genres.
+	 */
+	record BookCreated(Book book) implements DomainEvent {
+	}
+
+	/**
+	 * Books were created by an import.
+	 */
+	record BooksImported(List<Book> books) implements DomainEvent {
+	}
+
+	/**
+	 * The data of a book, including its links to genres, was updated.
+	 */
+	record BookUpdated(Book book) implements DomainEvent {
+	}
+
+	/**
+	 * Only the read status of a book was changed.
+	 */
+	record BookReadStatusChanged(Book book) implements DomainEvent {
+	}
+
+	/**
+	 * Changes to books queued for a write-behind could not be persisted; the books were
+	 * restored to their persisted state, which is also published as {@link BookUpdated}.
+	 */
+	record BookWritesFailed(List<Book> books, RuntimeException error) implements DomainEvent {
+	}
+
+	/**
+	 * A book was deleted.
+	 */
+	record BookDeleted(int id) implements DomainEvent {
+	}
+
+	/**
+	 * The books held in memory were loaded after the client started, or read again from the
+	 * database because the books restored from a snapshot could no longer be brought up to date;
+	 * the book list starts over from them.
+	 */
+	record CatalogReloaded() implements DomainEvent {
+	}
+
+	/**
+	 * An author was created.
+	 */
+	record AuthorCreated(Author author) implements DomainEvent {
+	}
+
+	/**
+	 * Authors were created by an import.
+	 */
+	record AuthorsImported(List<Author> authors) implements DomainEvent {
+	}
+
+	/**
+	 * An author was updated.
+	 */
+	record AuthorUpdated(Author author) implements DomainEvent {
+	}
+
+	/**
+	 * An author was deleted.
+	 */
+	record AuthorDeleted(int id) implements DomainEvent {
+	}
+
+	/**
+	 * A publisher was created.
+	 */
+	record PublisherCreated(Publisher publisher) implements DomainEvent {
+	}
+
+	/**
+	 * Publishers were created by an import.
+	 */
+	record PublishersImported(List<Publisher> publishers) implements DomainEvent {
+	}
+
+	/**
+	 * A publisher was updated.
+	 */
+	record PublisherUpdated(Publisher publisher) implements DomainEvent {
+	}
+
+	/**
+	 * A publisher was deleted.
+	 */
+	record PublisherDeleted(int id) implements DomainEvent {
+	}
+
+	/**
+	 * A genre was created.
+	 */
+	record GenreCreated(Genre genre) implements DomainEvent {
+	}
+
+	/**
+	 * Genres were created by an import.
+	 */
+	record GenresImported(List<Genre> genres) implements DomainEvent {
+	}
+
+	/**
+	 * A genre was updated.
+	 */
+	record GenreUpdated(Genre genre) implements DomainEvent {
+	}
+
+	/**
+	 * A genre was deleted, and so were its links to books.
+	 */
+	record GenreDeleted(int id) implements DomainEvent {
+	}
+}
@@ -0,0 +1,88 @@
+package events;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>In-process bus of {@link DomainEvent domain events}. Events are delivered synchronously,
+ * in the thread that publishes them, to every listener subscribed to their type.</p>
+ * <p>The bus only keeps weak references to the subscriptions: a listener is called for as long
+ * as the {@link Subscription} returned by {@link #subscribe} is reachable, so that views which
+ * are never closed properly do not leak. Exceptions thrown by a listener are logged and do not
+ * stop the delivery to the others.</p>
+ * <p>This class is thread safe.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class EventBus {
+	private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+
+	private final List<WeakReference<Subscription>> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Subscribes a listener to the events of the type passed as an argument.
+	 *
+	 * @param type     The type of the events, e.g. {@code DomainEvent.BookUpdated.class}.
+	 * @param listener Receives each event of the type.
+	 * @param <E>      Type of the events.
+	 * @return The subscription, which must be kept reachable by the subscriber.
+	 */
+	public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> listener) {
+		Subscription subscription = new Subscription(event -> {
+			if (type.isInstance(event)) listener.accept(type.cast(event));
+		});
+		subscriptions.add(new WeakReference<>(subscription));
+		return subscription;
+	}
+
+	/**
+	 * Delivers the event to the listeners subscribed to its type.
+	 *
+	 * @param event The event to publish.
+	 */
+	public void publish(DomainEvent event) {
+		for (WeakReference<Subscription> reference : subscriptions) {
+			Subscription subscription = reference.get();
+
+			if (subscription == null) {
+				subscriptions.remove(reference);
+				continue;
+			}
+
+			try {
+				subscription.listener.accept(event);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao tratar o evento " + event, e);
+			}
+		}
+	}
+
+	/**
+	 * @return The number of subscriptions still active.
+	 */
+	public int getSubscriberCount() {
+		return (int) subscriptions.stream().filter(r -> r.get() != null).count();
+	}
+
+	/**
+	 * Subscription of a listener to an {@link EventBus}.
+	 */
+	public class Subscription {
+		private final Consumer<DomainEvent> listener;
+
+		private Subscription(Consumer<DomainEvent> listener) {
+			this.listener = listener;
+		}
+
+		/**
+		 * Stops delivering events to the listener.
+		 */
+		public void cancel() {
+			subscriptions.removeIf(r -> r.get() == this || r.get() == null);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package exceptions;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Exception to be thrown when the database cannot be accessed or rejects
+ * an operation; wraps the {@link SQLException} reported by the driver.
+ *
+ * @author Lucas da Paz
+ */
+public class DataAccessException extends RuntimeException {
+
+	/**
+	 * Constructs a new {@code DataAccessException} with the message of the specified cause.
+	 * Calls super on {@link RuntimeException#RuntimeException(String, Throwable) RuntimeException(String message, Throwable cause)}.
+	 *
+	 * @param cause The exception reported by the driver; can be retrieved by the {@link #getCause()} method.
+	 */
+	public DataAccessException(SQLException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	@Override
+	public synchronized SQLException getCause() {
+		return (SQLException) super.getCause();
+	}
+
+	/**
+	 * @return {@code true} if the operation was rejected because it would break a constraint,
+	 * such as deleting an author that still has books.
+	 */
+	public boolean isConstraintViolation() {
+		return getCause() instanceof SQLIntegrityConstraintViolationException;
+	}
+}
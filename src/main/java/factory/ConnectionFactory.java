@@ -2,46 +2,320 @@ package factory;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import services.dialect.Dialect;
 
-import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Class responsible for connecting to the database.
+ * <p>Class responsible for connecting to the database.</p>
+ * <p>Each instance owns a single connection pool, created on the first borrow and kept
+ * alive until {@link #close()} is called; the application uses one process-wide instance,
+ * obtained through {@link #getDefault()}. Connections must be borrowed for a single operation
+ * or transaction and closed right after, which returns them to the pool.</p>
+ * <p>The pool is configured from a properties file: the path in the {@value #CONFIG_PATH_PROPERTY}
+ * system property, if set; otherwise {@value #CONFIG_FILE} in the working directory, if it exists;
+ * otherwise the {@value #CONFIG_FILE} bundled with the application.</p>
+ * <p>The {@link Dialect} of the database is chosen from its JDBC URL; a MySQL server by default,
+ * or the embedded H2 database for {@code jdbc:h2:} URLs, whose schema is created by the dialect
+ * when the pool is.</p>
  *
  * @author Lucas da Paz
  */
 public class ConnectionFactory {
-	private final static String USERNAME = "user01";
-	private final static String PASSWORD = "admin";
-	private final static String DATABASE = "book_management";
+	/**
+	 * Name of the system property that may point to an external configuration file.
+	 */
+	public static final String CONFIG_PATH_PROPERTY = "bookmanagement.config";
+	/**
+	 * Name of the configuration file, both in the working directory and in the classpath.
+	 */
+	public static final String CONFIG_FILE = "database.properties";
+	/**
+	 * JDBC URL of the database, unless another one is set in the {@code db.url} property.
+	 */
+	public static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/book_management";
+	/**
+	 * File of the catalog snapshot, relative to the home directory of the user, unless another
+	 * one is set in the {@code snapshot.file} property.
+	 */
+	public static final String DEFAULT_SNAPSHOT_FILE = ".book-management/catalog.snapshot";
+
+	private static ConnectionFactory defaultFactory;
+
+	private final Properties properties;
+	private final Dialect dialect;
+	private final LongAdder borrowCount = new LongAdder();
+	private final LongAdder borrowNanos = new LongAdder();
+	private final LongAccumulator maxBorrowNanos = new LongAccumulator(Math::max, 0);
+	private final QueryMetrics queryMetrics = new QueryMetrics();
+	private HikariDataSource dataSource;
+
+	/**
+	 * Constructs an instance of {@link ConnectionFactory} whose pool will be configured
+	 * with the properties passed as an argument; the pool itself is only created when
+	 * the first connection is requested.
+	 *
+	 * @param properties The database and pool settings; see {@code database.properties}
+	 *                   for the supported keys.
+	 */
+	public ConnectionFactory(Properties properties) {
+		this.properties = properties;
+		this.dialect = Dialect.forUrl(getUrl());
+	}
+
+	/**
+	 * @return The process-wide {@link ConnectionFactory}, configured from the
+	 * application configuration file.
+	 */
+	public static synchronized ConnectionFactory getDefault() {
+		if (defaultFactory == null) defaultFactory = new ConnectionFactory(loadProperties());
+
+		return defaultFactory;
+	}
+
+	/**
+	 * Loads the application configuration file, as described in {@link ConnectionFactory}.
+	 * Properties defined in an external file override the bundled ones.
+	 *
+	 * @return The loaded properties.
+	 * @throws UncheckedIOException If any of the files cannot be read.
+	 */
+	public static Properties loadProperties() {
+		Properties properties = new Properties();
+
+		try (InputStream in = ConnectionFactory.class.getResourceAsStream("/%s".formatted(CONFIG_FILE))) {
+			if (in != null) properties.load(in);
+
+			String externalPath = System.getProperty(CONFIG_PATH_PROPERTY);
+			Path external = externalPath != null ? Path.of(externalPath) : Path.of(CONFIG_FILE);
+
+			if (Files.isRegularFile(external)) {
+				try (InputStream externalIn = Files.newInputStream(external)) {
+					properties.load(externalIn);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Borrows a {@link Connection} from the pool, creating the pool if needed. The caller
+	 * is responsible for closing the connection, which returns it to the pool.
+	 *
+	 * @return A connection with the systems database.
+	 * @throws SQLException If no connection could be obtained within the configured timeout.
+	 */
+	public Connection getConnection() throws SQLException {
+		HikariDataSource ds = getDataSource();
+		long start = System.nanoTime();
+
+		try {
+			return ds.getConnection();
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			borrowCount.increment();
+			borrowNanos.add(elapsed);
+			maxBorrowNanos.accumulate(elapsed);
+		}
+	}
 
 	/**
-	 * @return The {@link Connection} obtained from the application
-	 * data source.
+	 * Borrows a {@link Connection} from the pool, as {@link #getConnection()}, for the query
+	 * named as an argument: the time spent waiting for it, executing its statements and reading
+	 * their rows, the rows read and any failure are recorded in the {@link #getQueryMetrics()
+	 * metrics} of the query when it is closed.
+	 *
+	 * @param query Name of the query, such as the method that runs it.
+	 * @return A connection with the systems database.
+	 * @throws SQLException If no connection could be obtained within the configured timeout;
+	 *                      recorded as a failure of the query.
 	 */
-	public Connection getConnection() {
+	public Connection getConnection(String query) throws SQLException {
+		QueryMetrics.Recorder recorder = queryMetrics.recorder(query);
+		long start = System.nanoTime();
+
 		try {
-			return createDataSource().getConnection();
+			Connection connection = getConnection();
+			return InstrumentedConnection.wrap(connection, recorder, System.nanoTime() - start);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			recorder.record(System.nanoTime() - start, 0, 0, true);
+			throw e;
 		}
 	}
 
 	/**
-	 * Creates a {@link DataSource} instance using the credentials provided
-	 * in this class ({@link #USERNAME}, {@link #PASSWORD} and {@link #DATABASE}.
+	 * @return The counters of the queries run through connections borrowed with
+	 * {@link #getConnection(String)}.
+	 */
+	public QueryMetrics getQueryMetrics() {
+		return queryMetrics;
+	}
+
+	/**
+	 * Starts writing the {@link #getQueryMetrics() query metrics} periodically, in the
+	 * Prometheus text format, to the file in the {@code metrics.file} property, every
+	 * {@code metrics.exportIntervalMs} milliseconds; does nothing if no file is configured.
+	 */
+	public void startMetricsExport() {
+		String file = properties.getProperty("metrics.file");
+		if (file == null || file.isBlank()) return;
+
+		queryMetrics.startExport(Path.of(file.trim()), Duration.ofMillis(getLong("metrics.exportIntervalMs", 15_000)));
+	}
+
+	/**
+	 * @return The JDBC URL of the configured database.
+	 */
+	public String getUrl() {
+		String url = properties.getProperty("db.url");
+		return url == null || url.isBlank() ? DEFAULT_URL : url.trim();
+	}
+
+	/**
+	 * @return The file of the {@link services.CatalogSnapshot catalog snapshot}: the one in the
+	 * {@code snapshot.file} property or, if it is missing, {@value #DEFAULT_SNAPSHOT_FILE} in the
+	 * home directory of the user; {@code null} if the property is empty, which disables it.
+	 */
+	public Path getSnapshotFile() {
+		String file = properties.getProperty("snapshot.file");
+		if (file == null) return Path.of(System.getProperty("user.home"), DEFAULT_SNAPSHOT_FILE);
+
+		return file.isBlank() ? null : Path.of(file.trim());
+	}
+
+	/**
+	 * @return The dialect of the configured database.
+	 */
+	public Dialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * @return The maximum number of connections the pool lends at once.
+	 */
+	public int getMaximumPoolSize() {
+		return getInt("pool.maximumPoolSize", 5);
+	}
+
+	/**
+	 * @return A snapshot of the current state of the pool and of the time spent
+	 * waiting for connections since it was created.
+	 */
+	public PoolStats getPoolStats() {
+		int active = 0, idle = 0, total = 0, waiting = 0;
+
+		synchronized (this) {
+			if (dataSource != null) {
+				HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+				if (pool != null) {
+					active = pool.getActiveConnections();
+					idle = pool.getIdleConnections();
+					total = pool.getTotalConnections();
+					waiting = pool.getThreadsAwaitingConnection();
+				}
+			}
+		}
+
+		long borrows = borrowCount.sum();
+		double averageMillis = borrows == 0 ? 0 : nanosToMillis(borrowNanos.sum()) / borrows;
+
+		return new PoolStats(active, idle, total, waiting, borrows, averageMillis, nanosToMillis(maxBorrowNanos.get()));
+	}
+
+	/**
+	 * Closes the pool and all of its connections and stops the export of the query metrics;
+	 * subsequent borrows will create a new pool.
+	 */
+	public synchronized void close() {
+		queryMetrics.close();
+		if (dataSource == null) return;
+
+		dataSource.close();
+		dataSource = null;
+	}
+
+	/**
+	 * @return The pool of this factory, creating it on the first call and
+	 * {@link Dialect#initialize initializing} the database with its first connection.
+	 * @throws SQLException If the database could not be initialized; the pool is closed.
+	 */
+	private synchronized HikariDataSource getDataSource() throws SQLException {
+		if (dataSource != null) return dataSource;
+
+		HikariDataSource ds = new HikariDataSource(createConfig());
+		try (Connection connection = ds.getConnection()) {
+			dialect.initialize(connection);
+		} catch (SQLException | RuntimeException e) {
+			ds.close();
+			throw e;
+		}
+
+		return dataSource = ds;
+	}
+
+	/**
+	 * Creates the pool configuration from the properties of this factory,
+	 * using sensible defaults for the optional ones.
 	 *
-	 * @return The initialized data source.
+	 * @return The pool configuration.
 	 */
-	private DataSource createDataSource() throws SQLException {
+	private HikariConfig createConfig() {
 		HikariConfig config = new HikariConfig();
-		config.setJdbcUrl("jdbc:mysql://localhost:3306/%s".formatted(DATABASE));
-		config.setUsername(USERNAME);
-		config.setPassword(PASSWORD);
-		config.setMaximumPoolSize(5);
+		config.setPoolName("book-management");
+		config.setJdbcUrl(dialect.configureUrl(getUrl()));
+		config.setUsername(properties.getProperty("db.username"));
+		config.setPassword(properties.getProperty("db.password"));
+		config.setMaximumPoolSize(getMaximumPoolSize());
+		config.setMinimumIdle(getInt("pool.minimumIdle", 1));
+		config.setConnectionTimeout(getLong("pool.connectionTimeoutMs", 10_000));
+		config.setIdleTimeout(getLong("pool.idleTimeoutMs", 600_000));
+		config.setMaxLifetime(getLong("pool.maxLifetimeMs", 1_800_000));
+		config.setValidationTimeout(getLong("pool.validationTimeoutMs", 5_000));
+
+		String testQuery = properties.getProperty("pool.connectionTestQuery");
+		if (testQuery != null && !testQuery.isBlank()) config.setConnectionTestQuery(testQuery);
+
+		// driver specific settings, e.g. "db.property.cachePrepStmts=true", over the ones of the dialect
+		Properties driverProperties = dialect.getDefaultDriverProperties();
+		driverProperties.stringPropertyNames()
+			.forEach(key -> config.addDataSourceProperty(key, driverProperties.getProperty(key)));
+		properties.stringPropertyNames()
+			.stream()
+			.filter(key -> key.startsWith("db.property."))
+			.forEach(key -> config.addDataSourceProperty(key.substring("db.property.".length()),
+				properties.getProperty(key)
+			));
+
+		return config;
+	}
+
+	private int getInt(String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+	}
+
+	private long getLong(String key, long defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+	}
 
-		return new HikariDataSource(config);
+	private static double nanosToMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
 	}
 }
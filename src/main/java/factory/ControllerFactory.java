@@ -1,9 +1,26 @@
 package factory;
 
+import controller.AsyncAuthorController;
+import controller.AsyncBookController;
+import controller.AsyncExecutor;
+import controller.AsyncGenreController;
+import controller.AsyncPublisherController;
 import controller.AuthorController;
 import controller.BookController;
+import controller.BookWriteQueue;
+import controller.ChangeLogSynchronizer;
 import controller.GenreController;
 import controller.PublisherController;
+import events.DomainEvent;
+import events.EventBus;
+import models.Book;
+import models.filters.BookSort;
+import services.BookSearchIndex;
+import services.CatalogSnapshot;
+import services.ChangeLogPoller;
+
+import java.time.Duration;
+import java.util.Set;
 
 /**
  * Class responsible for instantiating controller classes.
@@ -12,39 +29,195 @@ import controller.PublisherController;
  */
 public class ControllerFactory {
 	private final ServicesFactory servicesFactory;
+	private final BookSearchIndex bookSearchIndex;
+	private final EventBus eventBus;
+	private final ChangeLogPoller changeLogPoller;
+	private final AsyncExecutor asyncExecutor;
+	private final BookWriteQueue bookWriteQueue;
+	private final CatalogSnapshot catalogSnapshot;
 
 	/**
-	 * Constructs an instance of {@link ControllerFactory}.
+	 * Constructs an instance of {@link ControllerFactory} over the process-wide pool, whose
+	 * books are restored from the {@link CatalogSnapshot} of the database, if there is one.
 	 */
 	public ControllerFactory() {
-		this.servicesFactory = new ServicesFactory();
+		this(new ServicesFactory(), true);
+	}
+
+	/**
+	 * Constructs an instance of {@link ControllerFactory} whose controllers use the services
+	 * created by the factory passed as an argument, without a {@link CatalogSnapshot}.
+	 *
+	 * @param servicesFactory The factory of the services used by the controllers.
+	 */
+	public ControllerFactory(ServicesFactory servicesFactory) {
+		this(servicesFactory, false);
+	}
+
+	/**
+	 * Constructs an instance of {@link ControllerFactory} whose controllers
+	 * use the services created by the factory passed as an argument. Starts
+	 * building the {@link BookSearchIndex} shared by the controllers in the background.
+	 * The controllers also share an {@link EventBus}, to which they publish every write;
+	 * writes made by other clients are published to it as well once
+	 * {@link #startSynchronization} is called. The asynchronous controllers share an
+	 * {@link AsyncExecutor} that runs as many calls at once as the connection pool allows.
+	 * Book controllers queue the small changes to books in a shared {@link BookWriteQueue}.
+	 * <p>With a {@link CatalogSnapshot}, the index is loaded with the books of the snapshot
+	 * right away, so the book list is shown without reading the catalog from the database, and
+	 * the synchronization starts from the {@link services.ChangeLog} entry of the snapshot, so
+	 * the books changed since are read again in the background.</p>
+	 *
+	 * @param servicesFactory The factory of the services used by the controllers.
+	 * @param useSnapshot     Whether the books are restored from and saved to the
+	 *                        {@link ServicesFactory#createCatalogSnapshot() snapshot} of the database.
+	 */
+	public ControllerFactory(ServicesFactory servicesFactory, boolean useSnapshot) {
+		this.servicesFactory = servicesFactory;
+		this.bookSearchIndex = new BookSearchIndex();
+		this.eventBus = new EventBus();
+		this.catalogSnapshot = useSnapshot ? servicesFactory.createCatalogSnapshot() : null;
+
+		ChangeLogSynchronizer synchronizer = new ChangeLogSynchronizer(servicesFactory, bookSearchIndex, eventBus);
+		this.changeLogPoller = servicesFactory.createChangeLogPoller(synchronizer::apply);
+
+		CatalogSnapshot.Catalog restored = catalogSnapshot != null ? catalogSnapshot.read() : null;
+		if (restored != null) {
+			bookSearchIndex.buildAsync(restored.books(), servicesFactory.createBookServices()::getAll);
+			changeLogPoller.resumeAfter(restored.seq(), this::reloadCatalog);
+		} else {
+			// the lists restart their pages, which were answered by the database until then
+			bookSearchIndex.buildAsync(this::loadCatalog, () -> eventBus.publish(new DomainEvent.CatalogReloaded()));
+		}
+
+		this.asyncExecutor = new AsyncExecutor(servicesFactory.getMaximumPoolSize());
+		this.bookWriteQueue = new BookWriteQueue(servicesFactory.createBookServices(), eventBus,
+			BookWriteQueue.DEFAULT_FLUSH_INTERVAL);
 	}
 
 	/**
 	 * @return A new instance of {@link BookController}.
 	 */
 	public BookController getBookController() {
-		return new BookController(servicesFactory.createBookServices());
+		return new BookController(servicesFactory.createBookServices(), bookSearchIndex, eventBus, bookWriteQueue);
 	}
 
 	/**
 	 * @return A new instance of {@link AuthorController}.
 	 */
 	public AuthorController getAuthorController() {
-		return new AuthorController(servicesFactory.createAuthorServices());
+		return new AuthorController(servicesFactory.createAuthorServices(), bookSearchIndex, eventBus);
 	}
 
 	/**
 	 * @return A new instance of {@link PublisherController}.
 	 */
 	public PublisherController getPublisherController() {
-		return new PublisherController(servicesFactory.createPublisherServices());
+		return new PublisherController(servicesFactory.createPublisherServices(), bookSearchIndex, eventBus);
 	}
 
 	/**
 	 * @return A new instance of {@link GenreController}.
 	 */
 	public GenreController getGenreController() {
-		return new GenreController(servicesFactory.createGenreServices());
+		return new GenreController(servicesFactory.createGenreServices(), bookSearchIndex, eventBus);
+	}
+
+	/**
+	 * @return A new instance of {@link AsyncBookController}.
+	 */
+	public AsyncBookController getAsyncBookController() {
+		return new AsyncBookController(getBookController(), asyncExecutor);
+	}
+
+	/**
+	 * @return A new instance of {@link AsyncAuthorController}.
+	 */
+	public AsyncAuthorController getAsyncAuthorController() {
+		return new AsyncAuthorController(getAuthorController(), asyncExecutor);
+	}
+
+	/**
+	 * @return A new instance of {@link AsyncPublisherController}.
+	 */
+	public AsyncPublisherController getAsyncPublisherController() {
+		return new AsyncPublisherController(getPublisherController(), asyncExecutor);
+	}
+
+	/**
+	 * @return A new instance of {@link AsyncGenreController}.
+	 */
+	public AsyncGenreController getAsyncGenreController() {
+		return new AsyncGenreController(getGenreController(), asyncExecutor);
+	}
+
+	/**
+	 * @return The bus to which the controllers publish every write; views subscribe to it
+	 * to stay up to date.
+	 */
+	public EventBus getEventBus() {
+		return eventBus;
+	}
+
+	/**
+	 * Starts polling in the background the changes written to the database by other clients,
+	 * which are then applied to the caches, the search index and the open views.
+	 *
+	 * @param interval The interval between polls.
+	 */
+	public void startSynchronization(Duration interval) {
+		changeLogPoller.start(interval);
+	}
+
+	/**
+	 * Persists the changes to books still waiting in the write-behind queue; called
+	 * before the application exits.
+	 *
+	 * @throws exceptions.DataAccessException If the changes could not be persisted.
+	 */
+	public void flushPendingWrites() {
+		bookWriteQueue.flush();
+	}
+
+	/**
+	 * Stops polling the changes written by other clients.
+	 */
+	public void stopSynchronization() {
+		changeLogPoller.close();
+	}
+
+	/**
+	 * Saves the books of the {@link BookSearchIndex} to the {@link CatalogSnapshot}, in the
+	 * default order of the book list, stamped with the last change read from the other clients;
+	 * called before the application exits, once the synchronization is stopped. Does nothing
+	 * without a snapshot, before the books are loaded or if the synchronization never ran.
+	 *
+	 * @throws java.io.UncheckedIOException If the snapshot could not be written.
+	 */
+	public void saveSnapshot() {
+		// read before the books, so the books reflect at least every change up to it
+		long seq = changeLogPoller.getWatermark();
+		if (catalogSnapshot == null || seq < 0 || !bookSearchIndex.isLoaded()) return;
+
+		catalogSnapshot.write(seq, bookSearchIndex.page(BookSort.TITLE, true, null, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * @return Every book in the database, read after the last {@link services.ChangeLog} entry, from
+	 * which the synchronization starts, so the changes committed meanwhile are applied to them
+	 * afterwards instead of missed.
+	 */
+	private Set<Book> loadCatalog() {
+		changeLogPoller.startFromLastEntry();
+		return servicesFactory.createBookServices().getAll();
+	}
+
+	/**
+	 * Replaces the books restored from the snapshot by the ones in the database, when the
+	 * changes made since the snapshot can no longer be read from the log.
+	 */
+	private void reloadCatalog() {
+		bookSearchIndex.build(servicesFactory.createBookServices()::getAll);
+		eventBus.publish(new DomainEvent.CatalogReloaded());
 	}
 }
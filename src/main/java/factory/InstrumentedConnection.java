@@ -0,0 +1,112 @@
+package factory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * <p>Wraps a borrowed {@link Connection} so that the time spent executing its statements,
+ * committing, rolling back and reading rows, the number of rows read and whether any of these
+ * failed are recorded in the {@link QueryMetrics.Recorder} of the query once it is closed.</p>
+ * <p>Only the statements created by the connection and the results of their queries are
+ * wrapped; every other call goes straight to the driver. A connection is used by a single
+ * thread at a time, so the counters of the execution are plain fields.</p>
+ *
+ * @author Lucas da Paz
+ */
+final class InstrumentedConnection {
+	private final QueryMetrics.Recorder recorder;
+	private final long waitNanos;
+	private long executionNanos;
+	private long rows;
+	private boolean failed;
+	private boolean closed;
+
+	private InstrumentedConnection(QueryMetrics.Recorder recorder, long waitNanos) {
+		this.recorder = recorder;
+		this.waitNanos = waitNanos;
+	}
+
+	/**
+	 * @param connection The borrowed connection.
+	 * @param recorder   The counters of the query the connection was borrowed for.
+	 * @param waitNanos  Time spent waiting for the connection.
+	 * @return A connection that records its execution when closed.
+	 */
+	static Connection wrap(Connection connection, QueryMetrics.Recorder recorder, long waitNanos) {
+		InstrumentedConnection execution = new InstrumentedConnection(recorder, waitNanos);
+
+		return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+			case "close" -> {
+				execution.close();
+				yield invoke(connection, method, args);
+			}
+			case "commit", "rollback" -> execution.timed(connection, method, args);
+			default -> {
+				Object result = invoke(connection, method, args);
+				yield result instanceof Statement statement ? execution.wrap(statement, method.getReturnType()) : result;
+			}
+		});
+	}
+
+	private Object wrap(Statement statement, Class<?> type) {
+		return proxy(type, (proxy, method, args) -> {
+			if (method.getName().startsWith("execute")) {
+				Object result = timed(statement, method, args);
+				return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+			}
+
+			Object result = invoke(statement, method, args);
+			return method.getName().equals("getResultSet") && result != null ? wrap((ResultSet) result) : result;
+		});
+	}
+
+	private ResultSet wrap(ResultSet resultSet) {
+		return proxy(ResultSet.class, (proxy, method, args) -> {
+			if (!method.getName().equals("next")) return invoke(resultSet, method, args);
+
+			boolean hasRow = (Boolean) timed(resultSet, method, args);
+			if (hasRow) rows++;
+
+			return hasRow;
+		});
+	}
+
+	private Object timed(Object target, Method method, Object[] args) throws Throwable {
+		long start = System.nanoTime();
+
+		try {
+			return invoke(target, method, args);
+		} catch (SQLException e) {
+			failed = true;
+			throw e;
+		} finally {
+			executionNanos += System.nanoTime() - start;
+		}
+	}
+
+	private void close() {
+		if (closed) return;
+
+		closed = true;
+		recorder.record(waitNanos, executionNanos, rows, failed);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[]{type}, handler);
+	}
+}
@@ -0,0 +1,17 @@
+package factory;
+
+/**
+ * Snapshot of the connection pool state, as provided by {@link ConnectionFactory#getPoolStats()}.
+ *
+ * @param active              Connections currently borrowed.
+ * @param idle                Connections open and available in the pool.
+ * @param total               Connections currently open, both active and idle.
+ * @param waiting             Threads blocked waiting for a connection.
+ * @param borrows             Total of connections borrowed since the pool was created.
+ * @param averageBorrowMillis Average time, in milliseconds, spent waiting for a connection.
+ * @param maxBorrowMillis     Longest time, in milliseconds, spent waiting for a connection.
+ * @author Lucas da Paz
+ */
+public record PoolStats(int active, int idle, int total, int waiting, long borrows, double averageBorrowMillis,
+												double maxBorrowMillis) {
+}
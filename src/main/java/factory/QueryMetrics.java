@@ -0,0 +1,308 @@
+package factory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Latency, row count, connection wait and error counters of the queries run through a
+ * {@link ConnectionFactory}, kept per query name; connections borrowed with
+ * {@link ConnectionFactory#getConnection(String)} report to it when they are closed.</p>
+ * <p>Recording never blocks: every counter is a {@link LongAdder} or an atomic array, so the
+ * threads running queries do not contend with each other nor with the ones reading the
+ * counters. Snapshots are therefore not atomic across counters, which is irrelevant for
+ * monitoring.</p>
+ * <p>The counters are exported as {@link QueryStats snapshots} and in the Prometheus text
+ * format, which can be written periodically to a file collected by the node exporter.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class QueryMetrics implements AutoCloseable {
+	private static final Logger LOGGER = Logger.getLogger(QueryMetrics.class.getName());
+
+	/**
+	 * Upper bounds, in seconds, of the histogram buckets exported in the Prometheus format.
+	 */
+	private static final double[] EXPORTED_BUCKETS = {
+		0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+	};
+	/**
+	 * Four buckets per power of two microseconds, up to about 12 days.
+	 */
+	private static final int BUCKETS = 160;
+
+	private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @return A snapshot of the counters of every query that ran, ordered by name.
+	 */
+	public List<QueryStats> getStats() {
+		return recorders.entrySet()
+			.stream()
+			.map(entry -> entry.getValue().snapshot(entry.getKey()))
+			.sorted(Comparator.comparing(QueryStats::query))
+			.toList();
+	}
+
+	/**
+	 * Records one execution of a query, or of any other named operation, that was not run
+	 * through a connection borrowed with {@link ConnectionFactory#getConnection(String)}.
+	 *
+	 * @param query          Name of the query or operation.
+	 * @param waitNanos      Time spent waiting before running.
+	 * @param executionNanos Time spent running.
+	 * @param rows           Rows read.
+	 * @param failed         Whether the execution failed.
+	 */
+	public void record(String query, long waitNanos, long executionNanos, long rows, boolean failed) {
+		recorder(query).record(waitNanos, executionNanos, rows, failed);
+	}
+
+	/**
+	 * Discards the counters of every query.
+	 */
+	public void reset() {
+		recorders.clear();
+	}
+
+	/**
+	 * @return The counters of every query in the Prometheus text exposition format.
+	 */
+	public String toPrometheusText() {
+		StringBuilder duration = new StringBuilder()
+			.append("# HELP bookmanagement_query_duration_seconds Time spent executing queries and reading their rows.\n")
+			.append("# TYPE bookmanagement_query_duration_seconds histogram\n");
+		StringBuilder rows = new StringBuilder()
+			.append("# HELP bookmanagement_query_rows_total Rows read from the results of the queries.\n")
+			.append("# TYPE bookmanagement_query_rows_total counter\n");
+		StringBuilder errors = new StringBuilder()
+			.append("# HELP bookmanagement_query_errors_total Queries that failed.\n")
+			.append("# TYPE bookmanagement_query_errors_total counter\n");
+		StringBuilder wait = new StringBuilder()
+			.append("# HELP bookmanagement_query_connection_wait_seconds_total Time spent waiting for connections.\n")
+			.append("# TYPE bookmanagement_query_connection_wait_seconds_total counter\n");
+
+		recorders.entrySet()
+			.stream()
+			.sorted(Map.Entry.comparingByKey())
+			.forEach(entry -> {
+				String label = "query=\"%s\"".formatted(escape(entry.getKey()));
+				Recorder recorder = entry.getValue();
+				long[] counts = recorder.bucketCounts();
+				long executions = recorder.executions.sum();
+				long cumulative = 0;
+				int bucket = 0;
+
+				for (double bound : EXPORTED_BUCKETS) {
+					while (bucket < BUCKETS && upperBoundMicros(bucket) <= bound * 1_000_000) cumulative += counts[bucket++];
+
+					duration.append("bookmanagement_query_duration_seconds_bucket{%s,le=\"%s\"} %d\n"
+						.formatted(label, format(bound), cumulative));
+				}
+
+				duration.append("bookmanagement_query_duration_seconds_bucket{%s,le=\"+Inf\"} %d\n".formatted(label, executions))
+					.append("bookmanagement_query_duration_seconds_sum{%s} %s\n"
+						.formatted(label, format(recorder.executionNanos.sum() / 1e9)))
+					.append("bookmanagement_query_duration_seconds_count{%s} %d\n".formatted(label, executions));
+				rows.append("bookmanagement_query_rows_total{%s} %d\n".formatted(label, recorder.rows.sum()));
+				errors.append("bookmanagement_query_errors_total{%s} %d\n".formatted(label, recorder.errors.sum()));
+				wait.append("bookmanagement_query_connection_wait_seconds_total{%s} %s\n"
+					.formatted(label, format(recorder.waitNanos.sum() / 1e9)));
+			});
+
+		return duration.append(rows).append(errors).append(wait).toString();
+	}
+
+	/**
+	 * Writes the counters of every query in the Prometheus text format to the file passed as
+	 * an argument. The file is replaced atomically, so readers never see it half written.
+	 *
+	 * @param file The file to write.
+	 * @throws UncheckedIOException If the file cannot be written.
+	 */
+	public void writePrometheus(Path file) {
+		Path absolute = file.toAbsolutePath();
+
+		try {
+			Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+			try {
+				Files.writeString(temporary, toPrometheusText());
+				Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temporary);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Schedules the counters to be written to the file passed as an argument periodically, as
+	 * in {@link #writePrometheus}. Failures are logged and do not cancel the following writes.
+	 *
+	 * @param file     The file to write.
+	 * @param interval The interval between writes.
+	 */
+	public synchronized void startExport(Path file, Duration interval) {
+		if (scheduler != null) return;
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "query-metrics-export");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				writePrometheus(file);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao exportar as métricas de consultas para " + file, e);
+			}
+		}, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic export, if it was started.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler == null) return;
+
+		scheduler.shutdownNow();
+		scheduler = null;
+	}
+
+	/**
+	 * @param query Name of the query.
+	 * @return The counters of the query, created on the first call.
+	 */
+	Recorder recorder(String query) {
+		return recorders.computeIfAbsent(query, name -> new Recorder());
+	}
+
+	/**
+	 * @return The bucket of the duration, in microseconds, passed as an argument: the
+	 * first four are one microsecond wide, then each power of two is split in four.
+	 */
+	static int bucketOf(long micros) {
+		if (micros < 4) return (int) Math.max(micros, 0);
+
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		int sub = (int) (micros >>> (exponent - 2)) & 3;
+
+		return Math.min((exponent - 1) * 4 + sub, BUCKETS - 1);
+	}
+
+	/**
+	 * @return The exclusive upper bound, in microseconds, of the bucket passed as an argument.
+	 */
+	static long upperBoundMicros(int bucket) {
+		if (bucket < 4) return bucket + 1;
+
+		int exponent = bucket / 4 + 1;
+		int sub = bucket % 4;
+
+		return (5L + sub) << (exponent - 2);
+	}
+
+	private static String format(double value) {
+		return BigDecimal.valueOf(value).toPlainString();
+	}
+
+	private static String escape(String label) {
+		return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	/**
+	 * Counters of a single query.
+	 */
+	static final class Recorder {
+		private final LongAdder executions = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder rows = new LongAdder();
+		private final LongAdder executionNanos = new LongAdder();
+		private final LongAdder waitNanos = new LongAdder();
+		private final LongAccumulator maxExecutionNanos = new LongAccumulator(Math::max, 0);
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+		/**
+		 * Records one execution of the query.
+		 *
+		 * @param waitNanos      Time spent waiting for the connection.
+		 * @param executionNanos Time spent executing statements and reading rows.
+		 * @param rowCount       Rows read.
+		 * @param failed         Whether the execution failed.
+		 */
+		void record(long waitNanos, long executionNanos, long rowCount, boolean failed) {
+			executions.increment();
+			if (failed) errors.increment();
+			rows.add(rowCount);
+			this.executionNanos.add(executionNanos);
+			this.waitNanos.add(waitNanos);
+			maxExecutionNanos.accumulate(executionNanos);
+			buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(executionNanos)));
+		}
+
+		private long[] bucketCounts() {
+			long[] counts = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) counts[i] = buckets.get(i);
+
+			return counts;
+		}
+
+		private QueryStats snapshot(String query) {
+			long[] counts = bucketCounts();
+			long total = 0;
+			for (long count : counts) total += count;
+
+			long count = executions.sum();
+			double maxMillis = maxExecutionNanos.get() / 1e6;
+
+			return new QueryStats(
+				query, count, errors.sum(), rows.sum(),
+				count == 0 ? 0 : executionNanos.sum() / 1e6 / count,
+				percentile(counts, total, 0.50, maxMillis),
+				percentile(counts, total, 0.95, maxMillis),
+				percentile(counts, total, 0.99, maxMillis),
+				maxMillis,
+				count == 0 ? 0 : waitNanos.sum() / 1e6 / count
+			);
+		}
+
+		/**
+		 * @return The upper bound, in milliseconds, of the bucket holding the percentile,
+		 * capped at the longest execution.
+		 */
+		private static double percentile(long[] counts, long total, double percentile, double maxMillis) {
+			if (total == 0) return 0;
+
+			long rank = (long) Math.ceil(total * percentile);
+			long cumulative = 0;
+
+			for (int i = 0; i < counts.length; i++) {
+				cumulative += counts[i];
+				if (cumulative >= rank) return Math.min(upperBoundMicros(i) / 1e3, maxMillis);
+			}
+
+			return maxMillis;
+		}
+	}
+}
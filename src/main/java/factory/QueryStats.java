@@ -0,0 +1,23 @@
+package factory;
+
+/**
+ * Snapshot of the counters of a single named query, as provided by {@link QueryMetrics#getStats()}.
+ * Percentiles are estimated from a histogram whose buckets are about 19% wide, so they are
+ * accurate to that margin.
+ *
+ * @param query             Name of the query, usually the service method that ran it.
+ * @param executions        Times the query ran, including the failed ones.
+ * @param errors            Executions that failed, including the ones that got no connection.
+ * @param rows              Rows read from the results of all executions.
+ * @param averageMillis     Average time, in milliseconds, spent executing and reading rows.
+ * @param p50Millis         Median of the execution time, in milliseconds.
+ * @param p95Millis         95th percentile of the execution time, in milliseconds.
+ * @param p99Millis         99th percentile of the execution time, in milliseconds.
+ * @param maxMillis         Longest execution time, in milliseconds.
+ * @param averageWaitMillis Average time, in milliseconds, spent waiting for a connection.
+ * @author Lucas da Paz
+ */
+public record QueryStats(String query, long executions, long errors, long rows, double averageMillis,
+												 double p50Millis, double p95Millis, double p99Millis, double maxMillis,
+												 double averageWaitMillis) {
+}
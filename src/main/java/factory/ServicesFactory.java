@@ -1,52 +1,139 @@
 package factory;
 
+import models.Author;
+import models.Genre;
+import models.Publisher;
 import services.AuthorServices;
 import services.BookServices;
+import services.CacheStats;
+import services.CatalogSnapshot;
+import services.ChangeLog;
+import services.ChangeLogPoller;
 import services.GenreServices;
 import services.PublisherServices;
+import services.ReferenceCache;
 
-import java.sql.Connection;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
- * Class responsible for instantiating service classes.
+ * Class responsible for instantiating service classes. All services created by the
+ * same factory share the same {@link ReferenceCache caches} of authors, publishers
+ * and genres.
  *
  * @author Lucas da Paz
  */
 public class ServicesFactory {
-	private final Connection connection;
+	private final ConnectionFactory connectionFactory;
+	private final ReferenceCache<Author> authorCache =
+		new ReferenceCache<>(ReferenceCache.DEFAULT_MAXIMUM_SIZE, Author::getId);
+	private final ReferenceCache<Publisher> publisherCache =
+		new ReferenceCache<>(ReferenceCache.DEFAULT_MAXIMUM_SIZE, Publisher::getId);
+	private final ReferenceCache<Genre> genreCache = new ReferenceCache<>(ReferenceCache.DEFAULT_MAXIMUM_SIZE, Genre::getId);
 
 	/**
-	 * Constructs an instance of {@link ServicesFactory}.
+	 * Constructs an instance of {@link ServicesFactory} whose services borrow
+	 * connections from the process-wide pool.
 	 */
 	public ServicesFactory() {
-		this.connection = new ConnectionFactory().getConnection();
+		this(ConnectionFactory.getDefault());
+	}
+
+	/**
+	 * Constructs an instance of {@link ServicesFactory} whose services borrow
+	 * connections from the factory passed as an argument.
+	 *
+	 * @param connectionFactory The factory that lends connections to the services.
+	 */
+	public ServicesFactory(ConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
 	}
 
 	/**
 	 * @return A new instance of {@link BookServices}.
 	 */
 	public BookServices createBookServices() {
-		return new BookServices(connection);
+		return new BookServices(connectionFactory, authorCache, publisherCache, genreCache);
 	}
 
 	/**
 	 * @return A new instance of {@link AuthorServices}.
 	 */
 	public AuthorServices createAuthorServices() {
-		return new AuthorServices(connection);
+		return new AuthorServices(connectionFactory, authorCache);
 	}
 
 	/**
 	 * @return A new instance of {@link PublisherServices}.
 	 */
 	public PublisherServices createPublisherServices() {
-		return new PublisherServices(connection);
+		return new PublisherServices(connectionFactory, publisherCache);
 	}
 
 	/**
 	 * @return A new instance of {@link GenreServices}.
 	 */
 	public GenreServices createGenreServices() {
-		return new GenreServices(connection);
+		return new GenreServices(connectionFactory, genreCache);
+	}
+
+	/**
+	 * @param listener Receives the {@link ChangeLog} entries written by other clients.
+	 * @return A new instance of {@link ChangeLogPoller}, not yet started.
+	 */
+	public ChangeLogPoller createChangeLogPoller(Consumer<List<ChangeLog.Entry>> listener) {
+		return new ChangeLogPoller(connectionFactory, listener);
+	}
+
+	/**
+	 * @return A new instance of {@link CatalogSnapshot} of the database, in the file configured
+	 * by {@link ConnectionFactory#getSnapshotFile()}, or {@code null} if it is disabled.
+	 */
+	public CatalogSnapshot createCatalogSnapshot() {
+		Path file = connectionFactory.getSnapshotFile();
+		return file == null ? null : new CatalogSnapshot(file, connectionFactory.getUrl());
+	}
+
+	/**
+	 * @return The maximum number of connections the services can use at once.
+	 */
+	public int getMaximumPoolSize() {
+		return connectionFactory.getMaximumPoolSize();
+	}
+
+	/**
+	 * Discards from the shared caches what the change passed as an argument made stale. Writes
+	 * to books also change the {@code books_owned} counters of their references, so they
+	 * discard every cached author, publisher and genre.
+	 *
+	 * @param entry A change written by another client.
+	 */
+	public void invalidateCaches(ChangeLog.Entry entry) {
+		switch (entry.entity()) {
+			case AUTHOR -> authorCache.invalidate(entry.id());
+			case PUBLISHER -> publisherCache.invalidate(entry.id());
+			case GENRE -> genreCache.invalidate(entry.id());
+			case BOOK -> {
+				authorCache.invalidateAll();
+				publisherCache.invalidateAll();
+				genreCache.invalidateAll();
+			}
+		}
+	}
+
+	/**
+	 * @return A snapshot of the counters of each shared cache, keyed by the cached type:
+	 * {@code "author"}, {@code "publisher"} and {@code "genre"}.
+	 */
+	public Map<String, CacheStats> getCacheStats() {
+		Map<String, CacheStats> stats = new LinkedHashMap<>();
+		stats.put("author", authorCache.getStats());
+		stats.put("publisher", publisherCache.getStats());
+		stats.put("genre", genreCache.getStats());
+
+		return stats;
 	}
 }
@@ -201,6 +201,15 @@ public class Book implements Comparable<Book> {
 		return price;
 	}
 
+	/**
+	 * Sets the price of this {@link Book}.
+	 *
+	 * @param price The price of this book.
+	 */
+	public void setPrice(float price) {
+		this.price = price;
+	}
+
 	/**
 	 * @return The user review of this {@link Book}.
 	 */
@@ -217,6 +226,15 @@ public class Book implements Comparable<Book> {
 		this.review = review;
 	}
 
+	/**
+	 * Sets the read status of this {@link Book}.
+	 *
+	 * @param read {@code true} if the book was read.
+	 */
+	public void setRead(boolean read) {
+		this.read = read;
+	}
+
 	/**
 	 * Changes the read status of this {@link Book}, i.e., if {@code read} was
 	 * {@code true}, it will be set to {@code false} and vice-versa.
@@ -0,0 +1,18 @@
+package models.dto;
+
+import models.Genre;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A row of a bulk import of {@link models.Book books}.
+ *
+ * @param data   Supplies the book data; the {@link BookDto} is only instantiated during
+ *               the import, so a {@link exceptions.ValidationException ValidationException}
+ *               thrown by it rejects this row without aborting the others.
+ * @param genres The genres to link the book to.
+ * @author Lucas da Paz
+ */
+public record BookImport(Supplier<BookDto> data, Set<Genre> genres) {
+}
@@ -0,0 +1,108 @@
+package models.dto;
+
+import models.Book;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Some of the attributes of a {@link Book} that can be changed without editing the whole book,
+ * as they should be persisted; only the attributes in {@link #fields} are set by the patch.
+ *
+ * @param id     The ID of the book.
+ * @param read   The read status.
+ * @param review The user review; may be {@code null}.
+ * @param price  The price.
+ * @param fields The attributes set by the patch; the values of the others are ignored.
+ * @author Lucas da Paz
+ */
+public record BookPatch(int id, boolean read, String review, float price, Set<Field> fields) {
+	/**
+	 * The attributes a patch can set.
+	 */
+	public enum Field {
+		READ, REVIEW, PRICE
+	}
+
+	public BookPatch {
+		fields = Set.copyOf(fields);
+	}
+
+	/**
+	 * @param book The book.
+	 * @return The current values of all the attributes of the book.
+	 */
+	public static BookPatch of(Book book) {
+		return new BookPatch(book.getId(), book.isRead(), book.getReview(), book.getPrice(), EnumSet.allOf(Field.class));
+	}
+
+	/**
+	 * @param base The values the changes were made on.
+	 * @return A patch that only sets the attributes of this patch whose values differ from the
+	 * ones of the base, e.g. only the read status after a read toggle.
+	 */
+	public BookPatch changesFrom(BookPatch base) {
+		Set<Field> changed = EnumSet.noneOf(Field.class);
+
+		for (Field field : fields) {
+			if (!base.fields.contains(field) || !sameValue(base, field)) changed.add(field);
+		}
+		return only(changed);
+	}
+
+	/**
+	 * @param kept The attributes to keep.
+	 * @return A patch that only sets the attributes of this patch that are also in the set passed
+	 * as an argument.
+	 */
+	public BookPatch only(Set<Field> kept) {
+		Set<Field> retained = EnumSet.noneOf(Field.class);
+		for (Field field : fields) if (kept.contains(field)) retained.add(field);
+
+		return new BookPatch(id, read, review, price, retained);
+	}
+
+	/**
+	 * @param other The patch whose attributes take precedence.
+	 * @return A patch that sets the attributes of both patches, with the values of the one passed
+	 * as an argument where both set the same attribute.
+	 */
+	public BookPatch with(BookPatch other) {
+		Set<Field> merged = EnumSet.noneOf(Field.class);
+		merged.addAll(fields);
+		merged.addAll(other.fields);
+
+		return new BookPatch(id,
+			other.fields.contains(Field.READ) ? other.read : read,
+			other.fields.contains(Field.REVIEW) ? other.review : review,
+			other.fields.contains(Field.PRICE) ? other.price : price,
+			merged);
+	}
+
+	/**
+	 * @return {@code true} if the patch sets no attribute.
+	 */
+	public boolean isEmpty() {
+		return fields.isEmpty();
+	}
+
+	/**
+	 * Sets the attributes of the book to the values of this patch.
+	 *
+	 * @param book The book, whose ID must be the one of this patch.
+	 */
+	public void applyTo(Book book) {
+		if (fields.contains(Field.READ)) book.setRead(read);
+		if (fields.contains(Field.REVIEW)) book.setReview(review);
+		if (fields.contains(Field.PRICE)) book.setPrice(price);
+	}
+
+	private boolean sameValue(BookPatch other, Field field) {
+		return switch (field) {
+			case READ -> read == other.read;
+			case REVIEW -> Objects.equals(review, other.review);
+			case PRICE -> Float.compare(price, other.price) == 0;
+		};
+	}
+}
@@ -0,0 +1,32 @@
+package models.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk import: the objects that were created and the
+ * rows that were rejected by validation.
+ *
+ * @param created  The created objects, with their primary keys, in the same
+ *                 order as the valid rows.
+ * @param failures The rejected rows; these rows were not imported.
+ * @param <T>      Type of the imported objects.
+ * @author Lucas da Paz
+ */
+public record ImportResult<T>(List<T> created, List<Failure> failures) {
+
+	/**
+	 * A row rejected by validation.
+	 *
+	 * @param row     The index of the row in the imported list, starting at {@code 0}.
+	 * @param message The validation message, as it should be displayed for the user.
+	 */
+	public record Failure(int row, String message) {
+	}
+
+	/**
+	 * @return {@code true} if every row was imported, {@code false} otherwise.
+	 */
+	public boolean isComplete() {
+		return failures.isEmpty();
+	}
+}
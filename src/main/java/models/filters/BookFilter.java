@@ -7,14 +7,20 @@ package models.filters;
  * @author Lucas da Paz
  */
 public enum BookFilter {
-	TITLE(1, "Título"), AUTHOR(2, "Autor"), ISBN(3, "ISBN");
+	TITLE(1, "Título", false),
+	AUTHOR(2, "Autor", false),
+	ISBN(3, "ISBN", false),
+	TEXT(4, "Texto (relevância)", true),
+	TEXT_BOOLEAN(5, "Texto (booleana)", true);
 
 	private final int code;
 	private final String name;
+	private final boolean ranked;
 
-	BookFilter(int code, String name) {
+	BookFilter(int code, String name, boolean ranked) {
 		this.code = code;
 		this.name = name;
+		this.ranked = ranked;
 	}
 
 	/**
@@ -24,6 +30,16 @@ public enum BookFilter {
 		return code;
 	}
 
+	/**
+	 * Indicates whether the results of this filter are ranked by relevance, in which
+	 * case their order must be kept instead of sorting them.
+	 *
+	 * @return {@code true} for full-text filters, {@code false} for substring filters.
+	 */
+	public boolean isRanked() {
+		return ranked;
+	}
+
 	/**
 	 * Returns the name of this enum constant as it should appear
 	 * for the user.
@@ -0,0 +1,67 @@
+package models.filters;
+
+import models.Book;
+import utils.Texts;
+
+import java.util.Comparator;
+
+/**
+ * Represents the attributes by which {@link models.Book books} can be
+ * ordered when listed page by page.
+ *
+ * @author Lucas da Paz
+ */
+public enum BookSort {
+	ID(1, "ID"),
+	TITLE(2, "Título"),
+	AUTHOR(3, "Autor"),
+	FORMAT(4, "Formato"),
+	PUBLISHER(5, "Editora"),
+	PAGES(6, "Nº páginas"),
+	READ(7, "Status");
+
+	private final int code;
+	private final String name;
+
+	BookSort(int code, String name) {
+		this.code = code;
+		this.name = name;
+	}
+
+	/**
+	 * @return The code associated with the sort attribute.
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * @return The in-memory equivalent of the ascending database order by this attribute, with
+	 * texts compared ignoring case and accents, as in the default collation, and ties broken
+	 * by the book ID.
+	 */
+	public Comparator<Book> comparator() {
+		Comparator<Book> comparator = switch (this) {
+			case ID -> Comparator.comparingInt(Book::getId);
+			case TITLE -> Comparator.comparing(Book::getTitle, Texts::compareIgnoringAccents);
+			case AUTHOR -> Comparator.comparing(b -> b.getAuthor().getName(), Texts::compareIgnoringAccents);
+			case FORMAT -> Comparator.comparingInt(b -> b.getFormat().getCode());
+			case PUBLISHER -> Comparator.comparing(b -> b.getPublisher().getName(), Texts::compareIgnoringAccents);
+			case PAGES -> Comparator.comparingInt(Book::getPages);
+			case READ -> Comparator.comparing(Book::isRead);
+		};
+
+		return comparator.thenComparingInt(Book::getId);
+	}
+
+	/**
+	 * Returns the name of this enum constant as it should appear
+	 * for the user.
+	 *
+	 * @return This enum constant as a string.
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+}
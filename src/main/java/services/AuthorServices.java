@@ -1,16 +1,23 @@
 package services;
 
+import exceptions.DataAccessException;
 import exceptions.NotFoundException;
+import factory.ConnectionFactory;
 import models.Author;
+import services.ChangeLog.Entity;
+import services.ChangeLog.Operation;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service class for manipulating the database regarding {@link Author authors}.
@@ -18,15 +25,18 @@ import java.util.Set;
  * @author Lucas da Paz
  */
 public class AuthorServices extends Services<Author> {
+	private final ReferenceCache<Author> authorCache;
 
 	/**
 	 * Constructs an instance of {@link AuthorServices}.
 	 *
-	 * @param connection A connection with the systems database,
-	 *                   as provided by the data source.
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 * @param authorCache       The cache of authors shared by all services.
 	 */
-	public AuthorServices(Connection connection) {
-		super(connection);
+	public AuthorServices(ConnectionFactory connectionFactory, ReferenceCache<Author> authorCache) {
+		super(connectionFactory);
+		this.authorCache = authorCache;
 	}
 
 	/**
@@ -40,16 +50,16 @@ public class AuthorServices extends Services<Author> {
 	public Set<Author> filterByName(String name) {
 		String sql = """
 				SELECT
-					`id`, `name`, `nationality`, countbooksbyauthor(`id`) AS `books_owned`
+					`id`, `name`, `nationality`, `books_owned`
 				FROM `author`
 				WHERE `name` LIKE ?
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setString(1, "%%%s%%".formatted(name));
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -64,25 +74,31 @@ public class AuthorServices extends Services<Author> {
 	public Set<Author> filterByNationality(String nationality) {
 		String sql = """
 				SELECT
-					`id`, `name`, `nationality`, countbooksbyauthor(`id`) AS `books_owned`
+					`id`, `name`, `nationality`, `books_owned`
 				FROM `author`
 				WHERE `nationality` LIKE ?
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setString(1, "%%%s%%".formatted(nationality));
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc} Answered by the shared cache when possible.
+	 */
 	@Override
 	public Author getById(int id) {
-		String sql =
-			"SELECT `id`, `name`, `nationality`, countbooksbyauthor(`id`) AS `books_owned` FROM `author` WHERE `id` = ?;";
+		return authorCache.get(id, this::loadById);
+	}
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	private Author loadById(int id) {
+		String sql = "SELECT `id`, `name`, `nationality`, `books_owned` FROM `author` WHERE `id` = ?;";
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			Set<Author> authors = transformToSet(ps);
 
@@ -90,35 +106,78 @@ public class AuthorServices extends Services<Author> {
 
 			return authors.toArray(new Author[1])[0];
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc} Answered by the shared cache when possible.
+	 */
 	@Override
 	public Set<Author> getAll() {
-		String sql = "SELECT `id`, `name`, `nationality`, countbooksbyauthor(`id`) AS `books_owned` FROM `author`;";
+		return authorCache.getAll(this::loadAll);
+	}
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	private Set<Author> loadAll() {
+		String sql = "SELECT `id`, `name`, `nationality`, `books_owned` FROM `author`;";
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	@Override
+	public Stream<Author> streamAll() {
+		return stream("SELECT `id`, `name`, `nationality`, `books_owned` FROM `author` ORDER BY `id`;", null);
+	}
+
 	@Override
 	public Author create(Author author) {
 		String sql = "INSERT INTO `author` (`name`, `nationality`) VALUES (?, ?);";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-			populateStatement(ps, author);
+		int authorId;
+
+		try {
+			authorId = inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+					populateStatement(ps, author);
+
+					int rowsAffected = ps.executeUpdate();
+					if (rowsAffected == 0) throw new SQLException("Falha ao criar autor, nenhuma linha do banco afetada!");
+
+					int id = getGeneratedId(ps);
+					ChangeLog.append(connection, Entity.AUTHOR, Operation.INSERT, id);
+					return id;
+				}
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+
+		authorCache.invalidate(authorId);
+		return getById(authorId);
+	}
+
+	@Override
+	public List<Author> createAll(List<Author> authors) {
+		String sql = "INSERT INTO `author` (`name`, `nationality`) VALUES (?, ?);";
+
+		try {
+			int[] ids = insertAll(sql, authors, (connection, chunk, chunkIds) ->
+				ChangeLog.append(connection, Entity.AUTHOR, Operation.INSERT, chunkIds));
+			authorCache.invalidateAll();
+			List<Author> created = new ArrayList<>(ids.length);
 
-			int rowsAffected = ps.executeUpdate();
-			if (rowsAffected == 0) throw new SQLException("Falha ao criar autor, nenhuma linha do banco afetada!");
+			for (int i = 0; i < ids.length; i++) {
+				Author author = authors.get(i);
+				created.add(new Author(ids[i], author.getName(), author.getNationality(), 0));
+			}
 
-			int authorId = getGeneratedId(ps);
-			return getById(authorId);
+			return created;
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -126,27 +185,44 @@ public class AuthorServices extends Services<Author> {
 	public Author update(Author author) {
 		String sql = "UPDATE `author` SET `name` = ?, `nationality` = ? WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			populateStatement(ps, author);
-			ps.setInt(3, author.getId());
-
-			ps.execute();
-			return getById(author.getId());
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					populateStatement(ps, author);
+					ps.setInt(3, author.getId());
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.AUTHOR, Operation.UPDATE, author.getId());
+				return null;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
+
+		authorCache.invalidate(author.getId());
+		return getById(author.getId());
 	}
 
 	@Override
 	public void delete(int id) {
 		String sql = "DELETE FROM `author` WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setInt(1, id);
-			ps.execute();
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					ps.setInt(1, id);
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.AUTHOR, Operation.DELETE, id);
+				return null;
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
 		}
+
+		authorCache.invalidate(id);
 	}
 
 	@Override
@@ -155,18 +231,22 @@ public class AuthorServices extends Services<Author> {
 
 		try (ResultSet rs = ps.executeQuery()) {
 			while (rs.next()) {
-				int id = rs.getInt("id");
-				String name = rs.getString("name");
-				String nationality = rs.getString("nationality");
-				int booksOwned = rs.getInt("books_owned");
-
-				Author author = new Author(id, name, nationality, booksOwned);
-				authors.add(author);
+				authors.add(mapRow(rs));
 			}
 			return Collections.unmodifiableSet(authors);
 		}
 	}
 
+	@Override
+	protected Author mapRow(ResultSet rs) throws SQLException {
+		int id = rs.getInt("id");
+		String name = rs.getString("name");
+		String nationality = rs.getString("nationality");
+		int booksOwned = rs.getInt("books_owned");
+
+		return new Author(id, name, nationality, booksOwned);
+	}
+
 	@Override
 	protected void populateStatement(PreparedStatement ps, Author author) throws SQLException {
 		ps.setString(1, author.getName());
@@ -0,0 +1,569 @@
+package services;
+
+import models.Book;
+import models.filters.BookFilter;
+import models.filters.BookSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static utils.Texts.normalize;
+
+/**
+ * <p>In-memory trigram index over the title, author name and ISBNs of all {@link Book books},
+ * used to answer {@link BookFilter} searches without querying the database.</p>
+ * <p>Each searchable text is normalized (lower case, without accents, as compared by the
+ * default MySQL collation) and split into every sequence of three characters; a search
+ * intersects the books that contain all trigrams of the input and then checks that the input
+ * is actually a substring of the text, so the results are the same as the {@code LIKE} filters
+ * of {@link BookServices}, which match the wildcards of the input literally. Inputs shorter than
+ * three characters are checked against every book.</p>
+ * <p>The index also holds every book, so the book list can be {@link #page paged} in memory
+ * in the same order as in the database. A build first {@link #isLoaded() loads} the books,
+ * which are paged right away, and then indexes their texts without holding the lock; books
+ * changed while they are read are changed again once they are loaded, and books changed while
+ * they are indexed are indexed again once it finishes.</p>
+ * <p>The index starts empty and is not {@link #isReady() ready} until it is built; while it
+ * is not ready, callers must fall back to the database. It is thread safe.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class BookSearchIndex {
+	private static final Logger LOGGER = Logger.getLogger(BookSearchIndex.class.getName());
+	private static final int GRAM = 3;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Integer, Book> books = new HashMap<>();
+	private Map<BookFilter, Map<Integer, String>> texts = emptyTexts();
+	private Map<BookFilter, Map<Long, Set<Integer>>> postings = emptyPostings();
+	// the books put, or removed as null, while each running loader reads the books
+	private final List<Map<Integer, Book>> changedWhileLoading = new ArrayList<>();
+	// IDs of the books changed while the texts are indexed, or null if no build is running
+	private Set<Integer> changedWhileIndexing;
+	// incremented on every load, so an indexing of books already replaced is discarded
+	private int generation;
+	// the books in ascending order of each sort; guarded by itself, as it is refreshed by readers
+	private final Map<BookSort, Book[]> orders = new EnumMap<>(BookSort.class);
+	private final Set<BookSort> sortedOrders = EnumSet.noneOf(BookSort.class);
+	private Book[] loadedOrder = new Book[0];
+	private volatile boolean loaded;
+	private volatile boolean ready;
+	private volatile Supplier<? extends Collection<Book>> loader;
+
+	/**
+	 * @return {@code true} if the index was built and can answer searches,
+	 * {@code false} otherwise.
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * @return {@code true} if the index holds every book and can answer {@link #count} and
+	 * {@link #page}, even if their texts are not indexed yet.
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Checks whether the index can answer searches with the filter passed as an argument.
+	 *
+	 * @param filter The filter to be used.
+	 * @return {@code true} if the index is ready and covers the filter.
+	 */
+	public boolean supports(BookFilter filter) {
+		return ready && Arrays.asList(indexedFilters()).contains(filter);
+	}
+
+	/**
+	 * Replaces the content of the index with the books read by the loader passed as an
+	 * argument. The books put or removed while the loader runs may be newer than the ones it
+	 * reads, so they are put or removed again afterwards.
+	 *
+	 * @param loader Supplies all books in the database.
+	 */
+	public void build(Supplier<? extends Collection<Book>> loader) {
+		load(loader);
+		index();
+	}
+
+	/**
+	 * Builds the index on a background thread, using the loader passed as an argument;
+	 * the loader is kept and reused by {@link #rebuildAsync()}.
+	 *
+	 * @param loader   Supplies all books in the database.
+	 * @param onLoaded Runs on the background thread once the books are {@link #isLoaded() loaded},
+	 *                 before their texts are indexed.
+	 */
+	public void buildAsync(Supplier<? extends Collection<Book>> loader, Runnable onLoaded) {
+		this.loader = loader;
+		ready = false;
+
+		start(() -> {
+			try {
+				load(loader);
+				onLoaded.run();
+				index();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao construir o índice de busca de livros", e);
+			}
+		});
+	}
+
+	/**
+	 * Loads the books passed as an argument right away, so they can be paged at once, and
+	 * indexes them on a background thread; the loader is kept and reused by
+	 * {@link #rebuildAsync()}. Used when the books were restored from a {@link CatalogSnapshot}.
+	 *
+	 * @param all    The books to start from; if they are ordered, pages in that order are the
+	 *               cheapest to answer first.
+	 * @param loader Supplies all books in the database.
+	 */
+	public void buildAsync(Collection<Book> all, Supplier<? extends Collection<Book>> loader) {
+		this.loader = loader;
+		load(all);
+
+		start(() -> {
+			try {
+				index();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao construir o índice de busca de livros", e);
+			}
+		});
+	}
+
+	/**
+	 * Marks the index as not ready and builds it again on a background thread, using the
+	 * last loader passed to {@link #buildAsync}. Used when changes outside of books, such
+	 * as renaming an author, make the indexed data stale. Failures are logged and leave the
+	 * index not ready.
+	 */
+	public void rebuildAsync() {
+		Supplier<? extends Collection<Book>> current = loader;
+		if (current == null) return;
+
+		ready = false;
+
+		start(() -> {
+			try {
+				build(current);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao construir o índice de busca de livros", e);
+			}
+		});
+	}
+
+	/**
+	 * Adds a book to the index or replaces the indexed version of it.
+	 *
+	 * @param book The created or updated book.
+	 */
+	public void put(Book book) {
+		lock.writeLock().lock();
+		try {
+			books.put(book.getId(), book);
+			sortedOrders.clear();
+			for (Map<Integer, Book> changes : changedWhileLoading) changes.put(book.getId(), book);
+
+			if (changedWhileIndexing != null) {
+				changedWhileIndexing.add(book.getId());
+			} else {
+				removeTexts(book.getId());
+				addTexts(book, texts, postings);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a book from the index, if present.
+	 *
+	 * @param id The ID of the deleted book.
+	 */
+	public void remove(int id) {
+		lock.writeLock().lock();
+		try {
+			for (Map<Integer, Book> changes : changedWhileLoading) changes.put(id, null);
+			if (books.remove(id) == null) return;
+			sortedOrders.clear();
+
+			if (changedWhileIndexing != null) changedWhileIndexing.add(id);
+			else removeTexts(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return The number of books held by the index; see {@link #isLoaded()}.
+	 */
+	public int count() {
+		lock.readLock().lock();
+		try {
+			return books.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Answers a page of the book list from memory, as {@link BookServices#getPage} does from the
+	 * database, in the order of {@link BookSort#comparator()}. The order of each sort is kept
+	 * after it is first requested and sorted again only after books change, starting from the
+	 * previous order, which is then nearly sorted already.
+	 *
+	 * @param sort      The attribute to order by.
+	 * @param ascending {@code true} to order in ascending order, {@code false} for descending.
+	 * @param after     The last book of the previous page, or {@code null} for the first page.
+	 * @param limit     The maximum number of books in the page.
+	 * @return The books of the page, in order.
+	 */
+	public List<Book> page(BookSort sort, boolean ascending, Book after, int limit) {
+		lock.readLock().lock();
+		try {
+			Book[] order = order(sort);
+			int step = ascending ? 1 : -1;
+			int start = ascending ? 0 : order.length - 1;
+
+			if (after != null) {
+				int position = Arrays.binarySearch(order, after, sort.comparator());
+				// right after the book, or where it would be if it was deleted
+				start = position >= 0 ? position + step : ascending ? -position - 1 : -position - 2;
+			}
+
+			List<Book> page = new ArrayList<>(Math.min(limit, order.length));
+			for (int i = start; i >= 0 && i < order.length && page.size() < limit; i += step) page.add(order[i]);
+
+			return page;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches for all books whose attribute selected by the filter contains the input, ignoring
+	 * case and accents; for {@link BookFilter#ISBN}, either ISBN may contain it.
+	 *
+	 * @param input  The input string.
+	 * @param filter The attribute to search; must be {@link #supports supported}.
+	 * @return A {@link Set} of all books that matched.
+	 * @throws IllegalStateException If the filter is not supported.
+	 */
+	public Set<Book> search(String input, BookFilter filter) {
+		if (!supports(filter)) throw new IllegalStateException("Índice de busca indisponível para: %s".formatted(filter));
+
+		String query = normalize(input);
+		Set<Book> result = new HashSet<>();
+
+		lock.readLock().lock();
+		try {
+			Map<Integer, String> filterTexts = texts.get(filter);
+
+			for (int id : candidates(query, filter)) {
+				if (filterTexts.get(id).contains(query)) result.add(books.get(id));
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Checks whether the attribute of the book selected by the filter contains the input, ignoring
+	 * case and accents, with the same semantics as {@link #search}; used to narrow previous results
+	 * without querying again.
+	 *
+	 * @param book   The book to check.
+	 * @param input  The input string.
+	 * @param filter The attribute to check; must be {@link BookFilter#TITLE TITLE},
+	 *               {@link BookFilter#AUTHOR AUTHOR} or {@link BookFilter#ISBN ISBN}.
+	 * @return {@code true} if the book matches.
+	 * @throws IllegalArgumentException If the filter is not one of the above.
+	 */
+	public static boolean matches(Book book, String input, BookFilter filter) {
+		return normalize(textOf(book, filter)).contains(normalize(input));
+	}
+
+	/**
+	 * Replaces the books of the index by the ones read by the loader, followed by the books put
+	 * or removed meanwhile, and clears their texts, which must then be {@link #index() indexed}.
+	 */
+	private void load(Supplier<? extends Collection<Book>> loader) {
+		Map<Integer, Book> changes = new HashMap<>();
+
+		lock.writeLock().lock();
+		try {
+			changedWhileLoading.add(changes);
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		try {
+			Collection<Book> all = loader.get();
+
+			lock.writeLock().lock();
+			try {
+				load(all);
+
+				changes.forEach((id, book) -> {
+					if (book != null) books.put(id, book);
+					else books.remove(id);
+				});
+				changedWhileIndexing.addAll(changes.keySet());
+			} finally {
+				lock.writeLock().unlock();
+			}
+		} finally {
+			lock.writeLock().lock();
+			try {
+				changedWhileLoading.removeIf(running -> running == changes);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Replaces the books of the index by the ones passed as an argument and clears their texts,
+	 * which must then be {@link #index() indexed}.
+	 */
+	private void load(Collection<Book> all) {
+		lock.writeLock().lock();
+		try {
+			books.clear();
+			all.forEach(book -> books.put(book.getId(), book));
+			texts = emptyTexts();
+			postings = emptyPostings();
+			changedWhileIndexing = new HashSet<>();
+			generation++;
+
+			orders.clear();
+			sortedOrders.clear();
+			loadedOrder = all.toArray(new Book[0]);
+
+			ready = false;
+			loaded = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Indexes the texts of the loaded books without holding the lock, so the books can still be
+	 * paged and changed meanwhile, then indexes again the books changed in the meantime and marks
+	 * the index as ready. Does nothing if other books were loaded meanwhile.
+	 */
+	private void index() {
+		int indexedGeneration;
+		List<Book> all;
+
+		lock.readLock().lock();
+		try {
+			indexedGeneration = generation;
+			all = new ArrayList<>(books.values());
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		Map<BookFilter, Map<Integer, String>> newTexts = emptyTexts();
+		Map<BookFilter, Map<Long, Set<Integer>>> newPostings = emptyPostings();
+		for (Book book : all) addTexts(book, newTexts, newPostings);
+
+		lock.writeLock().lock();
+		try {
+			if (indexedGeneration != generation) return;
+
+			texts = newTexts;
+			postings = newPostings;
+
+			for (int id : changedWhileIndexing) {
+				removeTexts(id);
+				Book book = books.get(id);
+				if (book != null) addTexts(book, texts, postings);
+			}
+
+			changedWhileIndexing = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Must be called while holding the read lock.
+	 *
+	 * @return Every book, in ascending order of the sort.
+	 */
+	private Book[] order(BookSort sort) {
+		synchronized (orders) {
+			Book[] order = orders.get(sort);
+			if (order != null && sortedOrders.contains(sort)) return order;
+
+			Book[] refreshed = current(order != null ? order : loadedOrder);
+			Arrays.sort(refreshed, sort.comparator());
+			orders.put(sort, refreshed);
+			sortedOrders.add(sort);
+
+			return refreshed;
+		}
+	}
+
+	/**
+	 * Must be called while holding the read lock.
+	 *
+	 * @return The current version of the books of the previous order that were not deleted, in
+	 * that order, followed by the books added since.
+	 */
+	private Book[] current(Book[] previous) {
+		List<Book> current = new ArrayList<>(books.size());
+
+		for (Book book : previous) {
+			Book currentBook = books.get(book.getId());
+			if (currentBook != null) current.add(currentBook);
+		}
+
+		if (current.size() < books.size()) {
+			Set<Integer> ids = new HashSet<>();
+			for (Book book : previous) ids.add(book.getId());
+			for (Book book : books.values()) if (!ids.contains(book.getId())) current.add(book);
+		}
+
+		return current.toArray(new Book[0]);
+	}
+
+	/**
+	 * Must be called while holding the read lock.
+	 *
+	 * @return The IDs of the books that contain every trigram of the query, or of all books if the
+	 * query is too short to have trigrams.
+	 */
+	private Collection<Integer> candidates(String query, BookFilter filter) {
+		if (query.length() < GRAM) return books.keySet();
+
+		Map<Long, Set<Integer>> filterPostings = postings.get(filter);
+		List<Set<Integer>> lists = new ArrayList<>();
+
+		for (long gram : grams(query)) {
+			Set<Integer> ids = filterPostings.get(gram);
+			if (ids == null) return Set.of();
+			lists.add(ids);
+		}
+
+		lists.sort(Comparator.comparingInt(Set::size));
+
+		List<Integer> result = new ArrayList<>();
+		outer:
+		for (int id : lists.get(0)) {
+			for (int i = 1; i < lists.size(); i++) if (!lists.get(i).contains(id)) continue outer;
+			result.add(id);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Indexes the texts of the book into the maps passed as arguments; must be called while
+	 * holding the write lock if they are the maps of the index.
+	 */
+	private static void addTexts(Book book, Map<BookFilter, Map<Integer, String>> texts,
+															 Map<BookFilter, Map<Long, Set<Integer>>> postings) {
+		int id = book.getId();
+
+		for (BookFilter filter : indexedFilters()) {
+			String text = normalize(textOf(book, filter));
+			texts.get(filter).put(id, text);
+
+			Map<Long, Set<Integer>> filterPostings = postings.get(filter);
+			for (long gram : grams(text)) filterPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+		}
+	}
+
+	/**
+	 * Must be called while holding the write lock.
+	 */
+	private void removeTexts(int id) {
+		for (BookFilter filter : indexedFilters()) {
+			String text = texts.get(filter).remove(id);
+			if (text == null) return;
+
+			Map<Long, Set<Integer>> filterPostings = postings.get(filter);
+
+			for (long gram : grams(text)) {
+				Set<Integer> ids = filterPostings.get(gram);
+				if (ids == null) continue;
+
+				ids.remove(id);
+				if (ids.isEmpty()) filterPostings.remove(gram);
+			}
+		}
+	}
+
+	private static void start(Runnable task) {
+		Thread thread = new Thread(task, "book-search-index");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private static Map<BookFilter, Map<Integer, String>> emptyTexts() {
+		Map<BookFilter, Map<Integer, String>> texts = new EnumMap<>(BookFilter.class);
+		for (BookFilter filter : indexedFilters()) texts.put(filter, new HashMap<>());
+		return texts;
+	}
+
+	private static Map<BookFilter, Map<Long, Set<Integer>>> emptyPostings() {
+		Map<BookFilter, Map<Long, Set<Integer>>> postings = new EnumMap<>(BookFilter.class);
+		for (BookFilter filter : indexedFilters()) postings.put(filter, new HashMap<>());
+		return postings;
+	}
+
+	/**
+	 * @return The filters answered by this index.
+	 */
+	private static BookFilter[] indexedFilters() {
+		return new BookFilter[]{BookFilter.TITLE, BookFilter.AUTHOR, BookFilter.ISBN};
+	}
+
+	/**
+	 * @return The text of the book searched by the filter; both ISBNs are joined by a
+	 * separator that cannot appear in the input, so no match spans the two.
+	 */
+	private static String textOf(Book book, BookFilter filter) {
+		return switch (filter) {
+			case TITLE -> book.getTitle();
+			case AUTHOR -> book.getAuthor().getName();
+			case ISBN -> "%s\u0000%s".formatted(book.getIsbn10() != null ? book.getIsbn10() : "", book.getIsbn13());
+			default -> throw new IllegalArgumentException(filter.name());
+		};
+	}
+
+
+	/**
+	 * @return The distinct trigrams of the text, each packed into a {@code long}.
+	 */
+	private static Set<Long> grams(String text) {
+		Set<Long> grams = new HashSet<>();
+
+		for (int i = 0; i + GRAM <= text.length(); i++) {
+			grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+		}
+
+		return grams;
+	}
+}
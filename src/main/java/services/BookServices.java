@@ -1,11 +1,18 @@
 package services;
 
+import exceptions.DataAccessException;
 import exceptions.NotFoundException;
+import factory.ConnectionFactory;
 import models.Author;
 import models.Book;
 import models.Format;
 import models.Genre;
 import models.Publisher;
+import models.dto.BookPatch;
+import models.filters.BookSort;
+import services.ChangeLog.Entity;
+import services.ChangeLog.Operation;
+import services.dialect.Dialect;
 
 import java.sql.Connection;
 import java.sql.Date;
@@ -13,10 +20,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import static utils.Texts.likeContaining;
 
 /**
  * Service class for manipulating the database regarding {@link Book books}.
@@ -24,99 +37,148 @@ import java.util.Set;
  * @author Lucas da Paz
  */
 public class BookServices extends Services<Book> {
+	/**
+	 * Base query used to load {@link Book} records together with their {@link Author},
+	 * {@link Publisher} and {@link Genre genres} in a single round trip; each book yields
+	 * one row per linked genre. Callers may append their own {@code WHERE} clause.
+	 */
+	private static final String SELECT_BOOKS = """
+		  SELECT
+		    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`, b.`format`,
+		    b.`review`,
+		    a.`id` AS `author_id`, a.`name` AS `author_name`, a.`nationality` AS `author_nationality`,
+		    a.`books_owned` AS `author_books_owned`,
+		    p.`id` AS `publisher_id`, p.`name` AS `publisher_name`, p.`books_owned` AS `publisher_books_owned`,
+		    g.`id` AS `genre_id`, g.`name` AS `genre_name`, g.`books_owned` AS `genre_books_owned`
+		  FROM `book` b
+		    INNER JOIN `author` a ON b.`author_id` = a.`id`
+		    INNER JOIN `publisher` p ON b.`publisher_id` = p.`id`
+		    INNER JOIN `book_genre` bg ON b.`id` = bg.`book_id`
+		      INNER JOIN `genre` g ON bg.`genre_id` = g.`id`
+		""";
+
+	private final ReferenceCache<Author> authorCache;
+	private final ReferenceCache<Publisher> publisherCache;
+	private final ReferenceCache<Genre> genreCache;
 
 	/**
 	 * Constructs an instance of {@link BookServices}.
 	 *
-	 * @param connection A connection with the systems database,
-	 *                   as provided by the data source.
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 * @param authorCache       The cache of authors shared by all services.
+	 * @param publisherCache    The cache of publishers shared by all services.
+	 * @param genreCache        The cache of genres shared by all services.
 	 */
-	public BookServices(Connection connection) {
-		super(connection);
+	public BookServices(ConnectionFactory connectionFactory, ReferenceCache<Author> authorCache,
+											ReferenceCache<Publisher> publisherCache, ReferenceCache<Genre> genreCache) {
+		super(connectionFactory);
+		this.authorCache = authorCache;
+		this.publisherCache = publisherCache;
+		this.genreCache = genreCache;
 	}
 
 	/**
 	 * Searches the database for all {@link Book} records whose title
-	 * matches the string passed as an argument; uses SQL {@code LIKE}.
+	 * contains the string passed as an argument; uses SQL {@code LIKE}, matching the
+	 * wildcards of the string literally.
 	 *
 	 * @param title Filter string.
 	 * @return A set of all occurrences of book whose queried attribute
 	 * matches the value passed as an argument.
 	 */
 	public Set<Book> filterByTitle(String title) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
-			  WHERE b.`title` LIKE ?;
+		String sql = SELECT_BOOKS + """
+			  WHERE b.`title` LIKE ? ESCAPE '!';
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setString(1, "%%%s%%".formatted(title));
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+			ps.setString(1, likeContaining(title));
 
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
 	/**
 	 * Searches the database for all {@link Book} records whose author name
-	 * matches the string passed as an argument; uses SQL {@code LIKE}.
+	 * contains the string passed as an argument; uses SQL {@code LIKE}, matching the
+	 * wildcards of the string literally.
 	 *
 	 * @param authorName Filter string.
 	 * @return A set of all occurrences of book whose queried attribute
 	 * matches the value passed as an argument.
 	 */
 	public Set<Book> filterByAuthor(String authorName) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
-			       INNER JOIN `author` a ON b.`author_id` = a.`id`
-			  WHERE a.`name` LIKE ?;
+		String sql = SELECT_BOOKS + """
+			  WHERE a.`name` LIKE ? ESCAPE '!';
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setString(1, "%%%s%%".formatted(authorName));
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+			ps.setString(1, likeContaining(authorName));
 
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
 	/**
 	 * Searches the database for all {@link Book} records whose ISBN-10
-	 * or ISBN-13 matches the string passed as an argument; uses SQL {@code LIKE}.
+	 * or ISBN-13 contains the string passed as an argument; uses SQL {@code LIKE}, matching
+	 * the wildcards of the string literally.
 	 *
 	 * @param isbn Filter string.
 	 * @return A set of all occurrences of book whose queried attribute
 	 * matches the value passed as an argument.
 	 */
 	public Set<Book> filterByIsbn(String isbn) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
+		String sql = SELECT_BOOKS + """
 			  WHERE
-						`isbn_10` LIKE ?
-						OR `isbn_13` LIKE ?;
+			    b.`isbn_10` LIKE ? ESCAPE '!'
+			    OR b.`isbn_13` LIKE ? ESCAPE '!';
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setString(1, "%%%s%%".formatted(isbn));
-			ps.setString(2, "%%%s%%".formatted(isbn));
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+			ps.setString(1, likeContaining(isbn));
+			ps.setString(2, likeContaining(isbn));
 
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Searches the database for all {@link Book} records whose title or review, or whose
+	 * author name, match the query passed as an argument; uses the MySQL {@code FULLTEXT}
+	 * indexes on these columns, or the approximation of the {@link Dialect#fullTextSearch
+	 * dialect} on other databases. Unlike the {@code filterBy} methods, matches are made on
+	 * whole words and the results are ranked by relevance.
+	 *
+	 * @param query       The search query.
+	 * @param booleanMode If {@code true}, the query is interpreted in boolean mode, accepting
+	 *                    operators such as {@code +word}, {@code -word}, {@code word*} and
+	 *                    {@code "exact phrase"}; otherwise, in natural language mode.
+	 * @return A {@link List} of all occurrences of book that matched the query, from the most
+	 * to the least relevant.
+	 */
+	public List<Book> searchFullText(String query, boolean booleanMode) {
+		Dialect.FullTextSearch search = dialect().fullTextSearch(query, booleanMode);
+		String sql = SELECT_BOOKS + """
+			    INNER JOIN (
+			%s
+			    ) r ON b.`id` = r.`id`
+			  ORDER BY r.`relevance` DESC, b.`id`;
+			""".formatted(search.sql());
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+			for (int i = 0; i < search.parameters().size(); i++) ps.setString(i + 1, search.parameters().get(i));
+
+			return List.copyOf(readBooks(ps));
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -129,21 +191,16 @@ public class BookServices extends Services<Book> {
 	 * @return A set of all occurrences of book with the corresponding author.
 	 */
 	public Set<Book> getByAuthor(Author author) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
+		String sql = SELECT_BOOKS + """
 			  WHERE b.`author_id` = ?;
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, author.getId());
 
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -156,21 +213,16 @@ public class BookServices extends Services<Book> {
 	 * @return A set of all occurrences of book with the corresponding publisher.
 	 */
 	public Set<Book> getByPublisher(Publisher publisher) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
+		String sql = SELECT_BOOKS + """
 			  WHERE b.`publisher_id` = ?;
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, publisher.getId());
 
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -183,40 +235,207 @@ public class BookServices extends Services<Book> {
 	 * @return A set of all occurrences of book with the corresponding genre.
 	 */
 	public Set<Book> getByGenre(Genre genre) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
-			  WHERE g.`genre_id` = ?;
+		String sql = SELECT_BOOKS + """
+			  WHERE b.`id` IN (SELECT `book_id` FROM `book_genre` WHERE `genre_id` = ?);
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, genre.getId());
 
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Queries the database for a page of {@link Book} records ordered by the attribute passed
+	 * as an argument, using keyset pagination: instead of skipping rows with an offset, the
+	 * page starts right after the last book of the previous one, so every page costs the same
+	 * regardless of its position. Ties are broken by the book ID. The indexes on the sort
+	 * attribute and the ID of {@code src/db/migrations/003-page-indexes.sql} let the database
+	 * read each page from the index instead of sorting every book.
+	 *
+	 * @param sort      The attribute to order by.
+	 * @param ascending {@code true} to order in ascending order, {@code false} for descending.
+	 * @param after     The last book of the previous page, or {@code null} for the first page.
+	 * @param limit     The maximum number of books in the page.
+	 * @return The books of the page, in order.
+	 */
+	public List<Book> getPage(BookSort sort, boolean ascending, Book after, int limit) {
+		String key = sortKey(sort);
+		String direction = ascending ? "ASC" : "DESC";
+		String operator = ascending ? ">" : "<";
+		// (key, id) > (?, ?), written so the index on (key, id) is range scanned from the key
+		String seek = after == null ? "" : "WHERE %1$s %2$s= ? AND (%1$s %2$s ? OR pb.`id` %2$s ?)".formatted(key, operator);
+		String sql = SELECT_BOOKS + """
+			    INNER JOIN (
+			      SELECT pb.`id`, %1$s AS `sort_key`
+			      FROM `book` pb
+			        INNER JOIN `author` pa ON pb.`author_id` = pa.`id`
+			        INNER JOIN `publisher` pp ON pb.`publisher_id` = pp.`id`
+			      %2$s
+			      ORDER BY `sort_key` %3$s, pb.`id` %3$s
+			      LIMIT ?
+			    ) pg ON b.`id` = pg.`id`
+			  ORDER BY pg.`sort_key` %3$s, b.`id` %3$s;
+			""".formatted(key, seek, direction);
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+			int i = 1;
+
+			if (after != null) {
+				ps.setObject(i++, sortValue(sort, after));
+				ps.setObject(i++, sortValue(sort, after));
+				ps.setInt(i++, after.getId());
+			}
+			ps.setInt(i, limit);
+
+			return List.copyOf(readBooks(ps));
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * @return The number of {@link Book} records in the database.
+	 */
+	public int count() {
+		String sql = "SELECT COUNT(*) FROM `book`;";
+
+		try (Connection connection = getConnection();
+			 PreparedStatement ps = connection.prepareStatement(sql);
+			 ResultSet rs = ps.executeQuery()) {
+			return rs.next() ? rs.getInt(1) : 0;
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * @param sort The sort attribute.
+	 * @return The SQL expression of the attribute in the page query of {@link #getPage}.
+	 */
+	private String sortKey(BookSort sort) {
+		return switch (sort) {
+			case ID -> "pb.`id`";
+			case TITLE -> "pb.`title`";
+			case AUTHOR -> "pa.`name`";
+			// compares the ENUM index, as in ORDER BY, instead of its label
+			case FORMAT -> dialect().enumIndex("pb.`format`");
+			case PUBLISHER -> "pp.`name`";
+			case PAGES -> "pb.`pages`";
+			case READ -> "pb.`read`";
+		};
+	}
+
+	/**
+	 * @param sort The sort attribute.
+	 * @param book The book.
+	 * @return The value of the attribute for the book, as compared by the expression of {@link #sortKey}.
+	 */
+	private static Object sortValue(BookSort sort, Book book) {
+		return switch (sort) {
+			case ID -> book.getId();
+			case TITLE -> book.getTitle();
+			case AUTHOR -> book.getAuthor().getName();
+			case FORMAT -> book.getFormat().getCode();
+			case PUBLISHER -> book.getPublisher().getName();
+			case PAGES -> book.getPages();
+			case READ -> book.isRead();
+		};
+	}
+
+	/**
+	 * Inserts into the database the links between the {@link Book} with corresponding ID
+	 * and each {@link Genre} passed as an argument, as a single batch; links that already
+	 * exist are ignored.
+	 *
+	 * @param connection The connection of the ongoing transaction.
+	 * @param bookId     The ID of the book to link the genres to.
+	 * @param genres     The genres to link.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	private void addGenres(Connection connection, int bookId, Set<Genre> genres) throws SQLException {
+		String sql = "INSERT IGNORE INTO `book_genre` (`book_id`, `genre_id`) VALUES (?, ?);";
+
+		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+			for (Genre g : genres) {
+				ps.setInt(1, bookId);
+				ps.setInt(2, g.getId());
+				ps.addBatch();
+			}
+			ps.executeBatch();
 		}
 	}
 
 	/**
-	 * Inserts into the database a link between a {@link Book} and
-	 * the {@link Genre} passed as arguments.
+	 * Inserts into the database the links between each {@link Book} of a chunk
+	 * and its {@link Genre genres}, as a single batch.
 	 *
-	 * @param bookId The ID of the book to link the genre to.
-	 * @param genre  The genre to link.
+	 * @param connection The connection of the ongoing transaction.
+	 * @param books      The inserted books.
+	 * @param ids        The IDs generated for the books, in the same order.
+	 * @throws SQLException If a database access error occurs.
 	 */
-	private void addGenre(int bookId, Genre genre) {
+	private void addGenres(Connection connection, List<Book> books, int[] ids) throws SQLException {
 		String sql = "INSERT INTO `book_genre` (`book_id`, `genre_id`) VALUES (?, ?);";
 
+		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+			for (int i = 0; i < ids.length; i++) {
+				for (Genre g : books.get(i).getGenres()) {
+					ps.setInt(1, ids[i]);
+					ps.setInt(2, g.getId());
+					ps.addBatch();
+				}
+			}
+			ps.executeBatch();
+		}
+	}
+
+	/**
+	 * Removes form the database all links between the {@link Book} with corresponding ID
+	 * and any {@link Genre} that is not contained in the set passed as an argument, using
+	 * a single statement.
+	 *
+	 * @param connection The connection of the ongoing transaction.
+	 * @param bookId     The ID of the book to unlink the genres from.
+	 * @param kept       The genres whose links must be kept.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	private void removeGenresExcept(Connection connection, int bookId, Set<Genre> kept) throws SQLException {
+		String sql = "DELETE FROM `book_genre` WHERE `book_id` = ?";
+
+		if (!kept.isEmpty()) {
+			String placeholders = String.join(", ", Collections.nCopies(kept.size(), "?"));
+			sql += " AND `genre_id` NOT IN (%s)".formatted(placeholders);
+		}
+
 		try (PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, bookId);
-			ps.setInt(2, genre.getId());
+
+			int i = 2;
+			for (Genre g : kept) ps.setInt(i++, g.getId());
+
 			ps.execute();
-		} catch (SQLException e) {
-			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads the review of the {@link Book} with the corresponding ID.
+	 *
+	 * @param connection The connection of the ongoing transaction.
+	 * @param bookId     The ID of the book.
+	 * @return The review of the book, or {@code null} if it has none.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	private String readReview(Connection connection, int bookId) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement("SELECT `review` FROM `book` WHERE `id` = ?;")) {
+			ps.setInt(1, bookId);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getString("review") : null;
+			}
 		}
 	}
 
@@ -231,13 +450,21 @@ public class BookServices extends Services<Book> {
 	public void removeGenre(int bookId, Genre genre) {
 		String sql = "DELETE FROM `book_genre` WHERE `book_id` = ? AND `genre_id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setInt(1, bookId);
-			ps.setInt(2, genre.getId());
-			ps.execute();
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					ps.setInt(1, bookId);
+					ps.setInt(2, genre.getId());
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.BOOK, Operation.UPDATE, bookId);
+				return null;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
+		genreCache.invalidate(genre.getId());
 	}
 
 	/**
@@ -249,27 +476,87 @@ public class BookServices extends Services<Book> {
 	public void updateReadStatus(Book book) {
 		String sql = "UPDATE `book` SET `read`= ? WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setBoolean(1, book.isRead());
-			ps.setInt(2, book.getId());
-			ps.execute();
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					ps.setBoolean(1, book.isRead());
+					ps.setInt(2, book.getId());
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.BOOK, Operation.UPDATE, book.getId());
+				return null;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Persists the attributes set by each patch passed as an argument, in a single transaction;
+	 * each attribute is written by its own batch, holding only the patches that set it, so
+	 * e.g. a read toggle never overwrites a review changed by another client, and the other
+	 * attributes of the books are left unchanged.
+	 *
+	 * @param patches The new values, one patch per book.
+	 */
+	public void patchAll(Collection<BookPatch> patches) {
+		int[] ids = patches.stream().filter(patch -> !patch.isEmpty()).mapToInt(BookPatch::id).toArray();
+		if (ids.length == 0) return;
+
+		try {
+			inTransaction(connection -> {
+				for (BookPatch.Field field : BookPatch.Field.values()) {
+					patchField(connection, patches, field);
+				}
+
+				ChangeLog.append(connection, Entity.BOOK, Operation.UPDATE, ids);
+				return null;
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Writes one attribute of the books of the patches that set it, as a single batch.
+	 *
+	 * @param connection The connection of the ongoing transaction.
+	 * @param patches    The patches.
+	 * @param field      The attribute to write.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	private void patchField(Connection connection, Collection<BookPatch> patches, BookPatch.Field field) throws SQLException {
+		List<BookPatch> setting = patches.stream().filter(patch -> patch.fields().contains(field)).toList();
+		if (setting.isEmpty()) return;
+
+		String column = switch (field) {
+			case READ -> "read";
+			case REVIEW -> "review";
+			case PRICE -> "price";
+		};
+
+		try (PreparedStatement ps = connection.prepareStatement("UPDATE `book` SET `%s` = ? WHERE `id` = ?;".formatted(column))) {
+			for (BookPatch patch : setting) {
+				switch (field) {
+					case READ -> ps.setBoolean(1, patch.read());
+					case REVIEW -> ps.setString(1, patch.review());
+					case PRICE -> ps.setFloat(1, patch.price());
+				}
+				ps.setInt(2, patch.id());
+				ps.addBatch();
+			}
+			ps.executeBatch();
 		}
 	}
 
 	@Override
 	public Book getById(int id) {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`
-			   WHERE b.`id` = ?;
+		String sql = SELECT_BOOKS + """
+			  WHERE b.`id` = ?;
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			Set<Book> books = transformToSet(ps);
 
@@ -277,33 +564,60 @@ public class BookServices extends Services<Book> {
 
 			return books.toArray(new Book[1])[0];
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Queries the database for the {@link Book} records whose IDs are among the ones passed
+	 * as an argument, in a single round trip.
+	 *
+	 * @param ids The IDs of the desired books.
+	 * @return The books found; IDs without a book are left out.
+	 */
+	public Set<Book> getByIds(Collection<Integer> ids) {
+		if (ids.isEmpty()) return Set.of();
+
+		String sql = SELECT_BOOKS + """
+			  WHERE b.`id` IN (%s);
+			""".formatted(String.join(", ", Collections.nCopies(ids.size(), "?")));
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
+			int i = 1;
+			for (int id : ids) ps.setInt(i++, id);
+
+			return transformToSet(ps);
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
 		}
 	}
 
 	@Override
 	public Set<Book> getAll() {
-		String sql = """
-			  SELECT
-			    b.`id`, b.`title`, b.`isbn_10`, b.`isbn_13`, b.`pages`, b.`read`, b.`purchase_date`, b.`price`,
-			    b.`format`, b.`author_id`, b.`publisher_id`, g.`genre_id`
-			  FROM `book` b
-			    INNER JOIN `book_genre` g ON b.`id` = g.`book_id`;
-			""";
+		String sql = SELECT_BOOKS;
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	@Override
+	public Stream<Book> streamAll() {
+		return stream(SELECT_BOOKS + """
+			  ORDER BY b.`id`;
+			""", null);
+	}
+
 	/**
 	 * {@inheritDoc} Links the created {@link Book} to each {@link Genre} returned
-	 * by {@link Book#getGenres()}.
+	 * by {@link Book#getGenres()}; the book and its links are inserted in a single
+	 * transaction.
 	 *
 	 * @param book The instance of book to be inserted into the database.
-	 * @return {@inheritDoc}
+	 * @return {@inheritDoc} The returned instance is built from the one passed as
+	 * an argument, without reloading it from the database.
 	 */
 	@Override
 	public Book create(Book book) {
@@ -313,29 +627,68 @@ public class BookServices extends Services<Book> {
 				VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
 			""";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-			populateStatement(ps, book);
+		try {
+			int bookId = inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+					populateStatement(ps, book);
+
+					int rowsAffected = ps.executeUpdate();
+					if (rowsAffected == 0) throw new SQLException("Falha ao criar livro, nenhuma linha do banco afetada");
 
-			int rowsAffected = ps.executeUpdate();
-			if (rowsAffected == 0) throw new SQLException("Falha ao criar livro, nenhuma linha do banco afetada");
+					int id = getGeneratedId(ps);
+					addGenres(connection, id, book.getGenres());
+					ChangeLog.append(connection, Entity.BOOK, Operation.INSERT, id);
+					return id;
+				}
+			});
+
+			invalidateReferences();
+			return withId(bookId, book);
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc} The links between each {@link Book} and its {@link Genre genres}
+	 * are inserted as a single batch in the same transaction as the chunk of books.
+	 *
+	 * @param books The instances of book to be inserted into the database.
+	 * @return {@inheritDoc} The returned instances are built from the ones passed as
+	 * an argument, without reloading them from the database.
+	 */
+	@Override
+	public List<Book> createAll(List<Book> books) {
+		String sql = """
+				INSERT INTO `book`
+					(`title`, `isbn_10`, `isbn_13`, `pages`, `read`, `format`, `author_id`, `publisher_id`, `purchase_date`, `price`)
+				VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
+			""";
 
-			int bookId = getGeneratedId(ps);
+		try {
+			int[] ids = insertAll(sql, books, (connection, chunk, chunkIds) -> {
+				addGenres(connection, chunk, chunkIds);
+				ChangeLog.append(connection, Entity.BOOK, Operation.INSERT, chunkIds);
+			});
+			invalidateReferences();
+			List<Book> created = new ArrayList<>(ids.length);
 
-			book.getGenres().forEach(g -> addGenre(bookId, g));
+			for (int i = 0; i < ids.length; i++) created.add(withId(ids[i], books.get(i)));
 
-			return getById(bookId);
+			return created;
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
 	/**
-	 * {@inheritDoc} Retrieves all {@link Genre} occurrences linked to the
-	 * {@link Book} in the database and compares them with those returned by
-	 * the {@link Book#getGenres()} method of the book passed as an argument;
-	 * removes any existing links between those that appear only in the former
-	 * and creates new links for those that appear only in the latter. If a genre
-	 * appears in both sets, no changes are necessary.
+	 * {@inheritDoc} Also replaces the links between the {@link Book} and
+	 * {@link Genre} occurrences by the genres returned by the {@link Book#getGenres()}
+	 * method of the book passed as an argument: links with genres that are not in this
+	 * set are removed with a single statement and the missing ones are inserted as a
+	 * batch; links that already exist are kept. All changes are applied in a single
+	 * transaction. The review is not among the updated columns, so it is read back in
+	 * the same transaction and set on the book.
 	 *
 	 * @param book The instance of {@link Book} to be updated in the database.
 	 * @return {@inheritDoc}
@@ -350,27 +703,27 @@ public class BookServices extends Services<Book> {
 			""";
 		int bookId = book.getId();
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			populateStatement(ps, book);
-			ps.setInt(11, bookId);
-			ps.execute();
-
-			Set<Genre> oldGenres = getById(bookId).getGenres();
-			Set<Genre> newGenres = new HashSet<>(book.getGenres());
+		try {
+			return inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					populateStatement(ps, book);
+					ps.setInt(11, bookId);
 
-			for (Genre g : oldGenres) {
-				if (newGenres.contains(g)) {
-					newGenres.remove(g);
-					continue;
+					if (ps.executeUpdate() == 0)
+						throw new NotFoundException("Nenhum livro encontrado para o id: %d".formatted(bookId));
 				}
-				removeGenre(bookId, g);
-			}
 
-			newGenres.forEach(g -> addGenre(bookId, g));
+				removeGenresExcept(connection, bookId, book.getGenres());
+				addGenres(connection, bookId, book.getGenres());
+				ChangeLog.append(connection, Entity.BOOK, Operation.UPDATE, bookId);
+				book.setReview(readReview(connection, bookId));
 
-			return book;
+				return book;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
+		} finally {
+			invalidateReferences();
 		}
 	}
 
@@ -378,57 +731,209 @@ public class BookServices extends Services<Book> {
 	public void delete(int id) {
 		String sql = "DELETE FROM `book` WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setInt(1, id);
-			ps.execute();
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					ps.setInt(1, id);
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.BOOK, Operation.DELETE, id);
+				return null;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
+		invalidateReferences();
 	}
 
+	/**
+	 * {@inheritDoc} Expects the columns selected by {@link #SELECT_BOOKS}; the {@link Author},
+	 * {@link Publisher} and {@link Genre} of every row are read from the same result set, unless
+	 * already in the shared {@link ReferenceCache caches}, so books that share a reference also
+	 * share the same instance.
+	 */
 	@Override
 	protected Set<Book> transformToSet(PreparedStatement ps) throws SQLException {
-		Map<Integer, Book> books = new HashMap<>();
+		return Set.copyOf(readBooks(ps));
+	}
+
+	/**
+	 * Executes the {@link PreparedStatement}, which must select the columns of {@link #SELECT_BOOKS},
+	 * and instantiates the {@link Book books} of the result set; see {@link #transformToSet}.
+	 *
+	 * @param ps The {@code PreparedStatement} to be executed.
+	 * @return The books, in the order in which they first appear in the result set.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	private Collection<Book> readBooks(PreparedStatement ps) throws SQLException {
+		Map<Integer, Book> books = new LinkedHashMap<>();
 
 		try (ResultSet rs = ps.executeQuery()) {
 			while (rs.next()) {
 				int id = rs.getInt("id");
-				int genreId = rs.getInt("genre_id");
-				Genre genre = new GenreServices(connection).getById(genreId);
+				Genre genre = genreCache.get(rs.getInt("genre_id"), genreId -> readGenre(rs, genreId));
 
 				if (books.containsKey(id)) {
 					books.get(id).addGenre(genre);
 					continue;
 				}
 
-				String title = rs.getString("title");
-				String isbn10 = rs.getString("isbn_10");
-				String isbn13 = rs.getString("isbn_13");
-				int pages = rs.getInt("pages");
-				boolean read = rs.getBoolean("read");
-				var purchaseDate = rs.getDate("purchase_date");
-				float price = rs.getFloat("price");
-				String formatName = rs.getString("format");
-				int authorId = rs.getInt("author_id");
-				int publisherId = rs.getInt("publisher_id");
-
-				Author author = new AuthorServices(connection).getById(authorId);
-				Publisher publisher = new PublisherServices(connection).getById(publisherId);
-				Format format = Format.valueOf(formatName.toUpperCase());
-
-				Book book = new Book(id, title, isbn13, pages, read, format, author, publisher, price);
-
-				if (isbn10 != null) book.setIsbn10(isbn10);
-				if (purchaseDate != null) book.setPurchaseDate(purchaseDate.toLocalDate());
+				Author author = authorCache.get(rs.getInt("author_id"), authorId -> readAuthor(rs, authorId));
+				Publisher publisher = publisherCache.get(rs.getInt("publisher_id"), publisherId -> readPublisher(rs, publisherId));
 
+				Book book = readBook(rs, id, author, publisher);
 				book.addGenre(genre);
 				books.put(id, book);
 			}
 
-			return Set.copyOf(books.values());
+			return books.values();
 		}
 	}
 
+	/**
+	 * Reads the book columns of the current row of a result set generated from
+	 * {@link #SELECT_BOOKS}; the genre of the row is not added.
+	 *
+	 * @param rs        The result set, positioned at the desired row.
+	 * @param id        The book ID, already read from the row.
+	 * @param author    The author of the book.
+	 * @param publisher The publisher of the book.
+	 * @return The book referenced by the current row.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	private Book readBook(ResultSet rs, int id, Author author, Publisher publisher) throws SQLException {
+		String title = rs.getString("title");
+		String isbn10 = rs.getString("isbn_10");
+		String isbn13 = rs.getString("isbn_13");
+		int pages = rs.getInt("pages");
+		boolean read = rs.getBoolean("read");
+		var purchaseDate = rs.getDate("purchase_date");
+		float price = rs.getFloat("price");
+		String formatName = rs.getString("format");
+
+		Format format = Format.valueOf(formatName.toUpperCase());
+
+		Book book = new Book(id, title, isbn13, pages, read, format, author, publisher, price);
+
+		if (isbn10 != null) book.setIsbn10(isbn10);
+		if (purchaseDate != null) book.setPurchaseDate(purchaseDate.toLocalDate());
+		book.setReview(rs.getString("review"));
+
+		return book;
+	}
+
+	/**
+	 * Reads a book from a result set generated from {@link #SELECT_BOOKS}; as in
+	 * {@link #readBooks}, authors, publishers and genres come from the shared caches, whose
+	 * size is bounded, so streaming keeps no other state between books. The following rows
+	 * of the same book are merged by {@link #mergeRow}.
+	 */
+	@Override
+	protected Book mapRow(ResultSet rs) throws SQLException {
+		Author author = authorCache.get(rs.getInt("author_id"), authorId -> readAuthor(rs, authorId));
+		Publisher publisher = publisherCache.get(rs.getInt("publisher_id"), publisherId -> readPublisher(rs, publisherId));
+
+		Book book = readBook(rs, rs.getInt("id"), author, publisher);
+		book.addGenre(genreCache.get(rs.getInt("genre_id"), genreId -> readGenre(rs, genreId)));
+
+		return book;
+	}
+
+	/**
+	 * Adds the genre of the row to the book if both have the same ID; requires the
+	 * query to be ordered by book ID, so that the rows of each book are consecutive.
+	 */
+	@Override
+	protected boolean mergeRow(Book current, ResultSet rs) throws SQLException {
+		if (rs.getInt("id") != current.getId()) return false;
+
+		current.addGenre(genreCache.get(rs.getInt("genre_id"), genreId -> readGenre(rs, genreId)));
+		return true;
+	}
+
+	/**
+	 * Discards the cached authors, publishers and genres after books are written, as their
+	 * {@code books_owned} counters may have changed; the previous references of an updated
+	 * or deleted book are not known, so the whole caches are invalidated.
+	 */
+	private void invalidateReferences() {
+		authorCache.invalidateAll();
+		publisherCache.invalidateAll();
+		genreCache.invalidateAll();
+	}
+
+	/**
+	 * Reads the {@link Author} columns of the current row of a result set
+	 * generated from {@link #SELECT_BOOKS}.
+	 *
+	 * @param rs The result set, positioned at the desired row.
+	 * @param id The author ID, already read from the row.
+	 * @return The author referenced by the current row.
+	 */
+	private Author readAuthor(ResultSet rs, int id) {
+		try {
+			return new Author(id, rs.getString("author_name"), rs.getString("author_nationality"),
+				rs.getInt("author_books_owned")
+			);
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Reads the {@link Publisher} columns of the current row of a result set
+	 * generated from {@link #SELECT_BOOKS}.
+	 *
+	 * @param rs The result set, positioned at the desired row.
+	 * @param id The publisher ID, already read from the row.
+	 * @return The publisher referenced by the current row.
+	 */
+	private Publisher readPublisher(ResultSet rs, int id) {
+		try {
+			return new Publisher(id, rs.getString("publisher_name"), rs.getInt("publisher_books_owned"));
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Reads the {@link Genre} columns of the current row of a result set
+	 * generated from {@link #SELECT_BOOKS}.
+	 *
+	 * @param rs The result set, positioned at the desired row.
+	 * @param id The genre ID, already read from the row.
+	 * @return The genre referenced by the current row.
+	 */
+	private Genre readGenre(ResultSet rs, int id) {
+		try {
+			return new Genre(id, rs.getString("genre_name"), rs.getInt("genre_books_owned"));
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Creates a copy of the {@link Book} passed as an argument with the ID
+	 * generated by the database; the copy shares the same references.
+	 *
+	 * @param id   The generated ID.
+	 * @param book The book that was inserted.
+	 * @return The copy of the book, with its primary key.
+	 */
+	private Book withId(int id, Book book) {
+		Book created = new Book(id, book.getTitle(), book.getIsbn13(), book.getPages(), book.isRead(), book.getFormat(),
+			book.getAuthor(), book.getPublisher(), book.getPrice()
+		);
+
+		created.setIsbn10(book.getIsbn10());
+		created.setPurchaseDate(book.getPurchaseDate());
+		created.setReview(book.getReview());
+		book.getGenres().forEach(created::addGenre);
+
+		return created;
+	}
+
 	@Override
 	protected void populateStatement(PreparedStatement ps, Book book) throws SQLException {
 		ps.setString(1, book.getTitle());
@@ -439,7 +944,7 @@ public class BookServices extends Services<Book> {
 		ps.setInt(6, book.getFormat().getCode());
 		ps.setInt(7, book.getAuthor().getId());
 		ps.setInt(8, book.getPublisher().getId());
-		ps.setDate(9, Date.valueOf(book.getPurchaseDate()));
+		ps.setDate(9, book.getPurchaseDate() != null ? Date.valueOf(book.getPurchaseDate()) : null);
 		ps.setFloat(10, book.getPrice());
 	}
 }
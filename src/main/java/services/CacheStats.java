@@ -0,0 +1,13 @@
+package services;
+
+/**
+ * Snapshot of the counters of a {@link ReferenceCache}, as provided by {@link ReferenceCache#getStats()}.
+ *
+ * @param hits      Lookups answered by the cache.
+ * @param misses    Lookups that had to load the data.
+ * @param evictions Entries discarded because the cache was full.
+ * @param size      Entries currently cached.
+ * @author Lucas da Paz
+ */
+public record CacheStats(long hits, long misses, long evictions, int size) {
+}
@@ -0,0 +1,279 @@
+package services;
+
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Genre;
+import models.Publisher;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Binary file with every {@link Book book} of the catalog, along with the authors,
+ * publishers and genres they reference, so a client can show the book list as soon as it
+ * starts instead of reading the whole catalog from the database first.</p>
+ * <p>The snapshot is written when the client exits and stamped with the {@link ChangeLog}
+ * sequence number its books reflect; the client restores the books from it on the next start
+ * and then reads from the database only the rows changed after that entry, through the
+ * {@link ChangeLogPoller}. It also records the URL of the database, so a snapshot of another
+ * database is ignored.</p>
+ * <p>The file is memory-mapped to be read. Each author, publisher and genre is stored once and
+ * referenced by its position; strings are stored in UTF-8, preceded by their length in bytes,
+ * or by -1 for {@code null}. The file is replaced atomically, so an interrupted write leaves
+ * the previous snapshot in place.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class CatalogSnapshot {
+	private static final Logger LOGGER = Logger.getLogger(CatalogSnapshot.class.getName());
+
+	private static final int MAGIC = 0x424D4353;
+	private static final int VERSION = 1;
+	private static final int READ = 1;
+	private static final int PURCHASED = 2;
+
+	private final Path file;
+	private final String database;
+
+	/**
+	 * Constructs an instance of {@link CatalogSnapshot}.
+	 *
+	 * @param file     The snapshot file; its directory is created when it is first written.
+	 * @param database The URL of the database the books come from.
+	 */
+	public CatalogSnapshot(Path file, String database) {
+		this.file = file;
+		this.database = database;
+	}
+
+	/**
+	 * The content of a snapshot.
+	 *
+	 * @param seq   The sequence number of the last {@link ChangeLog} entry reflected by the books.
+	 * @param books The books, in the order they were written.
+	 */
+	public record Catalog(long seq, List<Book> books) {
+	}
+
+	/**
+	 * Reads the snapshot, if there is one of the same database. A snapshot that cannot be read
+	 * is logged and ignored, as the books can still be read from the
+	 * database.
+	 *
+	 * @return The content of the snapshot, or {@code null} if there is none to be used.
+	 */
+	public Catalog read() {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Instantâneo do catálogo ignorado: " + file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces the snapshot with the books passed as an argument.
+	 *
+	 * @param seq   The sequence number of the last {@link ChangeLog} entry reflected by the books.
+	 * @param books The books, in the order they are restored in.
+	 * @throws UncheckedIOException If the snapshot cannot be written.
+	 */
+	public void write(long seq, Collection<Book> books) {
+		Path target = file.toAbsolutePath();
+		Path temporary = target.resolveSibling("%s.tmp".formatted(target.getFileName()));
+
+		try {
+			Files.createDirectories(target.getParent());
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+				encode(out, seq, books);
+			}
+
+			try {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void encode(DataOutputStream out, long seq, Collection<Book> books) throws IOException {
+		Map<Integer, Author> authors = new LinkedHashMap<>();
+		Map<Integer, Publisher> publishers = new LinkedHashMap<>();
+		Map<Integer, Genre> genres = new LinkedHashMap<>();
+
+		for (Book book : books) {
+			authors.putIfAbsent(book.getAuthor().getId(), book.getAuthor());
+			publishers.putIfAbsent(book.getPublisher().getId(), book.getPublisher());
+			for (Genre genre : book.getGenres()) genres.putIfAbsent(genre.getId(), genre);
+		}
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		writeString(out, database);
+		out.writeLong(seq);
+
+		Map<Integer, Integer> authorPositions = positions(authors.keySet());
+		out.writeInt(authors.size());
+		for (Author author : authors.values()) {
+			out.writeInt(author.getId());
+			writeString(out, author.getName());
+			writeString(out, author.getNationality());
+			out.writeInt(author.getBooksOwned());
+		}
+
+		Map<Integer, Integer> publisherPositions = positions(publishers.keySet());
+		out.writeInt(publishers.size());
+		for (Publisher publisher : publishers.values()) {
+			out.writeInt(publisher.getId());
+			writeString(out, publisher.getName());
+			out.writeInt(publisher.getBooksOwned());
+		}
+
+		Map<Integer, Integer> genrePositions = positions(genres.keySet());
+		out.writeInt(genres.size());
+		for (Genre genre : genres.values()) {
+			out.writeInt(genre.getId());
+			writeString(out, genre.getName());
+			out.writeInt(genre.getBooksOwned());
+		}
+
+		out.writeInt(books.size());
+		for (Book book : books) {
+			out.writeInt(book.getId());
+			writeString(out, book.getTitle());
+			writeString(out, book.getIsbn10());
+			writeString(out, book.getIsbn13());
+			out.writeInt(book.getPages());
+			out.writeByte((book.isRead() ? READ : 0) | (book.getPurchaseDate() != null ? PURCHASED : 0));
+			out.writeByte(book.getFormat().getCode());
+			out.writeInt(authorPositions.get(book.getAuthor().getId()));
+			out.writeInt(publisherPositions.get(book.getPublisher().getId()));
+			if (book.getPurchaseDate() != null) out.writeLong(book.getPurchaseDate().toEpochDay());
+			out.writeFloat(book.getPrice());
+			writeString(out, book.getReview());
+
+			out.writeInt(book.getGenres().size());
+			for (Genre genre : book.getGenres()) out.writeInt(genrePositions.get(genre.getId()));
+		}
+	}
+
+	/**
+	 * @return The content of the snapshot, or {@code null} if it belongs to another database or
+	 * was written by another version of the application.
+	 */
+	private Catalog decode(ByteBuffer in) {
+		if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+
+		Decoder decoder = new Decoder(in);
+		if (!database.equals(decoder.string())) return null;
+
+		long seq = in.getLong();
+
+		Author[] authors = new Author[in.getInt()];
+		for (int i = 0; i < authors.length; i++) {
+			authors[i] = new Author(in.getInt(), decoder.string(), decoder.string(), in.getInt());
+		}
+
+		Publisher[] publishers = new Publisher[in.getInt()];
+		for (int i = 0; i < publishers.length; i++) publishers[i] = new Publisher(in.getInt(), decoder.string(), in.getInt());
+
+		Genre[] genres = new Genre[in.getInt()];
+		for (int i = 0; i < genres.length; i++) genres[i] = new Genre(in.getInt(), decoder.string(), in.getInt());
+
+		Format[] formats = new Format[Format.values().length + 1];
+		for (Format format : Format.values()) formats[format.getCode()] = format;
+
+		int count = in.getInt();
+		List<Book> books = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			int id = in.getInt();
+			String title = decoder.string();
+			String isbn10 = decoder.string();
+			String isbn13 = decoder.string();
+			int pages = in.getInt();
+			int flags = in.get();
+			Format format = formats[in.get()];
+			Author author = authors[in.getInt()];
+			Publisher publisher = publishers[in.getInt()];
+			LocalDate purchaseDate = (flags & PURCHASED) != 0 ? LocalDate.ofEpochDay(in.getLong()) : null;
+			float price = in.getFloat();
+
+			Book book = new Book(id, title, isbn13, pages, (flags & READ) != 0, format, author, publisher, price);
+			if (isbn10 != null) book.setIsbn10(isbn10);
+			if (purchaseDate != null) book.setPurchaseDate(purchaseDate);
+			book.setReview(decoder.string());
+
+			int genreCount = in.getInt();
+			for (int j = 0; j < genreCount; j++) book.addGenre(genres[in.getInt()]);
+
+			books.add(book);
+		}
+
+		return new Catalog(seq, books);
+	}
+
+	private static Map<Integer, Integer> positions(Collection<Integer> ids) {
+		Map<Integer, Integer> positions = new LinkedHashMap<>();
+		for (int id : ids) positions.put(id, positions.size());
+		return positions;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads the strings of a snapshot, copying their bytes into a buffer reused by all of them.
+	 */
+	private static class Decoder {
+		private final ByteBuffer in;
+		private byte[] bytes = new byte[256];
+
+		private Decoder(ByteBuffer in) {
+			this.in = in;
+		}
+
+		private String string() {
+			int length = in.getInt();
+			if (length < 0) return null;
+
+			if (length > bytes.length) bytes = new byte[Math.max(length, bytes.length * 2)];
+			in.get(bytes, 0, length);
+
+			return new String(bytes, 0, length, StandardCharsets.UTF_8);
+		}
+	}
+}
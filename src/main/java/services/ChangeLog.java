@@ -0,0 +1,178 @@
+package services;
+
+import services.dialect.Dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * <p>Access to the {@code change_log} table, to which the services append every write in the
+ * same transaction as the write itself. The log is read by the {@link ChangeLogPoller} of each
+ * client, so that writes made by the other clients connected to the same database are noticed.</p>
+ * <p>Entries are numbered by an increasing sequence and record which row of which entity was
+ * inserted, updated or deleted, and by which client; they do not record the changed data.</p>
+ *
+ * @author Lucas da Paz
+ */
+public final class ChangeLog {
+	/**
+	 * Identifies the entries written by this process, so that its poller can skip them.
+	 */
+	public static final String ORIGIN = UUID.randomUUID().toString();
+
+	private ChangeLog() {
+	}
+
+	/**
+	 * The tables whose writes are logged.
+	 */
+	public enum Entity {AUTHOR, PUBLISHER, GENRE, BOOK}
+
+	/**
+	 * The kinds of write.
+	 */
+	public enum Operation {INSERT, UPDATE, DELETE}
+
+	/**
+	 * An entry of the log.
+	 *
+	 * @param seq       The position of the entry in the log.
+	 * @param entity    The table that was written.
+	 * @param id        The ID of the written row.
+	 * @param operation The kind of write.
+	 * @param origin    The {@link #ORIGIN} of the client that made the write.
+	 */
+	public record Entry(long seq, Entity entity, int id, Operation operation, String origin) {
+	}
+
+	/**
+	 * Appends one entry per ID to the log, as a single batch.
+	 *
+	 * @param connection The connection of the transaction of the write; the entries are
+	 *                   only visible to the other clients once it is committed.
+	 * @param entity     The table that was written.
+	 * @param operation  The kind of write.
+	 * @param ids        The IDs of the written rows.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	public static void append(Connection connection, Entity entity, Operation operation, int... ids) throws SQLException {
+		String sql = "INSERT INTO `change_log` (`entity`, `entity_id`, `op`, `origin`) VALUES (?, ?, ?, ?);";
+
+		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+			for (int id : ids) {
+				ps.setString(1, entity.name().toLowerCase(Locale.ROOT));
+				ps.setInt(2, id);
+				ps.setString(3, operation.name().toLowerCase(Locale.ROOT));
+				ps.setString(4, ORIGIN);
+				ps.addBatch();
+			}
+
+			ps.executeBatch();
+		}
+	}
+
+	/**
+	 * Reads the entries after the sequence number passed as an argument, in order.
+	 *
+	 * @param connection A connection with the database.
+	 * @param after      The sequence number of the last entry already read.
+	 * @param limit      The maximum number of entries read.
+	 * @return The entries read.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	static List<Entry> readAfter(Connection connection, long after, int limit) throws SQLException {
+		String sql = """
+			SELECT `seq`, `entity`, `entity_id`, `op`, `origin`
+			FROM `change_log`
+			WHERE `seq` > ?
+			ORDER BY `seq`
+			LIMIT ?;
+			""";
+		List<Entry> entries = new ArrayList<>();
+
+		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+			ps.setLong(1, after);
+			ps.setInt(2, limit);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					entries.add(new Entry(
+						rs.getLong("seq"),
+						Entity.valueOf(rs.getString("entity").toUpperCase(Locale.ROOT)),
+						rs.getInt("entity_id"),
+						Operation.valueOf(rs.getString("op").toUpperCase(Locale.ROOT)),
+						rs.getString("origin")
+					));
+				}
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * @param connection A connection with the database.
+	 * @return The sequence number of the last entry of the log, or 0 if it is empty.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	static long lastSeq(Connection connection) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement("SELECT COALESCE(MAX(`seq`), 0) FROM `change_log`;");
+				 ResultSet rs = ps.executeQuery()) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	/**
+	 * Checks whether no entry after the sequence number passed as an argument was purged: the
+	 * entry itself is still in the log or, for 0, the log still starts at its first entry.
+	 *
+	 * @param connection A connection with the database.
+	 * @param seq        The sequence number of an entry already read, or 0 if none was.
+	 * @return {@code true} if every entry after it can still be read.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	static boolean continuesAfter(Connection connection, long seq) throws SQLException {
+		if (seq == 0) {
+			// the sequence starts at 1
+			try (PreparedStatement ps = connection.prepareStatement("SELECT COALESCE(MIN(`seq`), 1) FROM `change_log`;");
+					 ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				return rs.getLong(1) == 1;
+			}
+		}
+
+		try (PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM `change_log` WHERE `seq` = ?;")) {
+			ps.setLong(1, seq);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				return rs.getLong(1) > 0;
+			}
+		}
+	}
+
+	/**
+	 * Deletes the entries older than the number of days passed as an argument.
+	 *
+	 * @param connection A connection with the database.
+	 * @param dialect    The dialect of the database.
+	 * @param days       The number of days the entries are kept.
+	 * @return The number of entries deleted.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	static int purge(Connection connection, Dialect dialect, int days) throws SQLException {
+		String sql = "DELETE FROM `change_log` WHERE %s;".formatted(dialect.olderThanDays("`changed_at`"));
+
+		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+			ps.setInt(1, days);
+			return ps.executeUpdate();
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package services;
+
+import exceptions.DataAccessException;
+import factory.ConnectionFactory;
+import services.ChangeLog.Entry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Reads periodically the {@link ChangeLog} entries written by the other clients and hands
+ * them over to a listener, which brings the caches and views of this client up to date.</p>
+ * <p>The poller keeps a watermark: the sequence number up to which every entry was already
+ * read. Sequence numbers are allocated when an entry is inserted but become visible only when
+ * its transaction commits, so a gap below an entry already read may still be filled by a slower
+ * transaction. The watermark therefore only advances over contiguous entries; entries above a
+ * gap are delivered once and remembered, and a gap that is not filled within
+ * {@link #GAP_TIMEOUT} is assumed to belong to a rolled back transaction and skipped.</p>
+ * <p>The watermark {@link #startFromLastEntry starts} at the last entry of the log, read before
+ * the data of the client, which then already reflects the earlier entries; the later ones may be
+ * applied to data that already reflects them, which is harmless. If the data of the client was
+ * restored from a {@link CatalogSnapshot}, it {@link #resumeAfter resumes} from the entry of the
+ * snapshot instead. Entries older than {@link #RETENTION_DAYS} days are purged.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class ChangeLogPoller implements AutoCloseable {
+	private static final Logger LOGGER = Logger.getLogger(ChangeLogPoller.class.getName());
+
+	/**
+	 * How long a gap in the sequence numbers is waited for.
+	 */
+	public static final Duration GAP_TIMEOUT = Duration.ofSeconds(10);
+	/**
+	 * How many days the entries are kept in the log.
+	 */
+	public static final int RETENTION_DAYS = 7;
+
+	private static final int PAGE_SIZE = 1000;
+	private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+	private final ConnectionFactory connectionFactory;
+	private final Consumer<List<Entry>> listener;
+	private final NavigableSet<Long> delivered = new TreeSet<>();
+	private long watermark = -1;
+	private long gapSince;
+	private Runnable onMissingEntries;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructs an instance of {@link ChangeLogPoller}.
+	 *
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 * @param listener          Receives the entries written by the other clients, in order;
+	 *                          never called with an empty list.
+	 */
+	public ChangeLogPoller(ConnectionFactory connectionFactory, Consumer<List<Entry>> listener) {
+		this.connectionFactory = connectionFactory;
+		this.listener = listener;
+	}
+
+	/**
+	 * Reads the entries after the watermark, delivers the new ones written by the other clients
+	 * and advances the watermark.
+	 *
+	 * @return The number of entries delivered to the listener.
+	 */
+	public synchronized int poll() {
+		List<Entry> entries;
+		long restartAt = -1;
+
+		try (Connection connection = connectionFactory.getConnection("ChangeLogPoller.poll")) {
+			if (watermark < 0) {
+				watermark = ChangeLog.lastSeq(connection);
+				return 0;
+			}
+
+			if (onMissingEntries != null && !ChangeLog.continuesAfter(connection, watermark)) {
+				restartAt = ChangeLog.lastSeq(connection);
+			}
+
+			entries = restartAt < 0 ? ChangeLog.readAfter(connection, watermark, PAGE_SIZE) : List.of();
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+
+		if (restartAt >= 0) {
+			// if it fails, the log is checked again by the next poll
+			onMissingEntries.run();
+			watermark = restartAt;
+			onMissingEntries = null;
+			return 0;
+		}
+
+		onMissingEntries = null;
+
+		List<Entry> changes = new ArrayList<>();
+
+		for (Entry entry : entries) {
+			if (!delivered.add(entry.seq())) continue;
+			if (!entry.origin().equals(ChangeLog.ORIGIN)) changes.add(entry);
+		}
+
+		advance();
+		if (!changes.isEmpty()) listener.accept(changes);
+
+		return changes.size();
+	}
+
+	/**
+	 * Starts the watermark at the last entry of the log, unless it was already started; must be
+	 * called before the data of this client is read, so that the entries committed meanwhile are
+	 * read afterwards instead of missed. Otherwise, the first poll starts it.
+	 */
+	public synchronized void startFromLastEntry() {
+		if (watermark >= 0) return;
+
+		try (Connection connection = connectionFactory.getConnection("ChangeLogPoller.startFromLastEntry")) {
+			watermark = ChangeLog.lastSeq(connection);
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Deletes the entries older than {@link #RETENTION_DAYS} days.
+	 *
+	 * @return The number of entries deleted.
+	 */
+	public int purge() {
+		try (Connection connection = connectionFactory.getConnection("ChangeLogPoller.purge")) {
+			return ChangeLog.purge(connection, connectionFactory.getDialect(), RETENTION_DAYS);
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Makes the first poll read the entries after the sequence number passed as an argument,
+	 * instead of starting at the last entry of the log; must be called before {@link #start}.
+	 * If some of those entries were already purged, the changes since that entry can no longer
+	 * be told, so the poller runs the callback, which must read the data again, and starts at
+	 * the last entry of the log instead.
+	 *
+	 * @param seq              The sequence number of the last entry reflected by the data of
+	 *                         this client.
+	 * @param onMissingEntries Reads again the data of this client, in the thread of the poller.
+	 */
+	public synchronized void resumeAfter(long seq, Runnable onMissingEntries) {
+		this.watermark = seq;
+		this.onMissingEntries = onMissingEntries;
+	}
+
+	/**
+	 * @return The sequence number up to which every entry was read, or -1 before the first poll.
+	 */
+	public synchronized long getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * Schedules polling to run in the background right away and then periodically, and
+	 * purging to run every hour. Failures are logged and do not cancel the following runs.
+	 *
+	 * @param interval The interval between polls.
+	 */
+	public synchronized void start(Duration interval) {
+		if (scheduler != null) return;
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "change-log-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				poll();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao consultar o registro de alterações", e);
+			}
+		}, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				purge();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao limpar o registro de alterações", e);
+			}
+		}, PURGE_INTERVAL.toMillis(), PURGE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops polling and purging, if they were started.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler == null) return;
+
+		scheduler.shutdownNow();
+		scheduler = null;
+	}
+
+	private void advance() {
+		while (!delivered.isEmpty()) {
+			if (delivered.first() == watermark + 1) {
+				watermark = delivered.pollFirst();
+				gapSince = 0;
+				continue;
+			}
+
+			long now = System.nanoTime();
+
+			if (gapSince == 0) {
+				gapSince = now;
+				return;
+			}
+
+			if (now - gapSince < GAP_TIMEOUT.toNanos()) return;
+
+			watermark = delivered.first() - 1;
+		}
+	}
+}
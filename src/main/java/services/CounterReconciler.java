@@ -0,0 +1,102 @@
+package services;
+
+import exceptions.DataAccessException;
+import factory.ConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Repairs drift in the {@code books_owned} counters of {@link models.Author authors},
+ * {@link models.Publisher publishers} and {@link models.Genre genres}.</p>
+ * <p>The counters are maintained by database triggers; they can still drift if rows are
+ * changed with the triggers disabled or by bulk loads that bypass them. Reconciling compares
+ * each counter with the actual number of books and updates only the rows that differ.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class CounterReconciler implements AutoCloseable {
+	private static final Logger LOGGER = Logger.getLogger(CounterReconciler.class.getName());
+
+	private final ConnectionFactory connectionFactory;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructs an instance of {@link CounterReconciler}.
+	 *
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 */
+	public CounterReconciler(ConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+
+	/**
+	 * Recomputes all counters in a single transaction, updating only the ones that drifted.
+	 *
+	 * @return The number of counters that were repaired.
+	 */
+	public int reconcile() {
+		try (Connection connection = connectionFactory.getConnection("CounterReconciler.reconcile")) {
+			connection.setAutoCommit(false);
+
+			try (Statement statement = connection.createStatement()) {
+				int repaired = 0;
+				for (String sql : connectionFactory.getDialect().reconcileCounters()) repaired += statement.executeUpdate(sql);
+
+				connection.commit();
+				return repaired;
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Schedules the reconciliation to run in the background right away and then periodically.
+	 * Repairs and failures are logged; failures do not cancel the following runs.
+	 *
+	 * @param interval The interval between runs.
+	 */
+	public synchronized void start(Duration interval) {
+		if (scheduler != null) return;
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "counter-reconciler");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				int repaired = reconcile();
+				if (repaired > 0) LOGGER.log(Level.INFO, "Contadores de livros corrigidos: {0}", repaired);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Falha ao reconciliar os contadores de livros", e);
+			}
+		}, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic reconciliation, if it was started.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler == null) return;
+
+		scheduler.shutdownNow();
+		scheduler = null;
+	}
+}
@@ -1,16 +1,23 @@
 package services;
 
+import exceptions.DataAccessException;
 import exceptions.NotFoundException;
+import factory.ConnectionFactory;
 import models.Genre;
+import services.ChangeLog.Entity;
+import services.ChangeLog.Operation;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service class for manipulating the database regarding {@link Genre genres}.
@@ -18,15 +25,18 @@ import java.util.Set;
  * @author Lucas da Paz
  */
 public class GenreServices extends Services<Genre> {
+	private final ReferenceCache<Genre> genreCache;
 
 	/**
 	 * Constructs an instance of {@link GenreServices}.
 	 *
-	 * @param connection A connection with the systems database,
-	 *                   as provided by the data source.
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 * @param genreCache        The cache of genres shared by all services.
 	 */
-	public GenreServices(Connection connection) {
-		super(connection);
+	public GenreServices(ConnectionFactory connectionFactory, ReferenceCache<Genre> genreCache) {
+		super(connectionFactory);
+		this.genreCache = genreCache;
 	}
 
 	/**
@@ -38,21 +48,28 @@ public class GenreServices extends Services<Genre> {
 	 * matches the value passed as an argument.
 	 */
 	public Set<Genre> filterByName(String name) {
-		String sql = "SELECT `id`, `name`, countbooksbygenre(`id`) AS `books_owned` FROM `genre` WHERE `name` LIKE ?;";
+		String sql = "SELECT `id`, `name`, `books_owned` FROM `genre` WHERE `name` LIKE ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setString(1, "%%%s%%".formatted(name));
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc} Answered by the shared cache when possible.
+	 */
 	@Override
 	public Genre getById(int id) {
-		String sql = "SELECT `id`, `name`, countbooksbygenre(`id`) AS `books_owned` FROM `genre` WHERE `id` = ?;";
+		return genreCache.get(id, this::loadById);
+	}
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	private Genre loadById(int id) {
+		String sql = "SELECT `id`, `name`, `books_owned` FROM `genre` WHERE `id` = ?;";
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			Set<Genre> genres = transformToSet(ps);
 
@@ -60,35 +77,78 @@ public class GenreServices extends Services<Genre> {
 
 			return genres.toArray(new Genre[1])[0];
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc} Answered by the shared cache when possible.
+	 */
 	@Override
 	public Set<Genre> getAll() {
-		String sql = "SELECT `id`, `name`, countbooksbygenre(`id`) AS `books_owned` FROM `genre`;";
+		return genreCache.getAll(this::loadAll);
+	}
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	private Set<Genre> loadAll() {
+		String sql = "SELECT `id`, `name`, `books_owned` FROM `genre`;";
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	@Override
+	public Stream<Genre> streamAll() {
+		return stream("SELECT `id`, `name`, `books_owned` FROM `genre` ORDER BY `id`;", null);
+	}
+
 	@Override
 	public Genre create(Genre genre) {
 		String sql = "INSERT INTO `genre` (`name`) VALUES (?);";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-			populateStatement(ps, genre);
+		int genreId;
+
+		try {
+			genreId = inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+					populateStatement(ps, genre);
+
+					int rowsAffected = ps.executeUpdate();
+					if (rowsAffected == 0) throw new SQLException("Falha ao criar gênero, nenhuma linha do banco afetada!");
+
+					int id = getGeneratedId(ps);
+					ChangeLog.append(connection, Entity.GENRE, Operation.INSERT, id);
+					return id;
+				}
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+
+		genreCache.invalidate(genreId);
+		return getById(genreId);
+	}
+
+	@Override
+	public List<Genre> createAll(List<Genre> genres) {
+		String sql = "INSERT INTO `genre` (`name`) VALUES (?);";
+
+		try {
+			int[] ids = insertAll(sql, genres, (connection, chunk, chunkIds) ->
+				ChangeLog.append(connection, Entity.GENRE, Operation.INSERT, chunkIds));
+			genreCache.invalidateAll();
+			List<Genre> created = new ArrayList<>(ids.length);
 
-			int rowsAffected = ps.executeUpdate();
-			if (rowsAffected == 0) throw new SQLException("Falha ao criar gênero, nenhuma linha do banco afetada!");
+			for (int i = 0; i < ids.length; i++) {
+				Genre genre = genres.get(i);
+				created.add(new Genre(ids[i], genre.getName()));
+			}
 
-			int genreId = getGeneratedId(ps);
-			return getById(genreId);
+			return created;
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -96,27 +156,44 @@ public class GenreServices extends Services<Genre> {
 	public Genre update(Genre genre) {
 		String sql = "UPDATE `genre` SET `name` = ? WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			populateStatement(ps, genre);
-			ps.setInt(2, genre.getId());
-			ps.execute();
-
-			return getById(genre.getId());
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					populateStatement(ps, genre);
+					ps.setInt(2, genre.getId());
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.GENRE, Operation.UPDATE, genre.getId());
+				return null;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
+
+		genreCache.invalidate(genre.getId());
+		return getById(genre.getId());
 	}
 
 	@Override
 	public void delete(int id) {
 		String sql = "DELETE FROM `genre` WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setInt(1, id);
-			ps.execute();
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					ps.setInt(1, id);
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.GENRE, Operation.DELETE, id);
+				return null;
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
 		}
+
+		genreCache.invalidate(id);
 	}
 
 	@Override
@@ -125,17 +202,21 @@ public class GenreServices extends Services<Genre> {
 
 		try (ResultSet rs = ps.executeQuery()) {
 			while (rs.next()) {
-				int id = rs.getInt("id");
-				String name = rs.getString("name");
-				int booksOwned = rs.getInt("books_owned");
-
-				Genre genre = new Genre(id, name, booksOwned);
-				genres.add(genre);
+				genres.add(mapRow(rs));
 			}
 			return Collections.unmodifiableSet(genres);
 		}
 	}
 
+	@Override
+	protected Genre mapRow(ResultSet rs) throws SQLException {
+		int id = rs.getInt("id");
+		String name = rs.getString("name");
+		int booksOwned = rs.getInt("books_owned");
+
+		return new Genre(id, name, booksOwned);
+	}
+
 	@Override
 	protected void populateStatement(PreparedStatement ps, Genre genre) throws SQLException {
 		ps.setString(1, genre.getName());
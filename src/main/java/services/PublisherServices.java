@@ -1,16 +1,23 @@
 package services;
 
+import exceptions.DataAccessException;
 import exceptions.NotFoundException;
+import factory.ConnectionFactory;
 import models.Publisher;
+import services.ChangeLog.Entity;
+import services.ChangeLog.Operation;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service class for manipulating the database regarding {@link Publisher publishers}.
@@ -18,15 +25,18 @@ import java.util.Set;
  * @author Lucas da Paz
  */
 public class PublisherServices extends Services<Publisher> {
+	private final ReferenceCache<Publisher> publisherCache;
 
 	/**
 	 * Constructs an instance of {@link PublisherServices}.
 	 *
-	 * @param connection A connection with the systems database,
-	 *                   as provided by the data source.
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 * @param publisherCache    The cache of publishers shared by all services.
 	 */
-	public PublisherServices(Connection connection) {
-		super(connection);
+	public PublisherServices(ConnectionFactory connectionFactory, ReferenceCache<Publisher> publisherCache) {
+		super(connectionFactory);
+		this.publisherCache = publisherCache;
 	}
 
 	/**
@@ -38,22 +48,28 @@ public class PublisherServices extends Services<Publisher> {
 	 * matches the value passed as an argument.
 	 */
 	public Set<Publisher> filterByName(String name) {
-		String sql =
-			"SELECT `id`, `name`, countbooksbypublisher(`id`) AS `books_owned` FROM `publisher` WHERE `name` LIKE ?;";
+		String sql = "SELECT `id`, `name`, `books_owned` FROM `publisher` WHERE `name` LIKE ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setString(1, "%%%s%%".formatted(name));
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc} Answered by the shared cache when possible.
+	 */
 	@Override
 	public Publisher getById(int id) {
-		String sql = "SELECT `id`, `name`, countbooksbypublisher(`id`) AS `books_owned` FROM `publisher` WHERE `id` = ?;";
+		return publisherCache.get(id, this::loadById);
+	}
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	private Publisher loadById(int id) {
+		String sql = "SELECT `id`, `name`, `books_owned` FROM `publisher` WHERE `id` = ?;";
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			Set<Publisher> publishers = transformToSet(ps);
 
@@ -61,35 +77,78 @@ public class PublisherServices extends Services<Publisher> {
 
 			return publishers.toArray(new Publisher[1])[0];
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc} Answered by the shared cache when possible.
+	 */
 	@Override
 	public Set<Publisher> getAll() {
-		String sql = "SELECT `id`, `name`, countbooksbypublisher(`id`) AS `books_owned` FROM `publisher`;";
+		return publisherCache.getAll(this::loadAll);
+	}
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	private Set<Publisher> loadAll() {
+		String sql = "SELECT `id`, `name`, `books_owned` FROM `publisher`;";
+
+		try (Connection connection = getConnection(); PreparedStatement ps = connection.prepareStatement(sql)) {
 			return transformToSet(ps);
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
+	@Override
+	public Stream<Publisher> streamAll() {
+		return stream("SELECT `id`, `name`, `books_owned` FROM `publisher` ORDER BY `id`;", null);
+	}
+
 	@Override
 	public Publisher create(Publisher publisher) {
 		String sql = "INSERT INTO `publisher` (`name`) VALUES (?);";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-			populateStatement(ps, publisher);
+		int publisherId;
+
+		try {
+			publisherId = inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+					populateStatement(ps, publisher);
+
+					int rowsAffected = ps.executeUpdate();
+					if (rowsAffected == 0) throw new SQLException("Falha ao criar editora, nenhuma linha do banco afetada!");
+
+					int id = getGeneratedId(ps);
+					ChangeLog.append(connection, Entity.PUBLISHER, Operation.INSERT, id);
+					return id;
+				}
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
+		}
+
+		publisherCache.invalidate(publisherId);
+		return getById(publisherId);
+	}
+
+	@Override
+	public List<Publisher> createAll(List<Publisher> publishers) {
+		String sql = "INSERT INTO `publisher` (`name`) VALUES (?);";
+
+		try {
+			int[] ids = insertAll(sql, publishers, (connection, chunk, chunkIds) ->
+				ChangeLog.append(connection, Entity.PUBLISHER, Operation.INSERT, chunkIds));
+			publisherCache.invalidateAll();
+			List<Publisher> created = new ArrayList<>(ids.length);
 
-			int rowsAffected = ps.executeUpdate();
-			if (rowsAffected == 0) throw new SQLException("Falha ao criar editora, nenhuma linha do banco afetada!");
+			for (int i = 0; i < ids.length; i++) {
+				Publisher publisher = publishers.get(i);
+				created.add(new Publisher(ids[i], publisher.getName()));
+			}
 
-			int publisherId = getGeneratedId(ps);
-			return getById(publisherId);
+			return created;
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
 	}
 
@@ -97,27 +156,44 @@ public class PublisherServices extends Services<Publisher> {
 	public Publisher update(Publisher publisher) {
 		String sql = "UPDATE `publisher` SET `name` = ? WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			populateStatement(ps, publisher);
-			ps.setInt(2, publisher.getId());
-			ps.execute();
-
-			return getById(publisher.getId());
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					populateStatement(ps, publisher);
+					ps.setInt(2, publisher.getId());
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.PUBLISHER, Operation.UPDATE, publisher.getId());
+				return null;
+			});
 		} catch (SQLException e) {
-			throw new RuntimeException(e);
+			throw new DataAccessException(e);
 		}
+
+		publisherCache.invalidate(publisher.getId());
+		return getById(publisher.getId());
 	}
 
 	@Override
 	public void delete(int id) {
 		String sql = "DELETE FROM `publisher` WHERE `id` = ?;";
 
-		try (PreparedStatement ps = connection.prepareStatement(sql)) {
-			ps.setInt(1, id);
-			ps.execute();
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+		try {
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql)) {
+					ps.setInt(1, id);
+					ps.execute();
+				}
+
+				ChangeLog.append(connection, Entity.PUBLISHER, Operation.DELETE, id);
+				return null;
+			});
+		} catch (SQLException e) {
+			throw new DataAccessException(e);
 		}
+
+		publisherCache.invalidate(id);
 	}
 
 	@Override
@@ -126,17 +202,21 @@ public class PublisherServices extends Services<Publisher> {
 
 		try (ResultSet rs = ps.executeQuery()) {
 			while (rs.next()) {
-				int id = rs.getInt("id");
-				String name = rs.getString("name");
-				int booksOwned = rs.getInt("books_owned");
-
-				Publisher publisher = new Publisher(id, name, booksOwned);
-				publishers.add(publisher);
+				publishers.add(mapRow(rs));
 			}
 			return Collections.unmodifiableSet(publishers);
 		}
 	}
 
+	@Override
+	protected Publisher mapRow(ResultSet rs) throws SQLException {
+		int id = rs.getInt("id");
+		String name = rs.getString("name");
+		int booksOwned = rs.getInt("books_owned");
+
+		return new Publisher(id, name, booksOwned);
+	}
+
 	@Override
 	protected void populateStatement(PreparedStatement ps, Publisher publisher) throws SQLException {
 		ps.setString(1, publisher.getName());
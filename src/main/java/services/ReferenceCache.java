@@ -0,0 +1,157 @@
+package services;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Size-bounded, read-through cache of reference data (authors, publishers and genres) keyed
+ * by ID, shared by all services so that every object read from the database refers to a single
+ * canonical instance per ID. The least recently used entries are evicted when the cache is full.</p>
+ * <p>The full listing returned by {@code getAll} is cached separately. Writes to the cached type
+ * must {@link #invalidate(int) invalidate} the changed entry, and writes that change book counts
+ * must {@link #invalidateAll() invalidate} the whole cache. The cached models are immutable.</p>
+ * <p>This class is thread safe; loaders run outside the lock, and values loaded while an
+ * invalidation happened are returned but not cached.</p>
+ *
+ * @param <T> Type of the cached objects.
+ * @author Lucas da Paz
+ */
+public class ReferenceCache<T> {
+	/**
+	 * Maximum number of entries used by {@link factory.ServicesFactory} for each cache.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 2_000;
+
+	private final ToIntFunction<T> idOf;
+	private final Map<Integer, T> entries;
+	private Set<T> all;
+	// incremented on every invalidation, so loads that overlapped one are not cached
+	private long version;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Constructs an empty instance of {@link ReferenceCache}.
+	 *
+	 * @param maximumSize The maximum number of objects kept by ID.
+	 * @param idOf        Returns the ID of an object.
+	 */
+	public ReferenceCache(int maximumSize, ToIntFunction<T> idOf) {
+		this.idOf = idOf;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+				if (size() <= maximumSize) return false;
+
+				evictions++;
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached object with the ID passed as an argument, loading and caching it on
+	 * a miss.
+	 *
+	 * @param id     The ID of the object.
+	 * @param loader Loads the object on a miss, e.g. from the database or from the current row
+	 *               of a result set; exceptions are propagated and nothing is cached.
+	 * @return The canonical instance for the ID.
+	 */
+	public T get(int id, IntFunction<T> loader) {
+		long loadVersion;
+
+		synchronized (this) {
+			T cached = entries.get(id);
+
+			if (cached != null) {
+				hits++;
+				return cached;
+			}
+
+			misses++;
+			loadVersion = version;
+		}
+
+		T loaded = loader.apply(id);
+
+		synchronized (this) {
+			if (loadVersion != version) return loaded;
+
+			T cached = entries.putIfAbsent(id, loaded);
+			return cached != null ? cached : loaded;
+		}
+	}
+
+	/**
+	 * Returns the cached listing of all objects, loading it on a miss; loaded objects
+	 * are replaced by the cached instances with the same ID, if any.
+	 *
+	 * @param loader Loads all objects from the database.
+	 * @return An unmodifiable {@link Set} of all objects.
+	 */
+	public Set<T> getAll(Supplier<Set<T>> loader) {
+		long loadVersion;
+
+		synchronized (this) {
+			if (all != null) {
+				hits++;
+				return all;
+			}
+
+			misses++;
+			loadVersion = version;
+		}
+
+		Set<T> loaded = loader.get();
+
+		synchronized (this) {
+			if (loadVersion != version) return loaded;
+
+			Set<T> canonical = new HashSet<>();
+
+			for (T object : loaded) {
+				T cached = entries.putIfAbsent(idOf.applyAsInt(object), object);
+				canonical.add(cached != null ? cached : object);
+			}
+
+			all = Collections.unmodifiableSet(canonical);
+			return all;
+		}
+	}
+
+	/**
+	 * Discards the object with the ID passed as an argument and the cached listing; used
+	 * after the object is created, updated or deleted.
+	 *
+	 * @param id The ID of the changed object.
+	 */
+	public synchronized void invalidate(int id) {
+		version++;
+		entries.remove(id);
+		all = null;
+	}
+
+	/**
+	 * Discards every cached object and the cached listing.
+	 */
+	public synchronized void invalidateAll() {
+		version++;
+		entries.clear();
+		all = null;
+	}
+
+	/**
+	 * @return A snapshot of the cache counters since it was created.
+	 */
+	public synchronized CacheStats getStats() {
+		return new CacheStats(hits, misses, evictions, entries.size());
+	}
+}
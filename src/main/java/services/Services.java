@@ -1,12 +1,25 @@
 package services;
 
+import exceptions.DataAccessException;
 import exceptions.NotFoundException;
+import factory.ConnectionFactory;
+import services.dialect.Dialect;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Abstract class that encapsulates behavior and attributes of services classes.
@@ -16,16 +29,89 @@ import java.util.Set;
  * @author Lucas da Paz
  */
 public abstract class Services<T> {
-	protected Connection connection;
+	private static final Logger LOGGER = Logger.getLogger(Services.class.getName());
+
+	/**
+	 * Maximum number of rows sent in a single batch by {@link #createAll};
+	 * each batch is committed in its own transaction.
+	 */
+	protected static final int BATCH_SIZE = 500;
+
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+	protected final ConnectionFactory connectionFactory;
 
 	/**
 	 * Initializes a service class.
 	 *
-	 * @param connection A connection with the systems database,
-	 *                   as provided by the data source.
+	 * @param connectionFactory The factory that lends connections
+	 *                          from the application pool.
+	 */
+	public Services(ConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+
+	/**
+	 * @return The dialect of the database, for the parts of the queries that differ between
+	 * the supported databases.
+	 */
+	protected Dialect dialect() {
+		return connectionFactory.getDialect();
+	}
+
+	/**
+	 * Borrows a {@link Connection} from the application pool for a single operation or
+	 * transaction; it must be closed as soon as the operation ends, which returns it to the pool.
+	 * The operation is recorded in the {@link ConnectionFactory#getQueryMetrics() query metrics}
+	 * under the name of the service method that borrowed the connection, such as
+	 * {@code BookServices.getByAuthor}.
+	 *
+	 * @return A connection with the systems database.
+	 * @throws SQLException If no connection could be obtained.
 	 */
-	public Services(Connection connection) {
-		this.connection = connection;
+	protected Connection getConnection() throws SQLException {
+		return connectionFactory.getConnection(queryName());
+	}
+
+	/**
+	 * @return The name of the first method of a subclass in the call stack, skipping the helpers
+	 * of this class and lambdas, so a query run by {@link #inTransaction} or {@link #insertAll} is
+	 * named after the public method that called them.
+	 */
+	private static String queryName() {
+		return STACK_WALKER.walk(frames -> frames
+			.filter(frame -> frame.getDeclaringClass() != Services.class
+				&& Services.class.isAssignableFrom(frame.getDeclaringClass())
+				&& !frame.getMethodName().startsWith("lambda$"))
+			.findFirst()
+			.map(frame -> "%s.%s".formatted(frame.getDeclaringClass().getSimpleName(), frame.getMethodName()))
+			.orElse("Services"));
+	}
+
+	/**
+	 * Borrows a {@link Connection} and runs the work passed as an argument in a single
+	 * transaction: it is committed if the work completes, or rolled back if it throws.
+	 *
+	 * @param work The operations to run, all of them using the connection they receive.
+	 * @param <R>  Type of the result of the work.
+	 * @return The result of the work.
+	 * @throws SQLException If a database access error occurs; the transaction is rolled back.
+	 */
+	protected <R> R inTransaction(Transaction<R> work) throws SQLException {
+		try (Connection connection = getConnection()) {
+			connection.setAutoCommit(false);
+
+			try {
+				R result = work.run(connection);
+				connection.commit();
+				return result;
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		}
 	}
 
 	/**
@@ -45,6 +131,138 @@ public abstract class Services<T> {
 		}
 	}
 
+	/**
+	 * Retrieves all auto-generated IDs from the batch statement passed as argument.
+	 *
+	 * @param statement The statement to retrieve the keys from.
+	 * @param expected  The number of rows inserted by the batch.
+	 * @return The auto-generated IDs, in the same order as the rows were added to the batch.
+	 * @throws SQLException if a database access error occurs, if the statement is closed
+	 *                      or if the number of keys found differs from the expected one.
+	 */
+	protected int[] getGeneratedIds(PreparedStatement statement, int expected) throws SQLException {
+		int[] ids = new int[expected];
+		int i = 0;
+
+		try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+			while (generatedKeys.next() && i < expected) ids[i++] = generatedKeys.getInt(1);
+		}
+
+		if (i != expected) throw new SQLException("Falha ao criar, %d IDs obtidos de %d!".formatted(i, expected));
+
+		return ids;
+	}
+
+	/**
+	 * Inserts the objects passed as an argument using the {@code INSERT} statement received,
+	 * populated by {@link #populateStatement}. Objects are sent in chunks of {@link #BATCH_SIZE}
+	 * rows; each chunk is a single JDBC batch committed in its own transaction, so if a chunk fails
+	 * the ones before it remain in the database.
+	 *
+	 * @param sql        The {@code INSERT} statement.
+	 * @param objects    The objects to insert.
+	 * @param afterChunk Optional additional work to run in the transaction of each chunk, after
+	 *                   its rows are inserted; may be {@code null}.
+	 * @return The auto-generated IDs, in the same order as the objects.
+	 * @throws SQLException If a database access error occurs; the failing chunk is rolled back.
+	 */
+	protected int[] insertAll(String sql, List<T> objects, ChunkWork<T> afterChunk) throws SQLException {
+		int[] ids = new int[objects.size()];
+
+		for (int from = 0; from < objects.size(); from += BATCH_SIZE) {
+			int offset = from;
+			List<T> chunk = objects.subList(from, Math.min(from + BATCH_SIZE, objects.size()));
+
+			inTransaction(connection -> {
+				try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+					for (T object : chunk) {
+						populateStatement(ps, object);
+						ps.addBatch();
+					}
+					ps.executeBatch();
+
+					int[] chunkIds = getGeneratedIds(ps, chunk.size());
+					System.arraycopy(chunkIds, 0, ids, offset, chunkIds.length);
+
+					if (afterChunk != null) afterChunk.run(connection, chunk, chunkIds);
+				}
+				return null;
+			});
+		}
+
+		return ids;
+	}
+
+	/**
+	 * <p>Executes the query passed as an argument and returns its results as a lazily populated
+	 * {@link Stream}: rows are streamed from the server one at a time and each object is
+	 * instantiated only when the stream reaches it, so memory use does not depend on the
+	 * number of rows.</p>
+	 * <p>The stream holds a pooled {@link Connection} until it is closed, which must be done
+	 * with a try-with-resources block; reaching the end of the results also releases it. While
+	 * the stream is open, its connection cannot run other statements.</p>
+	 * <p>Each object is read by {@link #mapRow}; objects that span several consecutive rows
+	 * are completed by {@link #mergeRow}.</p>
+	 *
+	 * @param sql        The {@code SELECT} statement.
+	 * @param parameters Sets the parameters of the statement; may be {@code null}.
+	 * @return The objects of the result set, in order.
+	 */
+	protected Stream<T> stream(String sql, Parameters parameters) {
+		Connection connection = null;
+		PreparedStatement ps = null;
+
+		try {
+			connection = getConnection();
+			ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			// makes the driver stream the rows instead of reading the whole result set
+			ps.setFetchSize(dialect().streamingFetchSize());
+			if (parameters != null) parameters.set(ps);
+
+			var rows = new RowSpliterator(connection, ps, ps.executeQuery());
+			return StreamSupport.stream(rows, false).onClose(rows::close);
+		} catch (SQLException e) {
+			closeQuietly(ps);
+			closeQuietly(connection);
+			throw new DataAccessException(e);
+		}
+	}
+
+	/**
+	 * Instantiates the object of type {@code T} represented by the current row of a result set;
+	 * used by {@link #stream}.
+	 *
+	 * @param rs The result set, positioned at the desired row.
+	 * @return The object read from the row.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	protected abstract T mapRow(ResultSet rs) throws SQLException;
+
+	/**
+	 * Adds the data of the current row of a result set to the object read from the previous
+	 * rows, if the row belongs to it; used by {@link #stream} for objects that span several
+	 * consecutive rows. The default implementation maps each row to its own object.
+	 *
+	 * @param current The object read from the previous rows.
+	 * @param rs      The result set, positioned at the row after them.
+	 * @return {@code true} if the row belongs to the object and was merged into it,
+	 * {@code false} if it starts a new object.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	protected boolean mergeRow(T current, ResultSet rs) throws SQLException {
+		return false;
+	}
+
+	private static void closeQuietly(AutoCloseable resource) {
+		if (resource == null) return;
+
+		try {
+			resource.close();
+		} catch (Exception e) {
+			LOGGER.log(Level.WARNING, "Falha ao fechar um recurso do banco de dados", e);
+		}
+	}
+
 	/**
 	 * Query the database for a single occurrence of data whose
 	 * ID equals the one passed as an argument.
@@ -60,6 +278,26 @@ public abstract class Services<T> {
 	 */
 	public abstract Set<T> getAll();
 
+	/**
+	 * Streams all occurrences of data of the specified type {@code T} without loading
+	 * them all into memory; see {@link #stream}. The stream must be closed.
+	 *
+	 * @return A {@link Stream} of all occurrences, ordered by ID.
+	 */
+	public abstract Stream<T> streamAll();
+
+	/**
+	 * Publishes all occurrences of data of the specified type {@code T}, ordered by ID, with
+	 * backpressure: each subscription reads {@link #streamAll} and advances its cursor only as
+	 * far as the subscriber requested. A subscription holds a connection from its first request
+	 * until it completes, fails or is cancelled.
+	 *
+	 * @return A {@link Flow.Publisher} of all occurrences; see {@link StreamPublisher}.
+	 */
+	public Flow.Publisher<T> publishAll() {
+		return new StreamPublisher<>(this::streamAll);
+	}
+
 	/**
 	 * Creates a new record in the database representing the object passed
 	 * as an argument.
@@ -69,6 +307,15 @@ public abstract class Services<T> {
 	 */
 	public abstract T create(T object);
 
+	/**
+	 * Creates new records in the database representing each object passed as an argument,
+	 * using batched inserts committed in chunks of {@link #BATCH_SIZE} rows.
+	 *
+	 * @param objects The instances of the objects to be inserted into the database.
+	 * @return The created objects, with their primary keys, in the same order as they were passed.
+	 */
+	public abstract List<T> createAll(List<T> objects);
+
 	/**
 	 * Updates a record in the database to represent the current state of
 	 * the object passed as an argument; the updated occurrence is the one whose
@@ -114,4 +361,102 @@ public abstract class Services<T> {
 	 *                      does not correspond to a parameter marker in the SQL statement.
 	 */
 	protected abstract void populateStatement(PreparedStatement ps, T object) throws SQLException;
+
+	/**
+	 * Unit of work run by {@link #inTransaction}.
+	 *
+	 * @param <R> Type of the result of the work.
+	 */
+	@FunctionalInterface
+	protected interface Transaction<R> {
+		/**
+		 * @param connection The connection of the transaction; must not be closed or committed.
+		 * @return The result of the work.
+		 * @throws SQLException If a database access error occurs.
+		 */
+		R run(Connection connection) throws SQLException;
+	}
+
+	/**
+	 * Additional work run by {@link #insertAll} in the transaction of each chunk.
+	 *
+	 * @param <T> Type of the inserted objects.
+	 */
+	@FunctionalInterface
+	protected interface ChunkWork<T> {
+		/**
+		 * @param connection The connection of the chunk transaction; must not be closed or committed.
+		 * @param chunk      The objects inserted in the chunk.
+		 * @param ids        The IDs generated for the chunk, in the same order as the objects.
+		 * @throws SQLException If a database access error occurs.
+		 */
+		void run(Connection connection, List<T> chunk, int[] ids) throws SQLException;
+	}
+
+	/**
+	 * Sets the parameters of a statement run by {@link #stream}.
+	 */
+	@FunctionalInterface
+	protected interface Parameters {
+		/**
+		 * @param ps The statement whose parameters must be set.
+		 * @throws SQLException If a database access error occurs.
+		 */
+		void set(PreparedStatement ps) throws SQLException;
+	}
+
+	/**
+	 * Reads the objects of a streamed result set on demand and owns its resources,
+	 * which are released when the end is reached or when {@link #close()} is called.
+	 */
+	private class RowSpliterator extends Spliterators.AbstractSpliterator<T> {
+		private final Connection connection;
+		private final PreparedStatement ps;
+		private final ResultSet rs;
+		private boolean started;
+		private boolean hasRow;
+		private boolean closed;
+
+		private RowSpliterator(Connection connection, PreparedStatement ps, ResultSet rs) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.connection = connection;
+			this.ps = ps;
+			this.rs = rs;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (closed) return false;
+
+			try {
+				if (!started) {
+					started = true;
+					hasRow = rs.next();
+				}
+
+				if (!hasRow) {
+					close();
+					return false;
+				}
+
+				T current = mapRow(rs);
+				do hasRow = rs.next(); while (hasRow && mergeRow(current, rs));
+
+				action.accept(current);
+				return true;
+			} catch (SQLException e) {
+				close();
+				throw new DataAccessException(e);
+			}
+		}
+
+		private void close() {
+			if (closed) return;
+
+			closed = true;
+			closeQuietly(rs);
+			closeQuietly(ps);
+			closeQuietly(connection);
+		}
+	}
 }
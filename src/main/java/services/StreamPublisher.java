@@ -0,0 +1,168 @@
+package services;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * <p>{@link Flow.Publisher} of the objects of a lazily populated {@link Stream}, such as the ones
+ * returned by {@link Services#stream}, with backpressure: the stream is advanced only as far as
+ * the subscriber requested, so a slow subscriber never makes the rows pile up in memory.</p>
+ * <p>Each subscription opens its own stream on the first request and closes it, releasing its
+ * connection, when the stream ends, fails or the subscription is cancelled; a cancelled
+ * subscription that is waiting for demand is closed right away, and one that is reading a row is
+ * closed as soon as that row is read. Every signal of a subscription is sent from a thread of
+ * the executor, one at a time, never from the thread that requested.</p>
+ *
+ * @param <T> Type of the published objects.
+ * @author Lucas da Paz
+ */
+public class StreamPublisher<T> implements Flow.Publisher<T> {
+	private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "stream-publisher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Supplier<Stream<T>> source;
+	private final Executor executor;
+
+	/**
+	 * Constructs an instance of {@link StreamPublisher} whose signals are sent from a shared
+	 * pool of daemon threads.
+	 *
+	 * @param source Opens the stream of each subscription.
+	 */
+	public StreamPublisher(Supplier<Stream<T>> source) {
+		this(source, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * Constructs an instance of {@link StreamPublisher}.
+	 *
+	 * @param source   Opens the stream of each subscription.
+	 * @param executor Runs the reading of the streams and the signals to the subscribers.
+	 */
+	public StreamPublisher(Supplier<Stream<T>> source, Executor executor) {
+		this.source = source;
+		this.executor = executor;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber);
+		RowSubscription subscription = new RowSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private class RowSubscription implements Flow.Subscription {
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger pending = new AtomicInteger();
+		private Flow.Subscriber<? super T> subscriber;
+		private Stream<T> stream;
+		private Iterator<T> rows;
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+
+		private RowSubscription(Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) invalidRequest = new IllegalArgumentException("A demanda deve ser positiva: %d".formatted(n));
+			else demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		/**
+		 * Runs {@link #drain} in the executor, unless it is already running; in that case, it
+		 * runs once more before returning, so no request or cancellation is missed.
+		 */
+		private void schedule() {
+			if (pending.getAndIncrement() == 0) executor.execute(this::drain);
+		}
+
+		private void drain() {
+			int missed = 1;
+
+			do {
+				if (subscriber != null) emit();
+
+				missed = pending.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void emit() {
+			if (cancelled) {
+				terminate();
+				return;
+			}
+
+			if (invalidRequest != null) {
+				Flow.Subscriber<? super T> failed = subscriber;
+				terminate();
+				failed.onError(invalidRequest);
+				return;
+			}
+
+			long requested = demand.get();
+			long emitted = 0;
+
+			try {
+				if (rows == null && requested > 0) {
+					stream = source.get();
+					rows = stream.iterator();
+				}
+
+				while (emitted < requested && !cancelled) {
+					if (!rows.hasNext()) {
+						Flow.Subscriber<? super T> completed = subscriber;
+						terminate();
+						completed.onComplete();
+						return;
+					}
+
+					subscriber.onNext(rows.next());
+					emitted++;
+				}
+			} catch (RuntimeException e) {
+				Flow.Subscriber<? super T> failed = subscriber;
+				terminate();
+				failed.onError(e);
+				return;
+			}
+
+			if (cancelled) terminate();
+			else if (requested != Long.MAX_VALUE) demand.addAndGet(-emitted);
+		}
+
+		/**
+		 * Closes the stream, if it was opened, and stops sending signals.
+		 */
+		private void terminate() {
+			cancelled = true;
+			subscriber = null;
+			rows = null;
+
+			if (stream != null) {
+				stream.close();
+				stream = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package services.dialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * <p>The parts of the SQL of the services that differ between the supported databases. The
+ * queries are written in the MySQL syntax, which the embedded H2 database understands in its
+ * MySQL compatibility mode; a dialect only provides the statements and expressions that have
+ * no common form, and prepares the database for use.</p>
+ * <p>The dialect of a {@link factory.ConnectionFactory} is chosen by {@link #forUrl} from the
+ * JDBC URL of its configuration.</p>
+ *
+ * @author Lucas da Paz
+ */
+public interface Dialect {
+	/**
+	 * @param url The JDBC URL of the database.
+	 * @return {@link H2Dialect} for {@code jdbc:h2:} URLs; otherwise {@link MySqlDialect}.
+	 */
+	static Dialect forUrl(String url) {
+		return url != null && url.startsWith(H2Dialect.URL_PREFIX) ? new H2Dialect() : new MySqlDialect();
+	}
+
+	/**
+	 * @param url The JDBC URL from the configuration.
+	 * @return The URL with the settings the services rely on added, if missing.
+	 */
+	String configureUrl(String url);
+
+	/**
+	 * @return The driver settings used unless overridden by the {@code db.property.*} properties.
+	 */
+	Properties getDefaultDriverProperties();
+
+	/**
+	 * Prepares the database for the services, such as by creating the missing tables; called
+	 * once, with the first connection of the pool.
+	 *
+	 * @param connection A connection with the database.
+	 * @throws SQLException If a database access error occurs.
+	 */
+	void initialize(Connection connection) throws SQLException;
+
+	/**
+	 * @param column A qualified {@code ENUM} column.
+	 * @return An expression with the 1-based index of the value of the column, which is
+	 * compared as a number instead of as a label.
+	 */
+	String enumIndex(String column);
+
+	/**
+	 * @param column A qualified {@code TIMESTAMP} column.
+	 * @return A condition, with a single parameter for a number of days, that is true for the
+	 * rows whose column is older than that number of days.
+	 */
+	String olderThanDays(String column);
+
+	/**
+	 * @return The fetch size that makes the driver read the rows of a query as the results are
+	 * consumed instead of all at once, for {@link services.Services#stream}; 0 for the default of
+	 * the driver.
+	 */
+	int streamingFetchSize();
+
+	/**
+	 * Builds the full-text search of {@link services.BookServices#searchFullText}: a query that
+	 * selects the {@code id} and the {@code relevance} of every book whose title or review, or
+	 * whose author name, match the query.
+	 *
+	 * @param query       The search query.
+	 * @param booleanMode Whether the query uses the boolean mode operators.
+	 * @return The search and the values of its parameters.
+	 */
+	FullTextSearch fullTextSearch(String query, boolean booleanMode);
+
+	/**
+	 * @return The statements that set each {@code books_owned} counter to the actual number of
+	 * books and return, as their update counts, the number of counters that were changed.
+	 */
+	List<String> reconcileCounters();
+
+	/**
+	 * A full-text search query.
+	 *
+	 * @param sql        The query, selecting the {@code id} and {@code relevance} columns.
+	 * @param parameters The values of its parameters, in order.
+	 */
+	record FullTextSearch(String sql, List<String> parameters) {
+	}
+}
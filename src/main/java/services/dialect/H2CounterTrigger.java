@@ -0,0 +1,82 @@
+package services.dialect;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * <p>Maintains the {@code books_owned} counters of the embedded H2 database, as the SQL triggers
+ * of {@code src/db/db.sql} do in MySQL; H2 only runs triggers written in Java. Created by H2 for
+ * the triggers declared in {@value H2Dialect#SCHEMA}:</p>
+ * <ul>
+ *   <li>on {@code book}, after inserts and updates and before deletes: counts the books of the
+ *   authors and publishers. Before a book is deleted, its links to genres are deleted, so that
+ *   the genres are counted by the {@code book_genre} trigger instead of by the cascade;</li>
+ *   <li>on {@code book_genre}, after inserts, updates and deletes: counts the books of the genres.</li>
+ * </ul>
+ *
+ * @author Lucas da Paz
+ */
+public class H2CounterTrigger implements Trigger {
+	// positions of the columns in the rows, in the order of the schema
+	private static final int BOOK_ID = 0, BOOK_AUTHOR_ID = 7, BOOK_PUBLISHER_ID = 8;
+	private static final int LINK_GENRE_ID = 1;
+
+	private String table;
+
+	@Override
+	public void init(Connection connection, String schemaName, String triggerName, String tableName, boolean before,
+									 int type) {
+		this.table = tableName.toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+		switch (table) {
+			case "book" -> {
+				changed(connection, "author", oldRow, newRow, BOOK_AUTHOR_ID);
+				changed(connection, "publisher", oldRow, newRow, BOOK_PUBLISHER_ID);
+
+				if (newRow == null) {
+					try (PreparedStatement ps = connection.prepareStatement("DELETE FROM `book_genre` WHERE `book_id` = ?;")) {
+						ps.setInt(1, id(oldRow, BOOK_ID));
+						ps.executeUpdate();
+					}
+				}
+			}
+			case "book_genre" -> changed(connection, "genre", oldRow, newRow, LINK_GENRE_ID);
+			default -> throw new SQLException("Tabela sem contadores: %s".formatted(table));
+		}
+	}
+
+	/**
+	 * Moves a book from the counter of the reference in the old row to the one in the new row,
+	 * if they differ; a missing row is an insert or a delete.
+	 */
+	private static void changed(Connection connection, String table, Object[] oldRow, Object[] newRow, int column)
+		throws SQLException {
+		Integer oldId = oldRow == null ? null : id(oldRow, column);
+		Integer newId = newRow == null ? null : id(newRow, column);
+
+		if (oldId != null && oldId.equals(newId)) return;
+		if (oldId != null) add(connection, table, oldId, -1);
+		if (newId != null) add(connection, table, newId, 1);
+	}
+
+	private static void add(Connection connection, String table, int id, int delta) throws SQLException {
+		String sql = "UPDATE `%s` SET `books_owned` = `books_owned` + ? WHERE `id` = ?;".formatted(table);
+
+		try (PreparedStatement ps = connection.prepareStatement(sql)) {
+			ps.setInt(1, delta);
+			ps.setInt(2, id);
+			ps.executeUpdate();
+		}
+	}
+
+	private static int id(Object[] row, int column) {
+		return ((Number) row[column]).intValue();
+	}
+}
@@ -0,0 +1,200 @@
+package services.dialect;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static utils.Texts.likeContaining;
+
+/**
+ * <p>Dialect of the embedded H2 database, which runs inside the application and keeps the
+ * library in a local file, e.g. {@code jdbc:h2:file:~/book-management/library}; no server
+ * has to be installed or started.</p>
+ * <p>The database runs in its MySQL compatibility mode, and new databases compare texts
+ * ignoring case and accents, as in the default MySQL collation. The schema in {@value #SCHEMA}
+ * is created on the first connection if missing, and the {@code books_owned} counters are
+ * maintained by the {@link H2CounterTrigger}.</p>
+ * <p>H2 has no equivalent to the MySQL {@code FULLTEXT} indexes, so full-text search matches each
+ * word of the query as a substring of the title, the review and the author name, and ranks the
+ * books by the number of words matched.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class H2Dialect implements Dialect {
+	/**
+	 * Prefix of the JDBC URLs of H2 databases.
+	 */
+	public static final String URL_PREFIX = "jdbc:h2:";
+	/**
+	 * Classpath resource with the schema of the database.
+	 */
+	public static final String SCHEMA = "/db/h2-schema.sql";
+
+	// the java.text.Collator used by H2 to order texts; at primary strength it ignores case and accents
+	private static final String COLLATION = "ENGLISH STRENGTH PRIMARY";
+	private static final String[][] URL_SETTINGS = {
+		{"MODE", "MySQL"},
+		{"DATABASE_TO_LOWER", "TRUE"},
+		{"IGNORECASE", "TRUE"},
+		// the database is closed with the pool, after the pending writes are flushed at exit
+		{"DB_CLOSE_ON_EXIT", "FALSE"}
+	};
+	private static final List<String> RECONCILE_STATEMENTS = List.of(
+		"""
+		UPDATE `author` a
+		SET `books_owned` = (SELECT COUNT(*) FROM `book` b WHERE b.`author_id` = a.`id`)
+		WHERE `books_owned` <> (SELECT COUNT(*) FROM `book` b WHERE b.`author_id` = a.`id`);
+		""",
+		"""
+		UPDATE `publisher` p
+		SET `books_owned` = (SELECT COUNT(*) FROM `book` b WHERE b.`publisher_id` = p.`id`)
+		WHERE `books_owned` <> (SELECT COUNT(*) FROM `book` b WHERE b.`publisher_id` = p.`id`);
+		""",
+		"""
+		UPDATE `genre` g
+		SET `books_owned` = (SELECT COUNT(*) FROM `book_genre` bg WHERE bg.`genre_id` = g.`id`)
+		WHERE `books_owned` <> (SELECT COUNT(*) FROM `book_genre` bg WHERE bg.`genre_id` = g.`id`);
+		"""
+	);
+	// an optional operator followed by a quoted phrase or a word
+	private static final Pattern TERM = Pattern.compile("([+-]?)(?:\"([^\"]*)\"?|(\\S+))");
+	private static final String DOCUMENT = "d.`document`";
+
+	@Override
+	public String configureUrl(String url) {
+		StringBuilder configured = new StringBuilder(url);
+		String upperUrl = url.toUpperCase(Locale.ROOT);
+
+		for (String[] setting : URL_SETTINGS) {
+			if (!upperUrl.contains(";%s=".formatted(setting[0]))) configured.append(';').append(setting[0]).append('=').append(setting[1]);
+		}
+
+		return configured.toString();
+	}
+
+	@Override
+	public Properties getDefaultDriverProperties() {
+		return new Properties();
+	}
+
+	/**
+	 * {@inheritDoc} A new database is first set to compare texts ignoring case and accents, as in
+	 * the default MySQL collation; H2 only allows it while there are no tables.
+	 */
+	@Override
+	public void initialize(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			if (isEmpty(statement)) statement.execute("SET COLLATION %s;".formatted(COLLATION));
+			statement.execute("RUNSCRIPT FROM 'classpath:%s';".formatted(SCHEMA));
+		}
+	}
+
+	@Override
+	public String enumIndex(String column) {
+		return "CAST(%s AS INT)".formatted(column);
+	}
+
+	@Override
+	public String olderThanDays(String column) {
+		return "%s < DATEADD(DAY, -CAST(? AS INT), CURRENT_TIMESTAMP)".formatted(column);
+	}
+
+	/**
+	 * {@inheritDoc} H2 rejects negative sizes; it buffers large results to disk instead of memory.
+	 */
+	@Override
+	public int streamingFetchSize() {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc} In boolean mode, words and phrases preceded by {@code +} must match and the
+	 * ones preceded by {@code -} must not, a trailing {@code *} is ignored, as every word already
+	 * matches as a prefix, and at least one of the other words must match if there is no
+	 * required one; in natural language mode, every operator is ignored and any word may match.
+	 */
+	@Override
+	public FullTextSearch fullTextSearch(String query, boolean booleanMode) {
+		List<String> optional = new ArrayList<>(), required = new ArrayList<>(), excluded = new ArrayList<>();
+		Matcher matcher = TERM.matcher(query);
+
+		while (matcher.find()) {
+			String operator = booleanMode ? matcher.group(1) : "";
+			String text = matcher.group(2) != null ? matcher.group(2) : matcher.group(3).replaceAll("[*\"]+$", "");
+			if (!booleanMode) text = text.replaceAll("[\"*]", "");
+			if (text.isBlank()) continue;
+
+			String pattern = likeContaining(text.trim().toLowerCase(Locale.ROOT));
+			switch (operator) {
+				case "+" -> required.add(pattern);
+				case "-" -> excluded.add(pattern);
+				default -> optional.add(pattern);
+			}
+		}
+
+		List<String> parameters = new ArrayList<>();
+		List<String> relevance = new ArrayList<>();
+		for (String pattern : concat(required, optional)) {
+			relevance.add("CASE WHEN %s LIKE ? ESCAPE '!' THEN 1 ELSE 0 END".formatted(DOCUMENT));
+			parameters.add(pattern);
+		}
+
+		List<String> conditions = new ArrayList<>();
+		for (String pattern : required) {
+			conditions.add("%s LIKE ? ESCAPE '!'".formatted(DOCUMENT));
+			parameters.add(pattern);
+		}
+		for (String pattern : excluded) {
+			conditions.add("%s NOT LIKE ? ESCAPE '!'".formatted(DOCUMENT));
+			parameters.add(pattern);
+		}
+		if (required.isEmpty()) {
+			List<String> any = new ArrayList<>();
+			for (String pattern : optional) {
+				any.add("%s LIKE ? ESCAPE '!'".formatted(DOCUMENT));
+				parameters.add(pattern);
+			}
+			// like MySQL, a query without words to match finds nothing
+			conditions.add(any.isEmpty() ? "FALSE" : "(%s)".formatted(String.join(" OR ", any)));
+		}
+
+		String sql = """
+			SELECT d.`id`, %s AS `relevance`
+			FROM (
+			  SELECT fb.`id`, LOWER(CONCAT_WS(' ', fb.`title`, fb.`review`, fa.`name`)) AS `document`
+			  FROM `book` fb
+			    INNER JOIN `author` fa ON fb.`author_id` = fa.`id`
+			) d
+			WHERE %s
+			""".formatted(relevance.isEmpty() ? "0" : String.join(" + ", relevance), String.join(" AND ", conditions));
+
+		return new FullTextSearch(sql, parameters);
+	}
+
+	@Override
+	public List<String> reconcileCounters() {
+		return RECONCILE_STATEMENTS;
+	}
+
+	private static boolean isEmpty(Statement statement) throws SQLException {
+		String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA();";
+
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1) == 0;
+		}
+	}
+
+	private static List<String> concat(List<String> first, List<String> second) {
+		List<String> all = new ArrayList<>(first);
+		all.addAll(second);
+		return all;
+	}
+}
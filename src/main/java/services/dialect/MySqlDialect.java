@@ -0,0 +1,102 @@
+package services.dialect;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Dialect of the MySQL server, whose schema is created by {@code src/db/db.sql} and the
+ * migrations in {@code src/db/migrations}; full-text search uses the {@code FULLTEXT} indexes
+ * of the schema.
+ *
+ * @author Lucas da Paz
+ */
+public class MySqlDialect implements Dialect {
+	private static final List<String> RECONCILE_STATEMENTS = List.of(
+		"""
+		UPDATE `author` a
+		  LEFT JOIN (SELECT `author_id`, COUNT(*) AS `total` FROM `book` GROUP BY `author_id`) c ON a.`id` = c.`author_id`
+		SET a.`books_owned` = COALESCE(c.`total`, 0)
+		WHERE a.`books_owned` <> COALESCE(c.`total`, 0);
+		""",
+		"""
+		UPDATE `publisher` p
+		  LEFT JOIN (SELECT `publisher_id`, COUNT(*) AS `total` FROM `book` GROUP BY `publisher_id`) c
+		    ON p.`id` = c.`publisher_id`
+		SET p.`books_owned` = COALESCE(c.`total`, 0)
+		WHERE p.`books_owned` <> COALESCE(c.`total`, 0);
+		""",
+		"""
+		UPDATE `genre` g
+		  LEFT JOIN (SELECT `genre_id`, COUNT(*) AS `total` FROM `book_genre` GROUP BY `genre_id`) c ON g.`id` = c.`genre_id`
+		SET g.`books_owned` = COALESCE(c.`total`, 0)
+		WHERE g.`books_owned` <> COALESCE(c.`total`, 0);
+		"""
+	);
+
+	@Override
+	public String configureUrl(String url) {
+		return url;
+	}
+
+	@Override
+	public Properties getDefaultDriverProperties() {
+		Properties properties = new Properties();
+		properties.setProperty("cachePrepStmts", "true");
+		properties.setProperty("prepStmtCacheSize", "250");
+		properties.setProperty("prepStmtCacheSqlLimit", "2048");
+		properties.setProperty("useServerPrepStmts", "true");
+		// sends JDBC batches as multi-row statements
+		properties.setProperty("rewriteBatchedStatements", "true");
+
+		return properties;
+	}
+
+	@Override
+	public void initialize(Connection connection) {
+		// the schema is managed with the scripts in src/db
+	}
+
+	@Override
+	public String enumIndex(String column) {
+		return "%s + 0".formatted(column);
+	}
+
+	@Override
+	public String olderThanDays(String column) {
+		return "%s < NOW() - INTERVAL ? DAY".formatted(column);
+	}
+
+	/**
+	 * {@inheritDoc} Connector/J only streams the rows for {@link Integer#MIN_VALUE}; any other
+	 * value reads the whole result set.
+	 */
+	@Override
+	public int streamingFetchSize() {
+		return Integer.MIN_VALUE;
+	}
+
+	@Override
+	public FullTextSearch fullTextSearch(String query, boolean booleanMode) {
+		String mode = booleanMode ? "IN BOOLEAN MODE" : "IN NATURAL LANGUAGE MODE";
+		String sql = """
+			SELECT
+			  fb.`id`,
+			  MATCH (fb.`title`, fb.`review`) AGAINST (? %1$s)
+			    + MATCH (fa.`name`) AGAINST (? %1$s) AS `relevance`
+			FROM `book` fb
+			  INNER JOIN `author` fa ON fb.`author_id` = fa.`id`
+			WHERE
+			  MATCH (fb.`title`, fb.`review`) AGAINST (? %1$s)
+			  OR MATCH (fa.`name`) AGAINST (? %1$s)
+			""".formatted(mode);
+
+		return new FullTextSearch(sql, Collections.nCopies(4, query));
+	}
+
+	@Override
+	public List<String> reconcileCounters() {
+		return RECONCILE_STATEMENTS;
+	}
+}
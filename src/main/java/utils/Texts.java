@@ -0,0 +1,98 @@
+package utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class containing static methods for comparing texts the way
+ * the database does.
+ *
+ * @author Lucas da Paz
+ */
+public class Texts {
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	// the normalized form of each character of the Latin, Greek and Cyrillic blocks, or 0 if removed
+	private static final char[] FOLDED = new char[0x2000];
+
+	static {
+		for (char c = 0; c < FOLDED.length; c++) {
+			String normalized = normalize(String.valueOf(c));
+			FOLDED[c] = normalized.isEmpty() ? 0 : normalized.charAt(0);
+		}
+	}
+
+	/**
+	 * Converts the text to lower case and removes its accents, so that texts can be compared
+	 * as in the default MySQL collation.
+	 *
+	 * @param text The text to normalize.
+	 * @return The normalized text.
+	 */
+	public static String normalize(String text) {
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Compares two texts ignoring case and accents, as they would be compared after being
+	 * {@link #normalize normalized}, but without creating the normalized texts; the in-memory
+	 * equivalent of the ascending order of the default MySQL collation.
+	 *
+	 * @param a The first text.
+	 * @param b The second text.
+	 * @return A negative number, zero or a positive number as the first text is ordered
+	 * before, together with or after the second one.
+	 */
+	public static int compareIgnoringAccents(String a, String b) {
+		int i = 0;
+		int j = 0;
+
+		while (true) {
+			char x = 0;
+			char y = 0;
+			while (x == 0 && i < a.length()) x = fold(a.charAt(i++));
+			while (y == 0 && j < b.length()) y = fold(b.charAt(j++));
+
+			// 0 also marks the end of a text, which is ordered before any longer one
+			if (x != y) return x - y;
+			if (x == 0) return 0;
+		}
+	}
+
+	/**
+	 * Checks whether a text contains another one, ignoring case and accents; the in-memory
+	 * equivalent of {@code text LIKE '%part%'}.
+	 *
+	 * @param text The text to search in; may be {@code null}, which contains nothing.
+	 * @param part The text to search for.
+	 * @return {@code true} if the text contains the part.
+	 */
+	public static boolean containsIgnoringAccents(String text, String part) {
+		return text != null && normalize(text).contains(normalize(part));
+	}
+
+	/**
+	 * Builds the {@code LIKE} pattern of the texts that contain the one passed as an argument,
+	 * whose wildcards ({@code %} and {@code _}) are matched literally; the pattern must be used
+	 * with {@code ESCAPE '!'}.
+	 *
+	 * @param part The text to search for.
+	 * @return The pattern {@code %part%}, with {@code !}, {@code %} and {@code _} escaped.
+	 */
+	public static String likeContaining(String part) {
+		return "%" + part.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+	}
+
+	/**
+	 * @return The character as in a normalized text, or 0 if normalizing removes it.
+	 */
+	private static char fold(char c) {
+		if (c < FOLDED.length) return FOLDED[c];
+
+		return switch (Character.getType(c)) {
+			case Character.NON_SPACING_MARK, Character.ENCLOSING_MARK, Character.COMBINING_SPACING_MARK -> 0;
+			default -> Character.toLowerCase(c);
+		};
+	}
+}
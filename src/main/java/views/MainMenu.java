@@ -5,10 +5,19 @@
 package views;
 
 import java.awt.Toolkit;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.swing.JInternalFrame;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
+import events.DomainEvent;
+import events.EventBus;
 import factory.ControllerFactory;
 import views.constants.Constants;
 import views.forms.AuthorForm;
@@ -21,12 +30,44 @@ import views.lists.GenreList;
 import views.lists.PublisherList;
 
 public class MainMenu extends javax.swing.JFrame {
+	private static final Logger LOGGER = Logger.getLogger(MainMenu.class.getName());
+
 	private final ControllerFactory controllerFactory;
+	private final EventBus.Subscription writeFailures;
 
 	public MainMenu() {
 		this.controllerFactory = new ControllerFactory();
+		this.controllerFactory.startSynchronization(Duration.ofSeconds(2));
+		this.writeFailures = controllerFactory.getEventBus().subscribe(DomainEvent.BookWritesFailed.class,
+			e -> SwingUtilities.invokeLater(() -> showWriteFailure(e.error().getMessage())));
 		initComponents();
 		defineIcons();
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				try {
+					controllerFactory.flushPendingWrites();
+				} catch (RuntimeException ex) {
+					showWriteFailure(ex.getMessage());
+				}
+
+				controllerFactory.stopSynchronization();
+				try {
+					controllerFactory.saveSnapshot();
+				} catch (RuntimeException ex) {
+					LOGGER.log(Level.WARNING, "Falha ao salvar o instantâneo do catálogo", ex);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Reports changes to books that could not be saved in the background; the books were
+	 * already restored by the open windows.
+	 */
+	private void showWriteFailure(String message) {
+		JOptionPane.showMessageDialog(this, String.format("Erro ao tentar salvar as alterações dos livros:\n%s", message),
+			getTitle(), JOptionPane.ERROR_MESSAGE);
 	}
 
 	private void defineIcons() {
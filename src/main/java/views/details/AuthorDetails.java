@@ -1,7 +1,5 @@
 package views.details;
 
-import static utils.Lists.toSortedList;
-
 import java.util.Set;
 
 import javax.swing.JInternalFrame;
@@ -9,60 +7,123 @@ import javax.swing.JOptionPane;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 
+import controller.AsyncAuthorController;
+import controller.AsyncBookController;
 import controller.AuthorController;
 import controller.BookController;
+import events.DomainEvent;
 import exceptions.ValidationException;
 import factory.ControllerFactory;
 import models.Author;
 import models.Book;
+import models.filters.BookSort;
 import views.constants.Constants;
 import views.forms.AuthorForm;
 import views.forms.BookForm;
+import views.tables.BookTableModel;
+import views.workers.FrameEvents;
+import views.workers.ViewLoader;
 
 public class AuthorDetails extends javax.swing.JInternalFrame {
 	private final ControllerFactory controllerFactory;
 	private final AuthorController authorController;
 	private final BookController bookController;
+	private final AsyncAuthorController asyncAuthorController;
+	private final AsyncBookController asyncBookController;
 
 	private Author author;
 
 	private DefaultTableModel tableModel;
+	private final BookTableModel bookTableModel;
+	private final ViewLoader loader;
+	private final FrameEvents events;
 
 	public AuthorDetails(ControllerFactory controllerFactory, Author author) {
 		this.controllerFactory = controllerFactory;
 		this.authorController = controllerFactory.getAuthorController();
 		this.bookController = controllerFactory.getBookController();
+		this.asyncAuthorController = controllerFactory.getAsyncAuthorController();
+		this.asyncBookController = controllerFactory.getAsyncBookController();
 		this.author = author;
+		this.loader = new ViewLoader(this);
+		this.bookTableModel = new BookTableModel(bookController,
+			BookSort.ID, BookSort.TITLE, BookSort.FORMAT, BookSort.PUBLISHER, BookSort.PAGES, BookSort.READ);
 		initComponents();
+		setUpTable();
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.AuthorUpdated.class, e -> {
+				if (e.author().getId() == this.author.getId()) updateView();
+			})
+			.on(DomainEvent.AuthorDeleted.class, e -> {
+				if (e.id() == this.author.getId()) dispose();
+			})
+			.on(DomainEvent.BookCreated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookUpdated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookReadStatusChanged.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BooksImported.class, e -> e.books().forEach(this::showChanged))
+			.on(DomainEvent.BookDeleted.class, e -> {
+				bookTableModel.remove(e.id());
+				updateTotal();
+			});
+		updateView();
 	}
 
 	private void fillTable(Set<Book> books) {
-		tableModel.getDataVector().clear();
-
-		if (books.isEmpty()) {
-			bookTable.repaint();
-			return;
-		}
+		bookTableModel.update(books);
+	}
 
-		var booksList = toSortedList(books);
+	private void setUpTable() {
+		bookTable.setModel(bookTableModel);
 
-		booksList.forEach(b -> tableModel.addRow(new Object[] { b.getId(), b.getTitle(), b.getFormat(), b.getPublisher(),
-				b.getPages(), b.isRead() ? "Lido" : "Não lido" }));
+		int[] widths = {50, 175, 90, 175, 80, 80};
+		for (int i = 0; i < widths.length; i++) bookTable.getColumnModel().getColumn(i).setPreferredWidth(widths[i]);
 	}
 
+	/**
+	 * Loads the author and its books concurrently in the background; a load still
+	 * running is cancelled.
+	 */
 	private void updateView() {
-		this.author = authorController.getById(author.getId());
-		var books = bookController.getByAuthor(author);
+		Author current = author;
+		totalLabel.setText("Carregando...");
+
+		loader.load(asyncAuthorController.getById(current.getId()), asyncBookController.getByAuthor(current), this::showAuthor,
+			e -> {
+				JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
+					getTitle(), JOptionPane.ERROR_MESSAGE);
+				dispose();
+			}
+		);
+	}
+
+	private void showAuthor(Author author, Set<Book> books) {
+		this.author = author;
 
 		setTitle(String.format("%s - Autor", author.getName()));
 		authorName.setText(author.getName());
 		authorNationality.setText(author.getNationality());
-		totalLabel.setText(String.format("Total encontrado: %d", books.size()));
 		deleteAuthorBtn.setToolTipText(String.format("Excluir o autor %s", author.getName()));
 
 		fillTable(books);
+		updateTotal();
+	}
+
+	/**
+	 * Shows a book created or changed elsewhere without querying the database, or removes
+	 * it if it no longer belongs to the author.
+	 */
+	private void showChanged(Book book) {
+		if (book.getAuthor().getId() == author.getId()) bookTableModel.put(book);
+		else bookTableModel.remove(book.getId());
+
+		updateTotal();
+	}
+
+	private void updateTotal() {
+		int total = bookTableModel.getTotal();
+		totalLabel.setText(String.format("Total encontrado: %d", total));
 
-		boolean enabled = !books.isEmpty();
+		boolean enabled = total > 0;
 		bookDetailsButton.setEnabled(enabled);
 		editBookBtn.setEnabled(enabled);
 		deleteBookBtn.setEnabled(enabled);
@@ -70,12 +131,12 @@ public class AuthorDetails extends javax.swing.JInternalFrame {
 
 	private Book getSelectedBook() {
 		int selectedRow = bookTable.getSelectedRow();
+		Book selected = selectedRow == -1 ? null : bookTableModel.getBookAt(selectedRow);
 
-		if (selectedRow == -1 || selectedRow >= tableModel.getRowCount())
+		if (selected == null)
 			throw new RuntimeException("Você deve selecionar um livro!");
 
-		var id = (int) tableModel.getValueAt(selectedRow, 0);
-		return bookController.getById(id);
+		return bookController.getById(selected.getId());
 	}
 
   // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
@@ -91,7 +152,7 @@ public class AuthorDetails extends javax.swing.JInternalFrame {
     editAuthorBtn = new javax.swing.JButton();
     deleteAuthorBtn = new javax.swing.JButton();
     tableScrollPane = new javax.swing.JScrollPane();
-    var books = bookController.getByAuthor(author);
+    var books = Set.<Book>of();
     String[] columnNames = {
       "ID",
       "Título",
@@ -125,23 +186,6 @@ public class AuthorDetails extends javax.swing.JInternalFrame {
     setName("Detalhes autor"); // NOI18N
     setNormalBounds(new java.awt.Rectangle(0, 0, 867, 497));
     setVisible(true);
-    addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-      public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-        formInternalFrameActivated(evt);
-      }
-      public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {
-      }
-    });
 
     title.setFont(Constants.LARGE_FONT);
     title.setForeground(Constants.FONT_COLOR);
@@ -507,7 +551,7 @@ public class AuthorDetails extends javax.swing.JInternalFrame {
 
 			if (res != 0) return;
 
-			if (author.getBooksOwned() > 0) throw new ValidationException("O autor possui livros cadastrados no sistema!");
+			if (bookTableModel.getTotal() > 0) throw new ValidationException("O autor possui livros cadastrados no sistema!");
 
 			authorController.delete(author.getId());
 			dispose();
@@ -553,23 +597,12 @@ public class AuthorDetails extends javax.swing.JInternalFrame {
 			if (res != 0) return;
 
 			bookController.delete(selectedBook.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 					JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBookBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
-					getTitle(), JOptionPane.ERROR_MESSAGE);
-			dispose();
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
   // Variables declaration - do not modify//GEN-BEGIN:variables
   private javax.swing.JLabel authorMenuLabel;
   private javax.swing.JPanel authorMenuPanel;
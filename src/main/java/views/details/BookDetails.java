@@ -6,6 +6,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTextField;
 
 import controller.BookController;
+import events.DomainEvent;
 import factory.ControllerFactory;
 import models.Author;
 import models.Book;
@@ -13,6 +14,8 @@ import models.Genre;
 import models.Publisher;
 import views.constants.Constants;
 import views.forms.BookForm;
+import views.workers.FrameEvents;
+import views.workers.ViewLoader;
 
 public class BookDetails extends javax.swing.JInternalFrame {
 	private final ControllerFactory controllerFactory;
@@ -22,6 +25,8 @@ public class BookDetails extends javax.swing.JInternalFrame {
 	private Author author;
 	private Publisher publisher;
 	private Genre[] genres;
+	private final ViewLoader loader;
+	private final FrameEvents events;
 
 	/* falta: String review; */
 	public BookDetails(ControllerFactory controllerFactory, Book book) {
@@ -31,11 +36,44 @@ public class BookDetails extends javax.swing.JInternalFrame {
 		this.author = book.getAuthor();
 		this.publisher = book.getPublisher();
 		this.genres = book.getGenres().toArray(Genre[]::new);
+		this.loader = new ViewLoader(this);
 		initComponents();
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.BookUpdated.class, e -> {
+				if (e.book().getId() == this.book.getId()) showBook(e.book());
+			})
+			.on(DomainEvent.BookReadStatusChanged.class, e -> {
+				if (e.book().getId() == this.book.getId()) showBook(e.book());
+			})
+			.on(DomainEvent.BookDeleted.class, e -> {
+				if (e.id() == this.book.getId()) dispose();
+			})
+			.on(DomainEvent.AuthorUpdated.class, e -> {
+				if (e.author().getId() == author.getId()) updateView();
+			})
+			.on(DomainEvent.PublisherUpdated.class, e -> {
+				if (e.publisher().getId() == publisher.getId()) updateView();
+			})
+			.on(DomainEvent.GenreUpdated.class, e -> {
+				if (this.book.getGenres().stream().anyMatch(g -> g.getId() == e.genre().getId())) updateView();
+			});
 	}
 
+	/**
+	 * Loads the book in the background; a load still running is cancelled.
+	 */
 	private void updateView() {
-		this.book = bookController.getById(book.getId());
+		int id = book.getId();
+
+		loader.load(() -> bookController.getById(id), this::showBook, e -> {
+			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
+				getTitle(), JOptionPane.ERROR_MESSAGE);
+			dispose();
+		});
+	}
+
+	private void showBook(Book book) {
+		this.book = book;
 		this.author = book.getAuthor();
 		this.publisher = book.getPublisher();
 		this.genres = book.getGenres().toArray(new Genre[3]);
@@ -122,23 +160,6 @@ public class BookDetails extends javax.swing.JInternalFrame {
     setName("Detalhes livro"); // NOI18N
     setNormalBounds(new java.awt.Rectangle(0, 0, 623, 515));
     setVisible(true);
-    addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-      public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-        formInternalFrameActivated(evt);
-      }
-      public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {
-      }
-    });
 
     title.setFont(Constants.LARGE_FONT);
     title.setForeground(Constants.FONT_COLOR);
@@ -921,16 +942,6 @@ public class BookDetails extends javax.swing.JInternalFrame {
 		}
 	}//GEN-LAST:event_deleteBookBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
-					getTitle(), JOptionPane.ERROR_MESSAGE);
-			dispose();
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
   // Variables declaration - do not modify//GEN-BEGIN:variables
   private javax.swing.JLabel authorLabel;
   private javax.swing.JTextField authorLink;
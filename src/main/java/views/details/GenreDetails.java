@@ -1,7 +1,5 @@
 package views.details;
 
-import static utils.Lists.toSortedList;
-
 import java.util.Set;
 
 import javax.swing.JInternalFrame;
@@ -9,58 +7,123 @@ import javax.swing.JOptionPane;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 
+import controller.AsyncBookController;
+import controller.AsyncGenreController;
 import controller.BookController;
 import controller.GenreController;
+import events.DomainEvent;
 import exceptions.ValidationException;
 import factory.ControllerFactory;
 import models.Book;
+import models.filters.BookSort;
 import models.Genre;
 import views.constants.Constants;
 import views.forms.BookForm;
 import views.forms.GenreForm;
+import views.tables.BookTableModel;
+import views.workers.FrameEvents;
+import views.workers.ViewLoader;
 
 public class GenreDetails extends javax.swing.JInternalFrame {
 	private final ControllerFactory controllerFactory;
 	private final GenreController genreController;
 	private final BookController bookController;
+	private final AsyncGenreController asyncGenreController;
+	private final AsyncBookController asyncBookController;
 
 	private Genre genre;
 
 	private DefaultTableModel tableModel;
+	private final BookTableModel bookTableModel;
+	private final ViewLoader loader;
+	private final FrameEvents events;
 
 	public GenreDetails(ControllerFactory controllerFactory, Genre genre) {
 		this.controllerFactory = controllerFactory;
 		this.genreController = controllerFactory.getGenreController();
 		this.bookController = controllerFactory.getBookController();
+		this.asyncGenreController = controllerFactory.getAsyncGenreController();
+		this.asyncBookController = controllerFactory.getAsyncBookController();
 		this.genre = genre;
+		this.loader = new ViewLoader(this);
+		this.bookTableModel = new BookTableModel(bookController,
+			BookSort.ID, BookSort.TITLE, BookSort.AUTHOR, BookSort.FORMAT, BookSort.PUBLISHER, BookSort.PAGES);
 		initComponents();
+		setUpTable();
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.GenreUpdated.class, e -> {
+				if (e.genre().getId() == this.genre.getId()) updateView();
+			})
+			.on(DomainEvent.GenreDeleted.class, e -> {
+				if (e.id() == this.genre.getId()) dispose();
+			})
+			.on(DomainEvent.AuthorUpdated.class, e -> updateView())
+			.on(DomainEvent.PublisherUpdated.class, e -> updateView())
+			.on(DomainEvent.BookCreated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookUpdated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookReadStatusChanged.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BooksImported.class, e -> e.books().forEach(this::showChanged))
+			.on(DomainEvent.BookDeleted.class, e -> {
+				bookTableModel.remove(e.id());
+				updateTotal();
+			});
+		updateView();
 	}
 
 	private void fillTable(Set<Book> books) {
-		tableModel.getDataVector().clear();
-
-		if (books.isEmpty()) {
-			bookTable.repaint();
-			return;
-		}
+		bookTableModel.update(books);
+	}
 
-		var booksList = toSortedList(books);
+	private void setUpTable() {
+		bookTable.setModel(bookTableModel);
 
-		booksList.forEach(b -> tableModel.addRow(
-				new Object[] { b.getId(), b.getTitle(), b.getAuthor(), b.getFormat(), b.getPublisher(), b.getPages() }));
+		int[] widths = {42, 155, 155, 78, 155, 65};
+		for (int i = 0; i < widths.length; i++) bookTable.getColumnModel().getColumn(i).setPreferredWidth(widths[i]);
 	}
 
+	/**
+	 * Loads the genre and its books concurrently in the background; a load still
+	 * running is cancelled.
+	 */
 	private void updateView() {
-		this.genre = genreController.getById(genre.getId());
-		var books = bookController.getByGenre(genre);
+		Genre current = genre;
+		totalLabel.setText("Carregando...");
+
+		loader.load(asyncGenreController.getById(current.getId()), asyncBookController.getByGenre(current), this::showGenre,
+			e -> {
+				JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
+					getTitle(), JOptionPane.ERROR_MESSAGE);
+				dispose();
+			}
+		);
+	}
+
+	private void showGenre(Genre genre, Set<Book> books) {
+		this.genre = genre;
 
 		setTitle(String.format("%s - Categoria", genre.getName()));
 		genreName.setText(genre.getName());
-		totalLabel.setText(String.format("Total encontrado: %d", books.size()));
 		deleteGenreBtn.setToolTipText(String.format("Excluir a categoria %s", genre.getName()));
 		fillTable(books);
+		updateTotal();
+	}
+
+	/**
+	 * Shows a book created or changed elsewhere without querying the database, or removes
+	 * it if it no longer belongs to the genre.
+	 */
+	private void showChanged(Book book) {
+		if (book.getGenres().stream().anyMatch(g -> g.getId() == genre.getId())) bookTableModel.put(book);
+		else bookTableModel.remove(book.getId());
+
+		updateTotal();
+	}
 
-		boolean enabled = !books.isEmpty();
+	private void updateTotal() {
+		int total = bookTableModel.getTotal();
+		totalLabel.setText(String.format("Total encontrado: %d", total));
+
+		boolean enabled = total > 0;
 		bookDetailsButton.setEnabled(enabled);
 		editBookBtn.setEnabled(enabled);
 		deleteBookBtn.setEnabled(enabled);
@@ -68,12 +131,12 @@ public class GenreDetails extends javax.swing.JInternalFrame {
 
 	private Book getSelectedBook() {
 		int selectedRow = bookTable.getSelectedRow();
+		Book selected = selectedRow == -1 ? null : bookTableModel.getBookAt(selectedRow);
 
-		if (selectedRow == -1 || selectedRow >= tableModel.getRowCount())
+		if (selected == null)
 			throw new RuntimeException("Você deve selecionar um livro!");
 
-		var id = (int) tableModel.getValueAt(selectedRow, 0);
-		return bookController.getById(id);
+		return bookController.getById(selected.getId());
 	}
 
 	// <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
@@ -88,7 +151,7 @@ public class GenreDetails extends javax.swing.JInternalFrame {
 		editGenreBtn = new javax.swing.JButton();
 		deleteGenreBtn = new javax.swing.JButton();
 		tableScrollPane = new javax.swing.JScrollPane();
-		var books = bookController.getByGenre(genre);
+		var books = Set.<Book>of();
 		String[] columnNames = { "ID", "Título", "Autor", "Formato", "Editora", "Nº Páginas" };
 		tableModel = new DefaultTableModel(columnNames, 0) {
 			@Override
@@ -115,23 +178,6 @@ public class GenreDetails extends javax.swing.JInternalFrame {
 		setName("Detalhes categoria"); // NOI18N
 		setNormalBounds(new java.awt.Rectangle(0, 0, 867, 497));
 		setVisible(true);
-		addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-			public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-				formInternalFrameActivated(evt);
-			}
-
-			public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {}
-		});
 
 		title.setFont(Constants.LARGE_FONT);
 		title.setForeground(Constants.FONT_COLOR);
@@ -501,7 +547,7 @@ public class GenreDetails extends javax.swing.JInternalFrame {
 
 			if (res != 0) return;
 
-			if (genre.getBooksOwned() > 0) throw new ValidationException("A categoria possui livros cadastrados no sistema!");
+			if (bookTableModel.getTotal() > 0) throw new ValidationException("A categoria possui livros cadastrados no sistema!");
 
 			genreController.delete(genre.getId());
 			dispose();
@@ -547,23 +593,12 @@ public class GenreDetails extends javax.swing.JInternalFrame {
 			if (res != 0) return;
 
 			bookController.delete(selectedBook.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 					JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBookBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
-					getTitle(), JOptionPane.ERROR_MESSAGE);
-			dispose();
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
 	// Variables declaration - do not modify//GEN-BEGIN:variables
 	private javax.swing.JButton bookDetailsButton;
 	private javax.swing.JLabel bookMenuLabel;
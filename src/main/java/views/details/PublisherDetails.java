@@ -1,7 +1,5 @@
 package views.details;
 
-import static utils.Lists.toSortedList;
-
 import java.util.Set;
 
 import javax.swing.JInternalFrame;
@@ -9,58 +7,122 @@ import javax.swing.JOptionPane;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 
+import controller.AsyncBookController;
+import controller.AsyncPublisherController;
 import controller.BookController;
 import controller.PublisherController;
+import events.DomainEvent;
 import exceptions.ValidationException;
 import factory.ControllerFactory;
 import models.Book;
+import models.filters.BookSort;
 import models.Publisher;
 import views.constants.Constants;
 import views.forms.BookForm;
 import views.forms.PublisherForm;
+import views.tables.BookTableModel;
+import views.workers.FrameEvents;
+import views.workers.ViewLoader;
 
 public class PublisherDetails extends javax.swing.JInternalFrame {
 	private final ControllerFactory controllerFactory;
 	private final PublisherController publisherController;
 	private final BookController bookController;
+	private final AsyncPublisherController asyncPublisherController;
+	private final AsyncBookController asyncBookController;
 
 	private Publisher publisher;
 
 	private DefaultTableModel tableModel;
+	private final BookTableModel bookTableModel;
+	private final ViewLoader loader;
+	private final FrameEvents events;
 
 	public PublisherDetails(ControllerFactory controllerFactory, Publisher publisher) {
 		this.controllerFactory = controllerFactory;
 		this.publisherController = controllerFactory.getPublisherController();
 		this.bookController = controllerFactory.getBookController();
+		this.asyncPublisherController = controllerFactory.getAsyncPublisherController();
+		this.asyncBookController = controllerFactory.getAsyncBookController();
 		this.publisher = publisher;
+		this.loader = new ViewLoader(this);
+		this.bookTableModel = new BookTableModel(bookController,
+			BookSort.ID, BookSort.TITLE, BookSort.AUTHOR, BookSort.FORMAT, BookSort.PAGES, BookSort.READ);
 		initComponents();
+		setUpTable();
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.PublisherUpdated.class, e -> {
+				if (e.publisher().getId() == this.publisher.getId()) updateView();
+			})
+			.on(DomainEvent.PublisherDeleted.class, e -> {
+				if (e.id() == this.publisher.getId()) dispose();
+			})
+			.on(DomainEvent.AuthorUpdated.class, e -> updateView())
+			.on(DomainEvent.BookCreated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookUpdated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookReadStatusChanged.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BooksImported.class, e -> e.books().forEach(this::showChanged))
+			.on(DomainEvent.BookDeleted.class, e -> {
+				bookTableModel.remove(e.id());
+				updateTotal();
+			});
+		updateView();
 	}
 
 	private void fillTable(Set<Book> books) {
-		tableModel.getDataVector().clear();
-
-		if (books.isEmpty()) {
-			bookTable.repaint();
-			return;
-		}
+		bookTableModel.update(books);
+	}
 
-		var booksList = toSortedList(books);
+	private void setUpTable() {
+		bookTable.setModel(bookTableModel);
 
-		booksList.forEach(b -> tableModel.addRow(new Object[] { b.getId(), b.getTitle(), b.getAuthor(), b.getFormat(),
-				b.getPages(), b.isRead() ? "Lido" : "Não lido" }));
+		int[] widths = {50, 175, 175, 90, 80, 80};
+		for (int i = 0; i < widths.length; i++) bookTable.getColumnModel().getColumn(i).setPreferredWidth(widths[i]);
 	}
 
+	/**
+	 * Loads the publisher and its books concurrently in the background; a load still
+	 * running is cancelled.
+	 */
 	private void updateView() {
-		this.publisher = publisherController.getById(publisher.getId());
-		var books = bookController.getByPublisher(publisher);
+		Publisher current = publisher;
+		totalLabel.setText("Carregando...");
+
+		loader.load(asyncPublisherController.getById(current.getId()), asyncBookController.getByPublisher(current), this::showPublisher,
+			e -> {
+				JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
+					getTitle(), JOptionPane.ERROR_MESSAGE);
+				dispose();
+			}
+		);
+	}
+
+	private void showPublisher(Publisher publisher, Set<Book> books) {
+		this.publisher = publisher;
 
 		setTitle(String.format("%s - Editora", publisher.getName()));
 		publisherName.setText(publisher.getName());
-		totalLabel.setText(String.format("Total encontrado: %d", books.size()));
 		deletePublisherBtn.setToolTipText(String.format("Excluir a editora %s", publisher.getName()));
 		fillTable(books);
+		updateTotal();
+	}
+
+	/**
+	 * Shows a book created or changed elsewhere without querying the database, or removes
+	 * it if it no longer belongs to the publisher.
+	 */
+	private void showChanged(Book book) {
+		if (book.getPublisher().getId() == publisher.getId()) bookTableModel.put(book);
+		else bookTableModel.remove(book.getId());
+
+		updateTotal();
+	}
 
-		boolean enabled = !books.isEmpty();
+	private void updateTotal() {
+		int total = bookTableModel.getTotal();
+		totalLabel.setText(String.format("Total encontrado: %d", total));
+
+		boolean enabled = total > 0;
 		bookDetailsButton.setEnabled(enabled);
 		editBookBtn.setEnabled(enabled);
 		deleteBookBtn.setEnabled(enabled);
@@ -68,12 +130,12 @@ public class PublisherDetails extends javax.swing.JInternalFrame {
 
 	private Book getSelectedBook() {
 		int selectedRow = bookTable.getSelectedRow();
+		Book selected = selectedRow == -1 ? null : bookTableModel.getBookAt(selectedRow);
 
-		if (selectedRow == -1 || selectedRow >= tableModel.getRowCount())
+		if (selected == null)
 			throw new RuntimeException("Você deve selecionar um livro!");
 
-		var id = (int) tableModel.getValueAt(selectedRow, 0);
-		return bookController.getById(id);
+		return bookController.getById(selected.getId());
 	}
 
 	// <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
@@ -87,7 +149,7 @@ public class PublisherDetails extends javax.swing.JInternalFrame {
 		editPublisherBtn = new javax.swing.JButton();
 		deletePublisherBtn = new javax.swing.JButton();
 		tableScrollPane = new javax.swing.JScrollPane();
-		var books = bookController.getByPublisher(publisher);
+		var books = Set.<Book>of();
 		String[] columnNames = { "ID", "Título", "Autor", "Formato", "Nº páginas", "Status" };
 		tableModel = new DefaultTableModel(columnNames, 0) {
 			@Override
@@ -115,23 +177,6 @@ public class PublisherDetails extends javax.swing.JInternalFrame {
 		setName("Detalhes editora"); // NOI18N
 		setNormalBounds(new java.awt.Rectangle(0, 0, 867, 497));
 		setVisible(true);
-		addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-			public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-				formInternalFrameActivated(evt);
-			}
-
-			public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {}
-
-			public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {}
-		});
 
 		title.setFont(Constants.LARGE_FONT);
 		title.setForeground(Constants.FONT_COLOR);
@@ -500,7 +545,7 @@ public class PublisherDetails extends javax.swing.JInternalFrame {
 
 			if (res != 0) return;
 
-			if (publisher.getBooksOwned() > 0)
+			if (bookTableModel.getTotal() > 0)
 				throw new ValidationException("A editora possui livros cadastrados no sistema!");
 
 			publisherController.delete(publisher.getId());
@@ -547,23 +592,12 @@ public class PublisherDetails extends javax.swing.JInternalFrame {
 			if (res != 0) return;
 
 			bookController.delete(selectedBook.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 					JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBookBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a página:\n%s", e.getMessage()),
-					getTitle(), JOptionPane.ERROR_MESSAGE);
-			dispose();
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
 	// Variables declaration - do not modify//GEN-BEGIN:variables
 	private javax.swing.JButton bookDetailsButton;
 	private javax.swing.JLabel bookMenuLabel;
@@ -1,18 +1,32 @@
 package views.lists;
 
 import controller.AuthorController;
+import events.DomainEvent;
 import exceptions.ValidationException;
 import factory.ControllerFactory;
 import models.Author;
+import utils.Texts;
 import views.constants.Constants;
 import views.details.AuthorDetails;
 import views.forms.AuthorForm;
-
+import views.workers.FrameEvents;
+import views.workers.LiveSearch;
+import views.workers.ViewLoader;
+
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.GroupLayout;
+import javax.swing.JComponent;
 import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.HashSet;
 import java.util.Set;
 
 import static utils.Lists.toSortedList;
@@ -23,41 +37,124 @@ public class AuthorList extends javax.swing.JInternalFrame {
 
 	private DefaultTableModel tableModel;
 	private Set<Author> authors;
+	private String search = "";
 
-	private final Runnable updateView = new Runnable() {
-		@Override
-		public void run() {
-			authors = authorController.getAll();
-			fillTable();
-			totalLabel.setText(String.format("Total encontrado: %d", authors.size()));
-		}
-	};
+	private final ViewLoader loader;
+	private final FrameEvents events;
 
 	public AuthorList(ControllerFactory controllerFactory) {
 		this.controllerFactory = controllerFactory;
 		this.authorController = controllerFactory.getAuthorController();
+		this.loader = new ViewLoader(this);
 		initComponents();
+		setUpSearch();
+		// book writes change the number of books of each author, which is read again
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.AuthorCreated.class, e -> showChanged(e.author()))
+			.on(DomainEvent.AuthorUpdated.class, e -> showChanged(e.author()))
+			.on(DomainEvent.AuthorsImported.class, e -> e.authors().forEach(this::showChanged))
+			.on(DomainEvent.AuthorDeleted.class, e -> showDeleted(e.id()))
+			.on(DomainEvent.BookCreated.class, e -> updateView())
+			.on(DomainEvent.BooksImported.class, e -> updateView())
+			.on(DomainEvent.BookUpdated.class, e -> updateView())
+			.on(DomainEvent.BookDeleted.class, e -> updateView());
 		updateView();
 	}
 
 	private void updateView() {
-		SwingUtilities.invokeLater(updateView);
+		totalLabel.setText("Carregando...");
+
+		loader.load(authorController::getAll, loaded -> {
+			authors = loaded;
+			fillTable();
+		}, e -> {
+			totalLabel.setText("Total encontrado");
+			JOptionPane.showMessageDialog(this,
+				String.format("Erro ao tentar atualizar a tabela de autores:\n%s", e.getMessage()), getTitle(),
+				JOptionPane.ERROR_MESSAGE);
+		});
 	}
 
 	private void fillTable() {
 		tableModel.setRowCount(0);
 
-		if (authors.isEmpty()) {
+		var authorsList = toSortedList(authors);
+		if (!search.isEmpty()) authorsList.removeIf(a -> !matchesSearch(a));
+
+		totalLabel.setText(String.format("Total encontrado: %d", authorsList.size()));
+
+		if (authorsList.isEmpty()) {
 			authorTable.repaint();
 			return;
 		}
 
-		var authorsList = toSortedList(authors);
-
 		authorsList.forEach(
 			a -> tableModel.addRow(new Object[]{a.getId(), a.getName(), a.getNationality(), a.getBooksOwned()}));
 	}
 
+	/**
+	 * Shows a author created or changed elsewhere without querying the database.
+	 */
+	private void showChanged(Author a) {
+		if (authors == null) return;
+
+		authors = new HashSet<>(authors);
+		authors.removeIf(x -> x.getId() == a.getId());
+		authors.add(a);
+		fillTable();
+	}
+
+	private void showDeleted(int id) {
+		if (authors == null) return;
+
+		authors = new HashSet<>(authors);
+		authors.removeIf(x -> x.getId() == id);
+		fillTable();
+	}
+
+	private boolean matchesSearch(Author a) {
+		return Texts.containsIgnoringAccents(a.getName(), search) || Texts.containsIgnoringAccents(a.getNationality(), search);
+	}
+
+	/**
+	 * Adds a search field below the total label. The authors are all loaded, so they are
+	 * filtered in memory as the user types, without querying the database.
+	 */
+	private void setUpSearch() {
+		var searchLabel = new JLabel("Pesquisa");
+		searchLabel.setFont(Constants.DEFAULT_FONT);
+		searchLabel.setForeground(Constants.FONT_COLOR);
+
+		var searchInput = new JTextField();
+		searchInput.setBackground(Constants.WHITE);
+		searchInput.setFont(Constants.DEFAULT_FONT);
+		searchInput.setForeground(Constants.FONT_COLOR);
+		searchInput.setCaretColor(Constants.FONT_COLOR);
+		searchInput.setSelectedTextColor(Constants.WHITE);
+		searchInput.setSelectionColor(Constants.DARK_BLUE);
+		searchInput.setToolTipText("Pesquisar autores pelo nome ou nacionalidade");
+		searchInput.setMaximumSize(new Dimension(175, 30));
+		searchInput.setPreferredSize(new Dimension(175, 30));
+		searchLabel.setLabelFor(searchInput);
+
+		var searchPanel = new JPanel();
+		searchPanel.setOpaque(false);
+		searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.Y_AXIS));
+		((GroupLayout) getContentPane().getLayout()).replace(totalLabel, searchPanel);
+
+		for (Component c : new Component[]{totalLabel, Box.createVerticalStrut(18), searchLabel, searchInput}) {
+			if (c instanceof JComponent component) component.setAlignmentX(Component.CENTER_ALIGNMENT);
+			searchPanel.add(c);
+		}
+
+		new LiveSearch(searchInput, input -> {
+			search = input;
+			if (authors != null) fillTable();
+			return true;
+		}, input -> {
+		});
+	}
+
 	private Author getSelectedAuthor() {
 		int selectedRow = authorTable.convertRowIndexToModel(authorTable.getSelectedRow());
 
@@ -107,23 +204,6 @@ public class AuthorList extends javax.swing.JInternalFrame {
     setName("Lista de autores"); // NOI18N
     setNormalBounds(new java.awt.Rectangle(0, 0, 932, 671));
     setVisible(true);
-    addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-      public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-        formInternalFrameActivated(evt);
-      }
-      public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {
-      }
-    });
 
     title.setFont(Constants.TITLE_FONT);
     title.setForeground(Constants.FONT_COLOR);
@@ -359,23 +439,12 @@ public class AuthorList extends javax.swing.JInternalFrame {
 				throw new ValidationException("O autor selecionado possui livros cadastrados no sistema!");
 
 			authorController.delete(selectedAuthor.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 				JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this,
-				String.format("Erro ao tentar atualizar a tabela de autores:\n%s", e.getMessage()), getTitle(),
-				JOptionPane.ERROR_MESSAGE);
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
   // Variables declaration - do not modify//GEN-BEGIN:variables
   private javax.swing.JTable authorTable;
   private javax.swing.JButton deleteBtn;
@@ -1,90 +1,234 @@
 package views.lists;
 
+import controller.AsyncBookController;
 import controller.BookController;
+import events.DomainEvent;
 import factory.ControllerFactory;
 import models.Author;
 import models.Book;
 import models.Format;
 import models.Publisher;
 import models.filters.BookFilter;
+import models.filters.BookSort;
 import views.constants.Constants;
 import views.details.BookDetails;
 import views.forms.BookForm;
+import views.tables.BookTableModel;
+import views.workers.FrameEvents;
+import views.workers.LiveSearch;
+import views.workers.ViewLoader;
 
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
 import javax.swing.JInternalFrame;
 import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.HashSet;
 import java.util.Set;
 
-import static utils.Lists.toSortedList;
-
 public class BookList extends javax.swing.JInternalFrame {
 	private final ControllerFactory controllerFactory;
 	private final BookController bookController;
+	private final AsyncBookController asyncBookController;
 
 	private DefaultTableModel tableModel;
-	private Set<Book> books;
-
-	private final Runnable updateView = new Runnable() {
-		@Override
-		public void run() {
-			search();
-			fillTable();
-			totalLabel.setText(String.format("Total encontrado: %d", books.size()));
-		}
-	};
+	private final BookTableModel bookTableModel;
+	private final ViewLoader loader;
+	private final FrameEvents events;
+	private LiveSearch liveSearch;
+
+	// last search results loaded, kept to be narrowed in memory as the user keeps typing
+	private Set<Book> results;
+	private String resultsInput;
+	private BookFilter resultsFilter;
 
 	public BookList(ControllerFactory controllerFactory) {
 		this.controllerFactory = controllerFactory;
 		this.bookController = controllerFactory.getBookController();
+		this.asyncBookController = controllerFactory.getAsyncBookController();
+		this.bookTableModel = new BookTableModel(bookController);
+		this.loader = new ViewLoader(this);
 		initComponents();
+		setUpTable();
+		bookTableModel.onPageFailure(this::showPageError);
+		liveSearch = new LiveSearch(searchInput, this::narrowSearch, input -> updateView());
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.BookCreated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookUpdated.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookReadStatusChanged.class, e -> showChanged(e.book()))
+			.on(DomainEvent.BookDeleted.class, e -> showDeleted(e.id()))
+			.on(DomainEvent.BooksImported.class, e -> updateView())
+			.on(DomainEvent.CatalogReloaded.class, e -> updateView())
+			.on(DomainEvent.AuthorUpdated.class, e -> updateView())
+			.on(DomainEvent.PublisherUpdated.class, e -> updateView());
+		addInternalFrameListener(new InternalFrameAdapter() {
+			@Override
+			public void internalFrameClosed(InternalFrameEvent e) {
+				// read status changes still queued are written right away
+				asyncBookController.flushPendingWrites();
+			}
+		});
 		updateView();
 	}
 
+	/**
+	 * Loads the books in the background: the search results, if there is a search input, or
+	 * the count and the first page of all books; a load still running is cancelled.
+	 */
 	private void updateView() {
-		SwingUtilities.invokeLater(updateView);
-	}
-	
-		private void fillTable() {
-		tableModel.setRowCount(0);
+		String input = searchInput.getText().trim();
+		BookFilter filter = filterCombo.getItemAt(filterCombo.getSelectedIndex());
+		totalLabel.setText("Carregando...");
 
-		if (books.isEmpty()) {
-			bookTable.repaint();
+		if (input.isEmpty() || filter == null) {
+			results = null;
+			BookSort sort = bookTableModel.getSort();
+			boolean ascending = bookTableModel.isAscending();
+			boolean inMemory = bookController.isPagedInMemory();
+
+			loader.load(asyncBookController.count(),
+				asyncBookController.getPage(sort, ascending, null, BookTableModel.PAGE_SIZE, inMemory),
+				(count, firstPage) -> {
+					bookTableModel.showAll(count, firstPage, inMemory);
+					updateTotal();
+				}, this::showLoadError
+			);
 			return;
 		}
 
-		var bookList = toSortedList(books);
-
-		bookList.forEach(b -> tableModel.addRow(new Object[]{b.getId(), b.getTitle(), b.getAuthor(), b.getFormat(),
-			b.getPublisher(), b.getPages(), b.isRead() ? "Lido" : "Não lido"}));
+		loader.load(() -> bookController.filter(input, filter), books -> {
+			results = books;
+			resultsInput = input;
+			resultsFilter = filter;
+			if (filter.isRanked()) bookTableModel.showList(books, true);
+			else bookTableModel.update(books);
+			updateTotal();
+		}, this::showLoadError);
 	}
 
-	private void search() {
-		String input = searchInput.getText().trim();
+	/**
+	 * Narrows the last search results in memory when the input extends the input of that
+	 * search; see {@link BookController#canNarrow}.
+	 *
+	 * @param input The current search input.
+	 * @return {@code true} if the results were narrowed, {@code false} if the input must be
+	 * searched again.
+	 */
+	private boolean narrowSearch(String input) {
 		BookFilter filter = filterCombo.getItemAt(filterCombo.getSelectedIndex());
 
-		if (input.isEmpty() || filter == null) {
-			books = bookController.getAll();
+		if (input.isEmpty() || results == null || filter != resultsFilter) return false;
+		if (!bookController.canNarrow(resultsInput, input, filter)) return false;
+
+		loader.cancel();
+		results = bookController.narrow(results, input, filter);
+		resultsInput = input;
+		bookTableModel.update(results);
+		updateTotal();
+		return true;
+	}
+
+	/**
+	 * Shows a book created or changed elsewhere without querying the database. Search results
+	 * only keep the books that still match the search; ranked results are not searched again,
+	 * so only the books they already show are changed.
+	 */
+	private void showChanged(Book book) {
+		if (results == null) {
+			bookTableModel.put(book);
+			updateTotal();
 			return;
 		}
 
-		books = bookController.filter(input, filter);
+		results = new HashSet<>(results);
+		results.removeIf(b -> b.getId() == book.getId());
+
+		boolean found = resultsFilter.isRanked()
+			? bookTableModel.contains(book.getId())
+			: bookController.matches(book, resultsInput, resultsFilter);
+
+		if (found) {
+			results.add(book);
+			bookTableModel.put(book);
+		} else {
+			bookTableModel.remove(book.getId());
+		}
+
+		updateTotal();
 	}
 
-		private Book getSelectedBook() {
-		int selectedRow = bookTable.convertRowIndexToModel(bookTable.getSelectedRow());
+	private void showDeleted(int id) {
+		if (results != null) {
+			results = new HashSet<>(results);
+			results.removeIf(b -> b.getId() == id);
+		}
 
-		if (selectedRow == -1 || selectedRow >= tableModel.getRowCount())
-			throw new RuntimeException("Você deve selecionar um livro!");
+		bookTableModel.remove(id);
+		updateTotal();
+	}
 
-		var id = (int) tableModel.getValueAt(selectedRow, 0);
-		return bookController.getById(id);
+	private void updateTotal() {
+		totalLabel.setText(String.format("Total encontrado: %d", bookTableModel.getTotal()));
 	}
-	
+
+	private void showLoadError(Exception e) {
+		totalLabel.setText("Total encontrado");
+		JOptionPane.showMessageDialog(this, String.format("Erro ao tentar atualizar a tabela de livros:\n%s", e.getMessage()),
+			getTitle(), JOptionPane.ERROR_MESSAGE);
+	}
+
+	private void showPageError(Exception e) {
+		JOptionPane.showMessageDialog(this, String.format("Erro ao tentar carregar os próximos livros da tabela:\n%s", e.getMessage()),
+			getTitle(), JOptionPane.ERROR_MESSAGE);
+	}
+
+	/**
+	 * Replaces the generated table model by the paged one; sorting by a column is done by
+	 * the model, so that the database orders the books when all of them are listed.
+	 */
+	private void setUpTable() {
+		bookTable.setAutoCreateRowSorter(false);
+		bookTable.setRowSorter(null);
+		bookTable.setModel(bookTableModel);
+
+		int[] widths = {45, 202, 188, 105, 155, 73, 72};
+		for (int i = 0; i < widths.length; i++) bookTable.getColumnModel().getColumn(i).setPreferredWidth(widths[i]);
+
+		bookTable.getTableHeader().addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				int column = bookTable.columnAtPoint(e.getPoint());
+				if (column == -1) return;
+
+				bookTableModel.sortBy(bookTable.convertColumnIndexToModel(column));
+				updateTotal();
+			}
+		});
+	}
+
+	private Book getSelectedBook() {
+		return bookController.getById(getShownBook().getId());
+	}
+
+	/**
+	 * @return The selected book as shown by the table, which is kept up to date by the
+	 * change events, without querying the database.
+	 */
+	private Book getShownBook() {
+		int selectedRow = bookTable.getSelectedRow();
+		Book selected = selectedRow == -1 ? null : bookTableModel.getBookAt(bookTable.convertRowIndexToModel(selectedRow));
+
+		if (selected == null) throw new RuntimeException("Você deve selecionar um livro!");
+
+		return selected;
+	}
+
   // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
   private void initComponents() {
 
@@ -143,23 +287,6 @@ public class BookList extends javax.swing.JInternalFrame {
     setName("Lista de livros"); // NOI18N
     setNormalBounds(null);
     setVisible(true);
-    addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-      public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-        formInternalFrameActivated(evt);
-      }
-      public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {
-      }
-    });
 
     title.setFont(Constants.TITLE_FONT);
     title.setForeground(Constants.FONT_COLOR);
@@ -540,7 +667,7 @@ public class BookList extends javax.swing.JInternalFrame {
 
 	private void statusBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_statusBtnActionPerformed
 		try {
-			var selectedBook = getSelectedBook();
+			var selectedBook = getShownBook();
 
 			String[] options = {"Sim", "Não"};
 			String newStatus = selectedBook.isRead() ? "não lido" : "lido";
@@ -551,7 +678,6 @@ public class BookList extends javax.swing.JInternalFrame {
 			if (res != 0) return;
 
 			bookController.updateReadStatus(selectedBook);
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar alterar o status:\n%s", e.getMessage()),
 				getTitle(), JOptionPane.ERROR_MESSAGE);
@@ -571,7 +697,7 @@ public class BookList extends javax.swing.JInternalFrame {
 
 	private void deleteBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_deleteBtnActionPerformed
 		try {
-			var selectedBook = getSelectedBook();
+			var selectedBook = getShownBook();
 
 			String[] options = {"Sim", "Não"};
 			int res = JOptionPane.showOptionDialog(this,
@@ -582,27 +708,15 @@ public class BookList extends javax.swing.JInternalFrame {
 			if (res != 0) return;
 
 			bookController.delete(selectedBook.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 				JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this,
-				String.format("Erro ao tentar atualizar a tabela de livros:\n%s", e.getMessage()), getTitle(),
-				JOptionPane.ERROR_MESSAGE);
-			System.err.println(e);
-			e.printStackTrace();
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
 	private void searchInputKeyPressed(java.awt.event.KeyEvent evt) {//GEN-FIRST:event_searchInputKeyPressed
-		updateView();
+		// typing is handled by the live search; Enter searches without waiting
+		if (evt.getKeyCode() == KeyEvent.VK_ENTER) liveSearch.flush();
 	}//GEN-LAST:event_searchInputKeyPressed
 
 	private void filterComboActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_filterComboActionPerformed
@@ -620,7 +734,7 @@ public class BookList extends javax.swing.JInternalFrame {
 	}//GEN-LAST:event_searchButtonaddBtnMouseExited
 
 	private void searchButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_searchButtonActionPerformed
-		updateView();
+		liveSearch.flush();
 	}//GEN-LAST:event_searchButtonActionPerformed
 
 	private void clearFilterButtonaddBtnMouseEntered(java.awt.event.MouseEvent evt) {//GEN-FIRST:event_clearFilterButtonaddBtnMouseEntered
@@ -635,7 +749,7 @@ public class BookList extends javax.swing.JInternalFrame {
 
 	private void clearFilterButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_clearFilterButtonActionPerformed
 		searchInput.setText("");
-		updateView();
+		liveSearch.flush();
 	}//GEN-LAST:event_clearFilterButtonActionPerformed
 
 	private void setActiveBtn(JButton btn) {
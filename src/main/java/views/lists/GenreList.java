@@ -1,18 +1,32 @@
 package views.lists;
 
 import controller.GenreController;
+import events.DomainEvent;
 import exceptions.ValidationException;
 import factory.ControllerFactory;
 import models.Genre;
+import utils.Texts;
 import views.constants.Constants;
 import views.details.GenreDetails;
 import views.forms.GenreForm;
+import views.workers.FrameEvents;
+import views.workers.LiveSearch;
+import views.workers.ViewLoader;
 
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.GroupLayout;
+import javax.swing.JComponent;
 import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.HashSet;
 import java.util.Set;
 
 import static utils.Lists.toSortedList;
@@ -23,39 +37,122 @@ public class GenreList extends javax.swing.JInternalFrame {
 	
 	private DefaultTableModel tableModel;
 	private Set<Genre> genres;
+	private String search = "";
 	
-	private final Runnable updateView = new Runnable() {
-		@Override
-		public void run() {
-			genres = genreController.getAll();
-			fillTable();
-			totalLabel.setText(String.format("Total encontrado: %d", genres.size()));
-		}
-	};
+	private final ViewLoader loader;
+	private final FrameEvents events;
 	
 	public GenreList(ControllerFactory controllerFactory) {
 		this.controllerFactory = controllerFactory;
 		this.genreController = controllerFactory.getGenreController();
+		this.loader = new ViewLoader(this);
 		initComponents();
+		setUpSearch();
+		// book writes change the number of books of each genre, which is read again
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.GenreCreated.class, e -> showChanged(e.genre()))
+			.on(DomainEvent.GenreUpdated.class, e -> showChanged(e.genre()))
+			.on(DomainEvent.GenresImported.class, e -> e.genres().forEach(this::showChanged))
+			.on(DomainEvent.GenreDeleted.class, e -> showDeleted(e.id()))
+			.on(DomainEvent.BookCreated.class, e -> updateView())
+			.on(DomainEvent.BooksImported.class, e -> updateView())
+			.on(DomainEvent.BookUpdated.class, e -> updateView())
+			.on(DomainEvent.BookDeleted.class, e -> updateView());
 		updateView();
 	}
 	
 	private void updateView() {
-		SwingUtilities.invokeLater(updateView);
+		totalLabel.setText("Carregando...");
+	
+		loader.load(genreController::getAll, loaded -> {
+			genres = loaded;
+			fillTable();
+		}, e -> {
+			totalLabel.setText("Total encontrado");
+			JOptionPane.showMessageDialog(this,
+				String.format("Erro ao tentar atualizar a tabela de categorias:\n%s", e.getMessage()), getTitle(),
+				JOptionPane.ERROR_MESSAGE);
+		});
 	}
 	
 	private void fillTable() {
 		tableModel.setRowCount(0);
-		
-		if (genres.isEmpty()) {
+
+		var genreList = toSortedList(genres);
+		if (!search.isEmpty()) genreList.removeIf(g -> !matchesSearch(g));
+
+		totalLabel.setText(String.format("Total encontrado: %d", genreList.size()));
+
+		if (genreList.isEmpty()) {
 			genreTable.repaint();
 			return;
 		}
-		
-		var genreList = toSortedList(genres);
-		
+
 		genreList.forEach(g -> tableModel.addRow(new Object[]{g.getId(), g.getName(), g.getBooksOwned()}));
 	}
+
+	/**
+	 * Shows a genre created or changed elsewhere without querying the database.
+	 */
+	private void showChanged(Genre g) {
+		if (genres == null) return;
+
+		genres = new HashSet<>(genres);
+		genres.removeIf(x -> x.getId() == g.getId());
+		genres.add(g);
+		fillTable();
+	}
+
+	private void showDeleted(int id) {
+		if (genres == null) return;
+
+		genres = new HashSet<>(genres);
+		genres.removeIf(x -> x.getId() == id);
+		fillTable();
+	}
+
+	private boolean matchesSearch(Genre g) {
+		return Texts.containsIgnoringAccents(g.getName(), search);
+	}
+
+	/**
+	 * Adds a search field below the total label. The genres are all loaded, so they are
+	 * filtered in memory as the user types, without querying the database.
+	 */
+	private void setUpSearch() {
+		var searchLabel = new JLabel("Pesquisa");
+		searchLabel.setFont(Constants.DEFAULT_FONT);
+		searchLabel.setForeground(Constants.FONT_COLOR);
+
+		var searchInput = new JTextField();
+		searchInput.setBackground(Constants.WHITE);
+		searchInput.setFont(Constants.DEFAULT_FONT);
+		searchInput.setForeground(Constants.FONT_COLOR);
+		searchInput.setCaretColor(Constants.FONT_COLOR);
+		searchInput.setSelectedTextColor(Constants.WHITE);
+		searchInput.setSelectionColor(Constants.DARK_BLUE);
+		searchInput.setToolTipText("Pesquisar gêneros pelo nome");
+		searchInput.setMaximumSize(new Dimension(175, 30));
+		searchInput.setPreferredSize(new Dimension(175, 30));
+		searchLabel.setLabelFor(searchInput);
+
+		var searchPanel = new JPanel();
+		searchPanel.setOpaque(false);
+		searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.Y_AXIS));
+		((GroupLayout) getContentPane().getLayout()).replace(totalLabel, searchPanel);
+
+		for (Component c : new Component[]{totalLabel, Box.createVerticalStrut(18), searchLabel, searchInput}) {
+			if (c instanceof JComponent component) component.setAlignmentX(Component.CENTER_ALIGNMENT);
+			searchPanel.add(c);
+		}
+
+		new LiveSearch(searchInput, input -> {
+			search = input;
+			if (genres != null) fillTable();
+			return true;
+		}, input -> {
+		});
+	}
 	
 	private Genre getSelectedGenre() {
 		int selectedRow = genreTable.convertRowIndexToModel(genreTable.getSelectedRow());
@@ -106,23 +203,6 @@ public class GenreList extends javax.swing.JInternalFrame {
     setName("Lista de categorias"); // NOI18N
     setNormalBounds(new java.awt.Rectangle(0, 0, 728, 646));
     setVisible(true);
-    addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-      public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-        formInternalFrameActivated(evt);
-      }
-      public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {
-      }
-    });
 
     title.setFont(Constants.TITLE_FONT);
     title.setForeground(Constants.FONT_COLOR);
@@ -356,23 +436,12 @@ public class GenreList extends javax.swing.JInternalFrame {
 				throw new ValidationException("A categoria selecionada possui livros cadastrados no sistema!");
 			
 			genreController.delete(selectedGenre.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 				JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this,
-				String.format("Erro ao tentar atualizar a tabela de categorias:\n%s", e.getMessage()), getTitle(),
-				JOptionPane.ERROR_MESSAGE);
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
   // Variables declaration - do not modify//GEN-BEGIN:variables
   private javax.swing.JButton deleteBtn;
   private javax.swing.JButton detailsButton;
@@ -1,18 +1,32 @@
 package views.lists;
 
 import controller.PublisherController;
+import events.DomainEvent;
 import exceptions.ValidationException;
 import factory.ControllerFactory;
 import models.Publisher;
+import utils.Texts;
 import views.constants.Constants;
 import views.details.PublisherDetails;
 import views.forms.PublisherForm;
-
+import views.workers.FrameEvents;
+import views.workers.LiveSearch;
+import views.workers.ViewLoader;
+
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.GroupLayout;
+import javax.swing.JComponent;
 import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.HashSet;
 import java.util.Set;
 
 import static utils.Lists.toSortedList;
@@ -23,40 +37,123 @@ public class PublisherList extends javax.swing.JInternalFrame {
 
 	private DefaultTableModel tableModel;
 	private Set<Publisher> publishers;
+	private String search = "";
 
-	private final Runnable updateView = new Runnable() {
-		@Override
-		public void run() {
-			publishers = publisherController.getAll();
-			fillTable();
-			totalLabel.setText(String.format("Total encontrado: %d", publishers.size()));
-		}
-	};
+	private final ViewLoader loader;
+	private final FrameEvents events;
 
 	public PublisherList(ControllerFactory controllerFactory) {
 		this.controllerFactory = controllerFactory;
 		this.publisherController = controllerFactory.getPublisherController();
+		this.loader = new ViewLoader(this);
 		initComponents();
+		setUpSearch();
+		// book writes change the number of books of each publisher, which is read again
+		this.events = new FrameEvents(this, controllerFactory.getEventBus())
+			.on(DomainEvent.PublisherCreated.class, e -> showChanged(e.publisher()))
+			.on(DomainEvent.PublisherUpdated.class, e -> showChanged(e.publisher()))
+			.on(DomainEvent.PublishersImported.class, e -> e.publishers().forEach(this::showChanged))
+			.on(DomainEvent.PublisherDeleted.class, e -> showDeleted(e.id()))
+			.on(DomainEvent.BookCreated.class, e -> updateView())
+			.on(DomainEvent.BooksImported.class, e -> updateView())
+			.on(DomainEvent.BookUpdated.class, e -> updateView())
+			.on(DomainEvent.BookDeleted.class, e -> updateView());
 		updateView();
 	}
 
 	private void updateView() {
-		SwingUtilities.invokeLater(updateView);
+		totalLabel.setText("Carregando...");
+
+		loader.load(publisherController::getAll, loaded -> {
+			publishers = loaded;
+			fillTable();
+		}, e -> {
+			totalLabel.setText("Total encontrado");
+			JOptionPane.showMessageDialog(this,
+				String.format("Erro ao tentar atualizar a tabela de editoras:\n%s", e.getMessage()), getTitle(),
+				JOptionPane.ERROR_MESSAGE);
+		});
 	}
 
 	private void fillTable() {
 		tableModel.setRowCount(0);
 
-		if (publishers.isEmpty()) {
+		var publisherList = toSortedList(publishers);
+		if (!search.isEmpty()) publisherList.removeIf(p -> !matchesSearch(p));
+
+		totalLabel.setText(String.format("Total encontrado: %d", publisherList.size()));
+
+		if (publisherList.isEmpty()) {
 			publisherTable.repaint();
 			return;
 		}
 
-		var publisherList = toSortedList(publishers);
-
 		publisherList.forEach(p -> tableModel.addRow(new Object[]{p.getId(), p.getName(), p.getBooksOwned()}));
 	}
 
+	/**
+	 * Shows a publisher created or changed elsewhere without querying the database.
+	 */
+	private void showChanged(Publisher p) {
+		if (publishers == null) return;
+
+		publishers = new HashSet<>(publishers);
+		publishers.removeIf(x -> x.getId() == p.getId());
+		publishers.add(p);
+		fillTable();
+	}
+
+	private void showDeleted(int id) {
+		if (publishers == null) return;
+
+		publishers = new HashSet<>(publishers);
+		publishers.removeIf(x -> x.getId() == id);
+		fillTable();
+	}
+
+	private boolean matchesSearch(Publisher p) {
+		return Texts.containsIgnoringAccents(p.getName(), search);
+	}
+
+	/**
+	 * Adds a search field below the total label. The publishers are all loaded, so they are
+	 * filtered in memory as the user types, without querying the database.
+	 */
+	private void setUpSearch() {
+		var searchLabel = new JLabel("Pesquisa");
+		searchLabel.setFont(Constants.DEFAULT_FONT);
+		searchLabel.setForeground(Constants.FONT_COLOR);
+
+		var searchInput = new JTextField();
+		searchInput.setBackground(Constants.WHITE);
+		searchInput.setFont(Constants.DEFAULT_FONT);
+		searchInput.setForeground(Constants.FONT_COLOR);
+		searchInput.setCaretColor(Constants.FONT_COLOR);
+		searchInput.setSelectedTextColor(Constants.WHITE);
+		searchInput.setSelectionColor(Constants.DARK_BLUE);
+		searchInput.setToolTipText("Pesquisar editoras pelo nome");
+		searchInput.setMaximumSize(new Dimension(175, 30));
+		searchInput.setPreferredSize(new Dimension(175, 30));
+		searchLabel.setLabelFor(searchInput);
+
+		var searchPanel = new JPanel();
+		searchPanel.setOpaque(false);
+		searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.Y_AXIS));
+		((GroupLayout) getContentPane().getLayout()).replace(totalLabel, searchPanel);
+
+		for (Component c : new Component[]{totalLabel, Box.createVerticalStrut(18), searchLabel, searchInput}) {
+			if (c instanceof JComponent component) component.setAlignmentX(Component.CENTER_ALIGNMENT);
+			searchPanel.add(c);
+		}
+
+		new LiveSearch(searchInput, input -> {
+			search = input;
+			if (publishers != null) fillTable();
+			return true;
+		}, input -> {
+		});
+	}
+
 	private Publisher getSelectedPublisher() {
 		int selectedRow = publisherTable.convertRowIndexToModel(publisherTable.getSelectedRow());
 
@@ -105,23 +202,6 @@ public class PublisherList extends javax.swing.JInternalFrame {
     setName("Lista de editoras"); // NOI18N
     setNormalBounds(new java.awt.Rectangle(0, 0, 728, 646));
     setVisible(true);
-    addInternalFrameListener(new javax.swing.event.InternalFrameListener() {
-      public void internalFrameActivated(javax.swing.event.InternalFrameEvent evt) {
-        formInternalFrameActivated(evt);
-      }
-      public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameClosing(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeactivated(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameDeiconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameIconified(javax.swing.event.InternalFrameEvent evt) {
-      }
-      public void internalFrameOpened(javax.swing.event.InternalFrameEvent evt) {
-      }
-    });
 
     title.setFont(Constants.TITLE_FONT);
     title.setForeground(Constants.FONT_COLOR);
@@ -355,23 +435,12 @@ public class PublisherList extends javax.swing.JInternalFrame {
 				throw new ValidationException("A editora selecionada possui livros cadastrados no sistema!");
 
 			publisherController.delete(selectedPublisher.getId());
-			updateView();
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(this, String.format("Erro ao tentar excluir:\n%s", e.getMessage()), getTitle(),
 				JOptionPane.ERROR_MESSAGE);
 		}
 	}//GEN-LAST:event_deleteBtnActionPerformed
 
-	private void formInternalFrameActivated(javax.swing.event.InternalFrameEvent evt) {//GEN-FIRST:event_formInternalFrameActivated
-		try {
-			updateView();
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(this,
-				String.format("Erro ao tentar atualizar a tabela de editoras:\n%s", e.getMessage()), getTitle(),
-				JOptionPane.ERROR_MESSAGE);
-		}
-	}//GEN-LAST:event_formInternalFrameActivated
-
   // Variables declaration - do not modify//GEN-BEGIN:variables
   private javax.swing.JButton deleteBtn;
   private javax.swing.JButton detailsButton;
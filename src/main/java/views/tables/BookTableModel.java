@@ -0,0 +1,544 @@
+package views.tables;
+
+import controller.BookController;
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Publisher;
+import models.filters.BookSort;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * <p>Table model of the book list, with two modes:</p>
+ * <ul>
+ *   <li><b>paged</b>: shows every book in the database, ordered in the database. It starts
+ *   from the number of books and the first page; the following pages are fetched in the
+ *   background with keyset pagination when their rows are first rendered, and rows not yet
+ *   fetched are shown empty. Every page comes from the source of the first one, the database
+ *   or the memory, as they may order some books differently;</li>
+ *   <li><b>list</b>: shows a given collection of books, such as search results, ordered in
+ *   memory unless the collection is already ranked. A list can be {@link #update updated} in
+ *   place, firing only the row events needed to turn the old rows into the new ones, so that
+ *   the selection and the scroll position of the table are kept.</li>
+ * </ul>
+ * <p>The columns are a subset of {@link BookSort}, in the given order.</p>
+ * <p>Must only be used in the Event Dispatch Thread.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class BookTableModel extends AbstractTableModel {
+	/**
+	 * Number of books fetched by each page query.
+	 */
+	public static final int PAGE_SIZE = 200;
+
+	/**
+	 * Maximum number of row events fired by {@link #update}; larger changes are
+	 * fired as a single event for the whole table.
+	 */
+	public static final int MAX_UPDATE_EVENTS = 64;
+
+	private final BookController bookController;
+	private final BookSort[] columns;
+	private final List<Book> rows = new ArrayList<>();
+	private BookSort sort = BookSort.TITLE;
+	private boolean ascending = true;
+	private boolean paged;
+	private boolean ranked;
+	private int total;
+	// whether the pages are answered from memory instead of the database
+	private boolean inMemory;
+	// incremented on every reset, so pages fetched for a previous state are discarded
+	private int generation;
+	private SwingWorker<List<Book>, Void> pageWorker;
+	// the failure of the last page fetch; no other page is fetched until the next reset
+	private Exception pageFailure;
+	private Consumer<Exception> pageFailureHandler = e -> {
+	};
+
+	/**
+	 * Constructs an empty instance of {@link BookTableModel} with one column per
+	 * {@link BookSort} attribute.
+	 *
+	 * @param bookController The controller used to fetch pages.
+	 */
+	public BookTableModel(BookController bookController) {
+		this(bookController, BookSort.values());
+	}
+
+	/**
+	 * Constructs an empty instance of {@link BookTableModel} with the columns passed as an argument.
+	 *
+	 * @param bookController The controller used to fetch pages.
+	 * @param columns        The attributes shown, in order.
+	 */
+	public BookTableModel(BookController bookController, BookSort... columns) {
+		this.bookController = bookController;
+		this.columns = columns.clone();
+	}
+
+	/**
+	 * Sets what is done when a page cannot be fetched. The following pages are not fetched,
+	 * and the rows not yet fetched are shown empty, until the rows are fetched again by
+	 * {@link #showAll}, {@link #showList} or {@link #sortBy}.
+	 *
+	 * @param handler Receives the cause of the failure, in the Event Dispatch Thread.
+	 */
+	public void onPageFailure(Consumer<Exception> handler) {
+		pageFailureHandler = handler;
+	}
+
+	/**
+	 * Switches to the paged mode, discarding all fetched rows.
+	 *
+	 * @param count     The number of books in the database.
+	 * @param firstPage The first page of books in the current {@link #getSort() order},
+	 *                  with at most {@link #PAGE_SIZE} books.
+	 * @param inMemory  Whether the first page was answered from memory; see
+	 *                  {@link BookController#getPage(BookSort, boolean, Book, int, boolean)}.
+	 */
+	public void showAll(int count, List<Book> firstPage, boolean inMemory) {
+		reset(true, false);
+		this.inMemory = inMemory;
+		total = count;
+		append(firstPage);
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Switches to the list mode, showing the books passed as an argument.
+	 *
+	 * @param books  The books to be shown.
+	 * @param ranked {@code true} if the books are in relevance order, which
+	 *               is kept until the user sorts by a column.
+	 */
+	public void showList(Collection<Book> books, boolean ranked) {
+		reset(false, ranked);
+		rows.addAll(books);
+		total = rows.size();
+		if (!ranked) rows.sort(comparator());
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Replaces the books shown in the list mode by the ones passed as an argument, keeping the
+	 * current order. The old and new rows are compared by ID, and only the rows actually
+	 * inserted, deleted or changed are notified, contiguous rows in a single event; if that
+	 * takes more than {@link #MAX_UPDATE_EVENTS} events, a single event for the whole table is
+	 * fired instead. In the paged mode, or if the rows are ranked, this is the same as
+	 * {@link #showList showList(books, false)}.
+	 *
+	 * @param books The books to be shown.
+	 */
+	public void update(Collection<Book> books) {
+		if (paged || ranked) {
+			showList(books, false);
+			return;
+		}
+
+		List<Book> next = new ArrayList<>(books);
+		next.sort(comparator());
+		List<Change> changes = diff(next);
+
+		if (changes.size() > MAX_UPDATE_EVENTS) {
+			rows.clear();
+			rows.addAll(next);
+			total = rows.size();
+			fireTableDataChanged();
+			return;
+		}
+
+		for (Change change : changes) apply(change);
+
+		// rows showing the same values may still hold other data, such as the price
+		for (int i = 0; i < next.size(); i++) rows.set(i, next.get(i));
+	}
+
+	/**
+	 * Shows a created or changed book. If the book is already shown, its row is replaced, and
+	 * in the list mode moved to its place in the order; in the paged mode it keeps its position
+	 * until the rows are fetched again. Otherwise, the book is inserted in order, unless the
+	 * rows are ranked; in the paged mode, books ordered after the fetched rows are only counted,
+	 * as they are fetched with the following pages.
+	 *
+	 * @param book The book to be shown.
+	 */
+	public void put(Book book) {
+		int row = indexOf(book.getId());
+
+		if (row != -1 && rows.get(row) == book) {
+			moved(row);
+			return;
+		}
+
+		if (!paged && !ranked) {
+			List<Book> next = new ArrayList<>(rows);
+			if (row == -1) next.add(book);
+			else next.set(row, book);
+
+			update(next);
+			return;
+		}
+
+		if (row != -1) {
+			rows.set(row, book);
+			fireTableRowsUpdated(row, row);
+			return;
+		}
+
+		if (ranked) return;
+
+		int position = insertionPoint(book);
+
+		if (position < rows.size() || rows.size() == total) {
+			rows.add(position, book);
+			total++;
+			fireTableRowsInserted(position, position);
+			return;
+		}
+
+		total++;
+		fireTableRowsInserted(total - 1, total - 1);
+	}
+
+	/**
+	 * Stops showing a deleted book. In the paged mode, if the book was not fetched yet, the
+	 * last row not yet fetched is removed instead.
+	 *
+	 * @param id The ID of the book.
+	 */
+	public void remove(int id) {
+		int row = indexOf(id);
+
+		if (row != -1) {
+			rows.remove(row);
+			total--;
+			fireTableRowsDeleted(row, row);
+			return;
+		}
+
+		if (paged && rows.size() < total) {
+			total--;
+			fireTableRowsDeleted(total, total);
+		}
+	}
+
+	/**
+	 * @param id The ID of a book.
+	 * @return {@code true} if the book is among the fetched rows.
+	 */
+	public boolean contains(int id) {
+		return indexOf(id) != -1;
+	}
+
+	/**
+	 * Orders the rows by a column; selecting the current column again inverts the order.
+	 * In the paged mode the rows are fetched again, in the background, in the new order.
+	 *
+	 * @param column The index of the column in the model.
+	 */
+	public void sortBy(int column) {
+		BookSort selected = columns[column];
+		ascending = selected != sort || ranked || !ascending;
+		sort = selected;
+
+		if (paged) {
+			// keeps the count; the first page in the new order is fetched in the background
+			int count = total;
+			reset(true, false);
+			inMemory = bookController.isPagedInMemory();
+			total = count;
+			fireTableDataChanged();
+			fetchNextPage();
+			return;
+		}
+
+		ranked = false;
+		rows.sort(comparator());
+		fireTableDataChanged();
+	}
+
+	/**
+	 * @return The attribute the rows are currently ordered by.
+	 */
+	public BookSort getSort() {
+		return sort;
+	}
+
+	/**
+	 * @return {@code true} if the rows are in ascending order.
+	 */
+	public boolean isAscending() {
+		return ascending;
+	}
+
+	/**
+	 * @return The number of books shown by the table, including the ones not yet fetched.
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @param row The index of the row in the model.
+	 * @return The book of the row, or {@code null} if it was not fetched yet.
+	 */
+	public Book getBookAt(int row) {
+		if (row < 0 || row >= rows.size()) return null;
+		return rows.get(row);
+	}
+
+	@Override
+	public int getRowCount() {
+		return total;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return columns[column].toString();
+	}
+
+	@Override
+	public Class<?> getColumnClass(int column) {
+		return switch (columns[column]) {
+			case ID, PAGES -> Integer.class;
+			case AUTHOR -> Author.class;
+			case FORMAT -> Format.class;
+			case PUBLISHER -> Publisher.class;
+			default -> String.class;
+		};
+	}
+
+	@Override
+	public Object getValueAt(int row, int column) {
+		Book b = getBookAt(row);
+
+		if (b == null) {
+			fetchNextPage();
+			return null;
+		}
+
+		return valueOf(b, columns[column]);
+	}
+
+	private static Object valueOf(Book b, BookSort attribute) {
+		return switch (attribute) {
+			case ID -> b.getId();
+			case TITLE -> b.getTitle();
+			case AUTHOR -> b.getAuthor();
+			case FORMAT -> b.getFormat();
+			case PUBLISHER -> b.getPublisher();
+			case PAGES -> b.getPages();
+			case READ -> b.isRead() ? "Lido" : "Não lido";
+		};
+	}
+
+	/**
+	 * Notifies the change of the book of a row that was changed in place, such as by
+	 * {@link Book#toggleRead}, moving it if its place in the list mode order changed; there are
+	 * no old values to compare it with.
+	 */
+	private void moved(int row) {
+		Book book = rows.remove(row);
+		int position = paged || ranked ? row : insertionPoint(book);
+
+		if (position == row) {
+			rows.add(row, book);
+			fireTableRowsUpdated(row, row);
+			return;
+		}
+
+		total--;
+		fireTableRowsDeleted(row, row);
+		rows.add(position, book);
+		total++;
+		fireTableRowsInserted(position, position);
+	}
+
+	private int insertionPoint(Book book) {
+		int position = Collections.binarySearch(rows, book, comparator());
+		return position < 0 ? -position - 1 : position;
+	}
+
+	private int indexOf(int id) {
+		for (int i = 0; i < rows.size(); i++) if (rows.get(i).getId() == id) return i;
+		return -1;
+	}
+
+	private void reset(boolean paged, boolean ranked) {
+		generation++;
+		if (pageWorker != null) pageWorker.cancel(false);
+		pageWorker = null;
+		pageFailure = null;
+
+		this.paged = paged;
+		this.ranked = ranked;
+		rows.clear();
+		total = 0;
+	}
+
+	/**
+	 * Fetches, in the background, the page after the last fetched row. Pages are fetched in
+	 * order, as each one starts after the last book of the previous one; rows further down
+	 * are requested again when the table repaints after the page arrives. After a failure no
+	 * page is fetched until the next reset, so that repaints do not keep querying.
+	 */
+	private void fetchNextPage() {
+		if (!paged || pageWorker != null || pageFailure != null || rows.size() >= total) return;
+
+		int requestGeneration = generation;
+		BookSort requestSort = sort;
+		boolean requestAscending = ascending;
+		boolean requestInMemory = inMemory;
+		Book after = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+
+		pageWorker = new SwingWorker<>() {
+			@Override
+			protected List<Book> doInBackground() {
+				return bookController.getPage(requestSort, requestAscending, after, PAGE_SIZE, requestInMemory);
+			}
+
+			@Override
+			protected void done() {
+				if (requestGeneration != generation) return;
+				pageWorker = null;
+
+				try {
+					int first = rows.size();
+					append(get());
+					if (rows.size() > first) fireTableRowsUpdated(first, rows.size() - 1);
+				} catch (InterruptedException e) {
+					pageFailed(e);
+				} catch (ExecutionException e) {
+					pageFailed(e.getCause() instanceof Exception cause ? cause : e);
+				}
+			}
+		};
+		pageWorker.execute();
+	}
+
+	private void pageFailed(Exception e) {
+		pageFailure = e;
+		pageFailureHandler.accept(e);
+	}
+
+	private void append(List<Book> page) {
+		rows.addAll(page);
+
+		// books deleted since the count was taken; the table shrinks to what actually exists
+		if (paged && page.size() < PAGE_SIZE && rows.size() < total) {
+			int removedFrom = rows.size();
+			int removedTo = total - 1;
+			total = rows.size();
+			fireTableRowsDeleted(removedFrom, removedTo);
+		}
+	}
+
+	/**
+	 * Merges the current rows with the new ones, both in the current order, into the changes
+	 * that turn the former into the latter. Each change refers to row indexes as they are
+	 * when it is applied, after the previous changes.
+	 */
+	private List<Change> diff(List<Book> next) {
+		Comparator<Book> comparator = comparator();
+		List<Change> changes = new ArrayList<>();
+		int i = 0;
+		int j = 0;
+		int row = 0;
+
+		while (i < rows.size() || j < next.size()) {
+			Book current = i < rows.size() ? rows.get(i) : null;
+			Book updated = j < next.size() ? next.get(j) : null;
+			// the comparator breaks ties by ID, so 0 means the same book in the same position
+			int order = current == null ? 1 : updated == null ? -1 : comparator.compare(current, updated);
+
+			if (order < 0) {
+				add(changes, ChangeType.DELETE, row, current);
+				i++;
+			} else if (order > 0) {
+				add(changes, ChangeType.INSERT, row++, updated);
+				j++;
+			} else {
+				if (!sameValues(current, updated)) add(changes, ChangeType.UPDATE, row, updated);
+				row++;
+				i++;
+				j++;
+			}
+		}
+
+		return changes;
+	}
+
+	/**
+	 * Adds a single row change, merging it into the last change if they are contiguous.
+	 */
+	private static void add(List<Change> changes, ChangeType type, int row, Book book) {
+		Change last = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+
+		// deleted rows are removed when applied, so contiguous deletes share the first index
+		int next = last == null ? -1 : last.type() == ChangeType.DELETE ? last.row() : last.row() + last.books().size();
+
+		if (last != null && last.type() == type && next == row) last.books().add(book);
+		else changes.add(new Change(type, row, new ArrayList<>(List.of(book))));
+	}
+
+	private void apply(Change change) {
+		int first = change.row();
+		int last = first + change.books().size() - 1;
+
+		switch (change.type()) {
+			case INSERT -> {
+				rows.addAll(first, change.books());
+				total = rows.size();
+				fireTableRowsInserted(first, last);
+			}
+			case DELETE -> {
+				rows.subList(first, last + 1).clear();
+				total = rows.size();
+				fireTableRowsDeleted(first, last);
+			}
+			case UPDATE -> {
+				for (int i = first; i <= last; i++) rows.set(i, change.books().get(i - first));
+				fireTableRowsUpdated(first, last);
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} if both books show the same values in every column.
+	 */
+	private boolean sameValues(Book a, Book b) {
+		for (BookSort column : columns) if (!Objects.equals(valueOf(a, column), valueOf(b, column))) return false;
+		return true;
+	}
+
+	/**
+	 * @return The in-memory equivalent of the current database order.
+	 */
+	private Comparator<Book> comparator() {
+		return ascending ? sort.comparator() : sort.comparator().reversed();
+	}
+
+	private enum ChangeType {INSERT, DELETE, UPDATE}
+
+	/**
+	 * Contiguous rows inserted, deleted or updated, starting at {@code row}.
+	 */
+	private record Change(ChangeType type, int row, List<Book> books) {
+	}
+}
@@ -0,0 +1,72 @@
+package views.workers;
+
+import events.DomainEvent;
+import events.EventBus;
+
+import javax.swing.JInternalFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <p>Subscriptions of a frame to the {@link EventBus}, through which the frame keeps its data up
+ * to date as it is changed elsewhere in the application.</p>
+ * <p>Handlers always run in the Event Dispatch Thread: events published there are handled right
+ * away, and the others are handed over to it. The subscriptions are kept by this object, and so
+ * live as long as the frame; they are cancelled when the frame is closed, and events still
+ * waiting for the Event Dispatch Thread are then discarded.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class FrameEvents {
+	private final EventBus eventBus;
+	private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+	private boolean closed;
+
+	/**
+	 * Constructs an instance of {@link FrameEvents} without subscriptions.
+	 *
+	 * @param frame    The frame that handles the events.
+	 * @param eventBus The bus the events are published to.
+	 */
+	public FrameEvents(JInternalFrame frame, EventBus eventBus) {
+		this.eventBus = eventBus;
+		frame.addInternalFrameListener(new InternalFrameAdapter() {
+			@Override
+			public void internalFrameClosed(InternalFrameEvent e) {
+				close();
+			}
+		});
+	}
+
+	/**
+	 * Handles the events of the type passed as an argument.
+	 *
+	 * @param type    The type of the events.
+	 * @param handler Handles each event in the Event Dispatch Thread.
+	 * @param <E>     Type of the events.
+	 * @return This object, so that subscriptions can be chained.
+	 */
+	public <E extends DomainEvent> FrameEvents on(Class<E> type, Consumer<? super E> handler) {
+		subscriptions.add(eventBus.subscribe(type, event -> {
+			if (SwingUtilities.isEventDispatchThread()) {
+				if (!closed) handler.accept(event);
+				return;
+			}
+
+			SwingUtilities.invokeLater(() -> {
+				if (!closed) handler.accept(event);
+			});
+		}));
+		return this;
+	}
+
+	private void close() {
+		closed = true;
+		subscriptions.forEach(EventBus.Subscription::cancel);
+		subscriptions.clear();
+	}
+}
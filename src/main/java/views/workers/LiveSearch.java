@@ -0,0 +1,92 @@
+package views.workers;
+
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * <p>Search-as-you-type for a text field. Every change to the field is first offered to an
+ * immediate handler, meant for searches answered in memory, which run right away; changes it
+ * does not handle are debounced, so the search is only run once the user stops typing for
+ * {@link #DEBOUNCE_MILLIS} milliseconds.</p>
+ * <p>Both handlers receive the trimmed text and run in the Event Dispatch Thread; searches
+ * that query the database must be run with a {@link ViewLoader}.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class LiveSearch {
+	/**
+	 * Time without changes to the field after which a debounced search is run.
+	 */
+	public static final int DEBOUNCE_MILLIS = 200;
+
+	private final JTextComponent input;
+	private final Predicate<String> immediate;
+	private final Consumer<String> search;
+	private final Timer timer;
+
+	/**
+	 * Constructs an instance of {@link LiveSearch} and starts listening to the field.
+	 *
+	 * @param input     The search field.
+	 * @param immediate Handles the text right away if possible, returning {@code true};
+	 *                  returns {@code false} to have the text searched after the delay.
+	 * @param search    Searches the text after the delay.
+	 */
+	public LiveSearch(JTextComponent input, Predicate<String> immediate, Consumer<String> search) {
+		this.input = input;
+		this.immediate = immediate;
+		this.search = search;
+		this.timer = new Timer(DEBOUNCE_MILLIS, e -> search.accept(getText()));
+		this.timer.setRepeats(false);
+
+		input.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				changed();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				changed();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				// attribute changes only; the text is the same
+			}
+		});
+	}
+
+	/**
+	 * Runs the search right away, cancelling the pending debounced one; used when the user
+	 * explicitly asks for a search.
+	 */
+	public void flush() {
+		timer.stop();
+		search.accept(getText());
+	}
+
+	/**
+	 * Cancels the pending debounced search, if any.
+	 */
+	public void cancel() {
+		timer.stop();
+	}
+
+	private void changed() {
+		if (immediate.test(getText())) {
+			timer.stop();
+			return;
+		}
+
+		timer.restart();
+	}
+
+	private String getText() {
+		return input.getText().trim();
+	}
+}
@@ -0,0 +1,189 @@
+package views.workers;
+
+import javax.swing.JInternalFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
+import java.awt.Cursor;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * <p>Loads the data shown by a frame outside the Event Dispatch Thread, so that database
+ * latency never freezes the interface.</p>
+ * <p>A load is either a query run by the loader itself or a {@link CompletableFuture} returned
+ * by an asynchronous controller; several futures can be loaded together.</p>
+ * <p>Each frame owns one loader, and each loader runs at most one load at a time: starting a
+ * new load cancels the previous one, whose result is discarded, and so does closing the frame.
+ * While a load runs, the frame shows the wait cursor. Results and errors are always delivered
+ * on the Event Dispatch Thread, where the frame may update its components and models.</p>
+ * <p>All methods must be called from the Event Dispatch Thread.</p>
+ *
+ * @author Lucas da Paz
+ */
+public class ViewLoader {
+	private final JInternalFrame frame;
+	private Future<?> current;
+
+	/**
+	 * Constructs an instance of {@link ViewLoader} for the frame passed as an argument;
+	 * loads still running when the frame is closed are cancelled.
+	 *
+	 * @param frame The frame whose data is loaded.
+	 */
+	public ViewLoader(JInternalFrame frame) {
+		this.frame = frame;
+		frame.addInternalFrameListener(new InternalFrameAdapter() {
+			@Override
+			public void internalFrameClosed(InternalFrameEvent e) {
+				cancel();
+			}
+		});
+	}
+
+	/**
+	 * Runs the query in the background, cancelling the current load, if any.
+	 *
+	 * @param query    The query to run; called in a background thread.
+	 * @param onLoaded Receives the result of the query in the Event Dispatch Thread.
+	 * @param onError  Receives, in the Event Dispatch Thread, the exception thrown by the
+	 *                 query or by {@code onLoaded}.
+	 * @param <R>      Type of the result.
+	 */
+	public <R> void load(Callable<R> query, Consumer<? super R> onLoaded, Consumer<? super Exception> onError) {
+		cancel();
+		frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+		SwingWorker<R, Void> worker = new SwingWorker<>() {
+			@Override
+			protected R doInBackground() throws Exception {
+				return query.call();
+			}
+
+			@Override
+			protected void done() {
+				// cancelled or superseded by a newer load
+				if (current != this) return;
+
+				current = null;
+				frame.setCursor(Cursor.getDefaultCursor());
+
+				try {
+					onLoaded.accept(get());
+				} catch (ExecutionException e) {
+					onError.accept(unwrap(e));
+				} catch (InterruptedException | RuntimeException e) {
+					onError.accept(e);
+				}
+			}
+		};
+
+		current = worker;
+		worker.execute();
+	}
+
+	/**
+	 * Waits for the future passed as an argument, cancelling the current load, if any.
+	 *
+	 * @param future   The future returned by an asynchronous controller; cancelled if the load
+	 *                 is cancelled.
+	 * @param onLoaded Receives the result of the future in the Event Dispatch Thread.
+	 * @param onError  Receives, in the Event Dispatch Thread, the exception the future
+	 *                 completed with or the one thrown by {@code onLoaded}.
+	 * @param <R>      Type of the result.
+	 */
+	public <R> void load(CompletableFuture<R> future, Consumer<? super R> onLoaded, Consumer<? super Exception> onError) {
+		cancel();
+		frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+		current = future;
+
+		future.whenComplete((result, e) -> SwingUtilities.invokeLater(() -> {
+			// cancelled or superseded by a newer load
+			if (current != future) return;
+
+			current = null;
+			frame.setCursor(Cursor.getDefaultCursor());
+
+			if (e != null) {
+				onError.accept(unwrap(e));
+				return;
+			}
+
+			try {
+				onLoaded.accept(result);
+			} catch (RuntimeException ex) {
+				onError.accept(ex);
+			}
+		}));
+	}
+
+	/**
+	 * Waits for both futures, which run concurrently, cancelling the current load, if any; used
+	 * to load an entity together with its related data. If either future fails, the other one
+	 * is cancelled, and so are both if the load is cancelled.
+	 *
+	 * @param first    The first future.
+	 * @param second   The second future.
+	 * @param onLoaded Receives the results of both futures in the Event Dispatch Thread.
+	 * @param onError  Receives, in the Event Dispatch Thread, the first exception the futures
+	 *                 completed with or the one thrown by {@code onLoaded}.
+	 * @param <A>      Type of the result of the first future.
+	 * @param <B>      Type of the result of the second future.
+	 */
+	public <A, B> void load(CompletableFuture<A> first, CompletableFuture<B> second,
+													BiConsumer<? super A, ? super B> onLoaded, Consumer<? super Exception> onError) {
+		first.whenComplete((result, e) -> {
+			if (e != null) second.cancel(true);
+		});
+		second.whenComplete((result, e) -> {
+			if (e != null) first.cancel(true);
+		});
+
+		CompletableFuture<Results<A, B>> both = first.thenCombine(second, Results::new);
+		both.whenComplete((results, e) -> {
+			if (e instanceof CancellationException) {
+				first.cancel(true);
+				second.cancel(true);
+			}
+		});
+
+		load(both, results -> onLoaded.accept(results.first(), results.second()), onError);
+	}
+
+	/**
+	 * Cancels the current load, if any; its result is discarded.
+	 */
+	public void cancel() {
+		if (current == null) return;
+
+		current.cancel(true);
+		current = null;
+		frame.setCursor(Cursor.getDefaultCursor());
+	}
+
+	/**
+	 * @return {@code true} if a load is running.
+	 */
+	public boolean isLoading() {
+		return current != null;
+	}
+
+	private static Exception unwrap(Throwable e) {
+		Throwable cause = e;
+		while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+
+		return cause instanceof Exception exception ? exception : new RuntimeException(cause);
+	}
+
+	private record Results<A, B>(A first, B second) {
+	}
+}
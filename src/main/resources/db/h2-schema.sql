@@ -0,0 +1,79 @@
+-- Schema of src/db/db.sql for the embedded H2 database, in MySQL mode; run by
+-- services.dialect.H2Dialect on the first connection, so every statement must be idempotent.
+-- H2 has no FULLTEXT indexes, and its triggers are written in Java: the `books_owned`
+-- counters are maintained by services.dialect.H2CounterTrigger.
+CREATE TABLE IF NOT EXISTS `publisher` (
+	`id` INT PRIMARY KEY AUTO_INCREMENT,
+	`name` VARCHAR(50) NOT NULL,
+	`books_owned` INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS `genre` (
+	`id` INT PRIMARY KEY AUTO_INCREMENT,
+	`name` VARCHAR(50) NOT NULL,
+	`books_owned` INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS `author` (
+	`id` INT PRIMARY KEY AUTO_INCREMENT,
+	`name` VARCHAR(50) NOT NULL,
+	`nationality` VARCHAR(50) NOT NULL,
+	`books_owned` INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS `book` (
+	`id` INT PRIMARY KEY AUTO_INCREMENT,
+	`title` VARCHAR(75) NOT NULL,
+	`isbn_10` VARCHAR(10),
+	`isbn_13` VARCHAR(13) NOT NULL,
+	`pages` INT NOT NULL,
+	`read` BOOLEAN NOT NULL DEFAULT FALSE,
+	`format` ENUM ('Hardcover', 'Paperback', 'Ebook', 'Box') NOT NULL,
+	`author_id` INT NOT NULL,
+	`publisher_id` INT NOT NULL,
+	`purchase_date` DATE,
+	`price` DECIMAL(5, 2) NOT NULL,
+	`review` TEXT,
+	CONSTRAINT fk_author_code FOREIGN KEY (`author_id`)
+		REFERENCES `author` (`id`),
+	CONSTRAINT fk_publisher_code FOREIGN KEY (`publisher_id`)
+		REFERENCES `publisher` (`id`)
+);
+
+CREATE TABLE IF NOT EXISTS `book_genre` (
+	`book_id` INT,
+	`genre_id` INT,
+	PRIMARY KEY (`book_id`, `genre_id`),
+	CONSTRAINT fk_book_code FOREIGN KEY (`book_id`)
+		REFERENCES `book` (`id`) ON DELETE CASCADE,
+	CONSTRAINT fk_genre_code FOREIGN KEY (`genre_id`)
+		REFERENCES `genre` (`id`)
+);
+
+CREATE TABLE IF NOT EXISTS `change_log` (
+	`seq` BIGINT PRIMARY KEY AUTO_INCREMENT,
+	`entity` ENUM ('author', 'publisher', 'genre', 'book') NOT NULL,
+	`entity_id` INT NOT NULL,
+	`op` ENUM ('insert', 'update', 'delete') NOT NULL,
+	`origin` CHAR(36) NOT NULL,
+	`changed_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS `idx_book_title` ON `book` (`title`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_book_pages` ON `book` (`pages`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_book_read` ON `book` (`read`, `id`);
+-- H2 has no functional indexes, so pages by format, ordered by CAST(`format` AS INT), are sorted
+CREATE INDEX IF NOT EXISTS `idx_book_author` ON `book` (`author_id`, `id`);
+CREATE INDEX IF NOT EXISTS `idx_book_publisher` ON `book` (`publisher_id`, `id`);
+
+CREATE INDEX IF NOT EXISTS `idx_change_log_changed_at` ON `change_log` (`changed_at`);
+
+-- the links to genres are deleted by the trigger before the book, so the genres are counted
+CREATE TRIGGER IF NOT EXISTS `book_after_write` AFTER INSERT, UPDATE ON `book`
+	FOR EACH ROW CALL 'services.dialect.H2CounterTrigger';
+
+CREATE TRIGGER IF NOT EXISTS `book_before_delete` BEFORE DELETE ON `book`
+	FOR EACH ROW CALL 'services.dialect.H2CounterTrigger';
+
+CREATE TRIGGER IF NOT EXISTS `book_genre_after_write` AFTER INSERT, UPDATE, DELETE ON `book_genre`
+	FOR EACH ROW CALL 'services.dialect.H2CounterTrigger';
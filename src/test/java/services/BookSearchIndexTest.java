@@ -0,0 +1,130 @@
+package services;
+
+import factory.ConnectionFactory;
+import factory.ServicesFactory;
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Genre;
+import models.Publisher;
+import models.dto.BookDto;
+import models.filters.BookFilter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static utils.Isbn.convertToIsbn13;
+
+/**
+ * Checks that the {@link BookSearchIndex} answers the substring filters with the same books as
+ * the {@code LIKE} queries of {@link BookServices}, on an embedded H2 database.
+ */
+class BookSearchIndexTest {
+	private static final String[] INPUTS = {
+		"", "a", "ac", "acao", "AÇÃO", "coração", "memorias", "póstumas", "_", "a_b", "%", "50%", "!", "saramago",
+		"JOSÉ", "lispector", "978", "85359", "8535914846", "9788535914849", "x", "nada disso"
+	};
+
+	private static ConnectionFactory connectionFactory;
+	private static BookServices bookServices;
+	private static Genre genre;
+	private static Author clarice;
+	private static Author saramago;
+	private static Publisher publisher;
+
+	@BeforeAll
+	static void setUp() {
+		Properties properties = new Properties();
+		properties.setProperty("db.url", "jdbc:h2:mem:book-search-index;DB_CLOSE_DELAY=-1");
+		connectionFactory = new ConnectionFactory(properties);
+
+		ServicesFactory servicesFactory = new ServicesFactory(connectionFactory);
+		bookServices = servicesFactory.createBookServices();
+		genre = servicesFactory.createGenreServices().create(new Genre(0, "Romance"));
+		clarice = servicesFactory.createAuthorServices().create(new Author(0, "Clarice Lispector", "Brasil", 0));
+		saramago = servicesFactory.createAuthorServices().create(new Author(0, "José Saramago", "Portugal", 0));
+		publisher = servicesFactory.createPublisherServices().create(new Publisher(0, "Companhia das Letras"));
+	}
+
+	@AfterAll
+	static void tearDown() {
+		connectionFactory.close();
+	}
+
+	@Test
+	void searchesFindTheSameBooksAsTheDatabase() {
+		List<Book> created = createBooks();
+		BookSearchIndex index = new BookSearchIndex();
+		index.build(bookServices::getAll);
+
+		assertSameResults(index);
+
+		// replaced texts are no longer found, and deleted books are not found at all
+		Book renamed = rename(created.get(0), "Água Viva");
+		index.put(renamed);
+		bookServices.delete(created.get(1).getId());
+		index.remove(created.get(1).getId());
+
+		assertSameResults(index);
+		assertEquals(Set.of(renamed.getId()), ids(index.search("agua", BookFilter.TITLE)));
+		assertTrue(index.search("memorias", BookFilter.TITLE).stream().noneMatch(b -> b.getId() == created.get(1).getId()));
+	}
+
+	private static List<Book> createBooks() {
+		List<Book> created = new ArrayList<>();
+		created.add(create("Ação e Reação", "8535914846", clarice));
+		created.add(create("Memórias Póstumas", null, saramago));
+		created.add(create("Coração Delator", "0306406152", clarice));
+		created.add(create("50% de desconto", null, saramago));
+		created.add(create("a_b", "0131103628", clarice));
+		created.add(create("axb", null, saramago));
+		created.add(create("Exclamação!", "0201633612", saramago));
+		return created;
+	}
+
+	private static Book create(String title, String isbn10, Author author) {
+		String isbn13 = isbn10 != null ? convertToIsbn13(isbn10) : "9780000000002";
+		Book book = new Book(0, title, isbn13, 100, false, Format.PAPERBACK, author, publisher, 10f);
+		if (isbn10 != null) book.setIsbn10(isbn10);
+		book.addGenre(genre);
+
+		return bookServices.create(book);
+	}
+
+	private static Book rename(Book book, String title) {
+		BookDto data = new BookDto(title, book.getIsbn10(), book.getIsbn13(), book.getPages(), book.isRead(),
+			book.getFormat(), book.getAuthor(), book.getPublisher(), book.getPurchaseDate(), book.getPrice());
+
+		return bookServices.update(new Book(book.getId(), data, Set.of(genre)));
+	}
+
+	private static void assertSameResults(BookSearchIndex index) {
+		for (BookFilter filter : List.of(BookFilter.TITLE, BookFilter.AUTHOR, BookFilter.ISBN)) {
+			for (String input : INPUTS) {
+				assertEquals(ids(query(input, filter)), ids(index.search(input, filter)), "%s: '%s'".formatted(filter, input));
+			}
+		}
+	}
+
+	private static Set<Book> query(String input, BookFilter filter) {
+		return switch (filter) {
+			case TITLE -> bookServices.filterByTitle(input);
+			case AUTHOR -> bookServices.filterByAuthor(input);
+			case ISBN -> bookServices.filterByIsbn(input);
+			default -> throw new IllegalArgumentException(filter.name());
+		};
+	}
+
+	private static Set<Integer> ids(Set<Book> books) {
+		return books.stream().map(Book::getId).collect(Collectors.toCollection(TreeSet::new));
+	}
+}
@@ -0,0 +1,158 @@
+package views.tables;
+
+import models.Author;
+import models.Book;
+import models.Format;
+import models.Publisher;
+import models.filters.BookSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the row events fired by {@link BookTableModel#update} in the list mode.
+ */
+class BookTableModelTest {
+	private static final Author AUTHOR = new Author(1, "Autor", "Brasil", 0);
+	private static final Publisher PUBLISHER = new Publisher(1, "Editora");
+
+	private BookTableModel model;
+	private List<Event> events;
+	// the rows as a table that only saw the events would show them
+	private List<Book> shown;
+
+	@BeforeEach
+	void setUp() {
+		model = new BookTableModel(null, BookSort.ID, BookSort.TITLE, BookSort.PAGES);
+		events = new ArrayList<>();
+		shown = new ArrayList<>();
+	}
+
+	@Test
+	void contiguousInsertedRowsAreOneEvent() {
+		show(book(1, "a"), book(4, "d"));
+
+		model.update(List.of(book(1, "a"), book(2, "b"), book(3, "c"), book(4, "d")));
+
+		assertEquals(List.of(new Event(TableModelEvent.INSERT, 1, 2)), events);
+		assertShown("a", "b", "c", "d");
+	}
+
+	@Test
+	void contiguousDeletedRowsAreOneEvent() {
+		show(book(1, "a"), book(2, "b"), book(3, "c"), book(4, "d"), book(5, "e"));
+
+		model.update(List.of(book(1, "a"), book(5, "e")));
+
+		assertEquals(List.of(new Event(TableModelEvent.DELETE, 1, 3)), events);
+		assertShown("a", "e");
+	}
+
+	@Test
+	void deletedRowsAreShiftedByThePreviousDeletes() {
+		show(book(1, "a"), book(2, "b"), book(3, "c"), book(4, "d"), book(5, "e"), book(6, "f"));
+
+		model.update(List.of(book(1, "a"), book(4, "d")));
+
+		// b and c are deleted first, so e and f are then at rows 2 and 3
+		assertEquals(List.of(new Event(TableModelEvent.DELETE, 1, 2), new Event(TableModelEvent.DELETE, 2, 3)), events);
+		assertShown("a", "d");
+	}
+
+	@Test
+	void contiguousChangedRowsAreOneEvent() {
+		show(book(1, "a"), book(2, "b"), book(3, "c"), book(4, "d"));
+
+		model.update(List.of(book(1, "a"), book(2, "b", 20), book(3, "c", 30), book(4, "d")));
+
+		assertEquals(List.of(new Event(TableModelEvent.UPDATE, 1, 2)), events);
+		assertEquals(20, model.getValueAt(1, 2));
+		assertEquals(30, model.getValueAt(2, 2));
+	}
+
+	@Test
+	void insertsDeletesAndChangesTogether() {
+		show(book(1, "a"), book(2, "b"), book(3, "c"), book(5, "e"), book(6, "f"));
+
+		model.update(List.of(book(0, "0"), book(2, "b", 20), book(4, "d"), book(6, "f"), book(7, "g")));
+
+		assertShown("0", "b", "d", "f", "g");
+		assertEquals(20, model.getValueAt(1, 2));
+	}
+
+	@Test
+	void rowsWithTheSameValuesAreReplacedWithoutEvents() {
+		show(book(1, "a"));
+		Book repriced = new Book(1, "a", "9780000000001", 100, false, Format.EBOOK, AUTHOR, PUBLISHER, 99f);
+
+		model.update(List.of(repriced));
+
+		assertEquals(List.of(), events);
+		assertSame(repriced, model.getBookAt(0));
+	}
+
+	@Test
+	void tooManyEventsAreOneTableChange() {
+		int count = 2 * (BookTableModel.MAX_UPDATE_EVENTS + 1);
+		show(IntStream.range(0, count).mapToObj(i -> book(i, "%03d".formatted(i))).toArray(Book[]::new));
+
+		// every other row deleted, each one a separate run
+		List<Book> kept = IntStream.range(0, count).filter(i -> i % 2 == 0).mapToObj(i -> book(i, "%03d".formatted(i))).toList();
+		model.update(kept);
+
+		assertEquals(List.of(new Event(TableModelEvent.UPDATE, 0, Integer.MAX_VALUE)), events);
+		assertEquals(kept.size(), model.getRowCount());
+		assertShown(kept.stream().map(Book::getTitle).toArray(String[]::new));
+	}
+
+	private void show(Book... books) {
+		model.showList(List.of(books), false);
+		for (int i = 0; i < model.getRowCount(); i++) shown.add(model.getBookAt(i));
+
+		model.addTableModelListener(e -> {
+			events.add(new Event(e.getType(), e.getFirstRow(), e.getLastRow()));
+
+			switch (e.getType()) {
+				case TableModelEvent.INSERT -> {
+					for (int i = e.getFirstRow(); i <= e.getLastRow(); i++) shown.add(i, model.getBookAt(i));
+				}
+				case TableModelEvent.DELETE -> shown.subList(e.getFirstRow(), e.getLastRow() + 1).clear();
+				default -> {
+					int last = Math.min(e.getLastRow(), model.getRowCount() - 1);
+					if (e.getLastRow() == Integer.MAX_VALUE) shown.clear();
+
+					for (int i = e.getFirstRow(); i <= last; i++) {
+						if (i < shown.size()) shown.set(i, model.getBookAt(i));
+						else shown.add(model.getBookAt(i));
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Checks both the rows of the model and the rows of a table that only saw its events.
+	 */
+	private void assertShown(String... titles) {
+		assertEquals(List.of(titles), IntStream.range(0, model.getRowCount()).mapToObj(i -> model.getBookAt(i).getTitle()).toList());
+		assertEquals(List.of(titles), shown.stream().map(Book::getTitle).toList());
+	}
+
+	private static Book book(int id, String title) {
+		return book(id, title, 100);
+	}
+
+	private static Book book(int id, String title, int pages) {
+		return new Book(id, title, "9780000000001", pages, false, Format.EBOOK, AUTHOR, PUBLISHER, 10f);
+	}
+
+	private record Event(int type, int firstRow, int lastRow) {
+	}
+}